@@ -1,8 +1,10 @@
 package com.springboot_sa_ha1.exception;
 
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -49,6 +51,44 @@ public class GlobalExceptionHandler {
         );
     }
 
+    // If-Match no coincide con la versión actual del recurso
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<?> handlePreconditionFailed(PreconditionFailedException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(
+                Map.of(
+                        "timestamp", LocalDateTime.now(),
+                        "error", "Precondition Failed",
+                        "message", ex.getMessage()
+                )
+        );
+    }
+
+    // Otra edición se confirmó entre la lectura y la escritura (@Version)
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<?> handleOptimisticLock(ObjectOptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(
+                Map.of(
+                        "timestamp", LocalDateTime.now(),
+                        "error", "Conflict",
+                        "message", "El recurso fue modificado por otra petición; vuelva a leerlo"
+                )
+        );
+    }
+
+    // Un índice en memoria todavía se está construyendo: el cliente puede reintentar
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<?> handleServiceUnavailable(ServiceUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(
+                        Map.of(
+                                "timestamp", LocalDateTime.now(),
+                                "error", "Service Unavailable",
+                                "message", ex.getMessage()
+                        )
+                );
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> handleGeneral(Exception ex) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(
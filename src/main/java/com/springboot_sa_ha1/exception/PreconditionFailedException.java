@@ -0,0 +1,7 @@
+package com.springboot_sa_ha1.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
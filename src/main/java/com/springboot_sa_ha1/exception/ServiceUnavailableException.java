@@ -0,0 +1,7 @@
+package com.springboot_sa_ha1.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,123 @@
+package com.springboot_sa_ha1.modules.cart.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.springboot_sa_ha1.modules.customers.event.CustomerDeletedEvent;
+import com.springboot_sa_ha1.modules.products.event.ProductDeletedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+// Cantidad de items del carrito por cliente, para el badge de la cabecera (GET /api/cart/count).
+// Se lee de la base una vez por cliente; después la mantienen las mutaciones con el cambio que hicieron,
+// aplicado al confirmarse su transacción. Un contador sólo se vuelve a leer si se invalida (una mutación
+// que no sabe cuánto cambió, borrados en cascada) o si sale por tamaño: los clientes que no vuelven
+// salen solos. Es por instancia: con varias instancias, expire-after-write (apagado por defecto) pone un
+// tope de tiempo para ver las escrituras de las demás, a costa de volver a la base cada tanto.
+@Component
+public class CartCountCache {
+
+    private final Cache<Long, Counter> counters;
+
+    // Cantidad conocida, -1 = hay que leerla. writers y generation sirven para descartar una lectura
+    // de la base que se cruzó con una mutación (podría no incluir su cambio o incluirlo dos veces)
+    private static final class Counter {
+        long count = -1;
+        int writers;
+        long generation;
+    }
+
+    public CartCountCache(
+            @Value("${cart.count-cache.maximum-size:100000}") long maximumSize,
+            @Value("${cart.count-cache.expire-after-write:0s}") Duration expireAfterWrite
+    ) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().maximumSize(maximumSize);
+        if (expireAfterWrite.isPositive()) {
+            builder.expireAfterWrite(expireAfterWrite);
+        }
+        this.counters = builder.build();
+    }
+
+    public long get(Long customerId, LongSupplier loader) {
+        Counter counter = counter(customerId);
+        long generation;
+        boolean writing;
+        synchronized (counter) {
+            if (counter.count >= 0) return counter.count;
+            generation = counter.generation;
+            writing = counter.writers > 0;
+        }
+        long count = loader.getAsLong();
+        synchronized (counter) {
+            if (!writing && counter.generation == generation && counter.count < 0) {
+                counter.count = count;
+            }
+        }
+        return count;
+    }
+
+    // Llamar dentro de la transacción de la mutación, después de escribir: delta items agregados
+    // (negativo si se quitaron). Sin transacción activa se aplica de inmediato
+    public void changed(Long customerId, long delta) {
+        record(customerId, delta, false);
+    }
+
+    // La mutación no sabe cuánto cambió: se vuelve a leer la próxima vez
+    public void invalidate(Long customerId) {
+        record(customerId, 0, true);
+    }
+
+    // Borrar un producto borra en cascada sus líneas en todos los carritos (ON DELETE CASCADE):
+    // no se sabe a qué clientes afectó, así que se olvidan todos los contadores
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductDeleted(ProductDeletedEvent event) {
+        counters.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerDeleted(CustomerDeletedEvent event) {
+        counters.invalidate(event.customerId());
+    }
+
+    // Un contador que vence o se descarta mientras una mutación lo usa sólo se pierde: la próxima
+    // lectura crea uno nuevo y va a la base
+    private Counter counter(Long customerId) {
+        return counters.get(customerId, id -> new Counter());
+    }
+
+    private void record(Long customerId, long delta, boolean reload) {
+        Counter counter = counter(customerId);
+        synchronized (counter) {
+            counter.writers++;
+            counter.generation++;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            finish(counter, delta, reload);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                // Revertida no cambió nada; estado desconocido obliga a releer
+                finish(counter, status == STATUS_COMMITTED ? delta : 0, reload || status == STATUS_UNKNOWN);
+            }
+        });
+    }
+
+    private void finish(Counter counter, long delta, boolean reload) {
+        synchronized (counter) {
+            counter.writers--;
+            counter.generation++;
+            if (reload) {
+                counter.count = -1;
+            } else if (counter.count >= 0) {
+                counter.count = Math.max(0, counter.count + delta);
+            }
+        }
+    }
+}
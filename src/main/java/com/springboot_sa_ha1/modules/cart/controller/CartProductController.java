@@ -1,14 +1,15 @@
 package com.springboot_sa_ha1.modules.cart.controller;
 
+import com.springboot_sa_ha1.modules.cart.dto.CartBatchRequest;
 import com.springboot_sa_ha1.modules.cart.dto.CartProductRequest;
 import com.springboot_sa_ha1.modules.cart.dto.CartProductResponse;
+import com.springboot_sa_ha1.modules.cart.dto.CartSummaryResponse;
 import com.springboot_sa_ha1.modules.cart.service.CartProductService;
-import com.springboot_sa_ha1.modules.customers.repository.CustomerRepository;
+import com.springboot_sa_ha1.security.model.MainCustomer;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -19,13 +20,12 @@ import java.util.List;
 public class CartProductController {
 
     private final CartProductService cartProductService;
-    private final CustomerRepository customerRepository; // ← Importante
 
     // Obtener carrito del usuario autenticado
     @GetMapping
     public ResponseEntity<List<CartProductResponse>> getCart(
-            @AuthenticationPrincipal UserDetails userDetails) {
-        Long customerId = getCustomerIdFromUserDetails(userDetails);
+            @AuthenticationPrincipal MainCustomer principal) {
+        Long customerId = getCustomerId(principal);
         List<CartProductResponse> cart = cartProductService.getCartByCustomerId(customerId);
         return ResponseEntity.ok(cart);
     }
@@ -33,9 +33,9 @@ public class CartProductController {
     // Agregar producto al carrito
     @PostMapping("/add")
     public ResponseEntity<CartProductResponse> addToCart(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal MainCustomer principal,
             @Valid @RequestBody CartProductRequest request) {
-        Long customerId = getCustomerIdFromUserDetails(userDetails);
+        Long customerId = getCustomerId(principal);
         CartProductResponse response = cartProductService.addToCart(customerId, request);
         return ResponseEntity.ok(response);
     }
@@ -58,32 +58,43 @@ public class CartProductController {
 
     // Vaciar carrito
     @DeleteMapping("/clear")
-    public ResponseEntity<Void> clearCart(@AuthenticationPrincipal UserDetails userDetails) {
-        Long customerId = getCustomerIdFromUserDetails(userDetails);
+    public ResponseEntity<Void> clearCart(@AuthenticationPrincipal MainCustomer principal) {
+        Long customerId = getCustomerId(principal);
         cartProductService.clearCart(customerId);
         return ResponseEntity.noContent().build();
     }
 
+    // Aplicar varias operaciones (agregar / fijar cantidad / quitar) y devolver el carrito,
+    // p. ej. al sincronizar el carrito completo después del login
+    @PostMapping("/batch")
+    public ResponseEntity<List<CartProductResponse>> applyBatch(
+            @AuthenticationPrincipal MainCustomer principal,
+            @Valid @RequestBody CartBatchRequest request) {
+        Long customerId = getCustomerId(principal);
+        List<CartProductResponse> cart = cartProductService.applyBatch(customerId, request.operations());
+        return ResponseEntity.ok(cart);
+    }
+
     // Obtener conteo de items
     @GetMapping("/count")
-    public ResponseEntity<Long> getCartCount(@AuthenticationPrincipal UserDetails userDetails) {
-        Long customerId = getCustomerIdFromUserDetails(userDetails);
+    public ResponseEntity<Long> getCartCount(@AuthenticationPrincipal MainCustomer principal) {
+        Long customerId = getCustomerId(principal);
         Long count = cartProductService.getCartCount(customerId);
         return ResponseEntity.ok(count);
     }
 
-    // Método auxiliar para obtener customerId del usuario autenticado
-    private Long getCustomerIdFromUserDetails(UserDetails userDetails) {
-        if (userDetails == null) {
+    // Totales del carrito (items, unidades, precio) sin cargar cada producto
+    @GetMapping("/summary")
+    public ResponseEntity<CartSummaryResponse> getCartSummary(@AuthenticationPrincipal MainCustomer principal) {
+        Long customerId = getCustomerId(principal);
+        return ResponseEntity.ok(cartProductService.getCartSummary(customerId));
+    }
+
+    // El filtro JWT ya cargó al cliente: el id sale del principal, sin otra consulta
+    private Long getCustomerId(MainCustomer principal) {
+        if (principal == null) {
             throw new RuntimeException("Usuario no autenticado");
         }
-
-        // El username en UserDetails es el email (según tu JwtService)
-        String email = userDetails.getUsername();
-
-        // Buscar customer por email
-        return customerRepository.findByEmailIgnoreCase(email)
-                .map(customer -> customer.getId())
-                .orElseThrow(() -> new RuntimeException("Cliente no encontrado para email: " + email));
+        return principal.getId();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,14 @@
+package com.springboot_sa_ha1.modules.cart.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+// Operaciones sobre el carrito, aplicadas en el orden en que vienen
+public record CartBatchRequest(
+        @NotEmpty(message = "Debe indicar al menos una operación")
+        @Size(max = 200, message = "Máximo 200 operaciones por petición")
+        List<@Valid CartOperation> operations
+) {}
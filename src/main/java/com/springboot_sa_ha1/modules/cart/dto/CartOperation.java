@@ -0,0 +1,20 @@
+package com.springboot_sa_ha1.modules.cart.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+
+public record CartOperation(
+        @NotNull(message = "El tipo de operación es obligatorio")
+        CartOperationType op,
+
+        @NotNull(message = "El ID del producto es obligatorio")
+        Long productId,
+
+        Integer quantity
+) {
+
+    @AssertTrue(message = "La cantidad debe ser al menos 1")
+    public boolean isQuantityValid() {
+        return op == CartOperationType.REMOVE || (quantity != null && quantity >= 1);
+    }
+}
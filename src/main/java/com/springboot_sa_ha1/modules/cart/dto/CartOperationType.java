@@ -0,0 +1,7 @@
+package com.springboot_sa_ha1.modules.cart.dto;
+
+public enum CartOperationType {
+    ADD,     // sumar quantity a lo que haya
+    SET,     // dejar la cantidad en quantity
+    REMOVE   // quitar el producto del carrito
+}
@@ -0,0 +1,17 @@
+package com.springboot_sa_ha1.modules.cart.dto;
+
+import java.time.LocalDateTime;
+
+// Fila de cart_products devuelta por el upsert (sin entidades); created = la fila se insertó en esta llamada
+public record CartProductRow(
+        Long id,
+        Integer quantity,
+        LocalDateTime addedAt,
+        LocalDateTime updatedAt,
+        boolean created
+) {
+
+    public CartProductRow asCreated() {
+        return new CartProductRow(id, quantity, addedAt, updatedAt, true);
+    }
+}
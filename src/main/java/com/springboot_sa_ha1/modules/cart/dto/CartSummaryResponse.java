@@ -0,0 +1,8 @@
+package com.springboot_sa_ha1.modules.cart.dto;
+
+// Totales del carrito: items distintos, unidades y precio total (precio actual de cada producto)
+public record CartSummaryResponse(
+        Long items,
+        Long units,
+        Long total
+) {}
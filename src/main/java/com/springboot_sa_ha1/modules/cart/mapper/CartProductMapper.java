@@ -1,6 +1,9 @@
 package com.springboot_sa_ha1.modules.cart.mapper;
 
 import com.springboot_sa_ha1.modules.cart.dto.CartProductResponse;
+import com.springboot_sa_ha1.modules.cart.dto.CartProductRow;
+import com.springboot_sa_ha1.modules.cart.store.CartLine;
+import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
 import com.springboot_sa_ha1.modules.cart.model.CartProduct;
 import com.springboot_sa_ha1.modules.products.model.Product;
 import com.springboot_sa_ha1.modules.productimages.model.ProductImage;
@@ -33,4 +36,25 @@ public class CartProductMapper {
                 cartProduct.getUpdatedAt()
         );
     }
-}
\ No newline at end of file
+
+    // Desde la fila del upsert y el producto ya leído (caché / modelo de lectura), sin entidades
+    public CartProductResponse toResponse(CartProductRow row, ProductResponse product) {
+        String firstImage = product.imageUrls().isEmpty() ? null : product.imageUrls().get(0);
+
+        return new CartProductResponse(
+                row.id(),
+                product.id(),
+                product.name(),
+                firstImage,
+                product.price(),
+                row.quantity(),
+                row.addedAt(),
+                row.updatedAt()
+        );
+    }
+
+    // Desde una línea del carrito en memoria
+    public CartProductResponse toResponse(CartLine line, ProductResponse product) {
+        return toResponse(new CartProductRow(line.rowId(), line.quantity(), line.addedAt(), line.updatedAt(), false), product);
+    }
+}
@@ -22,8 +22,10 @@ public class CartProduct {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Mismo nombre que en schema.sql: CartProductUpsertRepository.isMissingCustomer lo reconoce
     @ManyToOne(optional = false)
-    @JoinColumn(name = "customer_id", nullable = false)
+    @JoinColumn(name = "customer_id", nullable = false,
+            foreignKey = @ForeignKey(name = "fk_cart_products_customer"))
     private Customer customer;
 
     @ManyToOne(optional = false)
@@ -1,6 +1,8 @@
 package com.springboot_sa_ha1.modules.cart.repository;
 
+import com.springboot_sa_ha1.modules.cart.dto.CartSummaryResponse;
 import com.springboot_sa_ha1.modules.cart.model.CartProduct;
+import com.springboot_sa_ha1.modules.cart.store.CartLine;
 import com.springboot_sa_ha1.modules.customers.model.Customer;
 import com.springboot_sa_ha1.modules.products.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -21,14 +23,42 @@ public interface CartProductRepository extends JpaRepository<CartProduct, Long>
     // Obtener un item específico del carrito
     Optional<CartProduct> findByCustomerIdAndProductId(Long customerId, Long productId);
 
-    // Eliminar todos los items del carrito de un cliente
+    // Eliminar todos los items del carrito de un cliente; devuelve cuántos había
     @Modifying
     @Query("DELETE FROM CartProduct cp WHERE cp.customer.id = :customerId")
-    void deleteAllByCustomerId(@Param("customerId") Long customerId);
+    int deleteAllByCustomerId(@Param("customerId") Long customerId);
+
+    // Eliminar un item; devuelve 0 si ya no existía
+    @Modifying
+    @Query("DELETE FROM CartProduct cp WHERE cp.id = :id")
+    int deleteItemById(@Param("id") Long id);
+
+    // Totales del carrito en una sola consulta agregada, sin cargar productos ni imágenes
+    @Query("""
+            SELECT new com.springboot_sa_ha1.modules.cart.dto.CartSummaryResponse(
+                COUNT(cp), COALESCE(SUM(cp.quantity), 0L), COALESCE(SUM(cp.quantity * p.price), 0L))
+            FROM CartProduct cp JOIN cp.product p
+            WHERE cp.customer.id = :customerId
+            """)
+    CartSummaryResponse summarizeByCustomerId(@Param("customerId") Long customerId);
 
     // Contar items en el carrito de un cliente
     Long countByCustomerId(Long customerId);
 
     // Verificar si un producto ya está en el carrito
     boolean existsByCustomerAndProduct(Customer customer, Product product);
+
+    // Carrito de un cliente como líneas, sin cargar entidades (escritura diferida)
+    @Query("""
+            SELECT new com.springboot_sa_ha1.modules.cart.store.CartLine(
+                cp.id, cp.customer.id, cp.product.id, cp.quantity, cp.addedAt, cp.updatedAt, 0L)
+            FROM CartProduct cp
+            WHERE cp.customer.id = :customerId
+            ORDER BY cp.id
+            """)
+    List<CartLine> findLinesByCustomerId(@Param("customerId") Long customerId);
+
+    // Dueño de un item del carrito
+    @Query("SELECT cp.customer.id FROM CartProduct cp WHERE cp.id = :id")
+    Optional<Long> findCustomerIdById(@Param("id") Long id);
 }
\ No newline at end of file
@@ -0,0 +1,247 @@
+package com.springboot_sa_ha1.modules.cart.repository;
+
+import com.springboot_sa_ha1.modules.cart.dto.CartProductRow;
+import com.springboot_sa_ha1.modules.cart.store.CartLine;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Alta o suma en el carrito con una sola sentencia: dos "agregar" simultáneos del mismo producto
+// ya no chocan contra la restricción única (customer_id, product_id), la cantidad se suma en la base
+@Repository
+public class CartProductUpsertRepository {
+
+    private static final String UPSERT_POSTGRES = """
+            INSERT INTO cart_products (customer_id, product_id, quantity, added_at, updated_at)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (customer_id, product_id)
+            DO UPDATE SET quantity = cart_products.quantity + EXCLUDED.quantity, updated_at = EXCLUDED.updated_at
+            RETURNING id, quantity, added_at, updated_at, (xmax = 0) AS created
+            """;
+
+    // Otras bases (H2 en pruebas): UPDATE y, si no había fila, INSERT; si otro INSERT ganó la carrera,
+    // la clave duplicada se resuelve repitiendo el UPDATE
+    private static final String ADD_QUANTITY = """
+            UPDATE cart_products SET quantity = quantity + ?, updated_at = ?
+            WHERE customer_id = ? AND product_id = ?
+            """;
+    private static final String INSERT = """
+            INSERT INTO cart_products (customer_id, product_id, quantity, added_at, updated_at)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+    private static final String SELECT = """
+            SELECT id, quantity, added_at, updated_at FROM cart_products
+            WHERE customer_id = ? AND product_id = ?
+            """;
+    private static final int MAX_ATTEMPTS = 3;
+    // Nombre de la FK del cliente (schema.sql y CartProduct) y SQLState de violación de FK: 23503 en
+    // PostgreSQL, 23506 en H2
+    private static final String CUSTOMER_FK = "fk_cart_products_customer";
+    private static final Set<String> FK_VIOLATION_STATES = Set.of("23503", "23506");
+
+    // Lotes de altas/sumas (POST /api/cart/batch); sin RETURNING para poder ir en un batch JDBC
+    private static final String ADD_ALL_POSTGRES = """
+            INSERT INTO cart_products (customer_id, product_id, quantity, added_at, updated_at)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (customer_id, product_id)
+            DO UPDATE SET quantity = cart_products.quantity + EXCLUDED.quantity, updated_at = EXCLUDED.updated_at
+            """;
+
+    // Carrito con escritura diferida: el primer alta de un producto crea la fila (para tener su id);
+    // si ya existía se devuelve la existente sin tocarla
+    private static final String INSERT_IF_ABSENT_POSTGRES = """
+            INSERT INTO cart_products (customer_id, product_id, quantity, added_at, updated_at)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (customer_id, product_id) DO NOTHING
+            RETURNING id, quantity, added_at, updated_at
+            """;
+
+    // Volcado de lotes: cantidades absolutas por (customer_id, product_id), así que repetir
+    // un lote ya escrito (p. ej. tras caerse antes de confirmarlo en memoria) no cambia nada
+    private static final String SAVE_POSTGRES = """
+            INSERT INTO cart_products (customer_id, product_id, quantity, added_at, updated_at)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (customer_id, product_id)
+            DO UPDATE SET quantity = EXCLUDED.quantity, updated_at = EXCLUDED.updated_at
+            """;
+    private static final String SET_QUANTITY = """
+            UPDATE cart_products SET quantity = ?, updated_at = ?
+            WHERE customer_id = ? AND product_id = ?
+            """;
+    private static final String DELETE = """
+            DELETE FROM cart_products WHERE customer_id = ? AND product_id = ?
+            """;
+
+    private static final RowMapper<CartProductRow> ROW_MAPPER = (rs, rowNum) -> new CartProductRow(
+            rs.getLong("id"),
+            rs.getInt("quantity"),
+            rs.getObject("added_at", LocalDateTime.class),
+            rs.getObject("updated_at", LocalDateTime.class),
+            false
+    );
+    // En PostgreSQL xmax = 0 indica que la fila devuelta la insertó esta sentencia (no el DO UPDATE)
+    private static final RowMapper<CartProductRow> UPSERT_ROW_MAPPER = (rs, rowNum) -> {
+        CartProductRow row = ROW_MAPPER.mapRow(rs, rowNum);
+        return rs.getBoolean("created") ? row.asCreated() : row;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    public CartProductUpsertRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public CartProductRow add(Long customerId, Long productId, int quantity) {
+        LocalDateTime now = LocalDateTime.now();
+        if (isPostgres()) {
+            return jdbcTemplate.queryForObject(UPSERT_POSTGRES, UPSERT_ROW_MAPPER,
+                    customerId, productId, quantity, now, now);
+        }
+        for (int attempt = 1; ; attempt++) {
+            boolean created = false;
+            if (jdbcTemplate.update(ADD_QUANTITY, quantity, now, customerId, productId) == 0) {
+                try {
+                    jdbcTemplate.update(INSERT, customerId, productId, quantity, now, now);
+                    created = true;
+                } catch (DuplicateKeyException e) {
+                    if (attempt >= MAX_ATTEMPTS) throw e;
+                    continue;
+                }
+            }
+            CartProductRow row = jdbcTemplate.queryForObject(SELECT, ROW_MAPPER, customerId, productId);
+            return created ? row.asCreated() : row;
+        }
+    }
+
+    // Suma las cantidades (productId -> cantidad) al carrito del cliente, creando las filas que falten.
+    // Debe llamarse dentro de una transacción
+    public void addAll(Long customerId, Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) return;
+        LocalDateTime now = LocalDateTime.now();
+        List<Map.Entry<Long, Integer>> entries = List.copyOf(quantities.entrySet());
+        if (isPostgres()) {
+            jdbcTemplate.batchUpdate(ADD_ALL_POSTGRES, entries, entries.size(), (ps, entry) -> {
+                ps.setLong(1, customerId);
+                ps.setLong(2, entry.getKey());
+                ps.setInt(3, entry.getValue());
+                ps.setObject(4, now);
+                ps.setObject(5, now);
+            });
+            return;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(ADD_QUANTITY, entries, entries.size(), (ps, entry) -> {
+            ps.setInt(1, entry.getValue());
+            ps.setObject(2, now);
+            ps.setLong(3, customerId);
+            ps.setLong(4, entry.getKey());
+        });
+        List<Map.Entry<Long, Integer>> missing = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (counts[0][i] == 0) missing.add(entries.get(i));
+        }
+        jdbcTemplate.batchUpdate(INSERT, missing, missing.size(), (ps, entry) -> {
+            ps.setLong(1, customerId);
+            ps.setLong(2, entry.getKey());
+            ps.setInt(3, entry.getValue());
+            ps.setObject(4, now);
+            ps.setObject(5, now);
+        });
+    }
+
+    public CartProductRow insertIfAbsent(Long customerId, Long productId, int quantity) {
+        LocalDateTime now = LocalDateTime.now();
+        if (isPostgres()) {
+            List<CartProductRow> inserted = jdbcTemplate.query(INSERT_IF_ABSENT_POSTGRES, ROW_MAPPER,
+                    customerId, productId, quantity, now, now);
+            if (!inserted.isEmpty()) return inserted.get(0).asCreated();
+        } else {
+            try {
+                jdbcTemplate.update(INSERT, customerId, productId, quantity, now, now);
+            } catch (DuplicateKeyException e) {
+                // Ya existía: se devuelve esa fila
+            }
+        }
+        return jdbcTemplate.queryForObject(SELECT, ROW_MAPPER, customerId, productId);
+    }
+
+    // Escribe un lote de líneas del carrito en memoria; las que tienen cantidad 0 se borran.
+    // Debe llamarse dentro de una transacción para que el lote quede entero o no quede
+    public void saveAll(List<CartLine> lines) {
+        List<CartLine> live = new ArrayList<>();
+        List<CartLine> removed = new ArrayList<>();
+        for (CartLine line : lines) {
+            (line.isLive() ? live : removed).add(line);
+        }
+
+        if (isPostgres()) {
+            jdbcTemplate.batchUpdate(SAVE_POSTGRES, live, live.size(), (ps, line) -> {
+                ps.setLong(1, line.customerId());
+                ps.setLong(2, line.productId());
+                ps.setInt(3, line.quantity());
+                ps.setObject(4, line.addedAt() != null ? line.addedAt() : line.updatedAt());
+                ps.setObject(5, line.updatedAt());
+            });
+        } else {
+            int[][] counts = jdbcTemplate.batchUpdate(SET_QUANTITY, live, live.size(), (ps, line) -> {
+                ps.setInt(1, line.quantity());
+                ps.setObject(2, line.updatedAt());
+                ps.setLong(3, line.customerId());
+                ps.setLong(4, line.productId());
+            });
+            // La fila pudo no existir (borrada por fuera, o un SET de un producto nuevo): se crea
+            List<CartLine> missing = new ArrayList<>();
+            for (int i = 0; i < live.size(); i++) {
+                if (counts[0][i] == 0) missing.add(live.get(i));
+            }
+            jdbcTemplate.batchUpdate(INSERT, missing, missing.size(), (ps, line) -> {
+                ps.setLong(1, line.customerId());
+                ps.setLong(2, line.productId());
+                ps.setInt(3, line.quantity());
+                ps.setObject(4, line.addedAt() != null ? line.addedAt() : line.updatedAt());
+                ps.setObject(5, line.updatedAt());
+            });
+        }
+        jdbcTemplate.batchUpdate(DELETE, removed, removed.size(), (ps, line) -> {
+            ps.setLong(1, line.customerId());
+            ps.setLong(2, line.productId());
+        });
+    }
+
+    // Sólo la FK del cliente significa "cliente inexistente". Las demás violaciones (producto borrado
+    // en paralelo, clave duplicada que sobrevivió a los reintentos, cantidad inválida) no se traducen.
+    // El nombre de la restricción sólo es fijo si la tabla la creó schema.sql o CartProduct; en tablas que
+    // Hibernate creó antes (ddl-auto: update) se llama FK..., así que también vale el SQLState de FK
+    // junto con la columna: PostgreSQL la da en el detalle ("Key (customer_id)=(..)"), H2 en la
+    // definición ("FOREIGN KEY(CUSTOMER_ID)")
+    public static boolean isMissingCustomer(DataIntegrityViolationException e) {
+        if (e instanceof DuplicateKeyException) return false;
+        Throwable cause = e.getMostSpecificCause();
+        String message = String.valueOf(cause.getMessage()).toLowerCase(Locale.ROOT);
+        if (message.contains(CUSTOMER_FK)) return true;
+        return cause instanceof SQLException sql
+                && FK_VIOLATION_STATES.contains(sql.getSQLState())
+                && message.contains("(customer_id)");
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            result = postgres = "PostgreSQL".equalsIgnoreCase(database);
+        }
+        return result;
+    }
+}
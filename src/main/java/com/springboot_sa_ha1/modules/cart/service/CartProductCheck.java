@@ -0,0 +1,30 @@
+package com.springboot_sa_ha1.modules.cart.service;
+
+import com.springboot_sa_ha1.exception.NotFoundException;
+import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import com.springboot_sa_ha1.modules.products.service.ProductService;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// Validación de los productos de un lote (POST /api/cart/batch) en una sola lectura:
+// del read model o con una consulta IN, no una por producto
+final class CartProductCheck {
+
+    private CartProductCheck() {
+    }
+
+    // Falla con todos los ids que no existen, antes de aplicar ninguna operación
+    static void requireExisting(ProductService productService, Collection<Long> productIds) {
+        if (productIds.isEmpty()) return;
+        Set<Long> missing = new LinkedHashSet<>(productIds);
+        for (ProductResponse product : productService.obtenerPorIds(List.copyOf(missing))) {
+            missing.remove(product.id());
+        }
+        if (!missing.isEmpty()) {
+            throw new NotFoundException("Productos no encontrados: " + missing);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.springboot_sa_ha1.modules.cart.service;
 
+import com.springboot_sa_ha1.modules.cart.dto.CartOperation;
 import com.springboot_sa_ha1.modules.cart.dto.CartProductRequest;
 import com.springboot_sa_ha1.modules.cart.dto.CartProductResponse;
+import com.springboot_sa_ha1.modules.cart.dto.CartSummaryResponse;
 
 import java.util.List;
 
@@ -22,6 +24,12 @@ public interface CartProductService {
     // Vaciar carrito completo
     void clearCart(Long customerId);
 
+    // Aplicar varias operaciones en orden (una sola transacción) y devolver el carrito resultante
+    List<CartProductResponse> applyBatch(Long customerId, List<CartOperation> operations);
+
     // Obtener conteo de items en el carrito
     Long getCartCount(Long customerId);
+
+    // Items, unidades y precio total del carrito
+    CartSummaryResponse getCartSummary(Long customerId);
 }
\ No newline at end of file
@@ -1,29 +1,40 @@
 package com.springboot_sa_ha1.modules.cart.service;
 
+import com.springboot_sa_ha1.modules.cart.cache.CartCountCache;
+import com.springboot_sa_ha1.modules.cart.dto.CartOperation;
 import com.springboot_sa_ha1.modules.cart.dto.CartProductRequest;
 import com.springboot_sa_ha1.modules.cart.dto.CartProductResponse;
+import com.springboot_sa_ha1.modules.cart.dto.CartProductRow;
+import com.springboot_sa_ha1.modules.cart.dto.CartSummaryResponse;
 import com.springboot_sa_ha1.modules.cart.mapper.CartProductMapper;
 import com.springboot_sa_ha1.modules.cart.model.CartProduct;
 import com.springboot_sa_ha1.modules.cart.repository.CartProductRepository;
-import com.springboot_sa_ha1.modules.customers.model.Customer;
-import com.springboot_sa_ha1.modules.customers.repository.CustomerRepository;
-import com.springboot_sa_ha1.modules.products.model.Product;
-import com.springboot_sa_ha1.modules.products.repository.ProductRepository;
+import com.springboot_sa_ha1.modules.cart.repository.CartProductUpsertRepository;
+import com.springboot_sa_ha1.modules.cart.store.CartLine;
+import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import com.springboot_sa_ha1.modules.products.service.ProductService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
 @Service
+@ConditionalOnProperty(name = "cart.write-behind.enabled", havingValue = "false", matchIfMissing = true)
 @RequiredArgsConstructor
 public class CartProductServiceImp implements CartProductService {
 
     private final CartProductRepository cartProductRepository;
-    private final CustomerRepository customerRepository;
-    private final ProductRepository productRepository;
+    private final CartProductUpsertRepository cartProductUpsertRepository;
+    private final ProductService productService;
     private final CartProductMapper cartProductMapper;
+    private final CartCountCache cartCountCache;
 
     @Override
     public List<CartProductResponse> getCartByCustomerId(Long customerId) {
@@ -36,35 +47,21 @@ public class CartProductServiceImp implements CartProductService {
     @Override
     @Transactional
     public CartProductResponse addToCart(Long customerId, CartProductRequest request) {
-        // Validar que el cliente existe
-        Customer customer = customerRepository.findById(customerId)
-                .orElseThrow(() -> new RuntimeException("Cliente no encontrado"));
-
-        // Validar que el producto existe
-        Product product = productRepository.findById(request.productId())
-                .orElseThrow(() -> new RuntimeException("Producto no encontrado"));
-
-        // Verificar si ya existe en el carrito
-        Optional<CartProduct> existingCartProduct = cartProductRepository
-                .findByCustomerIdAndProductId(customerId, request.productId());
-
-        if (existingCartProduct.isPresent()) {
-            // ✅ CORREGIDO: SUMAR a la cantidad existente
-            CartProduct cartProduct = existingCartProduct.get();
-            int newQuantity = cartProduct.getQuantity() + request.quantity();  // ← SUMA
-            cartProduct.setQuantity(newQuantity);
-            CartProduct updated = cartProductRepository.save(cartProduct);
-            return cartProductMapper.toResponse(updated);
-        } else {
-            // Crear nuevo item en el carrito
-            CartProduct newCartProduct = new CartProduct();
-            newCartProduct.setCustomer(customer);
-            newCartProduct.setProduct(product);
-            newCartProduct.setQuantity(request.quantity());
-
-            CartProduct saved = cartProductRepository.save(newCartProduct);
-            return cartProductMapper.toResponse(saved);
+        // Validar que el producto existe (normalmente sale de la caché, sin ir a la base)
+        ProductResponse product = productService.obtenerPorId(request.productId());
+
+        // Alta o suma en una sola sentencia; el cliente se valida por la FK
+        CartProductRow row;
+        try {
+            row = cartProductUpsertRepository.add(customerId, request.productId(), request.quantity());
+        } catch (DataIntegrityViolationException e) {
+            if (CartProductUpsertRepository.isMissingCustomer(e)) throw new RuntimeException("Cliente no encontrado");
+            throw e;
         }
+        if (row.created()) {
+            cartCountCache.changed(customerId, 1);
+        }
+        return cartProductMapper.toResponse(row, product);
     }
 
     @Override
@@ -85,20 +82,88 @@ public class CartProductServiceImp implements CartProductService {
     @Override
     @Transactional
     public void removeFromCart(Long cartProductId) {
-        if (!cartProductRepository.existsById(cartProductId)) {
+        Long customerId = cartProductRepository.findCustomerIdById(cartProductId)
+                .orElseThrow(() -> new RuntimeException("Item del carrito no encontrado"));
+        if (cartProductRepository.deleteItemById(cartProductId) == 0) {
             throw new RuntimeException("Item del carrito no encontrado");
         }
-        cartProductRepository.deleteById(cartProductId);
+        cartCountCache.changed(customerId, -1);
     }
 
     @Override
     @Transactional
     public void clearCart(Long customerId) {
-        cartProductRepository.deleteAllByCustomerId(customerId);
+        int removed = cartProductRepository.deleteAllByCustomerId(customerId);
+        cartCountCache.changed(customerId, -removed);
+    }
+
+    @Override
+    @Transactional
+    public List<CartProductResponse> applyBatch(Long customerId, List<CartOperation> operations) {
+        // Se resume lo que queda por producto, respetando el orden de las operaciones
+        Map<Long, Effect> effects = new LinkedHashMap<>();
+        for (CartOperation operation : operations) {
+            Long productId = operation.productId();
+            effects.put(productId, effects.getOrDefault(productId, Effect.NONE).then(operation));
+        }
+
+        // Los productos que quedan en el carrito se validan todos juntos, en una lectura
+        CartProductCheck.requireExisting(productService, effects.entrySet().stream()
+                .filter(entry -> entry.getValue().quantity() > 0)
+                .map(Map.Entry::getKey)
+                .toList());
+
+        Map<Long, Integer> adds = new LinkedHashMap<>();
+        List<CartLine> sets = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<Long, Effect> entry : effects.entrySet()) {
+            Long productId = entry.getKey();
+            Effect effect = entry.getValue();
+            if (effect.absolute()) {
+                // SET o REMOVE (cantidad 0): se escribe el valor final
+                sets.add(new CartLine(null, customerId, productId, effect.quantity(), now, now, 0L));
+            } else if (effect.quantity() > 0) {
+                adds.put(productId, effect.quantity());
+            }
+        }
+
+        // Un batch JDBC por tipo de sentencia, sin importar cuántos productos traiga la petición
+        try {
+            cartProductUpsertRepository.saveAll(sets);
+            cartProductUpsertRepository.addAll(customerId, adds);
+        } catch (DataIntegrityViolationException e) {
+            if (CartProductUpsertRepository.isMissingCustomer(e)) throw new RuntimeException("Cliente no encontrado");
+            throw e;
+        }
+        // Con sumas sobre filas que pudieron crearse en paralelo no se sabe cuántos items se agregaron
+        cartCountCache.invalidate(customerId);
+        return getCartByCustomerId(customerId);
     }
 
     @Override
     public Long getCartCount(Long customerId) {
-        return cartProductRepository.countByCustomerId(customerId);
+        // Va a la base la primera consulta del cliente y la siguiente a un lote (que invalida el contador);
+        // el resto lo mantienen las mutaciones
+        return cartCountCache.get(customerId, () -> cartProductRepository.countByCustomerId(customerId));
+    }
+
+    @Override
+    public CartSummaryResponse getCartSummary(Long customerId) {
+        return cartProductRepository.summarizeByCustomerId(customerId);
+    }
+
+    // Efecto acumulado de las operaciones sobre un producto: sumar a lo que haya (absolute = false)
+    // o dejar una cantidad fija (absolute = true; 0 = quitar)
+    private record Effect(int quantity, boolean absolute) {
+
+        static final Effect NONE = new Effect(0, false);
+
+        Effect then(CartOperation operation) {
+            return switch (operation.op()) {
+                case ADD -> new Effect(quantity + operation.quantity(), absolute);
+                case SET -> new Effect(operation.quantity(), true);
+                case REMOVE -> new Effect(0, true);
+            };
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,187 @@
+package com.springboot_sa_ha1.modules.cart.service;
+
+import com.springboot_sa_ha1.modules.cart.dto.CartOperation;
+import com.springboot_sa_ha1.modules.cart.dto.CartOperationType;
+import com.springboot_sa_ha1.modules.cart.dto.CartProductRequest;
+import com.springboot_sa_ha1.modules.cart.dto.CartProductResponse;
+import com.springboot_sa_ha1.modules.cart.dto.CartProductRow;
+import com.springboot_sa_ha1.modules.cart.dto.CartSummaryResponse;
+import com.springboot_sa_ha1.modules.cart.mapper.CartProductMapper;
+import com.springboot_sa_ha1.modules.cart.repository.CartProductRepository;
+import com.springboot_sa_ha1.modules.cart.repository.CartProductUpsertRepository;
+import com.springboot_sa_ha1.modules.cart.store.CartLine;
+import com.springboot_sa_ha1.modules.cart.store.CartStore;
+import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import com.springboot_sa_ha1.modules.products.service.ProductService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Carrito con escritura diferida (cart.write-behind.enabled): lecturas y cambios van al CartStore y
+// CartWriteBehindFlusher los lleva a cart_products por lotes. Sólo el primer alta de un producto
+// escribe en el momento, para devolver el id de la fila
+@Service
+@ConditionalOnProperty(name = "cart.write-behind.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class WriteBehindCartProductServiceImp implements CartProductService {
+
+    private final CartStore cartStore;
+    private final CartProductRepository cartProductRepository;
+    private final CartProductUpsertRepository cartProductUpsertRepository;
+    private final ProductService productService;
+    private final CartProductMapper cartProductMapper;
+
+    // Los productos de todas las líneas se leen juntos. Las de productos ya borrados no se muestran,
+    // igual que en el resumen
+    @Override
+    public List<CartProductResponse> getCartByCustomerId(Long customerId) {
+        cargar(customerId);
+        List<CartLine> lines = cartStore.lines(customerId);
+        Map<Long, ProductResponse> products = new HashMap<>();
+        for (ProductResponse product : productService.obtenerPorIds(
+                lines.stream().map(CartLine::productId).distinct().toList())) {
+            products.put(product.id(), product);
+        }
+        return lines.stream()
+                .filter(line -> products.containsKey(line.productId()))
+                .map(line -> cartProductMapper.toResponse(line, products.get(line.productId())))
+                .toList();
+    }
+
+    @Override
+    public CartProductResponse addToCart(Long customerId, CartProductRequest request) {
+        ProductResponse product = productService.obtenerPorId(request.productId());
+        cargar(customerId);
+        return cartProductMapper.toResponse(agregar(customerId, request), product);
+    }
+
+    @Override
+    public CartProductResponse updateQuantity(Long cartProductId, Integer newQuantity) {
+        if (newQuantity <= 0) {
+            throw new IllegalArgumentException("La cantidad debe ser mayor a 0");
+        }
+        cargarPorItem(cartProductId);
+        CartLine line = cartStore.set(cartProductId, newQuantity)
+                .orElseThrow(() -> new RuntimeException("Item del carrito no encontrado"));
+        return toResponse(line);
+    }
+
+    @Override
+    public void removeFromCart(Long cartProductId) {
+        cargarPorItem(cartProductId);
+        cartStore.set(cartProductId, 0)
+                .orElseThrow(() -> new RuntimeException("Item del carrito no encontrado"));
+    }
+
+    @Override
+    public void clearCart(Long customerId) {
+        cargar(customerId);
+        cartStore.clear(customerId);
+    }
+
+    // En memoria no hace falta resumir: cada operación es un cambio en el store y el volcado
+    // las junta igual. Los productos se validan antes de aplicar ninguna
+    @Override
+    public List<CartProductResponse> applyBatch(Long customerId, List<CartOperation> operations) {
+        CartProductCheck.requireExisting(productService, operations.stream()
+                .filter(operation -> operation.op() != CartOperationType.REMOVE)
+                .map(CartOperation::productId)
+                .distinct()
+                .toList());
+        cargar(customerId);
+
+        for (CartOperation operation : operations) {
+            switch (operation.op()) {
+                case ADD -> agregar(customerId, new CartProductRequest(operation.productId(), operation.quantity()));
+                case SET -> fijar(customerId, operation.productId(), operation.quantity());
+                case REMOVE -> fijar(customerId, operation.productId(), 0);
+            }
+        }
+        return getCartByCustomerId(customerId);
+    }
+
+    @Override
+    public Long getCartCount(Long customerId) {
+        cargar(customerId);
+        return (long) cartStore.lines(customerId).size();
+    }
+
+    // Con el carrito en memoria no hace falta ir a la base por las cantidades; los precios se leen
+    // juntos (del read model o en una sola tanda de consultas). Las líneas de productos ya borrados
+    // (la base las quitó en cascada y el store aún no se enteró) no cuentan
+    @Override
+    public CartSummaryResponse getCartSummary(Long customerId) {
+        cargar(customerId);
+        List<CartLine> lines = cartStore.lines(customerId);
+        Map<Long, Long> prices = new HashMap<>();
+        for (ProductResponse product : productService.obtenerPorIds(
+                lines.stream().map(CartLine::productId).distinct().toList())) {
+            prices.put(product.id(), product.price());
+        }
+        long items = 0;
+        long units = 0;
+        long total = 0;
+        for (CartLine line : lines) {
+            Long price = prices.get(line.productId());
+            if (price == null) continue;
+            items++;
+            units += line.quantity();
+            total += line.quantity() * price;
+        }
+        return new CartSummaryResponse(items, units, total);
+    }
+
+    // Producto ya validado
+    private CartLine agregar(Long customerId, CartProductRequest request) {
+        return cartStore.add(customerId, request.productId(), request.quantity())
+                .orElseGet(() -> nuevaLinea(customerId, request));
+    }
+
+    // Primer alta del producto: la fila se crea ya (con la cantidad pedida) para tener su id.
+    // Si otro hilo la creó antes, merge suma la cantidad a la línea que ya está en memoria
+    private CartLine nuevaLinea(Long customerId, CartProductRequest request) {
+        CartProductRow row;
+        try {
+            row = cartProductUpsertRepository.insertIfAbsent(customerId, request.productId(), request.quantity());
+        } catch (DataIntegrityViolationException e) {
+            if (CartProductUpsertRepository.isMissingCustomer(e)) throw new RuntimeException("Cliente no encontrado");
+            throw e;
+        }
+        return cartStore.merge(new CartLine(row.id(), customerId, request.productId(), request.quantity(),
+                row.addedAt(), row.updatedAt(), 0L));
+    }
+
+    private void fijar(Long customerId, Long productId, int quantity) {
+        CartLine line = cartStore.lines(customerId).stream()
+                .filter(candidate -> candidate.productId().equals(productId))
+                .findFirst()
+                .orElse(null);
+        if (line != null) {
+            cartStore.set(line.rowId(), quantity);
+        } else if (quantity > 0) {
+            nuevaLinea(customerId, new CartProductRequest(productId, quantity));
+        }
+    }
+
+    // La primera vez que se toca un carrito se lee de la base
+    private void cargar(Long customerId) {
+        if (!cartStore.isLoaded(customerId)) {
+            cartStore.load(customerId, cartProductRepository.findLinesByCustomerId(customerId));
+        }
+    }
+
+    private void cargarPorItem(Long cartProductId) {
+        if (cartStore.lineByRowId(cartProductId).isEmpty()) {
+            cartProductRepository.findCustomerIdById(cartProductId).ifPresent(this::cargar);
+        }
+    }
+
+    private CartProductResponse toResponse(CartLine line) {
+        return cartProductMapper.toResponse(line, productService.obtenerPorId(line.productId()));
+    }
+}
@@ -0,0 +1,24 @@
+package com.springboot_sa_ha1.modules.cart.store;
+
+import java.time.LocalDateTime;
+
+// Línea de un carrito en memoria. quantity = 0 marca una línea quitada cuyo DELETE aún no se escribió.
+// version crece con cada cambio: sirve para confirmar una escritura sólo si la línea no cambió después
+public record CartLine(
+        Long rowId,
+        Long customerId,
+        Long productId,
+        int quantity,
+        LocalDateTime addedAt,
+        LocalDateTime updatedAt,
+        long version
+) {
+
+    public boolean isLive() {
+        return quantity > 0;
+    }
+
+    public CartLine withQuantity(int newQuantity, long newVersion, LocalDateTime now) {
+        return new CartLine(rowId, customerId, productId, newQuantity, addedAt, now, newVersion);
+    }
+}
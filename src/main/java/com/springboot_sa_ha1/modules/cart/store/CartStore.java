@@ -0,0 +1,45 @@
+package com.springboot_sa_ha1.modules.cart.store;
+
+import java.util.List;
+import java.util.Optional;
+
+// Dónde viven los carritos en el modo de escritura diferida. La implementación en proceso
+// (InMemoryCartStore) sirve para un solo nodo; con varios nodos se usa una implementación sobre un
+// almacén compartido (tipo Redis) para que todos vean el mismo carrito y la misma lista de pendientes.
+//
+// Cada cambio deja la línea como pendiente; pending() la entrega con su versión y acknowledge()
+// la da por escrita sólo si sigue en esa versión. Varios cambios seguidos de una misma línea
+// quedan en una sola escritura.
+public interface CartStore {
+
+    boolean isLoaded(Long customerId);
+
+    // Carga el carrito leído de la base; si ya estaba cargado no hace nada
+    void load(Long customerId, List<CartLine> lines);
+
+    // Líneas vigentes (quantity > 0) del carrito
+    List<CartLine> lines(Long customerId);
+
+    Optional<CartLine> lineByRowId(Long rowId);
+
+    // Suma a una línea vigente; vacío si el producto no está en el carrito
+    Optional<CartLine> add(Long customerId, Long productId, int delta);
+
+    // Agrega una línea nueva; si el producto ya estaba (otro hilo lo agregó antes) suma la cantidad
+    CartLine merge(CartLine line);
+
+    // Fija la cantidad de una línea vigente (0 = quitarla); vacío si no existe
+    Optional<CartLine> set(Long rowId, int quantity);
+
+    void clear(Long customerId);
+
+    List<CartLine> pending(int max);
+
+    void acknowledge(List<CartLine> written);
+
+    int pendingCount();
+
+    // Suelta los carritos sin cambios pendientes que nadie tocó en el tiempo de inactividad configurado;
+    // el próximo acceso los vuelve a leer de la base con load(). Devuelve cuántos soltó
+    int evictIdle();
+}
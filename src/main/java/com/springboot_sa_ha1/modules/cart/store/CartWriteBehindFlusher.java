@@ -0,0 +1,97 @@
+package com.springboot_sa_ha1.modules.cart.store;
+
+import com.springboot_sa_ha1.modules.cart.repository.CartProductUpsertRepository;
+import com.springboot_sa_ha1.modules.catalog.StartupOrder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Vuelca los cambios pendientes del CartStore a cart_products cada flush-interval y al apagar.
+// Cada lote va en una transacción y se confirma en el store sólo después del commit: si el proceso
+// muere a mitad de un lote, las líneas siguen pendientes y el próximo volcado las vuelve a escribir
+@Component
+@ConditionalOnProperty(name = "cart.write-behind.enabled", havingValue = "true")
+public class CartWriteBehindFlusher {
+
+    private static final Logger log = LoggerFactory.getLogger(CartWriteBehindFlusher.class);
+
+    private final CartStore cartStore;
+    private final CartProductUpsertRepository cartProductUpsertRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration flushInterval;
+    private final int batchSize;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cart-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CartWriteBehindFlusher(
+            CartStore cartStore,
+            CartProductUpsertRepository cartProductUpsertRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${cart.write-behind.flush-interval:1s}") Duration flushInterval,
+            @Value("${cart.write-behind.batch-size:500}") int batchSize
+    ) {
+        this.cartStore = cartStore;
+        this.cartProductUpsertRepository = cartProductUpsertRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushInterval = flushInterval;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(StartupOrder.BACKGROUND_TASKS)
+    public void start() {
+        long millis = flushInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    // Escribe todo lo pendiente en lotes de batch-size; devuelve las líneas escritas
+    public synchronized int flush() {
+        int written = 0;
+        while (true) {
+            List<CartLine> batch = cartStore.pending(batchSize);
+            if (batch.isEmpty()) return written;
+            transactionTemplate.executeWithoutResult(status -> cartProductUpsertRepository.saveAll(batch));
+            cartStore.acknowledge(batch);
+            written += batch.size();
+            if (batch.size() < batchSize) return written;
+        }
+    }
+
+    // Tras volcar, los carritos inactivos ya no tienen nada pendiente y pueden soltarse
+    private void flushQuietly() {
+        try {
+            flush();
+            cartStore.evictIdle();
+        } catch (RuntimeException e) {
+            log.warn("No se pudo volcar el carrito a la base; {} líneas siguen pendientes", cartStore.pendingCount(), e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Volcado final del carrito fallido; se pierden {} líneas", cartStore.pendingCount(), e);
+        }
+    }
+}
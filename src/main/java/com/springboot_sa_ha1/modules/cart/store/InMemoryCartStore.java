@@ -0,0 +1,224 @@
+package com.springboot_sa_ha1.modules.cart.store;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Carritos en el heap de este nodo. Cada carrito se modifica bajo el lock de su franja (customerId % 64):
+// clics de clientes distintos casi nunca se esperan entre sí y no hay un lock global.
+// Un carrito ya volcado (sin líneas pendientes) que no se toca durante idle-expiry sale de memoria
+// y se vuelve a leer de la base la próxima vez, así el heap crece con los clientes activos, no con todos
+@Component
+@ConditionalOnProperty(name = "cart.write-behind.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryCartStore implements CartStore {
+
+    private static final int STRIPES = 64;
+
+    private final Object[] stripes = new Object[STRIPES];
+    // customerId -> (productId -> línea), en orden de alta
+    private final Map<Long, Map<Long, CartLine>> carts = new ConcurrentHashMap<>();
+    private final Map<Long, Long> customerByRowId = new ConcurrentHashMap<>();
+    // (cliente, producto) -> versión pendiente de escribir
+    private final ConcurrentHashMap<LineKey, Long> dirty = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+    // customerId -> último acceso (System.nanoTime)
+    private final Map<Long, Long> lastAccess = new ConcurrentHashMap<>();
+    private final long idleExpiryNanos;
+    private volatile long lastSweep = System.nanoTime();
+
+    private record LineKey(Long customerId, Long productId) {}
+
+    public InMemoryCartStore(@Value("${cart.write-behind.idle-expiry:10m}") Duration idleExpiry) {
+        this.idleExpiryNanos = idleExpiry.toNanos();
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    // Marca el acceso: un carrito recién consultado no se suelta entre cargar() y la operación siguiente
+    @Override
+    public boolean isLoaded(Long customerId) {
+        synchronized (stripe(customerId)) {
+            if (!carts.containsKey(customerId)) return false;
+            touch(customerId);
+            return true;
+        }
+    }
+
+    @Override
+    public void load(Long customerId, List<CartLine> lines) {
+        synchronized (stripe(customerId)) {
+            touch(customerId);
+            if (carts.containsKey(customerId)) return;
+            Map<Long, CartLine> cart = new LinkedHashMap<>();
+            for (CartLine line : lines) {
+                cart.put(line.productId(), line);
+                customerByRowId.put(line.rowId(), customerId);
+            }
+            carts.put(customerId, cart);
+        }
+    }
+
+    @Override
+    public List<CartLine> lines(Long customerId) {
+        synchronized (stripe(customerId)) {
+            touch(customerId);
+            return cart(customerId).values().stream().filter(CartLine::isLive).toList();
+        }
+    }
+
+    @Override
+    public Optional<CartLine> lineByRowId(Long rowId) {
+        Long customerId = customerByRowId.get(rowId);
+        if (customerId == null) return Optional.empty();
+        synchronized (stripe(customerId)) {
+            return liveLine(customerId, rowId);
+        }
+    }
+
+    @Override
+    public Optional<CartLine> add(Long customerId, Long productId, int delta) {
+        synchronized (stripe(customerId)) {
+            CartLine line = cart(customerId).get(productId);
+            if (line == null || !line.isLive()) return Optional.empty();
+            return Optional.of(update(line, line.quantity() + delta));
+        }
+    }
+
+    @Override
+    public CartLine merge(CartLine line) {
+        synchronized (stripe(line.customerId())) {
+            touch(line.customerId());
+            CartLine current = carts.computeIfAbsent(line.customerId(), id -> new LinkedHashMap<>())
+                    .get(line.productId());
+            if (current != null && current.isLive()) {
+                return update(current, current.quantity() + line.quantity());
+            }
+            // Una línea quitada y todavía sin borrar en la base se reemplaza por la nueva
+            if (current != null) customerByRowId.remove(current.rowId());
+            customerByRowId.put(line.rowId(), line.customerId());
+            return update(line, line.quantity());
+        }
+    }
+
+    @Override
+    public Optional<CartLine> set(Long rowId, int quantity) {
+        Long customerId = customerByRowId.get(rowId);
+        if (customerId == null) return Optional.empty();
+        synchronized (stripe(customerId)) {
+            return liveLine(customerId, rowId).map(line -> update(line, quantity));
+        }
+    }
+
+    @Override
+    public void clear(Long customerId) {
+        synchronized (stripe(customerId)) {
+            for (CartLine line : List.copyOf(cart(customerId).values())) {
+                if (line.isLive()) update(line, 0);
+            }
+        }
+    }
+
+    @Override
+    public List<CartLine> pending(int max) {
+        List<CartLine> batch = new ArrayList<>(Math.min(max, dirty.size()));
+        for (LineKey key : dirty.keySet()) {
+            if (batch.size() >= max) break;
+            synchronized (stripe(key.customerId())) {
+                CartLine line = cart(key.customerId()).get(key.productId());
+                if (line != null && dirty.containsKey(key)) batch.add(line);
+            }
+        }
+        return batch;
+    }
+
+    @Override
+    public void acknowledge(List<CartLine> written) {
+        for (CartLine line : written) {
+            synchronized (stripe(line.customerId())) {
+                // Si la línea cambió después de leerse para el lote, sigue pendiente con su versión nueva
+                if (!dirty.remove(new LineKey(line.customerId(), line.productId()), line.version())) continue;
+                if (!line.isLive()) {
+                    cart(line.customerId()).remove(line.productId());
+                    customerByRowId.remove(line.rowId());
+                }
+            }
+        }
+    }
+
+    @Override
+    public int pendingCount() {
+        return dirty.size();
+    }
+
+    @Override
+    public int evictIdle() {
+        long now = System.nanoTime();
+        // Se llama en cada volcado; recorrer todos los carritos basta con hacerlo cada cuarto de idle-expiry
+        if (now - lastSweep < idleExpiryNanos / 4) return 0;
+        lastSweep = now;
+        int evicted = 0;
+        for (Long customerId : carts.keySet()) {
+            synchronized (stripe(customerId)) {
+                Long accessed = lastAccess.get(customerId);
+                if (accessed != null && now - accessed < idleExpiryNanos) continue;
+                Map<Long, CartLine> cart = carts.get(customerId);
+                if (cart == null) continue;
+                // Con algo sin volcar se queda: la memoria es la única copia de ese cambio
+                boolean pending = false;
+                for (CartLine line : cart.values()) {
+                    if (dirty.containsKey(new LineKey(customerId, line.productId()))) {
+                        pending = true;
+                        break;
+                    }
+                }
+                if (pending) continue;
+                for (CartLine line : cart.values()) {
+                    customerByRowId.remove(line.rowId(), customerId);
+                }
+                carts.remove(customerId);
+                lastAccess.remove(customerId);
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    // Siempre bajo el lock de la franja del cliente
+    private void touch(Long customerId) {
+        lastAccess.put(customerId, System.nanoTime());
+    }
+
+    // Siempre bajo el lock de la franja del cliente
+    private CartLine update(CartLine line, int quantity) {
+        touch(line.customerId());
+        CartLine updated = line.withQuantity(quantity, versions.incrementAndGet(), LocalDateTime.now());
+        carts.get(line.customerId()).put(line.productId(), updated);
+        dirty.put(new LineKey(line.customerId(), line.productId()), updated.version());
+        return updated;
+    }
+
+    private Optional<CartLine> liveLine(Long customerId, Long rowId) {
+        return cart(customerId).values().stream()
+                .filter(line -> line.rowId().equals(rowId) && line.isLive())
+                .findFirst();
+    }
+
+    private Map<Long, CartLine> cart(Long customerId) {
+        return carts.getOrDefault(customerId, Map.of());
+    }
+
+    private Object stripe(Long customerId) {
+        return stripes[Math.floorMod(customerId.hashCode(), STRIPES)];
+    }
+}
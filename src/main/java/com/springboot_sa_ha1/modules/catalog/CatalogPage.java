@@ -0,0 +1,48 @@
+package com.springboot_sa_ha1.modules.catalog;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+
+// 🔹 Respuesta JSON ya serializada, con la versión del catálogo con la que se armó
+// y un ETag fuerte calculado sobre los bytes
+public record CatalogPage(
+    long version,
+    byte[] body,
+    String etag
+) {
+
+  public static CatalogPage of(long version, byte[] body) {
+    return new CatalogPage(version, body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+  }
+
+  // 🔹 If-None-Match puede traer varios ETags separados por coma, débiles (W/) o "*"
+  public boolean matches(String ifNoneMatch) {
+    if (ifNoneMatch == null || ifNoneMatch.isBlank()) return false;
+    for (String candidate : ifNoneMatch.split(",")) {
+      String tag = candidate.trim();
+      if (tag.equals("*")) return true;
+      if (tag.startsWith("W/")) tag = tag.substring(2);
+      if (tag.equals(etag)) return true;
+    }
+    return false;
+  }
+
+  // 🔹 304 sin cuerpo si el cliente ya tiene esta versión; si no, los bytes tal cual (sin pasar por Jackson).
+  // no-cache: el navegador puede guardarla, pero revalida con el ETag en cada uso
+  public ResponseEntity<byte[]> toResponse(String ifNoneMatch) {
+    if (matches(ifNoneMatch)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+          .eTag(etag)
+          .cacheControl(CacheControl.noCache())
+          .build();
+    }
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .eTag(etag)
+        .cacheControl(CacheControl.noCache())
+        .body(body);
+  }
+}
@@ -0,0 +1,67 @@
+package com.springboot_sa_ha1.modules.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.springboot_sa_ha1.modules.products.pagination.ProductGroupQuery;
+import com.springboot_sa_ha1.modules.slugs.SlugNormalizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Supplier;
+
+// 🔹 Caché de páginas de categorías/colecciones con productos, guardadas ya serializadas.
+// Clave: tipo + claves de búsqueda de los slugs (sin repetir y ordenadas) + página por grupo.
+// Una entrada armada con una versión anterior del catálogo no se sirve: se vuelve a armar.
+@Component
+public class CatalogPageCache {
+
+  private final Cache<String, CatalogPage> cache;
+  private final CatalogVersion version;
+  private final ObjectMapper objectMapper;
+
+  public CatalogPageCache(
+      @Value("${catalog.page-cache.maximum-size:500}") long maximumSize,
+      CatalogVersion version,
+      ObjectMapper objectMapper
+  ) {
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .build();
+    this.version = version;
+    this.objectMapper = objectMapper;
+  }
+
+  public CatalogPage get(String kind, List<String> slugs, ProductGroupQuery page, Supplier<?> loader) {
+    String key = key(kind, slugs, page);
+    long current = version.current();
+
+    CatalogPage cached = cache.getIfPresent(key);
+    if (cached != null && cached.version() == current) return cached;
+    if (cached != null) cache.asMap().remove(key, cached);
+
+    // 🔹 Una sola carga por clave aunque lleguen muchas peticiones a la vez (página de inicio en frío).
+    // La versión se lee antes de consultar: si hay una escritura durante la carga, la entrada nace vieja.
+    return cache.get(key, k -> serialize(current, loader.get()));
+  }
+
+  private CatalogPage serialize(long version, Object value) {
+    try {
+      return CatalogPage.of(version, objectMapper.writeValueAsBytes(value));
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  // 🔹 Las mismas claves con las que el loader busca en la base (normalizada + tal como llegó):
+  // "anillos_-_oro" y "anillos_oro" pueden ser filas distintas y no comparten entrada
+  static String key(String kind, List<String> slugs, ProductGroupQuery page) {
+    List<String> keys = SlugNormalizer.lookupKeys(slugs).stream()
+        .sorted()
+        .toList();
+    return kind + "|" + String.join(",", keys) + "|" + page.limit() + "|" + page.afterId();
+  }
+}
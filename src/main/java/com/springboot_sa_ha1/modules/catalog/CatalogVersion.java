@@ -0,0 +1,58 @@
+package com.springboot_sa_ha1.modules.catalog;
+
+import com.springboot_sa_ha1.modules.categories.event.CategoryDeletedEvent;
+import com.springboot_sa_ha1.modules.categories.event.CategorySavedEvent;
+import com.springboot_sa_ha1.modules.collections.event.CollectionDeletedEvent;
+import com.springboot_sa_ha1.modules.collections.event.CollectionSavedEvent;
+import com.springboot_sa_ha1.modules.products.event.ProductDeletedEvent;
+import com.springboot_sa_ha1.modules.products.event.ProductSavedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// 🔹 Versión del catálogo: sube con cada escritura confirmada de productos, categorías o colecciones.
+// Todo lo que se guarde etiquetado con una versión anterior queda obsoleto.
+@Component
+public class CatalogVersion {
+
+  private final AtomicLong version = new AtomicLong();
+
+  public long current() {
+    return version.get();
+  }
+
+  public long bump() {
+    return version.incrementAndGet();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onProductSaved(ProductSavedEvent event) {
+    bump();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onProductDeleted(ProductDeletedEvent event) {
+    bump();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCategorySaved(CategorySavedEvent event) {
+    bump();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCategoryDeleted(CategoryDeletedEvent event) {
+    bump();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCollectionSaved(CollectionSavedEvent event) {
+    bump();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCollectionDeleted(CollectionDeletedEvent event) {
+    bump();
+  }
+}
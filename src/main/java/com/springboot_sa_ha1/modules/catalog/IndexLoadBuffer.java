@@ -0,0 +1,40 @@
+package com.springboot_sa_ha1.modules.catalog;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 🔹 Cambios que llegan mientras un índice en memoria hace su carga inicial. La carga corre en
+// ApplicationReadyEvent, con el servidor ya aceptando escrituras, y lee por tramos en varias transacciones:
+// aplicar un evento al índice viejo y después reemplazarlo todo lo perdería. Mientras se carga, los
+// cambios se retienen y se reaplican en orden después del reemplazo (alta/reemplazo/baja por id,
+// así que repetir lo que la carga ya leyó es inofensivo).
+public final class IndexLoadBuffer {
+
+  private List<Runnable> held;
+
+  // 🔹 Antes de empezar a leer
+  public synchronized void startLoading() {
+    held = new ArrayList<>();
+  }
+
+  // 🔹 Desde los listeners: se aplica ya o se retiene hasta que termine la carga
+  public synchronized void apply(Runnable change) {
+    if (held != null) {
+      held.add(change);
+    } else {
+      change.run();
+    }
+  }
+
+  // 🔹 replaceAll y la reaplicación de lo retenido, sin que entre otro cambio en el medio.
+  // Si la carga falló se pasa un Runnable vacío: lo retenido se aplica igual
+  public synchronized void finishLoading(Runnable replaceAll) {
+    List<Runnable> changes = held;
+    held = null;
+    try {
+      replaceAll.run();
+    } finally {
+      if (changes != null) changes.forEach(Runnable::run);
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package com.springboot_sa_ha1.modules.catalog;
+
+import java.time.Instant;
+
+// 🔹 ETag (fuerte) y Last-Modified de un recurso del catálogo, leídos sin cargar la entidad
+public record ResourceVersion(
+    String etag,
+    Instant lastModified   // null en filas anteriores a la columna updated_at
+) {
+
+  // 🔹 Usado por las proyecciones JPQL (SELECT new ...) de categorías y colecciones
+  public ResourceVersion(Long version, Instant lastModified) {
+    this("\"" + version + "\"", lastModified);
+  }
+
+  public long lastModifiedMillis() {
+    return lastModified == null ? -1 : lastModified.toEpochMilli();
+  }
+
+  // 🔹 If-Match usa comparación fuerte: un ETag débil (W/) nunca coincide; "*" sólo pide que exista
+  public boolean matches(String ifMatch) {
+    for (String candidate : ifMatch.split(",")) {
+      String tag = candidate.trim();
+      if (tag.equals("*") || tag.equals(etag)) return true;
+    }
+    return false;
+  }
+}
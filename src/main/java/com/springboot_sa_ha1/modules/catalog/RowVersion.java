@@ -0,0 +1,17 @@
+package com.springboot_sa_ha1.modules.catalog;
+
+import java.time.Instant;
+
+// 🔹 Versión de una fila del catálogo (@Version + updatedAt) tal como quedó confirmada.
+// Viaja en los eventos de guardado para que el modelo de lectura arme el ETag sin volver a la base.
+public record RowVersion(
+    Long id,
+    Long version,
+    Instant updatedAt
+) {
+
+  // 🔹 ETag / Last-Modified de la fila sola (categorías y colecciones)
+  public ResourceVersion toResourceVersion() {
+    return new ResourceVersion(version, updatedAt);
+  }
+}
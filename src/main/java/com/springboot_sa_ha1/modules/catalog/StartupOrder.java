@@ -0,0 +1,19 @@
+package com.springboot_sa_ha1.modules.catalog;
+
+import org.springframework.core.Ordered;
+
+// 🔹 Orden de los listeners de ApplicationReadyEvent. Sin @Order todos quedan en LOWEST_PRECEDENCE y
+// se ejecutan en un orden no garantizado: el calentamiento tiene que correr último, cuando los índices
+// ya están armados y el modelo de lectura ya publicó (publicar sube CatalogVersion y deja viejas las
+// páginas cacheadas antes).
+public final class StartupOrder {
+
+  public static final int CATEGORY_CLOSURE = Ordered.HIGHEST_PRECEDENCE;
+  public static final int INDEXES = 0;
+  public static final int READ_MODEL = 100;
+  public static final int BACKGROUND_TASKS = 200;
+  public static final int WARMUP = Ordered.LOWEST_PRECEDENCE;
+
+  private StartupOrder() {
+  }
+}
@@ -0,0 +1,204 @@
+package com.springboot_sa_ha1.modules.catalog.readmodel;
+
+import com.springboot_sa_ha1.modules.catalog.CatalogVersion;
+import com.springboot_sa_ha1.modules.catalog.RowVersion;
+import com.springboot_sa_ha1.modules.catalog.StartupOrder;
+import com.springboot_sa_ha1.modules.categories.dto.CategoryResponse;
+import com.springboot_sa_ha1.modules.categories.event.CategoryDeletedEvent;
+import com.springboot_sa_ha1.modules.categories.event.CategorySavedEvent;
+import com.springboot_sa_ha1.modules.categories.repository.CategoryRepository;
+import com.springboot_sa_ha1.modules.collections.dto.CollectionResponse;
+import com.springboot_sa_ha1.modules.collections.event.CollectionDeletedEvent;
+import com.springboot_sa_ha1.modules.collections.event.CollectionSavedEvent;
+import com.springboot_sa_ha1.modules.collections.repository.CollectionRepository;
+import com.springboot_sa_ha1.modules.products.dto.ProductDetail;
+import com.springboot_sa_ha1.modules.products.event.ProductDeletedEvent;
+import com.springboot_sa_ha1.modules.products.event.ProductSavedEvent;
+import com.springboot_sa_ha1.modules.products.repository.ProductReadRepository;
+import com.springboot_sa_ha1.modules.products.repository.ProductSpecifications;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// 🔹 Modelo de lectura del catálogo en memoria (opcional, catalog.read-model.enabled).
+// Las lecturas toman la foto vigente sin locks; las escrituras confirmadas se encolan y un único hilo
+// arma la foto siguiente y la publica de una vez. Mientras no hay foto, los servicios leen de la base.
+@Component
+public class CatalogReadModel {
+
+  private static final Logger log = LoggerFactory.getLogger(CatalogReadModel.class);
+  private static final int LOAD_PAGE_SIZE = 500;
+
+  private final boolean enabled;
+  private final ProductReadRepository productReadRepository;
+  private final CategoryRepository categoryRepository;
+  private final CollectionRepository collectionRepository;
+  private final CatalogVersion catalogVersion;
+  private final TransactionTemplate readOnlyTx;
+
+  private final AtomicReference<CatalogSnapshot> snapshot = new AtomicReference<>();
+  private final Queue<Object> pending = new ConcurrentLinkedQueue<>();
+  private final AtomicLong appliedEvents = new AtomicLong();
+  private final ExecutorService writer;
+
+  public CatalogReadModel(
+      @Value("${catalog.read-model.enabled:false}") boolean enabled,
+      ProductReadRepository productReadRepository,
+      CategoryRepository categoryRepository,
+      CollectionRepository collectionRepository,
+      CatalogVersion catalogVersion,
+      PlatformTransactionManager transactionManager
+  ) {
+    this.enabled = enabled;
+    this.productReadRepository = productReadRepository;
+    this.categoryRepository = categoryRepository;
+    this.collectionRepository = collectionRepository;
+    this.catalogVersion = catalogVersion;
+    this.readOnlyTx = new TransactionTemplate(transactionManager);
+    this.readOnlyTx.setReadOnly(true);
+    this.writer = enabled
+        ? Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "catalog-read-model");
+            thread.setDaemon(true);
+            return thread;
+          })
+        : null;
+  }
+
+  public Optional<CatalogSnapshot> current() {
+    return Optional.ofNullable(snapshot.get());
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Order(StartupOrder.READ_MODEL)
+  public synchronized void rebuild() {
+    if (!enabled) return;
+    long start = System.nanoTime();
+    try {
+      List<ProductDetail> products = new ArrayList<>();
+      Long lastId = null;
+      while (true) {
+        Long afterId = lastId;
+        List<ProductDetail> chunk = readOnlyTx.execute(status -> productReadRepository.findAllDetails(
+            afterId == null ? ProductSpecifications.all() : ProductSpecifications.idAfter(afterId),
+            Sort.by("id"), LOAD_PAGE_SIZE));
+        if (chunk == null || chunk.isEmpty()) break;
+        products.addAll(chunk);
+        if (chunk.size() < LOAD_PAGE_SIZE) break;
+        lastId = chunk.get(chunk.size() - 1).product().id();
+      }
+      List<CategoryResponse> categories = readOnlyTx.execute(status -> categoryRepository.findAllResponses());
+      List<CollectionResponse> collections = readOnlyTx.execute(status -> collectionRepository.findAllResponses());
+      List<RowVersion> categoryVersions = readOnlyTx.execute(status -> categoryRepository.findAllVersions());
+      List<RowVersion> collectionVersions = readOnlyTx.execute(status -> collectionRepository.findAllVersions());
+
+      CatalogSnapshot built = CatalogSnapshot.of(products, categories, collections, categoryVersions, collectionVersions);
+      publish(built);
+      CatalogSnapshotStats stats = built.stats();
+      log.info("Modelo de lectura del catálogo construido: {} productos, {} categorías, {} colecciones en {} ms (~{} KB)",
+          stats.products(), stats.categories(), stats.collections(),
+          (System.nanoTime() - start) / 1_000_000, stats.estimatedBytes() / 1024);
+    } catch (RuntimeException e) {
+      // 🔹 Sin foto, cada lectura sigue yendo a la base de datos
+      log.warn("No se pudo construir el modelo de lectura del catálogo; se leerá de la base de datos", e);
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onProductSaved(ProductSavedEvent event) {
+    enqueue(event);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onProductDeleted(ProductDeletedEvent event) {
+    enqueue(event);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCategorySaved(CategorySavedEvent event) {
+    enqueue(event);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCategoryDeleted(CategoryDeletedEvent event) {
+    enqueue(event);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCollectionSaved(CollectionSavedEvent event) {
+    enqueue(event);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCollectionDeleted(CollectionDeletedEvent event) {
+    enqueue(event);
+  }
+
+  public CatalogReadModelStatsResponse stats() {
+    CatalogSnapshot current = snapshot.get();
+    return new CatalogReadModelStatsResponse(
+        enabled,
+        current != null,
+        appliedEvents.get(),
+        pending.size(),
+        current != null ? current.stats() : null
+    );
+  }
+
+  @PreDestroy
+  void shutdown() {
+    if (writer != null) writer.shutdownNow();
+  }
+
+  // 🔹 El hilo de la petición sólo encola; una importación masiva se aplica en pocas fotos, no en una por producto
+  private void enqueue(Object event) {
+    if (!enabled) return;
+    pending.add(event);
+    writer.execute(this::applyPending);
+  }
+
+  synchronized void applyPending() {
+    if (pending.isEmpty()) return;
+    List<Object> events = new ArrayList<>();
+    for (Object event; (event = pending.poll()) != null; ) events.add(event);
+
+    CatalogSnapshot current = snapshot.get();
+    // 🔹 Falló la carga inicial: no hay foto a la que aplicarlos
+    if (current == null) return;
+    try {
+      publish(current.apply(events));
+      appliedEvents.addAndGet(events.size());
+    } catch (RuntimeException e) {
+      log.warn("No se pudieron aplicar {} cambios al modelo de lectura; se reconstruye desde la base de datos",
+          events.size(), e);
+      snapshot.set(null);
+      rebuild();
+    }
+  }
+
+  // 🔹 Las páginas ya serializadas se marcan con CatalogVersion: si una se armó desde la foto anterior
+  // entre la escritura y este reemplazo, la nueva versión la deja obsoleta
+  private void publish(CatalogSnapshot next) {
+    snapshot.set(next);
+    catalogVersion.bump();
+  }
+}
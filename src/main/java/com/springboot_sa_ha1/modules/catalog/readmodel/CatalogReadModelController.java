@@ -0,0 +1,22 @@
+package com.springboot_sa_ha1.modules.catalog.readmodel;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/catalog")
+public class CatalogReadModelController {
+
+  private final CatalogReadModel readModel;
+
+  public CatalogReadModelController(CatalogReadModel readModel) {
+    this.readModel = readModel;
+  }
+
+  @GetMapping("/read-model/stats")
+  public ResponseEntity<CatalogReadModelStatsResponse> estadisticas() {
+    return ResponseEntity.ok(readModel.stats());
+  }
+}
@@ -0,0 +1,9 @@
+package com.springboot_sa_ha1.modules.catalog.readmodel;
+
+public record CatalogReadModelStatsResponse(
+    boolean enabled,
+    boolean ready,
+    long appliedEvents,       // escrituras aplicadas desde la carga inicial
+    int pendingEvents,        // escrituras confirmadas que aún no están en la foto
+    CatalogSnapshotStats snapshot   // null mientras no hay foto
+) {}
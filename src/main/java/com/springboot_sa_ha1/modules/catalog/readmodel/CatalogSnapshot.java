@@ -0,0 +1,480 @@
+package com.springboot_sa_ha1.modules.catalog.readmodel;
+
+import com.springboot_sa_ha1.modules.catalog.RowVersion;
+import com.springboot_sa_ha1.modules.categories.dto.CategoryDetail;
+import com.springboot_sa_ha1.modules.categories.dto.CategoryResponse;
+import com.springboot_sa_ha1.modules.categories.event.CategoryDeletedEvent;
+import com.springboot_sa_ha1.modules.categories.event.CategorySavedEvent;
+import com.springboot_sa_ha1.modules.collections.dto.CollectionDetail;
+import com.springboot_sa_ha1.modules.collections.dto.CollectionResponse;
+import com.springboot_sa_ha1.modules.collections.event.CollectionDeletedEvent;
+import com.springboot_sa_ha1.modules.collections.event.CollectionSavedEvent;
+import com.springboot_sa_ha1.modules.products.dto.ProductDetail;
+import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import com.springboot_sa_ha1.modules.products.dto.ProductVersionRow;
+import com.springboot_sa_ha1.modules.products.event.ProductDeletedEvent;
+import com.springboot_sa_ha1.modules.products.event.ProductSavedEvent;
+import com.springboot_sa_ha1.modules.products.pagination.ProductCursor;
+import com.springboot_sa_ha1.modules.products.pagination.ProductPageQuery;
+import com.springboot_sa_ha1.modules.products.pagination.ProductSort;
+import com.springboot_sa_ha1.modules.slugs.SlugNormalizer;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// 🔹 Foto inmutable del catálogo. Los productos viven en arreglos ordenados por id y todo lo demás
+// (órdenes por precio/nombre, pertenencia a categorías y colecciones) son posiciones int dentro de esos
+// arreglos. Nunca se modifica: cada escritura arma una foto nueva (copy-on-write), así que leerla
+// desde muchos hilos no necesita locks. Cada producto, categoría y colección guarda su versión, así que el
+// ETag de un producto sale de la misma foto que su cuerpo.
+public final class CatalogSnapshot {
+
+  private static final Comparator<ProductResponse> BY_PRICE =
+      Comparator.comparing(ProductResponse::price).thenComparing(ProductResponse::id);
+  // 🔹 Orden binario de String: puede diferir de la collation de la base en acentos/mayúsculas
+  private static final Comparator<ProductResponse> BY_NAME =
+      Comparator.comparing(ProductResponse::name).thenComparing(ProductResponse::id);
+  // 🔹 RowVersion + Long id + Long version + Instant
+  private static final long VERSION_BYTES = 24 + 16 + 16 + 24;
+
+  private final long[] productIds;
+  private final ProductResponse[] products;
+  private final RowVersion[] productVersions;
+  private final int[] byPrice;
+  private final int[] byName;
+
+  private final long[] categoryIds;
+  private final CategoryResponse[] categories;
+  private final RowVersion[] categoryVersions;
+  private final long[] collectionIds;
+  private final CollectionResponse[] collections;
+  private final RowVersion[] collectionVersions;
+  private final Map<String, Integer> categoryBySlug;
+  private final Map<String, Integer> collectionBySlug;
+  private final Map<Long, RoaringBitmap> productsByCategory;
+  private final Map<Long, RoaringBitmap> productsByCollection;
+
+  private final Instant builtAt;
+  private final long buildMillis;
+  private final long estimatedBytes;
+
+  private CatalogSnapshot(
+      Collection<ProductResponse> productList,
+      Map<Long, RowVersion> productVersionMap,
+      Collection<CategoryResponse> categoryList,
+      Map<Long, RowVersion> categoryVersionMap,
+      Collection<CollectionResponse> collectionList,
+      Map<Long, RowVersion> collectionVersionMap,
+      long startNanos
+  ) {
+    categories = categoryList.stream()
+        .sorted(Comparator.comparing(CategoryResponse::id))
+        .toArray(CategoryResponse[]::new);
+    categoryIds = Arrays.stream(categories).mapToLong(CategoryResponse::id).toArray();
+    categoryVersions = versions(categoryIds, categoryVersionMap);
+    collections = collectionList.stream()
+        .sorted(Comparator.comparing(CollectionResponse::id))
+        .toArray(CollectionResponse[]::new);
+    collectionIds = Arrays.stream(collections).mapToLong(CollectionResponse::id).toArray();
+    collectionVersions = versions(collectionIds, collectionVersionMap);
+
+    // 🔹 Indexado por la forma normalizada: los slugs guardados con reglas anteriores también se encuentran
+    categoryBySlug = new HashMap<>();
+    for (int i = 0; i < categories.length; i++) {
+      if (categories[i].slug() != null) categoryBySlug.putIfAbsent(SlugNormalizer.normalize(categories[i].slug()), i);
+    }
+    collectionBySlug = new HashMap<>();
+    for (int i = 0; i < collections.length; i++) {
+      if (collections[i].slug() != null) collectionBySlug.putIfAbsent(SlugNormalizer.normalize(collections[i].slug()), i);
+    }
+
+    // 🔹 Categorías y colecciones compartidas: una sola instancia por id en toda la foto
+    products = productList.stream()
+        .map(this::canonical)
+        .sorted(Comparator.comparing(ProductResponse::id))
+        .toArray(ProductResponse[]::new);
+    productIds = Arrays.stream(products).mapToLong(ProductResponse::id).toArray();
+    productVersions = versions(productIds, productVersionMap);
+    byPrice = order(BY_PRICE);
+    byName = order(BY_NAME);
+
+    productsByCategory = new HashMap<>();
+    productsByCollection = new HashMap<>();
+    for (int pos = 0; pos < products.length; pos++) {
+      ProductResponse product = products[pos];
+      if (product.category() != null) {
+        productsByCategory.computeIfAbsent(product.category().id(), id -> new RoaringBitmap()).add(pos);
+      }
+      for (CollectionResponse collection : product.collections()) {
+        productsByCollection.computeIfAbsent(collection.id(), id -> new RoaringBitmap()).add(pos);
+      }
+    }
+    productsByCategory.values().forEach(RoaringBitmap::runOptimize);
+    productsByCollection.values().forEach(RoaringBitmap::runOptimize);
+
+    builtAt = Instant.now();
+    buildMillis = (System.nanoTime() - startNanos) / 1_000_000;
+    estimatedBytes = estimateBytes();
+  }
+
+  // 🔹 Carga inicial: la versión propia de cada producto viene con él; las de categorías y colecciones, aparte
+  public static CatalogSnapshot of(
+      Collection<ProductDetail> products,
+      Collection<CategoryResponse> categories,
+      Collection<CollectionResponse> collections,
+      Collection<RowVersion> categoryVersions,
+      Collection<RowVersion> collectionVersions
+  ) {
+    List<ProductResponse> productList = new ArrayList<>(products.size());
+    Map<Long, RowVersion> productVersions = new HashMap<>(products.size() * 2);
+    for (ProductDetail detail : products) {
+      productList.add(detail.product());
+      productVersions.put(detail.product().id(), new RowVersion(
+          detail.product().id(), detail.version().version(), detail.version().updatedAt()));
+    }
+    return new CatalogSnapshot(productList, productVersions, categories, byId(categoryVersions),
+        collections, byId(collectionVersions), System.nanoTime());
+  }
+
+  // 🔹 Copy-on-write: foto nueva con los eventos aplicados en orden. La foto actual no cambia.
+  // Los eventos son idempotentes (alta/reemplazo/baja por id), así que reaplicar uno es inofensivo.
+  public CatalogSnapshot apply(List<?> events) {
+    long start = System.nanoTime();
+    Map<Long, ProductResponse> productMap = new HashMap<>(products.length * 2);
+    for (ProductResponse product : products) productMap.put(product.id(), product);
+    Map<Long, RowVersion> productVersionMap = byId(Arrays.asList(productVersions));
+    Map<Long, CategoryResponse> categoryMap = new HashMap<>();
+    for (CategoryResponse category : categories) categoryMap.put(category.id(), category);
+    Map<Long, RowVersion> categoryVersionMap = byId(Arrays.asList(categoryVersions));
+    Map<Long, CollectionResponse> collectionMap = new HashMap<>();
+    for (CollectionResponse collection : collections) collectionMap.put(collection.id(), collection);
+    Map<Long, RowVersion> collectionVersionMap = byId(Arrays.asList(collectionVersions));
+
+    for (Object event : events) {
+      switch (event) {
+        case ProductSavedEvent e -> {
+          productMap.put(e.product().id(), e.product());
+          productVersionMap.put(e.product().id(), e.version());
+        }
+        case ProductDeletedEvent e -> {
+          productMap.remove(e.productId());
+          productVersionMap.remove(e.productId());
+        }
+        case CategorySavedEvent e -> {
+          categoryMap.put(e.category().id(), e.category());
+          categoryVersionMap.put(e.category().id(), e.version());
+        }
+        case CategoryDeletedEvent e -> {
+          categoryMap.remove(e.categoryId());
+          categoryVersionMap.remove(e.categoryId());
+        }
+        case CollectionSavedEvent e -> {
+          collectionMap.put(e.collection().id(), e.collection());
+          collectionVersionMap.put(e.collection().id(), e.version());
+        }
+        case CollectionDeletedEvent e -> {
+          collectionMap.remove(e.collectionId());
+          collectionVersionMap.remove(e.collectionId());
+        }
+        default -> throw new IllegalArgumentException("Evento no soportado: " + event);
+      }
+    }
+    // 🔹 canonical() vuelve a apuntar cada producto a la categoría/colecciones vigentes
+    // (renombres) y descarta las colecciones eliminadas
+    return new CatalogSnapshot(productMap.values(), productVersionMap, categoryMap.values(), categoryVersionMap,
+        collectionMap.values(), collectionVersionMap, start);
+  }
+
+  // ---------------------------------------------------------------------------
+  // Lecturas
+
+  public Optional<ProductResponse> product(long id) {
+    int pos = Arrays.binarySearch(productIds, id);
+    return pos >= 0 ? Optional.of(products[pos]) : Optional.empty();
+  }
+
+  // 🔹 Producto con su ETag: versión propia + la de su categoría y colecciones en esta misma foto
+  // (mismo cálculo que la consulta agregada)
+  public Optional<ProductDetail> detail(long id) {
+    int pos = Arrays.binarySearch(productIds, id);
+    if (pos < 0) return Optional.empty();
+    ProductResponse product = products[pos];
+    RowVersion category = product.category() != null
+        ? versionOf(categoryIds, categoryVersions, product.category().id())
+        : null;
+    List<RowVersion> productCollections = new ArrayList<>(product.collections().size());
+    for (CollectionResponse collection : product.collections()) {
+      productCollections.add(versionOf(collectionIds, collectionVersions, collection.id()));
+    }
+    return Optional.of(new ProductDetail(product,
+        ProductVersionRow.of(productVersions[pos], category, productCollections)));
+  }
+
+  // 🔹 En el orden recibido; los ids que no están se omiten
+  public List<ProductResponse> products(List<Long> ids) {
+    List<ProductResponse> result = new ArrayList<>(ids.size());
+    for (Long id : ids) {
+      int pos = Arrays.binarySearch(productIds, id);
+      if (pos >= 0) result.add(products[pos]);
+    }
+    return result;
+  }
+
+  public List<CategoryResponse> categories() {
+    return List.of(categories);
+  }
+
+  public Optional<CategoryResponse> category(long id) {
+    int pos = Arrays.binarySearch(categoryIds, id);
+    return pos >= 0 ? Optional.of(categories[pos]) : Optional.empty();
+  }
+
+  // 🔹 Categoría con la versión guardada en esta misma foto
+  public Optional<CategoryDetail> categoryDetail(long id) {
+    int pos = Arrays.binarySearch(categoryIds, id);
+    return pos >= 0 ? Optional.of(new CategoryDetail(categories[pos], categoryVersions[pos])) : Optional.empty();
+  }
+
+  // 🔹 Slugs ya normalizados (los que no lo están no coinciden); resultado ordenado por id,
+  // como la consulta en base de datos
+  public List<CategoryResponse> categoriesBySlug(Collection<String> slugs) {
+    return slugs.stream()
+        .map(categoryBySlug::get)
+        .filter(pos -> pos != null)
+        .distinct()
+        .sorted()
+        .map(pos -> categories[pos])
+        .toList();
+  }
+
+  public List<CollectionResponse> collections() {
+    return List.of(collections);
+  }
+
+  public Optional<CollectionResponse> collection(long id) {
+    int pos = Arrays.binarySearch(collectionIds, id);
+    return pos >= 0 ? Optional.of(collections[pos]) : Optional.empty();
+  }
+
+  public Optional<CollectionDetail> collectionDetail(long id) {
+    int pos = Arrays.binarySearch(collectionIds, id);
+    return pos >= 0 ? Optional.of(new CollectionDetail(collections[pos], collectionVersions[pos])) : Optional.empty();
+  }
+
+  public List<CollectionResponse> collectionsBySlug(Collection<String> slugs) {
+    return slugs.stream()
+        .map(collectionBySlug::get)
+        .filter(pos -> pos != null)
+        .distinct()
+        .sorted()
+        .map(pos -> collections[pos])
+        .toList();
+  }
+
+  // 🔹 Página por keyset con el mismo contrato que la consulta (orden + id, cursor exclusivo).
+  // categoryId / collectionId null = sin ese filtro. Devuelve hasta limit productos.
+  public List<ProductResponse> page(Long categoryId, Long collectionId, ProductPageQuery query, int limit) {
+    return page(categoryId != null ? List.of(categoryId) : null, collectionId, query, limit);
+  }
+
+  // 🔹 Varias categorías (un subárbol): mismo recorrido sobre la unión de sus bitmaps
+  public List<ProductResponse> page(
+      Collection<Long> categoryIds, Long collectionId, ProductPageQuery query, int limit
+  ) {
+    RoaringBitmap scope = scope(categoryIds, collectionId);
+    if (scope != null && scope.isEmpty()) return List.of();
+
+    int[] order = switch (query.sort()) {
+      case ID -> null;
+      case PRICE -> byPrice;
+      case NAME -> byName;
+    };
+    boolean asc = query.direction().isAscending();
+    int start = start(order, query.sort(), query.cursor(), asc);
+
+    List<ProductResponse> result = new ArrayList<>(Math.min(limit, products.length));
+    for (int i = start; i >= 0 && i < products.length && result.size() < limit; i += asc ? 1 : -1) {
+      int pos = order == null ? i : order[i];
+      if (scope == null || scope.contains(pos)) result.add(products[pos]);
+    }
+    return result;
+  }
+
+  // 🔹 Productos de una categoría / colección con id > afterId, en orden de id (limit <= 0 = todos)
+  public List<ProductResponse> inCategory(long categoryId, long afterId, int limit) {
+    return firstAfter(productsByCategory.get(categoryId), afterId, limit);
+  }
+
+  public List<ProductResponse> inCollection(long collectionId, long afterId, int limit) {
+    return firstAfter(productsByCollection.get(collectionId), afterId, limit);
+  }
+
+  public CatalogSnapshotStats stats() {
+    return new CatalogSnapshotStats(
+        products.length,
+        categories.length,
+        collections.length,
+        builtAt,
+        buildMillis,
+        estimatedBytes
+    );
+  }
+
+  // ---------------------------------------------------------------------------
+
+  private ProductResponse canonical(ProductResponse product) {
+    CategoryResponse category = product.category();
+    if (category != null) {
+      int pos = Arrays.binarySearch(categoryIds, category.id());
+      if (pos >= 0) category = categories[pos];
+    }
+    List<CollectionResponse> productCollections = new ArrayList<>(product.collections().size());
+    boolean same = category == product.category();
+    for (CollectionResponse collection : product.collections()) {
+      int pos = Arrays.binarySearch(collectionIds, collection.id());
+      if (pos < 0) {
+        same = false;   // colección eliminada
+        continue;
+      }
+      productCollections.add(collections[pos]);
+      same &= collections[pos] == collection;
+    }
+    if (same) return product;
+    return new ProductResponse(
+        product.id(),
+        product.name(),
+        product.price(),
+        product.stock(),
+        product.description(),
+        product.imageUrls(),
+        category,
+        List.copyOf(productCollections)
+    );
+  }
+
+  private static Map<Long, RowVersion> byId(Collection<RowVersion> versions) {
+    Map<Long, RowVersion> map = new HashMap<>(versions.size() * 2);
+    for (RowVersion version : versions) map.put(version.id(), version);
+    return map;
+  }
+
+  // 🔹 Alineado con ids; una fila sin versión conocida queda con versión null (no debería pasar)
+  private static RowVersion[] versions(long[] ids, Map<Long, RowVersion> byId) {
+    RowVersion[] versions = new RowVersion[ids.length];
+    for (int i = 0; i < ids.length; i++) {
+      RowVersion version = byId.get(ids[i]);
+      versions[i] = version != null ? version : new RowVersion(ids[i], null, null);
+    }
+    return versions;
+  }
+
+  private static RowVersion versionOf(long[] ids, RowVersion[] versions, long id) {
+    int pos = Arrays.binarySearch(ids, id);
+    return pos >= 0 ? versions[pos] : new RowVersion(id, null, null);
+  }
+
+  private int[] order(Comparator<ProductResponse> comparator) {
+    Integer[] positions = new Integer[products.length];
+    for (int i = 0; i < positions.length; i++) positions[i] = i;
+    Arrays.sort(positions, (a, b) -> comparator.compare(products[a], products[b]));
+    return Arrays.stream(positions).mapToInt(Integer::intValue).toArray();
+  }
+
+  private RoaringBitmap scope(Collection<Long> categoryIds, Long collectionId) {
+    RoaringBitmap scope = null;
+    if (categoryIds != null) {
+      scope = categoryIds.size() == 1
+          ? productsByCategory.getOrDefault(categoryIds.iterator().next(), new RoaringBitmap())
+          : RoaringBitmap.or(categoryIds.stream()
+              .map(id -> productsByCategory.getOrDefault(id, new RoaringBitmap()))
+              .iterator());
+    }
+    if (collectionId != null) {
+      RoaringBitmap inCollection = productsByCollection.getOrDefault(collectionId, new RoaringBitmap());
+      scope = scope == null ? inCollection : RoaringBitmap.and(scope, inCollection);
+    }
+    return scope;
+  }
+
+  // 🔹 Primer índice (dentro del orden) estrictamente después del cursor en la dirección pedida
+  private int start(int[] order, ProductSort sort, ProductCursor cursor, boolean asc) {
+    if (cursor == null) return asc ? 0 : products.length - 1;
+    // 🔹 Búsqueda binaria del primer índice con (clave, id) > cursor
+    int low = 0;
+    int high = products.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      ProductResponse product = products[order == null ? mid : order[mid]];
+      if (compare(product, sort, cursor) > 0) high = mid;
+      else low = mid + 1;
+    }
+    if (asc) return low;
+    // 🔹 Descendente: último índice con (clave, id) < cursor
+    int i = low - 1;
+    while (i >= 0 && compare(products[order == null ? i : order[i]], sort, cursor) == 0) i--;
+    return i;
+  }
+
+  private static int compare(ProductResponse product, ProductSort sort, ProductCursor cursor) {
+    int byKey = switch (sort) {
+      case ID -> 0;
+      case PRICE -> Long.compare(product.price(), Long.parseLong(cursor.lastValue()));
+      case NAME -> product.name().compareTo(cursor.lastValue());
+    };
+    return byKey != 0 ? byKey : Long.compare(product.id(), cursor.lastId());
+  }
+
+  private List<ProductResponse> firstAfter(RoaringBitmap members, long afterId, int limit) {
+    if (members == null) return List.of();
+    int from = Arrays.binarySearch(productIds, afterId);
+    from = from >= 0 ? from + 1 : -from - 1;
+
+    List<ProductResponse> result = new ArrayList<>();
+    PeekableIntIterator it = members.getIntIterator();
+    it.advanceIfNeeded(from);
+    while (it.hasNext() && (limit <= 0 || result.size() < limit)) {
+      result.add(products[it.next()]);
+    }
+    return result;
+  }
+
+  // 🔹 Estimación (JVM de 64 bits con punteros comprimidos y Strings Latin-1) de lo que retiene la foto:
+  // arreglos e índices + productos con sus Strings y listas. Categorías y colecciones se cuentan una vez.
+  private long estimateBytes() {
+    long bytes = 16 + 8L * productIds.length       // productIds
+        + 4 * (16 + 4L * products.length)         // products, productVersions, byPrice, byName
+        + 2 * (16 + 12L * (categories.length + collections.length))    // arreglos de categorías/colecciones
+        + 2 * 16 + 4L * (categories.length + collections.length)       // sus versiones
+        + VERSION_BYTES * (products.length + categories.length + collections.length);
+    for (RoaringBitmap bitmap : productsByCategory.values()) bytes += 48 + bitmap.getSizeInBytes();
+    for (RoaringBitmap bitmap : productsByCollection.values()) bytes += 48 + bitmap.getSizeInBytes();
+    for (CategoryResponse c : categories) {
+      bytes += 40 + 16 + text(c.name()) + text(c.description()) + text(c.slug()) + text(c.image());
+    }
+    for (CollectionResponse c : collections) {
+      bytes += 40 + 16 + text(c.name()) + text(c.description()) + text(c.slug()) + text(c.image());
+    }
+    for (ProductResponse p : products) {
+      bytes += 48                       // record ProductResponse
+          + 3 * 16                      // Long id, price, stock
+          + text(p.name()) + text(p.description())
+          + 16 + 4L * p.imageUrls().size()
+          + 16 + 4L * p.collections().size();
+      for (String url : p.imageUrls()) bytes += text(url);
+    }
+    return bytes;
+  }
+
+  private static long text(String value) {
+    return value == null ? 0 : 24 + 16 + value.length();
+  }
+}
@@ -0,0 +1,12 @@
+package com.springboot_sa_ha1.modules.catalog.readmodel;
+
+import java.time.Instant;
+
+public record CatalogSnapshotStats(
+    int products,
+    int categories,
+    int collections,
+    Instant builtAt,
+    long buildMillis,      // tiempo de armado de la foto vigente (carga inicial o última escritura aplicada)
+    long estimatedBytes    // memoria retenida aproximada
+) {}
@@ -0,0 +1,277 @@
+package com.springboot_sa_ha1.modules.catalog.warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot_sa_ha1.modules.catalog.CatalogPageCache;
+import com.springboot_sa_ha1.modules.catalog.StartupOrder;
+import com.springboot_sa_ha1.modules.categories.dto.CategoryResponse;
+import com.springboot_sa_ha1.modules.categories.service.CategoryService;
+import com.springboot_sa_ha1.modules.collections.dto.CollectionResponse;
+import com.springboot_sa_ha1.modules.collections.service.CollectionService;
+import com.springboot_sa_ha1.modules.order_products.dto.UnitsSoldResponse;
+import com.springboot_sa_ha1.modules.order_products.repository.OrderProductRepository;
+import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import com.springboot_sa_ha1.modules.products.pagination.ProductGroupQuery;
+import com.springboot_sa_ha1.modules.products.pagination.ProductPageQuery;
+import com.springboot_sa_ha1.modules.products.service.ProductService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// 🔹 Calentamiento del catálogo al arrancar: recorre las categorías, colecciones y productos más vendidos
+// por los mismos caminos que una petición (servicio → mapeo → JSON) para cargar metadatos de Hibernate,
+// cachés y JIT antes de recibir tráfico. Corre al final de ApplicationReadyEvent (StartupOrder: después de
+// slugs, índices y modelo de lectura, para que ninguna publicación posterior invalide lo cacheado); Spring Boot publica ACCEPTING_TRAFFIC recién cuando terminan esos listeners, así que la
+// instancia no aparece lista (/actuator/health/readiness) hasta que el calentamiento termina o agota su tiempo.
+@Component
+public class CatalogWarmup implements HealthIndicator {
+
+  private static final Logger log = LoggerFactory.getLogger(CatalogWarmup.class);
+
+  private final boolean enabled;
+  private final Duration budget;
+  private final int categoryLimit;
+  private final int collectionLimit;
+  private final int productLimit;
+  private final int rounds;
+  private final List<ProductGroupQuery> groupPages;
+  private final CategoryService categoryService;
+  private final CollectionService collectionService;
+  private final ProductService productService;
+  private final OrderProductRepository orderProductRepository;
+  private final CatalogPageCache pageCache;
+  private final ObjectMapper objectMapper;
+
+  private volatile CatalogWarmupReport report;
+
+  public CatalogWarmup(
+      @Value("${catalog.warmup.enabled:true}") boolean enabled,
+      @Value("${catalog.warmup.budget:15s}") Duration budget,
+      @Value("${catalog.warmup.categories:10}") int categoryLimit,
+      @Value("${catalog.warmup.collections:10}") int collectionLimit,
+      @Value("${catalog.warmup.products:100}") int productLimit,
+      @Value("${catalog.warmup.rounds:3}") int rounds,
+      @Value("${catalog.warmup.group-limits:24}") List<Integer> groupLimits,
+      CategoryService categoryService,
+      CollectionService collectionService,
+      ProductService productService,
+      OrderProductRepository orderProductRepository,
+      CatalogPageCache pageCache,
+      ObjectMapper objectMapper
+  ) {
+    this.enabled = enabled;
+    this.budget = budget;
+    this.categoryLimit = categoryLimit;
+    this.collectionLimit = collectionLimit;
+    this.productLimit = productLimit;
+    this.rounds = rounds;
+    // 🔹 Mismas claves que arman los controladores con ?limit=; 0 = listado completo (sin limit)
+    this.groupPages = groupLimits.stream()
+        .map(limit -> ProductGroupQuery.of(limit == null || limit <= 0 ? null : limit, null))
+        .distinct()
+        .toList();
+    this.categoryService = categoryService;
+    this.collectionService = collectionService;
+    this.productService = productService;
+    this.orderProductRepository = orderProductRepository;
+    this.pageCache = pageCache;
+    this.objectMapper = objectMapper;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Order(StartupOrder.WARMUP)
+  public void onApplicationReady() {
+    if (!enabled) {
+      report = CatalogWarmupReport.skipped();
+      return;
+    }
+    report = run();
+  }
+
+  CatalogWarmupReport run() {
+    long start = System.nanoTime();
+    long deadline = start + budget.toNanos();
+    Progress progress = new Progress(deadline);
+
+    try {
+      List<CategoryResponse> categories = hottest(
+          categoryService.listarTodos().stream().filter(c -> c.slug() != null).toList(),
+          CategoryResponse::id, orderProductRepository.sumUnitsByCategory(), categoryLimit);
+      List<CollectionResponse> collections = hottest(
+          collectionService.listarTodos().stream().filter(c -> c.slug() != null).toList(),
+          CollectionResponse::id, orderProductRepository.sumUnitsByCollection(), collectionLimit);
+      List<Long> productIds = hottestProductIds();
+      log.info("Warm-up del catálogo: {} categorías {}, {} colecciones {}, {} productos (presupuesto {} s)",
+          categories.size(), categories.stream().map(CategoryResponse::slug).toList(),
+          collections.size(), collections.stream().map(CollectionResponse::slug).toList(),
+          productIds.size(), budget.toSeconds());
+
+      // 🔹 La primera vuelta deja las páginas en la caché; las siguientes repiten el trabajo completo para el JIT
+      for (int round = 1; round <= rounds && !progress.expired(); round++) {
+        boolean fillCache = round == 1;
+        for (CategoryResponse category : categories) {
+          progress.step(() -> {
+            List<String> slugs = List.of(category.slug());
+            for (ProductGroupQuery page : groupPages) {
+              if (fillCache) {
+                pageCache.get("categories", slugs, page, () -> categoryService.listarCategoriasConProductosPorSlug(slugs, page));
+              } else {
+                serialize(categoryService.listarCategoriasConProductosPorSlug(slugs, page));
+              }
+            }
+            serialize(productService.listarPorCategoriaSlug(category.slug(), firstPage(), false));
+          }, progress::category);
+        }
+        for (CollectionResponse collection : collections) {
+          progress.step(() -> {
+            List<String> slugs = List.of(collection.slug());
+            for (ProductGroupQuery page : groupPages) {
+              if (fillCache) {
+                pageCache.get("collections", slugs, page, () -> collectionService.listarColeccionesConProductosPorSlug(slugs, page));
+              } else {
+                serialize(collectionService.listarColeccionesConProductosPorSlug(slugs, page));
+              }
+            }
+            serialize(productService.listarPorColeccionSlug(collection.slug(), firstPage()));
+          }, progress::collection);
+        }
+        for (Long id : productIds) {
+          progress.step(() -> serialize(productService.obtenerPorId(id)), progress::product);
+        }
+        // 🔹 Sólo cuentan las rondas completas
+        if (!progress.expired()) progress.rounds++;
+      }
+    } catch (RuntimeException e) {
+      // 🔹 Un calentamiento fallido no debe dejar la instancia fuera de servicio
+      log.warn("Warm-up del catálogo interrumpido", e);
+    }
+
+    CatalogWarmupReport result = new CatalogWarmupReport(
+        true,
+        progress.rounds,
+        progress.categories,
+        progress.collections,
+        progress.products,
+        progress.failures,
+        (System.nanoTime() - start) / 1_000_000,
+        progress.expired()
+    );
+    log.info("Warm-up del catálogo terminado en {} ms: {} rondas, {} páginas de categoría, {} de colección, "
+            + "{} productos, {} errores{}",
+        result.elapsedMillis(), result.rounds(), result.categoryPages(), result.collectionPages(),
+        result.products(), result.failures(), result.budgetExhausted() ? " (presupuesto agotado)" : "");
+    return result;
+  }
+
+  @Override
+  public Health health() {
+    CatalogWarmupReport current = report;
+    if (current == null) {
+      return Health.outOfService().withDetail("warmup", "en curso").build();
+    }
+    return Health.up()
+        .withDetail("enabled", current.enabled())
+        .withDetail("rounds", current.rounds())
+        .withDetail("categoryPages", current.categoryPages())
+        .withDetail("collectionPages", current.collectionPages())
+        .withDetail("products", current.products())
+        .withDetail("failures", current.failures())
+        .withDetail("elapsedMillis", current.elapsedMillis())
+        .withDetail("budgetExhausted", current.budgetExhausted())
+        .build();
+  }
+
+  // 🔹 Más vendidos primero; si faltan (catálogo nuevo, sin pedidos) se completa en el orden del listado
+  private static <T> List<T> hottest(List<T> all, Function<T, Long> id, List<UnitsSoldResponse> units, int limit) {
+    Map<Long, Long> sold = units.stream()
+        .collect(Collectors.toMap(UnitsSoldResponse::id, UnitsSoldResponse::units, Long::sum));
+    return all.stream()
+        .sorted(Comparator.comparing((T item) -> sold.getOrDefault(id.apply(item), 0L)).reversed())
+        .limit(limit)
+        .toList();
+  }
+
+  private List<Long> hottestProductIds() {
+    Set<Long> ids = new LinkedHashSet<>();
+    orderProductRepository.sumUnitsByProduct().stream()
+        .sorted(Comparator.comparing(UnitsSoldResponse::units).reversed())
+        .limit(productLimit)
+        .forEach(units -> ids.add(units.id()));
+    if (ids.size() < productLimit) {
+      for (ProductResponse product : productService.listarTodos(firstPage()).items()) {
+        if (ids.size() >= productLimit) break;
+        ids.add(product.id());
+      }
+    }
+    return new ArrayList<>(ids);
+  }
+
+  private static ProductPageQuery firstPage() {
+    return ProductPageQuery.of(null, null, null, null);
+  }
+
+  private void serialize(Object value) {
+    try {
+      objectMapper.writeValueAsBytes(value);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  // 🔹 Cuenta lo cargado y corta en cuanto se agota el presupuesto (entre pasos, no a mitad de uno)
+  private static final class Progress {
+    private final long deadline;
+    int rounds;
+    int categories;
+    int collections;
+    int products;
+    int failures;
+
+    Progress(long deadline) {
+      this.deadline = deadline;
+    }
+
+    boolean expired() {
+      return System.nanoTime() >= deadline;
+    }
+
+    void step(Runnable work, Runnable onSuccess) {
+      if (expired()) return;
+      try {
+        work.run();
+        onSuccess.run();
+      } catch (RuntimeException e) {
+        failures++;
+        log.debug("Paso de warm-up fallido", e);
+      }
+    }
+
+    void category() {
+      categories++;
+    }
+
+    void collection() {
+      collections++;
+    }
+
+    void product() {
+      products++;
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package com.springboot_sa_ha1.modules.catalog.warmup;
+
+public record CatalogWarmupReport(
+    boolean enabled,
+    int rounds,
+    int categoryPages,
+    int collectionPages,
+    int products,
+    int failures,
+    long elapsedMillis,
+    boolean budgetExhausted   // se cortó por tiempo antes de completar todas las rondas
+) {
+
+  static CatalogWarmupReport skipped() {
+    return new CatalogWarmupReport(false, 0, 0, 0, 0, 0, 0, false);
+  }
+}
@@ -1,14 +1,23 @@
 package com.springboot_sa_ha1.modules.categories.controller;
 
 
+import com.springboot_sa_ha1.modules.catalog.CatalogPageCache;
+import com.springboot_sa_ha1.modules.catalog.ResourceVersion;
+import com.springboot_sa_ha1.modules.categories.dto.CategoryNodeResponse;
+import com.springboot_sa_ha1.modules.categories.dto.CategoryDetail;
 import com.springboot_sa_ha1.modules.categories.dto.CategoryRequest;
 import com.springboot_sa_ha1.modules.categories.dto.CategoryResponse;
-import com.springboot_sa_ha1.modules.categories.dto.CategoryWithProductsResponse;
 import com.springboot_sa_ha1.modules.categories.service.CategoryService;
 import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import com.springboot_sa_ha1.modules.products.pagination.ProductGroupQuery;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -17,9 +26,11 @@ import java.util.List;
 public class CategoryController {
 
   private final CategoryService categoryService;
+  private final CatalogPageCache pageCache;
 
-  public CategoryController(CategoryService categoryService) {
+  public CategoryController(CategoryService categoryService, CatalogPageCache pageCache) {
     this.categoryService = categoryService;
+    this.pageCache = pageCache;
   }
 
   @GetMapping
@@ -27,14 +38,44 @@ public class CategoryController {
     return ResponseEntity.ok(categoryService.listarTodos());
   }
 
+  // 🔹 ?limit=8 recorta cada grupo; la página siguiente de un grupo: ?slugs=<slug>&limit=8&cursor=<nextCursor>.
+  // Se sirve desde la caché de páginas ya serializadas, con ETag (If-None-Match → 304)
   @GetMapping("/filtered-with-products")
-  public List<CategoryWithProductsResponse> listarCategoriasConProductosPorSlug(@RequestParam List<String> slugs) {
-    return categoryService.listarCategoriasConProductosPorSlug(slugs);
+  public ResponseEntity<byte[]> listarCategoriasConProductosPorSlug(
+      @RequestParam List<String> slugs,
+      @RequestParam(required = false) Integer limit,
+      @RequestParam(required = false) String cursor,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+  ) {
+    ProductGroupQuery page = ProductGroupQuery.of(limit, cursor);
+    return pageCache.get("categories", slugs, page, () -> categoryService.listarCategoriasConProductosPorSlug(slugs, page))
+        .toResponse(ifNoneMatch);
   }
 
+  // 🔹 Misma respuesta que /filtered-with-products, escrita en streaming (memoria acotada)
+  @GetMapping("/filtered-with-products/stream")
+  public ResponseEntity<StreamingResponseBody> streamCategoriasConProductosPorSlug(@RequestParam List<String> slugs) {
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(categoryService.exportarCategoriasConProductosPorSlug(slugs));
+  }
+
+  // 🔹 GET condicional (ETag / Last-Modified): la versión viene con el cuerpo (foto del catálogo o una
+  // sola proyección), así que el ETag corresponde siempre a lo que se entrega
   @GetMapping("/{id}")
-  public ResponseEntity<CategoryResponse> obtenerPorId(@PathVariable Long id) {
-    return ResponseEntity.ok(categoryService.obtenerPorId(id));
+  public ResponseEntity<CategoryResponse> obtenerPorId(@PathVariable Long id, WebRequest request) {
+    CategoryDetail detail = categoryService.obtenerDetalle(id);
+    ResourceVersion version = detail.version().toResourceVersion();
+    if (request.checkNotModified(version.etag(), version.lastModifiedMillis())) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+    }
+    return ResponseEntity.ok(detail.category());
+  }
+
+  // 🔹 Subárbol completo (la categoría, sus hijas, nietas, ...) con la profundidad de cada una
+  @GetMapping("/{id}/subtree")
+  public ResponseEntity<List<CategoryNodeResponse>> listarSubarbol(@PathVariable Long id) {
+    return ResponseEntity.ok(categoryService.listarSubarbol(id));
   }
 
   @PostMapping("/create")
@@ -42,9 +83,17 @@ public class CategoryController {
     return ResponseEntity.ok(categoryService.guardar(request));
   }
 
+  // 🔹 If-Match opcional (412 si no coincide); devuelve el ETag nuevo, el de la entidad recién guardada
   @PutMapping("/{id}")
-  public ResponseEntity<CategoryResponse> actualizar(@PathVariable Long id, @Valid @RequestBody CategoryRequest request) {
-    return ResponseEntity.ok(categoryService.actualizar(id, request));
+  public ResponseEntity<CategoryResponse> actualizar(
+      @PathVariable Long id,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+      @Valid @RequestBody CategoryRequest request
+  ) {
+    CategoryDetail detail = categoryService.actualizar(id, request, ifMatch);
+    return ResponseEntity.ok()
+        .eTag(detail.version().toResourceVersion().etag())
+        .body(detail.category());
   }
 
   @DeleteMapping("/{id}")
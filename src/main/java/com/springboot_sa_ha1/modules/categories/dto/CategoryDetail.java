@@ -0,0 +1,19 @@
+package com.springboot_sa_ha1.modules.categories.dto;
+
+import com.springboot_sa_ha1.modules.catalog.RowVersion;
+
+import java.time.Instant;
+
+// 🔹 Categoría junto con su versión, leídas de la misma fuente (foto del catálogo, base o entidad guardada):
+// el ETag de GET/PUT /api/category/{id} siempre corresponde al cuerpo que se entrega
+public record CategoryDetail(
+    CategoryResponse category,
+    RowVersion version
+) {
+
+  // 🔹 Usado por la proyección JPQL (SELECT new ...) de CategoryRepository.findDetailById
+  public CategoryDetail(Long id, String name, String description, String slug, String image,
+                        Long version, Instant updatedAt) {
+    this(new CategoryResponse(id, name, description, slug, image), new RowVersion(id, version, updatedAt));
+  }
+}
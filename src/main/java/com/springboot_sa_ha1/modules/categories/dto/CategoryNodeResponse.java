@@ -0,0 +1,10 @@
+package com.springboot_sa_ha1.modules.categories.dto;
+
+// 🔹 Nodo de un subárbol: depth es la distancia a la categoría pedida (0 = ella misma)
+public record CategoryNodeResponse(
+    Long id,
+    String name,
+    String slug,
+    Long parentId,
+    int depth
+) {}
@@ -0,0 +1,4 @@
+package com.springboot_sa_ha1.modules.categories.event;
+
+// 🔹 Se publica cuando una categoría se elimina
+public record CategoryDeletedEvent(Long categoryId) {}
@@ -0,0 +1,7 @@
+package com.springboot_sa_ha1.modules.categories.event;
+
+import com.springboot_sa_ha1.modules.catalog.RowVersion;
+import com.springboot_sa_ha1.modules.categories.dto.CategoryResponse;
+
+// 🔹 Se publica cuando una categoría se crea o se modifica (nombre, slug, etc.)
+public record CategorySavedEvent(CategoryResponse category, RowVersion version) {}
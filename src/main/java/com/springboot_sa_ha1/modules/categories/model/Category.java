@@ -6,14 +6,26 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "categorias")
+@Table(
+    name = "categorias",
+    indexes = {
+        // 🔹 Búsquedas por slug (findBySlug / findBySlugIn)
+        @Index(name = "idx_categorias_slug", columnList = "slug"),
+        @Index(name = "idx_categorias_parent", columnList = "parent_id")
+    }
+)
 @Getter
 @Setter
+@BatchSize(size = 128) // 🔹 los productos de una página resuelven su categoría en una sola consulta
 public class Category {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -28,6 +40,20 @@ public class Category {
 
   private String image;
 
+  // 🔹 Versión (bloqueo optimista) y fecha de cambio: ETag / Last-Modified de GET /api/category/{id}
+  @Version
+  @ColumnDefault("0")
+  @Column(nullable = false)
+  private Long version;
+
+  @UpdateTimestamp
+  private Instant updatedAt;
+
+  // 🔹 Jerarquía (null = raíz). Los ancestros/descendientes se leen de CategoryClosure, no recorriendo parent
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "parent_id")
+  private Category parent;
+
   @OneToMany(mappedBy = "category")
   private List<Product> products = new ArrayList<>();
 }
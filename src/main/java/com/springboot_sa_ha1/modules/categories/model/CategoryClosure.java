@@ -0,0 +1,25 @@
+package com.springboot_sa_ha1.modules.categories.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+// 🔹 Tabla de clausura de la jerarquía: una fila por cada par (ancestro, descendiente), incluida
+// la de cada categoría consigo misma (depth = 0). "Todo el subárbol de X" es WHERE ancestor_id = X
+// sobre la PK, sin consultas recursivas. Se mantiene desde CategoryServiceImp.
+@Entity
+@Table(
+    name = "category_closure",
+    // 🔹 La PK cubre los descendientes de una categoría; este índice, sus ancestros
+    indexes = @Index(name = "idx_category_closure_descendant", columnList = "descendant_id, ancestor_id")
+)
+@Getter
+@Setter
+public class CategoryClosure {
+
+  @EmbeddedId
+  private CategoryClosureId id;
+
+  @Column(nullable = false)
+  private int depth;
+}
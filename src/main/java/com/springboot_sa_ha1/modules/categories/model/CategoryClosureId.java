@@ -0,0 +1,22 @@
+package com.springboot_sa_ha1.modules.categories.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.io.Serializable;
+
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class CategoryClosureId implements Serializable {
+
+  @Column(name = "ancestor_id")
+  private Long ancestorId;
+
+  @Column(name = "descendant_id")
+  private Long descendantId;
+}
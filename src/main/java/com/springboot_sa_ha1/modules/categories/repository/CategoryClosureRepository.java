@@ -0,0 +1,85 @@
+package com.springboot_sa_ha1.modules.categories.repository;
+
+import com.springboot_sa_ha1.modules.categories.dto.CategoryNodeResponse;
+import com.springboot_sa_ha1.modules.categories.model.CategoryClosure;
+import com.springboot_sa_ha1.modules.categories.model.CategoryClosureId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+// 🔹 Las escrituras son INSERT ... SELECT / DELETE sobre la propia tabla: mover un subárbol
+// cuesta dos sentencias, sin importar cuántas categorías tenga
+@Repository
+public interface CategoryClosureRepository extends JpaRepository<CategoryClosure, CategoryClosureId> {
+
+  @Query("""
+       SELECT new com.springboot_sa_ha1.modules.categories.dto.CategoryNodeResponse(c.id, c.name, c.slug, c.parent.id, cc.depth)
+       FROM CategoryClosure cc, Category c
+       WHERE cc.id.ancestorId = :id AND c.id = cc.id.descendantId
+       ORDER BY cc.depth, c.id
+       """)
+  List<CategoryNodeResponse> findSubtree(@Param("id") Long ancestorId);
+
+  @Query("SELECT cc.id.descendantId FROM CategoryClosure cc WHERE cc.id.ancestorId = :id")
+  List<Long> findDescendantIds(@Param("id") Long ancestorId);
+
+  @Query("SELECT COUNT(cc) FROM CategoryClosure cc WHERE cc.depth = 0")
+  long countSelfLinks();
+
+  @Modifying
+  @Query(nativeQuery = true, value = """
+      INSERT INTO category_closure (ancestor_id, descendant_id, depth)
+      VALUES (:id, :id, 0)
+      """)
+  void insertSelfLink(@Param("id") Long id);
+
+  // 🔹 Cada ancestro del padre (incluido él) queda unido a cada nodo del subárbol
+  @Modifying
+  @Query(nativeQuery = true, value = """
+      INSERT INTO category_closure (ancestor_id, descendant_id, depth)
+      SELECT a.ancestor_id, d.descendant_id, a.depth + d.depth + 1
+      FROM category_closure a
+      JOIN category_closure d ON d.ancestor_id = :node
+      WHERE a.descendant_id = :parent
+      """)
+  int attachSubtree(@Param("node") Long node, @Param("parent") Long parent);
+
+  // 🔹 Corta los vínculos entre el subárbol y los ancestros de afuera; los internos se conservan
+  @Modifying
+  @Query(nativeQuery = true, value = """
+      DELETE FROM category_closure
+      WHERE descendant_id IN (SELECT descendant_id FROM category_closure WHERE ancestor_id = :node)
+        AND ancestor_id NOT IN (SELECT descendant_id FROM category_closure WHERE ancestor_id = :node)
+      """)
+  int detachSubtree(@Param("node") Long node);
+
+  @Modifying
+  @Query("DELETE FROM CategoryClosure cc WHERE cc.id.descendantId = :id")
+  int deleteLinksOf(@Param("id") Long id);
+
+  // 🔹 Reconstrucción completa desde categorias.parent_id, un nivel de profundidad por sentencia
+  @Modifying
+  @Query("DELETE FROM CategoryClosure")
+  int deleteAllLinks();
+
+  @Modifying
+  @Query(nativeQuery = true, value = """
+      INSERT INTO category_closure (ancestor_id, descendant_id, depth)
+      SELECT id, id, 0 FROM categorias
+      """)
+  int insertAllSelfLinks();
+
+  @Modifying
+  @Query(nativeQuery = true, value = """
+      INSERT INTO category_closure (ancestor_id, descendant_id, depth)
+      SELECT cc.ancestor_id, c.id, cc.depth + 1
+      FROM categorias c
+      JOIN category_closure cc ON cc.descendant_id = c.parent_id
+      WHERE cc.depth = :depth
+      """)
+  int insertLinksBelow(@Param("depth") int depth);
+}
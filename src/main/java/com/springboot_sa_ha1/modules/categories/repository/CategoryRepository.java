@@ -1,14 +1,64 @@
 package com.springboot_sa_ha1.modules.categories.repository;
 
+import com.springboot_sa_ha1.modules.catalog.RowVersion;
+import com.springboot_sa_ha1.modules.categories.dto.CategoryDetail;
+import com.springboot_sa_ha1.modules.categories.dto.CategoryResponse;
 import com.springboot_sa_ha1.modules.categories.model.Category;
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface CategoryRepository extends JpaRepository<Category, Long >{
 
-  // Usamos EntityGraph en lugar de JOIN FETCH
-  @EntityGraph(attributePaths = {"products", "products.images", "products.productCollections", "products.productCollections.collection"})
-  List<Category> findAllBySlugIn(List<String> slugs);
+  Optional<Category> findBySlug(String slug);
+
+  boolean existsByParentId(Long parentId);
+
+  // 🔹 Proyecciones directas a DTO para las lecturas (sin entidades administradas)
+  @Query("""
+       SELECT new com.springboot_sa_ha1.modules.categories.dto.CategoryResponse(c.id, c.name, c.description, c.slug, c.image)
+       FROM Category c
+       ORDER BY c.id
+       """)
+  List<CategoryResponse> findAllResponses();
+
+  @Query("""
+       SELECT new com.springboot_sa_ha1.modules.categories.dto.CategoryResponse(c.id, c.name, c.description, c.slug, c.image)
+       FROM Category c
+       WHERE c.id = :id
+       """)
+  Optional<CategoryResponse> findResponseById(@Param("id") Long id);
+
+  @Query("""
+       SELECT new com.springboot_sa_ha1.modules.categories.dto.CategoryResponse(c.id, c.name, c.description, c.slug, c.image)
+       FROM Category c
+       WHERE c.id IN :ids
+       """)
+  List<CategoryResponse> findResponsesByIdIn(@Param("ids") List<Long> ids);
+
+  @Query("""
+       SELECT new com.springboot_sa_ha1.modules.categories.dto.CategoryResponse(c.id, c.name, c.description, c.slug, c.image)
+       FROM Category c
+       WHERE c.slug IN :slugs
+       ORDER BY c.id
+       """)
+  List<CategoryResponse> findResponsesBySlugIn(@Param("slugs") List<String> slugs);
+
+  // 🔹 Cuerpo y versión en la misma fila: el ETag corresponde a lo que se entrega
+  @Query("""
+       SELECT new com.springboot_sa_ha1.modules.categories.dto.CategoryDetail(c.id, c.name, c.description, c.slug, c.image, c.version, c.updatedAt)
+       FROM Category c
+       WHERE c.id = :id
+       """)
+  Optional<CategoryDetail> findDetailById(@Param("id") Long id);
+
+  // 🔹 Versiones de todas las filas, para el ETag de los productos en el modelo de lectura
+  @Query("""
+       SELECT new com.springboot_sa_ha1.modules.catalog.RowVersion(c.id, c.version, c.updatedAt)
+       FROM Category c
+       """)
+  List<RowVersion> findAllVersions();
 }
@@ -0,0 +1,61 @@
+package com.springboot_sa_ha1.modules.categories.service;
+
+import com.springboot_sa_ha1.modules.catalog.StartupOrder;
+import com.springboot_sa_ha1.modules.categories.repository.CategoryClosureRepository;
+import com.springboot_sa_ha1.modules.categories.repository.CategoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// 🔹 Al arrancar, si la tabla de clausura no tiene una fila propia por categoría (tabla recién creada
+// por ddl-auto, categorías cargadas por SQL) se rehace completa a partir de parent_id
+@Component
+public class CategoryClosureBackfill {
+
+  private static final Logger log = LoggerFactory.getLogger(CategoryClosureBackfill.class);
+
+  private final CategoryRepository categoryRepository;
+  private final CategoryClosureRepository closureRepository;
+  private final TransactionTemplate tx;
+
+  public CategoryClosureBackfill(
+      CategoryRepository categoryRepository,
+      CategoryClosureRepository closureRepository,
+      PlatformTransactionManager transactionManager
+  ) {
+    this.categoryRepository = categoryRepository;
+    this.closureRepository = closureRepository;
+    this.tx = new TransactionTemplate(transactionManager);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Order(StartupOrder.CATEGORY_CLOSURE)
+  public void onApplicationReady() {
+    tx.executeWithoutResult(status -> {
+      long categories = categoryRepository.count();
+      if (closureRepository.countSelfLinks() != categories) {
+        rebuild(categories);
+      }
+    });
+  }
+
+  // 🔹 Un INSERT ... SELECT por nivel: la profundidad d + 1 sale de las filas de profundidad d.
+  // El tope de niveles evita un ciclo infinito si parent_id se editó a mano formando un ciclo
+  void rebuild(long categories) {
+    closureRepository.deleteAllLinks();
+    long rows = closureRepository.insertAllSelfLinks();
+    int depth = 0;
+    int inserted;
+    while (depth < categories && (inserted = closureRepository.insertLinksBelow(depth)) > 0) {
+      rows += inserted;
+      depth++;
+    }
+    log.info("Tabla de clausura de categorías reconstruida: {} categorías, {} filas, {} niveles",
+        categories, rows, depth + 1);
+  }
+}
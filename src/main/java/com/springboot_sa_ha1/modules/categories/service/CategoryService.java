@@ -1,17 +1,24 @@
 package com.springboot_sa_ha1.modules.categories.service;
 
+import com.springboot_sa_ha1.modules.categories.dto.CategoryNodeResponse;
+import com.springboot_sa_ha1.modules.categories.dto.CategoryDetail;
 import com.springboot_sa_ha1.modules.categories.dto.CategoryRequest;
 import com.springboot_sa_ha1.modules.categories.dto.CategoryResponse;
 import com.springboot_sa_ha1.modules.categories.dto.CategoryWithProductsResponse;
 import com.springboot_sa_ha1.modules.collections.dto.CollectionWithProductsResponse;
+import com.springboot_sa_ha1.modules.products.pagination.ProductGroupQuery;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
 public interface CategoryService {
   List<CategoryResponse> listarTodos();
   CategoryResponse obtenerPorId(Long id);
-  List<CategoryWithProductsResponse> listarCategoriasConProductosPorSlug(List<String> slugs);
+  CategoryDetail obtenerDetalle(Long id);
+  List<CategoryNodeResponse> listarSubarbol(Long id);
+  List<CategoryWithProductsResponse> listarCategoriasConProductosPorSlug(List<String> slugs, ProductGroupQuery page);
+  StreamingResponseBody exportarCategoriasConProductosPorSlug(List<String> slugs);
   CategoryResponse guardar(CategoryRequest request);
-  CategoryResponse actualizar(Long id, CategoryRequest request);
+  CategoryDetail actualizar(Long id, CategoryRequest request, String ifMatch);
   void eliminar(Long id);
 }
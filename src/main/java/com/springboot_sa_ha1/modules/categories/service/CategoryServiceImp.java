@@ -1,153 +1,290 @@
 package com.springboot_sa_ha1.modules.categories.service;
 
+import com.springboot_sa_ha1.exception.BadRequestException;
+import com.springboot_sa_ha1.exception.PreconditionFailedException;
+import com.springboot_sa_ha1.modules.catalog.ResourceVersion;
+import com.springboot_sa_ha1.modules.catalog.RowVersion;
+import com.springboot_sa_ha1.modules.catalog.readmodel.CatalogReadModel;
+import com.springboot_sa_ha1.modules.catalog.readmodel.CatalogSnapshot;
+import com.springboot_sa_ha1.modules.categories.dto.CategoryNodeResponse;
 import com.springboot_sa_ha1.modules.categories.dto.CategoryWithProductsResponse;
+import com.springboot_sa_ha1.modules.categories.model.CategoryClosureId;
+import com.springboot_sa_ha1.modules.categories.repository.CategoryClosureRepository;
 import com.springboot_sa_ha1.modules.categories.repository.CategoryRepository;
+import com.springboot_sa_ha1.modules.categories.dto.CategoryDetail;
 import com.springboot_sa_ha1.modules.categories.dto.CategoryRequest;
 import com.springboot_sa_ha1.modules.categories.dto.CategoryResponse;
+import com.springboot_sa_ha1.modules.categories.event.CategoryDeletedEvent;
+import com.springboot_sa_ha1.modules.categories.event.CategorySavedEvent;
 import com.springboot_sa_ha1.modules.categories.mapper.CategoryMapper;
 import com.springboot_sa_ha1.modules.categories.model.Category;
 import com.springboot_sa_ha1.modules.categories.service.CategoryService;
-import com.springboot_sa_ha1.modules.collections.dto.CollectionResponse;
-import com.springboot_sa_ha1.modules.productimages.model.ProductImage;
 import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import com.springboot_sa_ha1.modules.products.pagination.ProductGroupQuery;
+import com.springboot_sa_ha1.modules.products.repository.ProductReadRepository;
+import com.springboot_sa_ha1.modules.products.repository.ProductRepository;
+import com.springboot_sa_ha1.modules.products.repository.ProductSpecifications;
+import com.springboot_sa_ha1.modules.products.stream.ProductJsonStreamer;
+import com.springboot_sa_ha1.modules.slugs.SlugRegistry;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.springboot_sa_ha1.modules.slugs.SlugNormalizer;
+import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class CategoryServiceImp implements CategoryService {
 
   private final CategoryRepository repository;
+  private final CategoryClosureRepository closureRepository;
   private final CategoryMapper mapper;
+  private final ProductReadRepository productReadRepository;
+  private final ProductRepository productRepository;
+  private final SlugRegistry slugRegistry;
+  private final ProductJsonStreamer productStreamer;
+  private final CatalogReadModel readModel;
+  private final ApplicationEventPublisher events;
 
-  public CategoryServiceImp(CategoryRepository repository, CategoryMapper mapper) {
+  public CategoryServiceImp(
+      CategoryRepository repository,
+      CategoryClosureRepository closureRepository,
+      CategoryMapper mapper,
+      ProductReadRepository productReadRepository,
+      ProductRepository productRepository,
+      SlugRegistry slugRegistry,
+      ProductJsonStreamer productStreamer,
+      CatalogReadModel readModel,
+      ApplicationEventPublisher events
+  ) {
     this.repository = repository;
+    this.closureRepository = closureRepository;
     this.mapper = mapper;
+    this.productReadRepository = productReadRepository;
+    this.productRepository = productRepository;
+    this.slugRegistry = slugRegistry;
+    this.productStreamer = productStreamer;
+    this.readModel = readModel;
+    this.events = events;
   }
 
   @Override
   public List<CategoryResponse> listarTodos(){
-    return repository.findAll().stream()
-        .map(mapper::toResponse)
-        .collect(Collectors.toList());
+    return readModel.current()
+        .map(CatalogSnapshot::categories)
+        .orElseGet(repository::findAllResponses);
   }
 
   @Override
   public CategoryResponse obtenerPorId(Long id){
-    return repository.findById(id)
-        .map(mapper::toResponse)
+    return readModel.current()
+        .flatMap(snapshot -> snapshot.category(id))
+        .or(() -> repository.findResponseById(id))
         .orElseThrow(() -> new RuntimeException("Categoria no encontrada"));
   }
 
+  // 🔹 Cuerpo y versión de la misma fuente: la foto del catálogo o una sola proyección de la base
   @Override
-  public List<CategoryWithProductsResponse> listarCategoriasConProductosPorSlug(List<String> slugs) {
+  public CategoryDetail obtenerDetalle(Long id) {
+    return readModel.current()
+        .flatMap(snapshot -> snapshot.categoryDetail(id))
+        .or(() -> repository.findDetailById(id))
+        .orElseThrow(() -> new RuntimeException("Categoria no encontrada"));
+  }
 
-    // Normalización de slugs
-    List<String> normalizedSlugs = slugs.stream()
-        .filter(Objects::nonNull)
-        .map(String::toLowerCase)
-        .map(String::trim)
-        .map(s -> s.replace("-", "_"))
-        .toList();
+  // 🔹 La categoría y todas sus descendientes, en una consulta sobre la tabla de clausura
+  @Override
+  public List<CategoryNodeResponse> listarSubarbol(Long id) {
+    List<CategoryNodeResponse> subtree = closureRepository.findSubtree(id);
+    if (subtree.isEmpty()) {
+      throw new RuntimeException("Categoria no encontrada");
+    }
+    return subtree;
+  }
+
+  @Override
+  public List<CategoryWithProductsResponse> listarCategoriasConProductosPorSlug(
+      List<String> slugs,
+      ProductGroupQuery page
+  ) {
 
-    // Traemos las categorías con productos usando EntityGraph
-    List<Category> categories = repository.findAllBySlugIn(normalizedSlugs);
+    // Normalización de slugs (más el slug exacto, para filas con la regla anterior)
+    List<String> normalizedSlugs = SlugNormalizer.lookupKeys(slugs);
+
+    Optional<CatalogSnapshot> snapshot = readModel.current();
+    List<CategoryResponse> categories;
+    Map<Long, List<ProductResponse>> productsByCategory;
+    if (snapshot.isPresent()) {
+      // 🔹 Con el modelo de lectura activo no se consulta la base
+      categories = snapshot.get().categoriesBySlug(normalizedSlugs);
+      productsByCategory = categories.stream().collect(Collectors.toMap(
+          CategoryResponse::id,
+          c -> snapshot.get().inCategory(c.id(), page.afterId(), page.isLimited() ? page.limit() + 1 : 0)));
+    } else {
+      categories = repository.findResponsesBySlugIn(normalizedSlugs);
+      productsByCategory = productosPorCategoria(categories, page);
+    }
+    if (categories.isEmpty()) return List.of();
 
-    // Mapear a DTO
     return categories.stream()
-        .filter(Objects::nonNull)
         .map(c -> {
-          List<ProductResponse> products = c.getProducts().stream()
-              .filter(Objects::nonNull)
-              .map(p -> {
-                // Lista de URLs de imágenes
-                List<String> imageUrls = (p.getImages() != null)
-                    ? p.getImages().stream()
-                    .filter(Objects::nonNull)
-                    .map(ProductImage::getImageUrl)
-                    .filter(Objects::nonNull)
-                    .toList()
-                    : List.of();
-
-                // Lista de colecciones
-                List<CollectionResponse> collections = (p.getProductCollections() != null)
-                    ? p.getProductCollections().stream()
-                    .filter(Objects::nonNull)
-                    .map(pc -> {
-                      var col = pc.getCollection();
-                      return new CollectionResponse(
-                          col.getId(),
-                          col.getName(),
-                          col.getDescription(),
-                          col.getSlug(),
-                          col.getImage()
-                      );
-                    })
-                    .toList()
-                    : List.of();
-
-                // DTO del producto
-                return new ProductResponse(
-                    p.getId(),
-                    p.getName(),
-                    p.getPrice(),
-                    p.getStock(),
-                    p.getDescription(),
-                    imageUrls,
-                    new CategoryResponse(
-                        c.getId(),
-                        c.getName(),
-                        c.getDescription(),
-                        c.getSlug(),
-                        c.getImage()
-                    ),
-                    collections
-                );
-              })
-              .toList();
-
+          List<ProductResponse> group = productsByCategory.getOrDefault(c.id(), List.of());
+          String nextCursor = null;
+          if (page.isLimited() && group.size() > page.limit()) {
+            group = group.subList(0, page.limit());
+            nextCursor = ProductGroupQuery.nextCursor(group.get(group.size() - 1).id());
+          }
           return new CategoryWithProductsResponse(
-              c.getId(),
-              c.getName(),
-              c.getDescription(),
-              c.getSlug(),
-              c.getImage(),
-              products
+              c.id(),
+              c.name(),
+              c.description(),
+              c.slug(),
+              c.image(),
+              group,
+              nextCursor
           );
         })
         .toList();
   }
 
+  // 🔹 Categorías y productos se leen como proyecciones (sin hidratar entidades):
+  // 1 consulta de categorías + 3 de productos (filas, imágenes, colecciones)
+  private Map<Long, List<ProductResponse>> productosPorCategoria(
+      List<CategoryResponse> categories,
+      ProductGroupQuery page
+  ) {
+    if (categories.isEmpty()) return Map.of();
+
+    List<Long> categoryIds = categories.stream().map(CategoryResponse::id).toList();
+    // 🔹 Con limit, la base recorta cada categoría (ROW_NUMBER() por categoría, limit + 1 para saber si hay más)
+    // y sólo se leen los productos que se van a devolver
+    List<ProductResponse> products = page.isLimited()
+        ? productReadRepository.findAllById(
+            productRepository.findFirstIdsPerCategory(categoryIds, page.afterId(), page.limit() + 1))
+        : productReadRepository.findAll(ProductSpecifications.inCategories(categoryIds), Sort.by("id"), 0);
+    return products.stream()
+        .collect(Collectors.groupingBy(p -> p.category().id()));
+  }
+
+  // 🔹 Modo streaming: cada categoría se escribe con sus productos leídos por tramos,
+  // sin armar la lista completa en memoria
+  @Override
+  public StreamingResponseBody exportarCategoriasConProductosPorSlug(List<String> slugs) {
+    List<Long> ids = slugs.stream()
+        .filter(Objects::nonNull)
+        .map(slugRegistry::categoryId)
+        .flatMap(Optional::stream)
+        .distinct()
+        .toList();
+
+    // 🔹 Se respeta el orden de los slugs pedidos
+    Map<Long, CategoryResponse> byId = repository.findResponsesByIdIn(ids).stream()
+        .collect(Collectors.toMap(CategoryResponse::id, Function.identity()));
+    List<CategoryResponse> categories = ids.stream()
+        .map(byId::get)
+        .filter(Objects::nonNull)
+        .toList();
+
+    return out -> {
+      try (JsonGenerator gen = productStreamer.createGenerator(out)) {
+        gen.writeStartArray();
+        for (CategoryResponse c : categories) {
+          productStreamer.writeGroup(gen, c.id(), c.name(), c.description(), c.slug(), c.image(),
+              ProductSpecifications.inCategory(c.id()));
+        }
+        gen.writeEndArray();
+      }
+    };
+  }
+
   @Override
+  @Transactional
   public CategoryResponse guardar(CategoryRequest request){
     // Generar slug automáticamente
-    String normalizedSlug = request.name()
-        .trim()
-        .toLowerCase()
-        .replace(" ", "_");
+    String normalizedSlug = SlugNormalizer.normalize(request.name());
     Category category = new Category();
     category.setName(request.name());
     category.setDescription(request.description());
     category.setSlug(normalizedSlug);
     category.setImage(request.image());
-    return mapper.toResponse(repository.save(category));
+    category.setParent(padre(request.parentId()));
+    Category saved = repository.saveAndFlush(category);
+
+    // 🔹 Hoja nueva: su fila propia + una por cada ancestro del padre
+    closureRepository.insertSelfLink(saved.getId());
+    if (saved.getParent() != null) {
+      closureRepository.attachSubtree(saved.getId(), saved.getParent().getId());
+    }
+
+    CategoryResponse response = mapper.toResponse(saved);
+    events.publishEvent(new CategorySavedEvent(response,
+        new RowVersion(saved.getId(), saved.getVersion(), saved.getUpdatedAt())));
+    return response;
   }
 
   @Override
-  public CategoryResponse actualizar(Long id, CategoryRequest request){
+  @Transactional
+  public CategoryDetail actualizar(Long id, CategoryRequest request, String ifMatch){
     Category category = repository.findById(id)
         .orElseThrow(() -> new RuntimeException("Categoria no encontrada"));
+    // 🔹 If-Match contra la versión leída; si otra edición entra después, el UPDATE con @Version falla
+    if (ifMatch != null && !new ResourceVersion(category.getVersion(), category.getUpdatedAt()).matches(ifMatch)) {
+      throw new PreconditionFailedException("La categoría cambió desde la última lectura");
+    }
     category.setName(request.name());
     category.setDescription(request.description());
     category.setImage(request.image());
 
-    return mapper.toResponse(repository.save(category));
+    Long currentParentId = category.getParent() != null ? category.getParent().getId() : null;
+    if (!Objects.equals(currentParentId, request.parentId())) {
+      mover(category, request.parentId());
+    }
+
+    // 🔹 Con flush la versión del evento es la que quedó escrita
+    Category saved = repository.saveAndFlush(category);
+    // 🔹 El ETag de la respuesta sale de la entidad guardada, no de otra lectura posterior
+    CategoryDetail detail = new CategoryDetail(mapper.toResponse(saved),
+        new RowVersion(saved.getId(), saved.getVersion(), saved.getUpdatedAt()));
+    events.publishEvent(new CategorySavedEvent(detail.category(), detail.version()));
+    return detail;
+  }
+
+  // 🔹 Mueve la categoría con todo su subárbol bajo otro padre (o a la raíz)
+  private void mover(Category category, Long parentId) {
+    Category parent = padre(parentId);
+    if (parent != null && closureRepository.existsById(new CategoryClosureId(category.getId(), parent.getId()))) {
+      throw new BadRequestException("Una categoría no puede quedar dentro de su propio subárbol");
+    }
+    closureRepository.detachSubtree(category.getId());
+    if (parent != null) {
+      closureRepository.attachSubtree(category.getId(), parent.getId());
+    }
+    category.setParent(parent);
+  }
+
+  private Category padre(Long parentId) {
+    if (parentId == null) return null;
+    return repository.findById(parentId)
+        .orElseThrow(() -> new RuntimeException("Categoria padre no encontrada"));
   }
 
   @Override
+  @Transactional
   public void eliminar(Long id){
+    // 🔹 Sólo hojas: borrar una categoría intermedia dejaría su subárbol colgando
+    if (repository.existsByParentId(id)) {
+      throw new BadRequestException("La categoría tiene subcategorías");
+    }
+    closureRepository.deleteLinksOf(id);
     repository.deleteById(id);
+    events.publishEvent(new CategoryDeletedEvent(id));
   }
 }
\ No newline at end of file
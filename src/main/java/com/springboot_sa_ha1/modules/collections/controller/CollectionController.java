@@ -1,12 +1,20 @@
 package com.springboot_sa_ha1.modules.collections.controller;
 
+import com.springboot_sa_ha1.modules.catalog.CatalogPageCache;
+import com.springboot_sa_ha1.modules.catalog.ResourceVersion;
+import com.springboot_sa_ha1.modules.collections.dto.CollectionDetail;
 import com.springboot_sa_ha1.modules.collections.dto.CollectionRequest;
 import com.springboot_sa_ha1.modules.collections.dto.CollectionResponse;
-import com.springboot_sa_ha1.modules.collections.dto.CollectionWithProductsResponse;
 import com.springboot_sa_ha1.modules.collections.service.CollectionService;
+import com.springboot_sa_ha1.modules.products.pagination.ProductGroupQuery;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.Arrays;
 import java.util.List;
@@ -17,9 +25,11 @@ import java.util.List;
 public class CollectionController {
 
   private final CollectionService collectionService;
+  private final CatalogPageCache pageCache;
 
-  public CollectionController(CollectionService collectionService) {
+  public CollectionController(CollectionService collectionService, CatalogPageCache pageCache) {
     this.collectionService = collectionService;
+    this.pageCache = pageCache;
   }
 
   @GetMapping
@@ -27,9 +37,16 @@ public class CollectionController {
     return ResponseEntity.ok(collectionService.listarTodos());
   }
 
+  // 🔹 GET condicional (ETag / Last-Modified): la versión viene con el cuerpo (foto del catálogo o una
+  // sola proyección), así que el ETag corresponde siempre a lo que se entrega
   @GetMapping("/{id}")
-  public ResponseEntity<CollectionResponse> obtenerPorId(@PathVariable Long id) {
-    return ResponseEntity.ok(collectionService.obtenerPorId(id));
+  public ResponseEntity<CollectionResponse> obtenerPorId(@PathVariable Long id, WebRequest request) {
+    CollectionDetail detail = collectionService.obtenerDetalle(id);
+    ResourceVersion version = detail.version().toResourceVersion();
+    if (request.checkNotModified(version.etag(), version.lastModifiedMillis())) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+    }
+    return ResponseEntity.ok(detail.collection());
   }
 
   @GetMapping("/filtered-without-product")
@@ -37,20 +54,44 @@ public class CollectionController {
     return collectionService.listarColeccionesPorSlug(slugs);
   }
 
+  // 🔹 ?limit=8 recorta cada grupo; la página siguiente de un grupo: ?slugs=<slug>&limit=8&cursor=<nextCursor>.
+  // Se sirve desde la caché de páginas ya serializadas, con ETag (If-None-Match → 304)
   @GetMapping("/filtered-with-product")
-  public List<CollectionWithProductsResponse> listarColeccionesConProductosPorSlug(@RequestParam List<String> slugs) {
-    return collectionService.listarColeccionesConProductosPorSlug(slugs);
+  public ResponseEntity<byte[]> listarColeccionesConProductosPorSlug(
+      @RequestParam List<String> slugs,
+      @RequestParam(required = false) Integer limit,
+      @RequestParam(required = false) String cursor,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+  ) {
+    ProductGroupQuery page = ProductGroupQuery.of(limit, cursor);
+    return pageCache.get("collections", slugs, page, () -> collectionService.listarColeccionesConProductosPorSlug(slugs, page))
+        .toResponse(ifNoneMatch);
   }
 
+  // 🔹 Misma respuesta que /filtered-with-product, escrita en streaming (memoria acotada)
+  @GetMapping("/filtered-with-product/stream")
+  public ResponseEntity<StreamingResponseBody> streamColeccionesConProductosPorSlug(@RequestParam List<String> slugs) {
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(collectionService.exportarColeccionesConProductosPorSlug(slugs));
+  }
 
   @PostMapping("/create")
   public ResponseEntity<CollectionResponse> crear(@Valid @RequestBody CollectionRequest request) {
     return ResponseEntity.ok(collectionService.guardar(request));
   }
 
+  // 🔹 If-Match opcional (412 si no coincide); devuelve el ETag nuevo, el de la entidad recién guardada
   @PutMapping("/{id}")
-  public ResponseEntity<CollectionResponse> actualizar(@PathVariable Long id, @Valid @RequestBody CollectionRequest request) {
-    return ResponseEntity.ok(collectionService.actualizar(id, request));
+  public ResponseEntity<CollectionResponse> actualizar(
+      @PathVariable Long id,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+      @Valid @RequestBody CollectionRequest request
+  ) {
+    CollectionDetail detail = collectionService.actualizar(id, request, ifMatch);
+    return ResponseEntity.ok()
+        .eTag(detail.version().toResourceVersion().etag())
+        .body(detail.collection());
   }
 
   @DeleteMapping("/{id}")
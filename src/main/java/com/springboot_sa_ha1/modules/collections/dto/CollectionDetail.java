@@ -0,0 +1,19 @@
+package com.springboot_sa_ha1.modules.collections.dto;
+
+import com.springboot_sa_ha1.modules.catalog.RowVersion;
+
+import java.time.Instant;
+
+// 🔹 Colección junto con su versión, leídas de la misma fuente (foto del catálogo, base o entidad guardada):
+// el ETag de GET/PUT /api/collection/{id} siempre corresponde al cuerpo que se entrega
+public record CollectionDetail(
+    CollectionResponse collection,
+    RowVersion version
+) {
+
+  // 🔹 Usado por la proyección JPQL (SELECT new ...) de CollectionRepository.findDetailById
+  public CollectionDetail(Long id, String name, String description, String slug, String image,
+                          Long version, Instant updatedAt) {
+    this(new CollectionResponse(id, name, description, slug, image), new RowVersion(id, version, updatedAt));
+  }
+}
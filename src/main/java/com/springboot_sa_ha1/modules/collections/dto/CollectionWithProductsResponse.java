@@ -9,5 +9,6 @@ public record CollectionWithProductsResponse(
     String description,
     String slug,
     String image,
-    List<ProductResponse> products
+    List<ProductResponse> products,
+    String nextCursor   // null cuando el grupo no tiene más productos (o se pidió completo)
 ) {}
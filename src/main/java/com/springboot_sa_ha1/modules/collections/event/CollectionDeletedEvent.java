@@ -0,0 +1,4 @@
+package com.springboot_sa_ha1.modules.collections.event;
+
+// 🔹 Se publica cuando una colección se elimina
+public record CollectionDeletedEvent(Long collectionId) {}
@@ -0,0 +1,7 @@
+package com.springboot_sa_ha1.modules.collections.event;
+
+import com.springboot_sa_ha1.modules.catalog.RowVersion;
+import com.springboot_sa_ha1.modules.collections.dto.CollectionResponse;
+
+// 🔹 Se publica cuando una colección se crea o se modifica (nombre, slug, etc.)
+public record CollectionSavedEvent(CollectionResponse collection, RowVersion version) {}
@@ -7,14 +7,23 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "colecciones")
+@Table(
+    name = "colecciones",
+    // 🔹 Búsquedas por slug (findBySlug / findBySlugIn)
+    indexes = @Index(name = "idx_colecciones_slug", columnList = "slug")
+)
 @Getter
 @Setter
+@BatchSize(size = 128) // 🔹 los productos de una página resuelven su colección en una sola consulta
 public class Collection {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -29,6 +38,15 @@ public class Collection {
 
   private String image;
 
+  // 🔹 Igual que en Category: ETag / Last-Modified de GET /api/collection/{id}
+  @Version
+  @ColumnDefault("0")
+  @Column(nullable = false)
+  private Long version;
+
+  @UpdateTimestamp
+  private Instant updatedAt;
+
   @OneToMany(
       mappedBy = "collection",
       fetch = FetchType.LAZY,
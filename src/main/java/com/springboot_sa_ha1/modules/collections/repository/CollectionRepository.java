@@ -1,5 +1,8 @@
 package com.springboot_sa_ha1.modules.collections.repository;
 
+import com.springboot_sa_ha1.modules.catalog.RowVersion;
+import com.springboot_sa_ha1.modules.collections.dto.CollectionDetail;
+import com.springboot_sa_ha1.modules.collections.dto.CollectionResponse;
 import com.springboot_sa_ha1.modules.collections.model.Collection;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -13,18 +16,54 @@ import java.util.Optional;
 public interface CollectionRepository extends JpaRepository<Collection, Long> {
   Optional<Collection> findByName(String name);
 
+  List<Collection> findByNameIn(List<String> names);
+
+  Optional<Collection> findBySlug(String slug);
+
   List<Collection> findBySlugIn(List<String> slugs);
 
+  // 🔹 Proyecciones directas a DTO para las lecturas (sin entidades administradas)
+  @Query("""
+       SELECT new com.springboot_sa_ha1.modules.collections.dto.CollectionResponse(c.id, c.name, c.description, c.slug, c.image)
+       FROM Collection c
+       ORDER BY c.id
+       """)
+  List<CollectionResponse> findAllResponses();
+
+  @Query("""
+       SELECT new com.springboot_sa_ha1.modules.collections.dto.CollectionResponse(c.id, c.name, c.description, c.slug, c.image)
+       FROM Collection c
+       WHERE c.id = :id
+       """)
+  Optional<CollectionResponse> findResponseById(@Param("id") Long id);
+
+  @Query("""
+       SELECT new com.springboot_sa_ha1.modules.collections.dto.CollectionResponse(c.id, c.name, c.description, c.slug, c.image)
+       FROM Collection c
+       WHERE c.id IN :ids
+       """)
+  List<CollectionResponse> findResponsesByIdIn(@Param("ids") List<Long> ids);
+
+  @Query("""
+       SELECT new com.springboot_sa_ha1.modules.collections.dto.CollectionResponse(c.id, c.name, c.description, c.slug, c.image)
+       FROM Collection c
+       WHERE c.slug IN :slugs
+       ORDER BY c.id
+       """)
+  List<CollectionResponse> findResponsesBySlugIn(@Param("slugs") List<String> slugs);
+
+  // 🔹 Cuerpo y versión en la misma fila: el ETag corresponde a lo que se entrega
+  @Query("""
+       SELECT new com.springboot_sa_ha1.modules.collections.dto.CollectionDetail(c.id, c.name, c.description, c.slug, c.image, c.version, c.updatedAt)
+       FROM Collection c
+       WHERE c.id = :id
+       """)
+  Optional<CollectionDetail> findDetailById(@Param("id") Long id);
+
+  // 🔹 Versiones de todas las filas, para el ETag de los productos en el modelo de lectura
   @Query("""
-     SELECT DISTINCT c
-     FROM Collection c
-     LEFT JOIN FETCH c.productCollections pc
-     LEFT JOIN FETCH pc.product p
-     LEFT JOIN FETCH p.images
-     LEFT JOIN FETCH p.category
-     WHERE c.slug IN :slugs
-  """)
-  List<Collection> findAllBySlugsWithProducts(
-      @Param("slugs") List<String> slugs
-  );
+       SELECT new com.springboot_sa_ha1.modules.catalog.RowVersion(c.id, c.version, c.updatedAt)
+       FROM Collection c
+       """)
+  List<RowVersion> findAllVersions();
 }
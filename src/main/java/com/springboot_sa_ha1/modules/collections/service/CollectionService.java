@@ -1,19 +1,24 @@
 package com.springboot_sa_ha1.modules.collections.service;
 
+import com.springboot_sa_ha1.modules.collections.dto.CollectionDetail;
 import com.springboot_sa_ha1.modules.collections.dto.CollectionRequest;
 import com.springboot_sa_ha1.modules.collections.dto.CollectionResponse;
 import com.springboot_sa_ha1.modules.collections.dto.CollectionWithProductsResponse;
+import com.springboot_sa_ha1.modules.products.pagination.ProductGroupQuery;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
 public interface CollectionService {
   List<CollectionResponse> listarTodos();
   List<CollectionResponse> listarColeccionesPorSlug(List<String> slugs);
-  List<CollectionWithProductsResponse> listarColeccionesConProductosPorSlug(List<String> slugs);
+  List<CollectionWithProductsResponse> listarColeccionesConProductosPorSlug(List<String> slugs, ProductGroupQuery page);
+  StreamingResponseBody exportarColeccionesConProductosPorSlug(List<String> slugs);
   CollectionResponse obtenerPorId(Long id);
+  CollectionDetail obtenerDetalle(Long id);
   CollectionResponse guardar(CollectionRequest request);
-  CollectionResponse actualizar(Long id, CollectionRequest request);
+  CollectionDetail actualizar(Long id, CollectionRequest request, String ifMatch);
   void eliminar(Long id);
 
 }
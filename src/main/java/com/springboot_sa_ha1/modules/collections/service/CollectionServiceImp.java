@@ -1,20 +1,37 @@
 package com.springboot_sa_ha1.modules.collections.service;
 
-import com.springboot_sa_ha1.modules.categories.dto.CategoryResponse;
+import com.springboot_sa_ha1.exception.PreconditionFailedException;
+import com.springboot_sa_ha1.modules.catalog.ResourceVersion;
+import com.springboot_sa_ha1.modules.catalog.RowVersion;
+import com.springboot_sa_ha1.modules.catalog.readmodel.CatalogReadModel;
+import com.springboot_sa_ha1.modules.catalog.readmodel.CatalogSnapshot;
+import com.springboot_sa_ha1.modules.collections.dto.CollectionDetail;
 import com.springboot_sa_ha1.modules.collections.dto.CollectionRequest;
 import com.springboot_sa_ha1.modules.collections.dto.CollectionResponse;
 import com.springboot_sa_ha1.modules.collections.dto.CollectionWithProductsResponse;
+import com.springboot_sa_ha1.modules.collections.event.CollectionDeletedEvent;
+import com.springboot_sa_ha1.modules.collections.event.CollectionSavedEvent;
 import com.springboot_sa_ha1.modules.collections.mapper.CollectionMapper;
 import com.springboot_sa_ha1.modules.collections.model.Collection;
 import com.springboot_sa_ha1.modules.collections.repository.CollectionRepository;
 import com.springboot_sa_ha1.modules.collections.service.CollectionService;
-import com.springboot_sa_ha1.modules.product_collections.model.ProductCollection;
+import com.springboot_sa_ha1.modules.product_collections.dto.ProductCollectionResponse;
+import com.springboot_sa_ha1.modules.product_collections.repository.ProductCollectionRepository;
 import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
-import com.springboot_sa_ha1.modules.products.model.Product;
+import com.springboot_sa_ha1.modules.products.pagination.ProductGroupQuery;
+import com.springboot_sa_ha1.modules.products.repository.ProductReadRepository;
+import com.springboot_sa_ha1.modules.products.repository.ProductSpecifications;
+import com.springboot_sa_ha1.modules.products.stream.ProductJsonStreamer;
+import com.springboot_sa_ha1.modules.slugs.SlugRegistry;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.springboot_sa_ha1.modules.slugs.SlugNormalizer;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import com.springboot_sa_ha1.modules.productimages.model.ProductImage;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,171 +39,245 @@ public class CollectionServiceImp implements CollectionService {
 
   private final CollectionRepository repository;
   private final CollectionMapper mapper;
-
-  public CollectionServiceImp(CollectionRepository repository, CollectionMapper mapper) {
+  private final ProductCollectionRepository productCollectionRepository;
+  private final ProductReadRepository productReadRepository;
+  private final SlugRegistry slugRegistry;
+  private final ProductJsonStreamer productStreamer;
+  private final CatalogReadModel readModel;
+  private final ApplicationEventPublisher events;
+
+  public CollectionServiceImp(
+      CollectionRepository repository,
+      CollectionMapper mapper,
+      ProductCollectionRepository productCollectionRepository,
+      ProductReadRepository productReadRepository,
+      SlugRegistry slugRegistry,
+      ProductJsonStreamer productStreamer,
+      CatalogReadModel readModel,
+      ApplicationEventPublisher events
+  ) {
     this.repository = repository;
     this.mapper = mapper;
+    this.productCollectionRepository = productCollectionRepository;
+    this.productReadRepository = productReadRepository;
+    this.slugRegistry = slugRegistry;
+    this.productStreamer = productStreamer;
+    this.readModel = readModel;
+    this.events = events;
   }
 
   @Override
   public List<CollectionResponse> listarTodos(){
-    return repository.findAll().stream()
-        .map(mapper::toResponse)
-        .collect(Collectors.toList());
+    return readModel.current()
+        .map(CatalogSnapshot::collections)
+        .orElseGet(repository::findAllResponses);
   }
 
 
   @Override
   public CollectionResponse obtenerPorId(Long id){
-    return repository.findById(id)
-        .map(mapper::toResponse)
+    return readModel.current()
+        .flatMap(snapshot -> snapshot.collection(id))
+        .or(() -> repository.findResponseById(id))
+        .orElseThrow(() -> new RuntimeException("Colección no encontrada"));
+  }
+
+  // 🔹 Cuerpo y versión de la misma fuente: la foto del catálogo o una sola proyección de la base
+  @Override
+  public CollectionDetail obtenerDetalle(Long id) {
+    return readModel.current()
+        .flatMap(snapshot -> snapshot.collectionDetail(id))
+        .or(() -> repository.findDetailById(id))
         .orElseThrow(() -> new RuntimeException("Colección no encontrada"));
   }
 
   @Override
   public List<CollectionResponse> listarColeccionesPorSlug(List<String> slugs) {
 
-    // 🔹 Normalización (misma regla que el otro método)
-    List<String> normalizedSlugs = slugs.stream()
-        .map(String::toLowerCase)
-        .map(String::trim)
-        .map(s -> s.replace("-", "_"))
-        .toList();
+    // 🔹 Normalización (regla compartida de slugs) más el slug exacto, para filas con la regla anterior
+    List<String> normalizedSlugs = SlugNormalizer.lookupKeys(slugs);
 
-    List<Collection> collections =
-        repository.findBySlugIn(normalizedSlugs);
+    List<CollectionResponse> collections = readModel.current()
+        .map(snapshot -> snapshot.collectionsBySlug(normalizedSlugs))
+        .orElseGet(() -> repository.findResponsesBySlugIn(normalizedSlugs));
 
     if (collections.isEmpty()) {
       throw new RuntimeException("No se encontraron colecciones");
     }
 
-    return collections.stream()
-        .map(mapper::toResponse)
-        .toList();
+    return collections;
   }
 
 
   @Override
-  public List<CollectionWithProductsResponse> listarColeccionesConProductosPorSlug(List<String> slugs) {
+  public List<CollectionWithProductsResponse> listarColeccionesConProductosPorSlug(
+      List<String> slugs,
+      ProductGroupQuery page
+  ) {
 
     if (slugs == null || slugs.isEmpty()) return Collections.emptyList();
 
-    List<String> normalizedSlugs = slugs.stream()
-        .filter(Objects::nonNull)
-        .map(String::trim)
-        .map(String::toLowerCase)
-        .map(s -> s.replace("-", "_"))
-        .toList();
+    List<String> normalizedSlugs = SlugNormalizer.lookupKeys(slugs);
+
+    // 🔹 Carga por etapas, una consulta por nivel (sin JOIN FETCH cartesiano):
+    // 1) colecciones  2) productos + categoría  3) imágenes  4) colecciones de cada producto.
+    // Las filas leídas crecen con productos + imágenes + enlaces, no con su producto.
+    Optional<CatalogSnapshot> snapshot = readModel.current();
+    List<CollectionResponse> collections = snapshot
+        .map(s -> s.collectionsBySlug(normalizedSlugs))
+        .orElseGet(() -> repository.findResponsesBySlugIn(normalizedSlugs));
+    if (collections.isEmpty()) return Collections.emptyList();
+
+    Map<Long, List<ProductResponse>> productsByCollection;
+    if (snapshot.isPresent()) {
+      // 🔹 Modelo de lectura: cada colección ya tiene sus productos indexados, sin consultas
+      productsByCollection = collections.stream().collect(Collectors.toMap(
+          CollectionResponse::id,
+          c -> snapshot.get().inCollection(c.id(), page.afterId(), page.isLimited() ? page.limit() + 1 : 0)));
+    } else {
+      Set<Long> collectionIds = collections.stream()
+          .map(CollectionResponse::id)
+          .collect(Collectors.toSet());
+      productsByCollection = page.isLimited()
+          ? primerosProductosPorColeccion(collectionIds, page)
+          : todosLosProductosPorColeccion(collectionIds);
+    }
 
-    List<Collection> collections = repository.findAllBySlugsWithProducts(normalizedSlugs);
-    if (collections == null || collections.isEmpty()) return Collections.emptyList();
+    return collections.stream()
+        .map(c -> {
+          List<ProductResponse> products = productsByCollection.getOrDefault(c.id(), List.of());
+          // 🔹 Se pidió limit + 1: si sobra uno, hay página siguiente y se descarta
+          String nextCursor = null;
+          if (page.isLimited() && products.size() > page.limit()) {
+            products = products.subList(0, page.limit());
+            nextCursor = ProductGroupQuery.nextCursor(products.get(products.size() - 1).id());
+          }
+          return new CollectionWithProductsResponse(
+              c.id(),
+              c.name(),
+              c.description(),
+              c.slug(),
+              c.image(),
+              products,
+              nextCursor
+          );
+        })
+        .toList();
+  }
 
-    List<CollectionWithProductsResponse> result = new ArrayList<>();
+  private Map<Long, List<ProductResponse>> todosLosProductosPorColeccion(Set<Long> collectionIds) {
+    List<ProductResponse> products = productReadRepository.findAll(
+        ProductSpecifications.inCollections(collectionIds), Sort.by("id"), 0);
 
-    for (Collection c : collections) {
-      if (c == null) continue;
+    // 🔹 Cada producto ya trae sus colecciones: se agrupa sin volver a leer los enlaces
+    Map<Long, List<ProductResponse>> productsByCollection = new HashMap<>();
+    for (ProductResponse product : products) {
+      for (CollectionResponse collection : product.collections()) {
+        if (!collectionIds.contains(collection.id())) continue;
+        productsByCollection.computeIfAbsent(collection.id(), id -> new ArrayList<>()).add(product);
+      }
+    }
+    return productsByCollection;
+  }
 
-      Set<ProductCollection> pcs = (c.getProductCollections() != null) ? c.getProductCollections() : Collections.emptySet();
-      List<ProductResponse> products = new ArrayList<>();
+  // 🔹 Con limit, la base recorta cada colección (ROW_NUMBER() por colección) y sólo se leen
+  // los productos que se van a devolver
+  private Map<Long, List<ProductResponse>> primerosProductosPorColeccion(
+      Set<Long> collectionIds,
+      ProductGroupQuery page
+  ) {
+    List<ProductCollectionResponse> links = productCollectionRepository.findFirstLinksPerCollection(
+        List.copyOf(collectionIds), page.afterId(), page.limit() + 1);
+
+    List<Long> productIds = links.stream()
+        .map(ProductCollectionResponse::productId)
+        .distinct()
+        .toList();
+    Map<Long, ProductResponse> products = productReadRepository.findAllById(productIds).stream()
+        .collect(Collectors.toMap(ProductResponse::id, Function.identity()));
+
+    Map<Long, List<ProductResponse>> productsByCollection = new HashMap<>();
+    for (ProductCollectionResponse link : links) {
+      ProductResponse product = products.get(link.productId());
+      if (product == null) continue;
+      productsByCollection.computeIfAbsent(link.collectionId(), id -> new ArrayList<>()).add(product);
+    }
+    return productsByCollection;
+  }
 
-      for (ProductCollection pc : pcs) {
-        if (pc == null) continue;
-        Product p = pc.getProduct();
-        if (p == null) continue;
 
-        List<ProductImage> images = (p.getImages() != null) ? p.getImages() : Collections.emptyList();
-        List<String> imageUrls = new ArrayList<>();
-        for (ProductImage img : images) {
-          if (img != null && img.getImageUrl() != null) imageUrls.add(img.getImageUrl());
-        }
+  // 🔹 Modo streaming: cada colección se escribe con sus productos leídos por tramos
+  @Override
+  public StreamingResponseBody exportarColeccionesConProductosPorSlug(List<String> slugs) {
+    List<Long> ids = (slugs == null ? List.<String>of() : slugs).stream()
+        .filter(Objects::nonNull)
+        .map(slugRegistry::collectionId)
+        .flatMap(Optional::stream)
+        .distinct()
+        .toList();
 
-        CategoryResponse categoryResponse = null;
-        if (p.getCategory() != null) {
-          categoryResponse = new CategoryResponse(
-              p.getCategory().getId(),
-              p.getCategory().getName(),
-              p.getCategory().getDescription(),
-              p.getCategory().getSlug(),
-              p.getCategory().getImage()
-          );
-        }
+    Map<Long, CollectionResponse> byId = repository.findResponsesByIdIn(ids).stream()
+        .collect(Collectors.toMap(CollectionResponse::id, Function.identity()));
+    List<CollectionResponse> collections = ids.stream()
+        .map(byId::get)
+        .filter(Objects::nonNull)
+        .toList();
 
-        Set<ProductCollection> innerPcs = (p.getProductCollections() != null) ? p.getProductCollections() : Collections.emptySet();
-        List<CollectionResponse> internalCollections = new ArrayList<>();
-        for (ProductCollection innerPc : innerPcs) {
-          if (innerPc == null || innerPc.getCollection() == null) continue;
-          Collection col = innerPc.getCollection();
-          internalCollections.add(new CollectionResponse(
-              col.getId(),
-              col.getName(),
-              col.getDescription(),
-              col.getSlug(),
-              col.getImage()
-          ));
+    return out -> {
+      try (JsonGenerator gen = productStreamer.createGenerator(out)) {
+        gen.writeStartArray();
+        for (CollectionResponse c : collections) {
+          productStreamer.writeGroup(gen, c.id(), c.name(), c.description(), c.slug(), c.image(),
+              ProductSpecifications.inCollection(c.id()));
         }
-
-        products.add(new ProductResponse(
-            p.getId(),
-            p.getName(),
-            p.getPrice(),
-            p.getStock(),
-            p.getDescription(),
-            imageUrls,
-            categoryResponse,
-            internalCollections
-        ));
+        gen.writeEndArray();
       }
-
-      result.add(new CollectionWithProductsResponse(
-          c.getId(),
-          c.getName(),
-          c.getDescription(),
-          c.getSlug(),
-          c.getImage(),
-          products
-      ));
-    }
-
-    return result;
+    };
   }
 
-
   @Override
   public CollectionResponse guardar(CollectionRequest request){
     // Generar slug automáticamente
-    String normalizedSlug = request.name()
-        .trim()
-        .toLowerCase()
-        .replace(" ", "_");
+    String normalizedSlug = SlugNormalizer.normalize(request.name());
     Collection collection = new Collection();
     collection.setName(request.name());
     collection.setDescription(request.description());
     collection.setSlug(normalizedSlug);
     collection.setImage(request.image());
 
-    return mapper.toResponse(repository.save(collection));
+    Collection saved = repository.saveAndFlush(collection);
+    CollectionResponse response = mapper.toResponse(saved);
+    events.publishEvent(new CollectionSavedEvent(response,
+        new RowVersion(saved.getId(), saved.getVersion(), saved.getUpdatedAt())));
+    return response;
   }
 
   @Override
-  public CollectionResponse actualizar(Long id, CollectionRequest request){
+  public CollectionDetail actualizar(Long id, CollectionRequest request, String ifMatch){
     // Generar slug automáticamente
-    String normalizedSlug = request.name()
-        .trim()
-        .toLowerCase()
-        .replace(" ", "_");
+    String normalizedSlug = SlugNormalizer.normalize(request.name());
     Collection collection = repository.findById(id)
         .orElseThrow(() -> new RuntimeException("Colección no encontrada"));
+    if (ifMatch != null && !new ResourceVersion(collection.getVersion(), collection.getUpdatedAt()).matches(ifMatch)) {
+      throw new PreconditionFailedException("La colección cambió desde la última lectura");
+    }
     collection.setId(id);
     collection.setName(request.name());
     collection.setDescription(request.description());
     collection.setSlug(normalizedSlug);
     collection.setImage(request.image());
 
-    return mapper.toResponse(repository.save(collection));
+    Collection saved = repository.saveAndFlush(collection);
+    // 🔹 El ETag de la respuesta sale de la entidad guardada, no de otra lectura posterior
+    CollectionDetail detail = new CollectionDetail(mapper.toResponse(saved),
+        new RowVersion(saved.getId(), saved.getVersion(), saved.getUpdatedAt()));
+    events.publishEvent(new CollectionSavedEvent(detail.collection(), detail.version()));
+    return detail;
   }
 
   @Override
   public void eliminar(Long id){
     repository.deleteById(id);
+    events.publishEvent(new CollectionDeletedEvent(id));
   }
 }
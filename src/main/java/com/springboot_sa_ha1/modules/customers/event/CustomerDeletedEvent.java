@@ -0,0 +1,4 @@
+package com.springboot_sa_ha1.modules.customers.event;
+
+// Se publica cuando un cliente se elimina (su carrito se borra en cascada en la base)
+public record CustomerDeletedEvent(Long customerId) {}
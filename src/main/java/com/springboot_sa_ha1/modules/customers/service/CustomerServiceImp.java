@@ -2,9 +2,11 @@ package com.springboot_sa_ha1.modules.customers.service;
 
 import com.springboot_sa_ha1.modules.customers.dto.CustomerRequest;
 import com.springboot_sa_ha1.modules.customers.dto.CustomerResponse;
+import com.springboot_sa_ha1.modules.customers.event.CustomerDeletedEvent;
 import com.springboot_sa_ha1.modules.customers.mapper.CustomerMapper;
 import com.springboot_sa_ha1.modules.customers.model.Customer;
 import com.springboot_sa_ha1.modules.customers.repository.CustomerRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -16,10 +18,12 @@ public class CustomerServiceImp implements CustomerService {
 
     private final CustomerRepository repository;
     private final CustomerMapper mapper;
+    private final ApplicationEventPublisher events;
 
-    public CustomerServiceImp(CustomerRepository repository, CustomerMapper mapper) {
+    public CustomerServiceImp(CustomerRepository repository, CustomerMapper mapper, ApplicationEventPublisher events) {
         this.repository = repository;
         this.mapper = mapper;
+        this.events = events;
     }
 
     @Override
@@ -67,6 +71,7 @@ public class CustomerServiceImp implements CustomerService {
     @Override
     public void eliminar(Long id){
         repository.deleteById(id);
+        events.publishEvent(new CustomerDeletedEvent(id));
     }
 
 
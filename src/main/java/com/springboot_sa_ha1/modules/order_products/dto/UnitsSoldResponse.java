@@ -0,0 +1,4 @@
+package com.springboot_sa_ha1.modules.order_products.dto;
+
+// 🔹 Unidades vendidas agrupadas por id (producto o colección): popularidad
+public record UnitsSoldResponse(Long id, Long units) {}
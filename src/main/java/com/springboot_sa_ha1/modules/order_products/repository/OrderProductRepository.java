@@ -1,8 +1,37 @@
 package com.springboot_sa_ha1.modules.order_products.repository;
 
+import com.springboot_sa_ha1.modules.order_products.dto.UnitsSoldResponse;
 import com.springboot_sa_ha1.modules.order_products.model.OrderProduct;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface OrderProductRepository extends JpaRepository<OrderProduct, Long> {  // ¡Objeto como ID!
   boolean existsByOrderIdAndProductId(Long orderId, Long productId);
-}
\ No newline at end of file
+
+  @Query("""
+       SELECT new com.springboot_sa_ha1.modules.order_products.dto.UnitsSoldResponse(
+         op.product.id, SUM(COALESCE(op.quantity, 1)))
+       FROM OrderProduct op
+       GROUP BY op.product.id
+       """)
+  List<UnitsSoldResponse> sumUnitsByProduct();
+
+  @Query("""
+       SELECT new com.springboot_sa_ha1.modules.order_products.dto.UnitsSoldResponse(
+         pc.id.collectionId, SUM(COALESCE(op.quantity, 1)))
+       FROM OrderProduct op, ProductCollection pc
+       WHERE pc.product = op.product
+       GROUP BY pc.id.collectionId
+       """)
+  List<UnitsSoldResponse> sumUnitsByCollection();
+
+  @Query("""
+       SELECT new com.springboot_sa_ha1.modules.order_products.dto.UnitsSoldResponse(
+         op.product.category.id, SUM(COALESCE(op.quantity, 1)))
+       FROM OrderProduct op
+       GROUP BY op.product.category.id
+       """)
+  List<UnitsSoldResponse> sumUnitsByCategory();
+}
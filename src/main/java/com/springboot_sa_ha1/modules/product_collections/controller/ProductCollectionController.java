@@ -1,5 +1,7 @@
 package com.springboot_sa_ha1.modules.product_collections.controller;
 
+import com.springboot_sa_ha1.modules.product_collections.dto.ProductCollectionBulkRequest;
+import com.springboot_sa_ha1.modules.product_collections.dto.ProductCollectionBulkResponse;
 import com.springboot_sa_ha1.modules.product_collections.dto.ProductCollectionRequest;
 import com.springboot_sa_ha1.modules.product_collections.dto.ProductCollectionResponse;
 import com.springboot_sa_ha1.modules.product_collections.model.ProductCollectionId;
@@ -62,4 +64,45 @@ public class ProductCollectionController {
         );
         return ResponseEntity.noContent().build();
     }
+
+    // 🔹 Operaciones masivas: body {"ids": [...]}, respuesta con la cantidad de relaciones afectadas
+    @PostMapping("/collection/{collectionId}/products")
+    public ResponseEntity<ProductCollectionBulkResponse> agregarProductos(
+        @PathVariable Long collectionId,
+        @RequestBody ProductCollectionBulkRequest request
+    ) {
+        return ResponseEntity.ok(
+            productCollectionService.agregarProductosAColeccion(collectionId, request.ids())
+        );
+    }
+
+    @PostMapping("/collection/{collectionId}/products/remove")
+    public ResponseEntity<ProductCollectionBulkResponse> quitarProductos(
+        @PathVariable Long collectionId,
+        @RequestBody ProductCollectionBulkRequest request
+    ) {
+        return ResponseEntity.ok(
+            productCollectionService.quitarProductosDeColeccion(collectionId, request.ids())
+        );
+    }
+
+    @PostMapping("/product/{productId}/collections")
+    public ResponseEntity<ProductCollectionBulkResponse> agregarColecciones(
+        @PathVariable Long productId,
+        @RequestBody ProductCollectionBulkRequest request
+    ) {
+        return ResponseEntity.ok(
+            productCollectionService.agregarColeccionesAProducto(productId, request.ids())
+        );
+    }
+
+    @PostMapping("/product/{productId}/collections/remove")
+    public ResponseEntity<ProductCollectionBulkResponse> quitarColecciones(
+        @PathVariable Long productId,
+        @RequestBody ProductCollectionBulkRequest request
+    ) {
+        return ResponseEntity.ok(
+            productCollectionService.quitarColeccionesDeProducto(productId, request.ids())
+        );
+    }
 }
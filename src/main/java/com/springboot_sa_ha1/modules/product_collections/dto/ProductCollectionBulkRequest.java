@@ -0,0 +1,8 @@
+package com.springboot_sa_ha1.modules.product_collections.dto;
+
+import java.util.List;
+
+// 🔹 Ids de productos (o de colecciones) a asociar / desasociar en una sola operación
+public record ProductCollectionBulkRequest(
+    List<Long> ids
+) {}
@@ -0,0 +1,6 @@
+package com.springboot_sa_ha1.modules.product_collections.dto;
+
+public record ProductCollectionBulkResponse(
+    int requested,   // ids distintos recibidos
+    int affected     // relaciones creadas o eliminadas (sin contar las que ya existían / no existían)
+) {}
@@ -7,7 +7,11 @@ import lombok.Getter;
 import lombok.Setter;
 
 @Entity
-@Table(name = "product_collection")
+@Table(
+    name = "product_collection",
+    // 🔹 La PK es (product_id, collection_id); para listar por colección se necesita el orden inverso
+    indexes = @Index(name = "idx_product_collection_collection_product", columnList = "collection_id, product_id")
+)
 @Getter
 @Setter
 public class ProductCollection {
@@ -0,0 +1,95 @@
+package com.springboot_sa_ha1.modules.product_collections.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.List;
+
+// 🔹 Altas y bajas masivas en product_collection con una sentencia por operación (no una por par).
+// Los ids viajan como un único parámetro de tipo arreglo (= ANY(?)), así el SQL no cambia con la
+// cantidad de ids y no se llega al límite de parámetros de JDBC.
+// Los ids que no existen en productos/colecciones se ignoran (el SELECT de origen los filtra).
+@Repository
+public class ProductCollectionBulkRepository {
+
+  // 🔹 PostgreSQL: un par ya existente no aborta la sentencia, simplemente no se cuenta
+  private static final String ATTACH_PRODUCTS_POSTGRES = """
+      INSERT INTO product_collection (product_id, collection_id)
+      SELECT p.id, CAST(? AS BIGINT) FROM productos p WHERE p.id = ANY(?)
+      ON CONFLICT DO NOTHING
+      """;
+  private static final String ATTACH_COLLECTIONS_POSTGRES = """
+      INSERT INTO product_collection (product_id, collection_id)
+      SELECT CAST(? AS BIGINT), c.id FROM colecciones c WHERE c.id = ANY(?)
+      ON CONFLICT DO NOTHING
+      """;
+
+  // 🔹 Otras bases (H2 en pruebas): mismo resultado descartando los pares existentes con NOT EXISTS
+  private static final String ATTACH_PRODUCTS_PORTABLE = """
+      INSERT INTO product_collection (product_id, collection_id)
+      SELECT p.id, CAST(? AS BIGINT) FROM productos p WHERE p.id = ANY(?)
+        AND NOT EXISTS (SELECT 1 FROM product_collection pc WHERE pc.product_id = p.id AND pc.collection_id = ?)
+      """;
+  private static final String ATTACH_COLLECTIONS_PORTABLE = """
+      INSERT INTO product_collection (product_id, collection_id)
+      SELECT CAST(? AS BIGINT), c.id FROM colecciones c WHERE c.id = ANY(?)
+        AND NOT EXISTS (SELECT 1 FROM product_collection pc WHERE pc.product_id = ? AND pc.collection_id = c.id)
+      """;
+
+  private static final String DETACH_PRODUCTS =
+      "DELETE FROM product_collection WHERE collection_id = ? AND product_id = ANY(?)";
+  private static final String DETACH_COLLECTIONS =
+      "DELETE FROM product_collection WHERE product_id = ? AND collection_id = ANY(?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private volatile Boolean postgres;
+
+  public ProductCollectionBulkRepository(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  public int attachProducts(Long collectionId, List<Long> productIds) {
+    return isPostgres()
+        ? update(ATTACH_PRODUCTS_POSTGRES, collectionId, productIds, false)
+        : update(ATTACH_PRODUCTS_PORTABLE, collectionId, productIds, true);
+  }
+
+  public int attachCollections(Long productId, List<Long> collectionIds) {
+    return isPostgres()
+        ? update(ATTACH_COLLECTIONS_POSTGRES, productId, collectionIds, false)
+        : update(ATTACH_COLLECTIONS_PORTABLE, productId, collectionIds, true);
+  }
+
+  public int detachProducts(Long collectionId, List<Long> productIds) {
+    return update(DETACH_PRODUCTS, collectionId, productIds, false);
+  }
+
+  public int detachCollections(Long productId, List<Long> collectionIds) {
+    return update(DETACH_COLLECTIONS, productId, collectionIds, false);
+  }
+
+  // 🔹 Parámetros: (id fijo, arreglo de ids[, id fijo otra vez para el NOT EXISTS])
+  private int update(String sql, Long fixedId, List<Long> ids, boolean repeatFixedId) {
+    return jdbcTemplate.update(connection -> {
+      PreparedStatement statement = connection.prepareStatement(sql);
+      Array array = connection.createArrayOf("bigint", ids.toArray(Long[]::new));
+      statement.setLong(1, fixedId);
+      statement.setArray(2, array);
+      if (repeatFixedId) statement.setLong(3, fixedId);
+      return statement;
+    });
+  }
+
+  private boolean isPostgres() {
+    Boolean result = postgres;
+    if (result == null) {
+      String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+          connection.getMetaData().getDatabaseProductName());
+      result = postgres = "PostgreSQL".equalsIgnoreCase(database);
+    }
+    return result;
+  }
+}
@@ -1,8 +1,43 @@
 package com.springboot_sa_ha1.modules.product_collections.repository;
 
+import com.springboot_sa_ha1.modules.product_collections.dto.ProductCollectionResponse;
 import com.springboot_sa_ha1.modules.product_collections.model.ProductCollection;
 import com.springboot_sa_ha1.modules.product_collections.model.ProductCollectionId;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface ProductCollectionRepository extends JpaRepository<ProductCollection, ProductCollectionId> {
+
+  // 🔹 Sólo los pares (producto, colección), sin hidratar entidades
+  @Query("""
+       SELECT new com.springboot_sa_ha1.modules.product_collections.dto.ProductCollectionResponse(
+         pc.id.productId, pc.id.collectionId)
+       FROM ProductCollection pc
+       """)
+  List<ProductCollectionResponse> findAllLinks();
+
+  // 🔹 Primeros N productos (por id) de cada colección, recortados en la base con ROW_NUMBER():
+  // el índice (collection_id, product_id) resuelve cada partición sin leer la colección completa
+  @Query("""
+       SELECT new com.springboot_sa_ha1.modules.product_collections.dto.ProductCollectionResponse(
+         t.productId, t.collectionId)
+       FROM (
+         SELECT pc.id.productId AS productId,
+                pc.id.collectionId AS collectionId,
+                ROW_NUMBER() OVER (PARTITION BY pc.id.collectionId ORDER BY pc.id.productId) AS rn
+         FROM ProductCollection pc
+         WHERE pc.id.collectionId IN :collectionIds
+           AND pc.id.productId > :afterId
+       ) t
+       WHERE t.rn <= :perCollection
+       ORDER BY t.collectionId, t.productId
+       """)
+  List<ProductCollectionResponse> findFirstLinksPerCollection(
+      @Param("collectionIds") List<Long> collectionIds,
+      @Param("afterId") Long afterId,
+      @Param("perCollection") int perCollection
+  );
 }
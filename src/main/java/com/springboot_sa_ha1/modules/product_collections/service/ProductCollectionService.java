@@ -1,5 +1,6 @@
 package com.springboot_sa_ha1.modules.product_collections.service;
 
+import com.springboot_sa_ha1.modules.product_collections.dto.ProductCollectionBulkResponse;
 import com.springboot_sa_ha1.modules.product_collections.dto.ProductCollectionRequest;
 import com.springboot_sa_ha1.modules.product_collections.dto.ProductCollectionResponse;
 import com.springboot_sa_ha1.modules.product_collections.model.ProductCollectionId;
@@ -21,4 +22,12 @@ public interface ProductCollectionService {
       Long productId,
       Long collectionId
   );
-}
\ No newline at end of file
+
+  ProductCollectionBulkResponse agregarProductosAColeccion(Long collectionId, List<Long> productIds);
+
+  ProductCollectionBulkResponse quitarProductosDeColeccion(Long collectionId, List<Long> productIds);
+
+  ProductCollectionBulkResponse agregarColeccionesAProducto(Long productId, List<Long> collectionIds);
+
+  ProductCollectionBulkResponse quitarColeccionesDeProducto(Long productId, List<Long> collectionIds);
+}
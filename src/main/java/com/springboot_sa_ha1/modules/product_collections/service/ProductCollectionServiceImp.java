@@ -1,37 +1,58 @@
 package com.springboot_sa_ha1.modules.product_collections.service;
 
+import com.springboot_sa_ha1.exception.BadRequestException;
 import com.springboot_sa_ha1.modules.collections.model.Collection;
 import com.springboot_sa_ha1.modules.collections.repository.CollectionRepository;
+import com.springboot_sa_ha1.modules.product_collections.dto.ProductCollectionBulkResponse;
 import com.springboot_sa_ha1.modules.product_collections.dto.ProductCollectionRequest;
 import com.springboot_sa_ha1.modules.product_collections.dto.ProductCollectionResponse;
 import com.springboot_sa_ha1.modules.product_collections.mapper.ProductCollectionMapper;
 import com.springboot_sa_ha1.modules.product_collections.model.ProductCollection;
 import com.springboot_sa_ha1.modules.product_collections.model.ProductCollectionId;
+import com.springboot_sa_ha1.modules.product_collections.repository.ProductCollectionBulkRepository;
 import com.springboot_sa_ha1.modules.product_collections.repository.ProductCollectionRepository;
+import com.springboot_sa_ha1.modules.products.event.ProductSavedEvent;
 import com.springboot_sa_ha1.modules.products.model.Product;
+import com.springboot_sa_ha1.modules.products.repository.ProductReadRepository;
 import com.springboot_sa_ha1.modules.products.repository.ProductRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Objects;
 
 @Service
 public class ProductCollectionServiceImp implements ProductCollectionService {
 
+  private static final int MAX_BULK_IDS = 10_000;
+  private static final int TOUCH_BATCH_SIZE = 1_000;
+
   private final ProductCollectionRepository repository;
+  private final ProductCollectionBulkRepository bulkRepository;
   private final ProductCollectionMapper mapper;
   private final ProductRepository productRepository;
   private final CollectionRepository collectionRepository;
+  private final ProductReadRepository productReadRepository;
+  private final ApplicationEventPublisher events;
 
   public ProductCollectionServiceImp(
       ProductCollectionRepository repository,
+      ProductCollectionBulkRepository bulkRepository,
       ProductRepository productRepository,
       CollectionRepository collectionRepository,
-      ProductCollectionMapper mapper
+      ProductCollectionMapper mapper,
+      ProductReadRepository productReadRepository,
+      ApplicationEventPublisher events
   ) {
     this.repository = repository;
+    this.bulkRepository = bulkRepository;
     this.mapper = mapper;
     this.productRepository = productRepository;
     this.collectionRepository = collectionRepository;
+    this.productReadRepository = productReadRepository;
+    this.events = events;
   }
 
   @Override
@@ -58,6 +79,7 @@ public class ProductCollectionServiceImp implements ProductCollectionService {
   }
 
   @Override
+  @Transactional
   public ProductCollectionResponse guardar(
       ProductCollectionRequest request
   ) {
@@ -86,12 +108,16 @@ public class ProductCollectionServiceImp implements ProductCollectionService {
     productCollection.setProduct(product);
     productCollection.setCollection(collection);
 
-    return mapper.toResponse(
-        repository.save(productCollection)
-    );
+    ProductCollection saved = repository.save(productCollection);
+    product.getProductCollections().add(saved);
+    productRepository.touch(product.getId(), Instant.now());
+    publicarGuardados(List.of(product.getId()));
+
+    return mapper.toResponse(saved);
   }
 
   @Override
+  @Transactional
   public void eliminar(
       Long productId,
       Long collectionId
@@ -99,13 +125,91 @@ public class ProductCollectionServiceImp implements ProductCollectionService {
     ProductCollectionId id =
         new ProductCollectionId(productId, collectionId);
 
-    if (!repository.existsById(id)) {
-      throw new RuntimeException("Relación Product-Collection no encontrada");
+    ProductCollection productCollection = repository.findById(id)
+        .orElseThrow(() ->
+            new RuntimeException("Relación Product-Collection no encontrada")
+        );
+
+    // 🔹 Si el producto ya está en el contexto, su Set (cascade ALL) volvería a guardar la relación borrada
+    productCollection.getProduct().getProductCollections().remove(productCollection);
+    repository.delete(productCollection);
+    productRepository.touch(productId, Instant.now());
+
+    // 🔹 La pertenencia cambió: avisar con el producto actualizado
+    publicarGuardados(List.of(productId));
+  }
+
+  // 🔹 Operaciones masivas: una sentencia SQL por petición, sin leer ni guardar cada relación.
+  // Los pares que ya existían (alta) o no existían (baja) no cuentan en affected.
+  @Override
+  @Transactional
+  public ProductCollectionBulkResponse agregarProductosAColeccion(Long collectionId, List<Long> productIds) {
+    List<Long> ids = idsDistintos(productIds);
+    if (!collectionRepository.existsById(collectionId)) {
+      throw new RuntimeException("Collection no existe");
     }
+    int affected = bulkRepository.attachProducts(collectionId, ids);
+    if (affected > 0) notificarProductos(ids);
+    return new ProductCollectionBulkResponse(ids.size(), affected);
+  }
 
-    repository.deleteById(id);
+  @Override
+  @Transactional
+  public ProductCollectionBulkResponse quitarProductosDeColeccion(Long collectionId, List<Long> productIds) {
+    List<Long> ids = idsDistintos(productIds);
+    int affected = bulkRepository.detachProducts(collectionId, ids);
+    if (affected > 0) notificarProductos(ids);
+    return new ProductCollectionBulkResponse(ids.size(), affected);
+  }
+
+  @Override
+  @Transactional
+  public ProductCollectionBulkResponse agregarColeccionesAProducto(Long productId, List<Long> collectionIds) {
+    List<Long> ids = idsDistintos(collectionIds);
+    if (!productRepository.existsById(productId)) {
+      throw new RuntimeException("Product no existe");
+    }
+    int affected = bulkRepository.attachCollections(productId, ids);
+    if (affected > 0) notificarProductos(List.of(productId));
+    return new ProductCollectionBulkResponse(ids.size(), affected);
   }
-}
 
+  @Override
+  @Transactional
+  public ProductCollectionBulkResponse quitarColeccionesDeProducto(Long productId, List<Long> collectionIds) {
+    List<Long> ids = idsDistintos(collectionIds);
+    int affected = bulkRepository.detachCollections(productId, ids);
+    if (affected > 0) notificarProductos(List.of(productId));
+    return new ProductCollectionBulkResponse(ids.size(), affected);
+  }
+
+  private static List<Long> idsDistintos(List<Long> ids) {
+    if (ids == null || ids.isEmpty()) {
+      throw new BadRequestException("Debe indicar al menos un id");
+    }
+    List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+    if (distinct.isEmpty()) {
+      throw new BadRequestException("Debe indicar al menos un id");
+    }
+    if (distinct.size() > MAX_BULK_IDS) {
+      throw new BadRequestException("Máximo " + MAX_BULK_IDS + " ids por operación");
+    }
+    return distinct;
+  }
 
+  // 🔹 Versión (ETag) y eventos de los productos pedidos. La sentencia sólo devuelve el total, así que
+  // también se tocan los que ya estaban (o no estaban) en la colección: cuesta una versión extra, no datos.
+  private void notificarProductos(List<Long> productIds) {
+    Instant now = Instant.now();
+    for (int from = 0; from < productIds.size(); from += TOUCH_BATCH_SIZE) {
+      productRepository.touchAll(productIds.subList(from, Math.min(from + TOUCH_BATCH_SIZE, productIds.size())), now);
+    }
+    publicarGuardados(productIds);
+  }
 
+  // 🔹 Se releen después del touch: el evento lleva la versión que dejó el UPDATE VERSIONED
+  private void publicarGuardados(List<Long> productIds) {
+    productReadRepository.findDetailsById(productIds)
+        .forEach(detail -> events.publishEvent(ProductSavedEvent.of(detail)));
+  }
+}
@@ -0,0 +1,51 @@
+package com.springboot_sa_ha1.modules.products.cache;
+
+import com.springboot_sa_ha1.modules.categories.event.CategoryDeletedEvent;
+import com.springboot_sa_ha1.modules.categories.event.CategorySavedEvent;
+import com.springboot_sa_ha1.modules.collections.event.CollectionDeletedEvent;
+import com.springboot_sa_ha1.modules.collections.event.CollectionSavedEvent;
+import com.springboot_sa_ha1.modules.products.event.ProductDeletedEvent;
+import com.springboot_sa_ha1.modules.products.event.ProductSavedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// 🔹 Invalida la caché de productos después de cada escritura confirmada en el catálogo
+@Component
+public class ProductCacheInvalidator {
+
+  private final ProductResponseCache cache;
+
+  public ProductCacheInvalidator(ProductResponseCache cache) {
+    this.cache = cache;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onProductSaved(ProductSavedEvent event) {
+    cache.evict(event.product().id());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onProductDeleted(ProductDeletedEvent event) {
+    cache.evict(event.productId());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCategorySaved(CategorySavedEvent event) {
+    cache.evictByCategory(event.category().id());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCategoryDeleted(CategoryDeletedEvent event) {
+    cache.evictByCategory(event.categoryId());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCollectionSaved(CollectionSavedEvent event) {
+    cache.evictByCollection(event.collection().id());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCollectionDeleted(CollectionDeletedEvent event) {
+    cache.evictByCollection(event.collectionId());
+  }
+}
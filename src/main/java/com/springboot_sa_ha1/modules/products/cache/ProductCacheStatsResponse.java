@@ -0,0 +1,11 @@
+package com.springboot_sa_ha1.modules.products.cache;
+
+public record ProductCacheStatsResponse(
+    long size,
+    long maximumSize,
+    long hitCount,
+    long missCount,
+    double hitRate,
+    long evictionCount,      // expulsados por tamaño (W-TinyLFU)
+    long invalidationCount   // eliminados por escrituras en el catálogo
+) {}
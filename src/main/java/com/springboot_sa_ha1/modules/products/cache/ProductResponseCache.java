@@ -0,0 +1,132 @@
+package com.springboot_sa_ha1.modules.products.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.springboot_sa_ha1.modules.collections.dto.CollectionResponse;
+import com.springboot_sa_ha1.modules.products.dto.ProductDetail;
+import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// 🔹 Caché de lectura de ProductResponse por id, junto con su versión (ETag): ambos se cargan y se
+// invalidan juntos, así que un GET condicional no necesita consultar la base.
+// Caffeine usa W-TinyLFU: acotado por tamaño y admite según frecuencia de acceso, no sólo recencia.
+@Component
+public class ProductResponseCache {
+
+  private final Cache<Long, ProductDetail> cache;
+  private final long maximumSize;
+
+  // 🔹 Índices inversos para invalidar sólo los productos que referencian una categoría/colección
+  private final Map<Long, Set<Long>> productsByCategory = new ConcurrentHashMap<>();
+  private final Map<Long, Set<Long>> productsByCollection = new ConcurrentHashMap<>();
+
+  // 🔹 Cambia con cada invalidación por categoría/colección; sirve para descartar una carga concurrente
+  private final AtomicLong generation = new AtomicLong();
+  private final LongAdder invalidations = new LongAdder();
+
+  public ProductResponseCache(@Value("${catalog.product-cache.maximum-size:10000}") long maximumSize) {
+    this.maximumSize = maximumSize;
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .recordStats()
+        .executor(Runnable::run) // el listener corre en el mismo hilo: los índices inversos quedan al día
+        .removalListener((Long id, ProductDetail detail, RemovalCause cause) -> {
+          if (id != null && detail != null) unregister(id, detail.product());
+        })
+        .build();
+  }
+
+  // 🔹 Lectura con carga: si no está, se llama al loader (que puede devolver null si no existe)
+  public ProductDetail get(Long productId, Function<Long, ProductDetail> loader) {
+    long generationBefore = generation.get();
+    boolean[] loaded = {false};
+    ProductDetail detail = cache.get(productId, id -> {
+      ProductDetail value = loader.apply(id);
+      if (value != null) register(value.product());
+      loaded[0] = true;
+      return value;
+    });
+    // 🔹 Si una categoría/colección cambió mientras cargábamos, el valor puede estar viejo
+    if (loaded[0] && detail != null && generation.get() != generationBefore) {
+      evict(productId);
+    }
+    return detail;
+  }
+
+  public void evict(Long productId) {
+    if (cache.asMap().remove(productId) != null) {
+      invalidations.increment();
+    }
+  }
+
+  public void evictByCategory(Long categoryId) {
+    generation.incrementAndGet();
+    evictAll(productsByCategory.remove(categoryId));
+  }
+
+  public void evictByCollection(Long collectionId) {
+    generation.incrementAndGet();
+    evictAll(productsByCollection.remove(collectionId));
+  }
+
+  public ProductCacheStatsResponse stats() {
+    CacheStats stats = cache.stats();
+    return new ProductCacheStatsResponse(
+        cache.estimatedSize(),
+        maximumSize,
+        stats.hitCount(),
+        stats.missCount(),
+        stats.hitRate(),
+        stats.evictionCount(),
+        invalidations.sum()
+    );
+  }
+
+  private void evictAll(Set<Long> productIds) {
+    if (productIds == null) return;
+    for (Long productId : productIds) {
+      evict(productId);
+    }
+  }
+
+  private void register(ProductResponse product) {
+    if (product.category() != null) {
+      productsByCategory.computeIfAbsent(product.category().id(), k -> ConcurrentHashMap.newKeySet())
+          .add(product.id());
+    }
+    if (product.collections() != null) {
+      for (CollectionResponse col : product.collections()) {
+        productsByCollection.computeIfAbsent(col.id(), k -> ConcurrentHashMap.newKeySet())
+            .add(product.id());
+      }
+    }
+  }
+
+  private void unregister(Long productId, ProductResponse product) {
+    if (product.category() != null) {
+      removeFrom(productsByCategory, product.category().id(), productId);
+    }
+    if (product.collections() != null) {
+      for (CollectionResponse col : product.collections()) {
+        removeFrom(productsByCollection, col.id(), productId);
+      }
+    }
+  }
+
+  private static void removeFrom(Map<Long, Set<Long>> index, Long key, Long productId) {
+    index.computeIfPresent(key, (k, ids) -> {
+      ids.remove(productId);
+      return ids.isEmpty() ? null : ids;
+    });
+  }
+}
@@ -1,13 +1,25 @@
 package com.springboot_sa_ha1.modules.products.controller;
 
+import com.springboot_sa_ha1.modules.catalog.ResourceVersion;
 import com.springboot_sa_ha1.modules.categories.service.CategoryService;
+import com.springboot_sa_ha1.modules.products.cache.ProductCacheStatsResponse;
+import com.springboot_sa_ha1.modules.products.dto.ProductDetail;
+import com.springboot_sa_ha1.modules.products.dto.ProductFilterResponse;
+import com.springboot_sa_ha1.modules.products.dto.ProductPageResponse;
 import com.springboot_sa_ha1.modules.products.dto.ProductRequest;
 import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
 import com.springboot_sa_ha1.modules.products.model.Product;
+import com.springboot_sa_ha1.modules.products.pagination.ProductPageQuery;
 import com.springboot_sa_ha1.modules.products.service.ProductService;
+import com.springboot_sa_ha1.modules.products.suggest.SuggestionResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -23,36 +35,113 @@ public class ProductController {
     this.productService = productService;
   }
 
+  // 🔹 Listado paginado por cursor: ?size=24&sort=price&direction=desc, luego ?cursor=<nextCursor>
   @GetMapping
-  public ResponseEntity<List<ProductResponse>> listar() {
-    return ResponseEntity.ok(productService.listarTodos());
+  public ResponseEntity<ProductPageResponse> listar(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer size,
+      @RequestParam(required = false) String sort,
+      @RequestParam(required = false) String direction
+  ) {
+    return ResponseEntity.ok(productService.listarTodos(ProductPageQuery.of(cursor, size, sort, direction)));
   }
 
   @GetMapping("/search")
-  public ResponseEntity<List<ProductResponse>> searchProducts(@RequestParam String term) {
-    return ResponseEntity.ok(productService.searchByTerm(term));
+  public ResponseEntity<List<ProductResponse>> searchProducts(
+      @RequestParam String term,
+      @RequestParam(defaultValue = "20") int limit,
+      @RequestParam(defaultValue = "0") int offset
+  ) {
+    return ResponseEntity.ok(productService.searchByTerm(term, limit, offset));
+  }
+
+  // 🔹 Filtro combinado con conteos por faceta:
+  // ?category=anillos&collection=navidad&collection=novias&minPrice=10000&maxPrice=50000
+  @GetMapping("/filter")
+  public ResponseEntity<ProductFilterResponse> filtrar(
+      @RequestParam(name = "category", required = false) List<String> categories,
+      @RequestParam(name = "collection", required = false) List<String> collections,
+      @RequestParam(required = false) Long minPrice,
+      @RequestParam(required = false) Long maxPrice,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer size
+  ) {
+    return ResponseEntity.ok(productService.filtrar(
+        categories, collections, minPrice, maxPrice, ProductPageQuery.of(cursor, size, "id", "asc")));
   }
 
-  // 🔹 PRODUCTOS POR CATEGORÍA (slug)
+  // 🔹 Autocompletado por prefijo (productos, categorías y colecciones, por popularidad)
+  @GetMapping("/suggest")
+  public ResponseEntity<List<SuggestionResponse>> sugerir(
+      @RequestParam String prefix,
+      @RequestParam(defaultValue = "10") int limit
+  ) {
+    return ResponseEntity.ok(productService.sugerir(prefix, limit));
+  }
+
+  // 🔹 PRODUCTOS POR CATEGORÍA (slug); ?includeDescendants=true suma las subcategorías de todos los niveles
   @GetMapping("/category/{slug}")
-  public List<ProductResponse> listarPorCategoriaSlug(
-      @PathVariable String slug
+  public ProductPageResponse listarPorCategoriaSlug(
+      @PathVariable String slug,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer size,
+      @RequestParam(required = false) String sort,
+      @RequestParam(required = false) String direction,
+      @RequestParam(defaultValue = "false") boolean includeDescendants
   ) {
-    return productService.listarPorCategoriaSlug(slug);
+    return productService.listarPorCategoriaSlug(
+        slug, ProductPageQuery.of(cursor, size, sort, direction), includeDescendants);
   }
 
   // 🔹 PRODUCTOS POR COLECCIÓN (slug)
   @GetMapping("/collection/{slug}")
-  public List<ProductResponse> listarPorColeccionSlug(
-      @PathVariable String slug
+  public ProductPageResponse listarPorColeccionSlug(
+      @PathVariable String slug,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer size,
+      @RequestParam(required = false) String sort,
+      @RequestParam(required = false) String direction
   ) {
-    return productService.listarPorColeccionSlug(slug);
+    return productService.listarPorColeccionSlug(slug, ProductPageQuery.of(cursor, size, sort, direction));
   }
 
+  // 🔹 Modo streaming (sin paginar): el JSON se escribe mientras se lee, con memoria acotada
+  @GetMapping("/stream")
+  public ResponseEntity<StreamingResponseBody> streamTodos() {
+    return streamJson(productService.exportarTodos());
+  }
+
+  @GetMapping("/category/{slug}/stream")
+  public ResponseEntity<StreamingResponseBody> streamPorCategoriaSlug(@PathVariable String slug) {
+    return streamJson(productService.exportarPorCategoriaSlug(slug));
+  }
 
+  @GetMapping("/collection/{slug}/stream")
+  public ResponseEntity<StreamingResponseBody> streamPorColeccionSlug(@PathVariable String slug) {
+    return streamJson(productService.exportarPorColeccionSlug(slug));
+  }
+
+  private static ResponseEntity<StreamingResponseBody> streamJson(StreamingResponseBody body) {
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+  }
+
+  // 🔹 Contadores de la caché de detalle de producto (para dimensionarla)
+  @GetMapping("/cache/stats")
+  public ResponseEntity<ProductCacheStatsResponse> estadisticasCache() {
+    return ResponseEntity.ok(productService.estadisticasCache());
+  }
+
+  // 🔹 GET condicional: la versión viene con el cuerpo (foto del catálogo o caché), así que el ETag
+  // corresponde siempre a lo que se entrega y un producto en memoria no consulta la base.
+  // Con If-None-Match / If-Modified-Since vigentes se responde 304; checkNotModified agrega ETag y Last-Modified.
   @GetMapping("/{id}")
-  public ResponseEntity<ProductResponse> obtenerPorId(@PathVariable Long id) {
-    return ResponseEntity.ok(productService.obtenerPorId(id));
+  public ResponseEntity<ProductResponse> obtenerPorId(@PathVariable Long id, WebRequest request) {
+    ProductDetail detail = productService.obtenerDetalle(id);
+    ResourceVersion version = detail.version().toResourceVersion();
+    if (request.checkNotModified(version.etag(), version.lastModifiedMillis())) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+    }
+    return ResponseEntity.ok(detail.product());
   }
 
   @PostMapping("/create")
@@ -60,9 +149,31 @@ public class ProductController {
     return ResponseEntity.ok(productService.guardar(request));
   }
 
+  // 🔹 If-Match opcional: con un ETag viejo responde 412 en vez de pisar otra edición.
+  // La respuesta trae el ETag nuevo (de la entidad recién guardada) para la siguiente edición.
   @PutMapping("/{id}")
-  public ResponseEntity<ProductResponse> actualizar(@PathVariable Long id, @Valid @RequestBody ProductRequest request) {
-    return ResponseEntity.ok(productService.actualizar(id, request));
+  public ResponseEntity<ProductResponse> actualizar(
+      @PathVariable Long id,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+      @Valid @RequestBody ProductRequest request
+  ) {
+    ProductDetail detail = productService.actualizar(id, request, ifMatch);
+    return ResponseEntity.ok()
+        .eTag(detail.version().toResourceVersion().etag())
+        .body(detail.product());
+  }
+
+  // 🔹 Edición parcial: los campos ausentes (null) no se tocan, tampoco imágenes ni colecciones
+  @PatchMapping("/{id}")
+  public ResponseEntity<ProductResponse> actualizarParcial(
+      @PathVariable Long id,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+      @RequestBody ProductRequest request
+  ) {
+    ProductDetail detail = productService.actualizarParcial(id, request, ifMatch);
+    return ResponseEntity.ok()
+        .eTag(detail.version().toResourceVersion().etag())
+        .body(detail.product());
   }
 
   @DeleteMapping("/{id}")
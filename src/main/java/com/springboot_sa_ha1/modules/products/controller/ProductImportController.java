@@ -0,0 +1,61 @@
+package com.springboot_sa_ha1.modules.products.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot_sa_ha1.modules.products.importer.ProductImportFormat;
+import com.springboot_sa_ha1.modules.products.importer.ProductImportService;
+import com.springboot_sa_ha1.modules.products.importer.ProductImportSummary;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+@RestController
+@RequestMapping("/api/product")
+public class ProductImportController {
+
+  private final ProductImportService importService;
+  private final ObjectMapper objectMapper;
+
+  public ProductImportController(ProductImportService importService, ObjectMapper objectMapper) {
+    this.importService = importService;
+    this.objectMapper = objectMapper;
+  }
+
+  // 🔹 Importación masiva: cuerpo text/csv (con cabecera) o application/x-ndjson (un producto por línea).
+  // La respuesta es NDJSON: una línea de avance por lote (con sus errores) y al final el resumen.
+  @PostMapping(
+      value = "/import",
+      consumes = {ProductImportFormat.CSV_MEDIA_TYPE, ProductImportFormat.NDJSON_MEDIA_TYPE},
+      produces = ProductImportFormat.NDJSON_MEDIA_TYPE
+  )
+  public void importar(
+      @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+      InputStream body,
+      HttpServletResponse response
+  ) throws IOException {
+    ProductImportFormat format = ProductImportFormat.from(contentType);
+    response.setContentType(ProductImportFormat.NDJSON_MEDIA_TYPE);
+    response.setCharacterEncoding("UTF-8");
+    OutputStream out = response.getOutputStream();
+
+    ProductImportSummary summary = importService.importar(body, format, progress -> writeLine(out, progress));
+    writeLine(out, summary);
+  }
+
+  private void writeLine(OutputStream out, Object value) {
+    try {
+      out.write(objectMapper.writeValueAsBytes(value));
+      out.write('\n');
+      out.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
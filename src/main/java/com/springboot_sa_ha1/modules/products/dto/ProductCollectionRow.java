@@ -0,0 +1,15 @@
+package com.springboot_sa_ha1.modules.products.dto;
+
+import java.time.Instant;
+
+// 🔹 Colección de un producto (la fila ya trae los datos de la colección, sin cargarla)
+public record ProductCollectionRow(
+    Long productId,
+    Long collectionId,
+    String name,
+    String description,
+    String slug,
+    String image,
+    Long version,
+    Instant updatedAt
+) {}
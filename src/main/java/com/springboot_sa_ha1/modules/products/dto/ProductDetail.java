@@ -0,0 +1,8 @@
+package com.springboot_sa_ha1.modules.products.dto;
+
+// 🔹 Producto junto con la versión de lo que muestra, leídos de la misma fuente (caché, foto o base):
+// el ETag de GET /api/product/{id} siempre corresponde al cuerpo que se entrega
+public record ProductDetail(
+    ProductResponse product,
+    ProductVersionRow version
+) {}
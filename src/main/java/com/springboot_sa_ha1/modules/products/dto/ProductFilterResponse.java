@@ -0,0 +1,15 @@
+package com.springboot_sa_ha1.modules.products.dto;
+
+import com.springboot_sa_ha1.modules.products.facet.FacetCount;
+import com.springboot_sa_ha1.modules.products.facet.PriceBucketCount;
+
+import java.util.List;
+
+public record ProductFilterResponse(
+    List<ProductResponse> items,
+    String nextCursor,   // null cuando no hay más páginas
+    long total,
+    List<FacetCount> categories,
+    List<FacetCount> collections,
+    List<PriceBucketCount> priceBuckets
+) {}
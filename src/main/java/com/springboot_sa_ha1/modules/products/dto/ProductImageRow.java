@@ -0,0 +1,3 @@
+package com.springboot_sa_ha1.modules.products.dto;
+
+public record ProductImageRow(Long productId, String imageUrl) {}
@@ -0,0 +1,4 @@
+package com.springboot_sa_ha1.modules.products.dto;
+
+// 🔹 Proyección liviana para índices en memoria (sin cargar la entidad completa)
+public record ProductIndexView(Long id, String name, Long price, Long categoryId) {}
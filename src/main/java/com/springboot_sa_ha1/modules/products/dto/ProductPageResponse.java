@@ -0,0 +1,12 @@
+package com.springboot_sa_ha1.modules.products.dto;
+
+import java.util.List;
+
+public record ProductPageResponse(
+    List<ProductResponse> items,
+    String nextCursor   // null cuando no hay más páginas
+) {
+  public static ProductPageResponse empty() {
+    return new ProductPageResponse(List.of(), null);
+  }
+}
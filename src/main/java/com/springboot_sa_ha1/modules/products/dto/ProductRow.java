@@ -0,0 +1,22 @@
+package com.springboot_sa_ha1.modules.products.dto;
+
+import java.time.Instant;
+
+// 🔹 Fila plana producto + categoría, proyectada directo desde la consulta (sin entidad administrada).
+// Las versiones van en la misma fila que los datos: el ETag corresponde a lo que se leyó
+public record ProductRow(
+    Long id,
+    String name,
+    Long price,
+    Long stock,
+    String description,
+    Long version,
+    Instant updatedAt,
+    Long categoryId,
+    String categoryName,
+    String categoryDescription,
+    String categorySlug,
+    String categoryImage,
+    Long categoryVersion,
+    Instant categoryUpdatedAt
+) {}
@@ -0,0 +1,57 @@
+package com.springboot_sa_ha1.modules.products.dto;
+
+import com.springboot_sa_ha1.modules.catalog.ResourceVersion;
+import com.springboot_sa_ha1.modules.catalog.RowVersion;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+// 🔹 Versiones de todo lo que aparece en un ProductResponse: el producto, su categoría y sus colecciones.
+// Las versiones sólo crecen, así que la suma de las colecciones cambia si cualquiera de ellas cambia;
+// altas/bajas de pertenencia suben la versión del producto.
+public record ProductVersionRow(
+    Long version,
+    Instant updatedAt,
+    Long categoryVersion,
+    Instant categoryUpdatedAt,
+    Long collectionVersions,
+    Long collectionCount,
+    Instant collectionsUpdatedAt
+) {
+
+  // 🔹 Mismo cálculo a partir de las versiones sueltas (caché, foto del catálogo o entidad recién guardada)
+  public static ProductVersionRow of(RowVersion product, RowVersion category, List<RowVersion> collections) {
+    long sum = 0;
+    Instant collectionsUpdatedAt = null;
+    for (RowVersion collection : collections) {
+      if (collection.version() != null) sum += collection.version();
+      collectionsUpdatedAt = latest(collectionsUpdatedAt, collection.updatedAt());
+    }
+    return new ProductVersionRow(
+        product.version(),
+        product.updatedAt(),
+        category != null ? category.version() : null,
+        category != null ? category.updatedAt() : null,
+        sum,
+        (long) collections.size(),
+        collectionsUpdatedAt
+    );
+  }
+
+  public ResourceVersion toResourceVersion() {
+    String etag = "\"" + version + "-" + categoryVersion + "-" + collectionVersions + "-" + collectionCount + "\"";
+    Instant lastModified = Stream.of(updatedAt, categoryUpdatedAt, collectionsUpdatedAt)
+        .filter(Objects::nonNull)
+        .max(Instant::compareTo)
+        .orElse(null);
+    return new ResourceVersion(etag, lastModified);
+  }
+
+  private static Instant latest(Instant a, Instant b) {
+    if (a == null) return b;
+    if (b == null) return a;
+    return a.isAfter(b) ? a : b;
+  }
+}
@@ -0,0 +1,4 @@
+package com.springboot_sa_ha1.modules.products.event;
+
+// 🔹 Se publica cuando un producto se elimina
+public record ProductDeletedEvent(Long productId) {}
@@ -0,0 +1,17 @@
+package com.springboot_sa_ha1.modules.products.event;
+
+import com.springboot_sa_ha1.modules.catalog.RowVersion;
+import com.springboot_sa_ha1.modules.products.dto.ProductDetail;
+import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+
+// 🔹 Se publica cuando un producto se crea o se modifica (incluye sus colecciones).
+// version = la de la fila del producto ya escrita (después del flush)
+public record ProductSavedEvent(ProductResponse product, RowVersion version) {
+
+  // 🔹 Desde una lectura hecha después de escribir (p. ej. tras un UPDATE VERSIONED masivo)
+  public static ProductSavedEvent of(ProductDetail detail) {
+    ProductResponse product = detail.product();
+    return new ProductSavedEvent(product,
+        new RowVersion(product.id(), detail.version().version(), detail.version().updatedAt()));
+  }
+}
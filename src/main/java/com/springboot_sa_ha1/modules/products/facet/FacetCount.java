@@ -0,0 +1,6 @@
+package com.springboot_sa_ha1.modules.products.facet;
+
+public record FacetCount(
+    Long id,
+    long count
+) {}
@@ -0,0 +1,12 @@
+package com.springboot_sa_ha1.modules.products.facet;
+
+import java.util.Set;
+
+// 🔹 Filtro ya resuelto a ids: categorías en OR (un producto tiene una sola),
+// colecciones en AND (debe estar en todas) y rango de precio [minPrice, maxPrice]
+public record FacetFilter(
+    Set<Long> categoryIds,
+    Set<Long> collectionIds,
+    Long minPrice,
+    Long maxPrice
+) {}
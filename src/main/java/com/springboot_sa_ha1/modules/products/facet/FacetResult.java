@@ -0,0 +1,12 @@
+package com.springboot_sa_ha1.modules.products.facet;
+
+import java.util.List;
+
+public record FacetResult(
+    long total,
+    List<Long> productIds,   // página en orden de id
+    boolean hasNext,
+    List<FacetCount> categories,
+    List<FacetCount> collections,
+    List<PriceBucketCount> priceBuckets
+) {}
@@ -0,0 +1,7 @@
+package com.springboot_sa_ha1.modules.products.facet;
+
+public record PriceBucketCount(
+    Long min,   // inclusivo; null = sin límite inferior
+    Long max,   // exclusivo; null = sin límite superior
+    long count
+) {}
@@ -0,0 +1,315 @@
+package com.springboot_sa_ha1.modules.products.facet;
+
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// 🔹 Índice de facetas: un bitmap comprimido (Roaring) de ids de producto por categoría,
+// por colección y por tramo de precio, más los precios ordenados para filtrar por rango.
+// Filtrar = AND/OR de bitmaps; contar una faceta = cardinalidad de un AND, sin recorrer productos.
+@Component
+public class ProductFacetIndex {
+
+  private record Entry(long price, Long categoryId, long[] collectionIds) {}
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final long[] bucketBounds;
+  private final RoaringBitmap[] byPriceBucket;
+  private final RoaringBitmap all = new RoaringBitmap();
+  private final Map<Long, RoaringBitmap> byCategory = new HashMap<>();
+  private final Map<Long, RoaringBitmap> byCollection = new HashMap<>();
+  private final Map<Integer, Entry> entries = new HashMap<>();
+
+  // 🔹 Precios ordenados por (precio, id) y sus ids en el mismo orden
+  private long[] sortedPrices = new long[16];
+  private int[] idsByPrice = new int[16];
+  private int priceCount;
+  private volatile boolean ready;
+
+  public ProductFacetIndex(@Value("${catalog.facets.price-buckets:10000,25000,50000,100000}") long[] bucketBounds) {
+    this.bucketBounds = bucketBounds.clone();
+    Arrays.sort(this.bucketBounds);
+    this.byPriceBucket = new RoaringBitmap[this.bucketBounds.length + 1];
+    for (int i = 0; i < byPriceBucket.length; i++) byPriceBucket[i] = new RoaringBitmap();
+  }
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  public void replaceAll(Map<Long, Long> prices, Map<Long, Long> categories, Map<Long, ? extends Collection<Long>> collections) {
+    lock.writeLock().lock();
+    try {
+      all.clear();
+      byCategory.clear();
+      byCollection.clear();
+      entries.clear();
+      for (RoaringBitmap bucket : byPriceBucket) bucket.clear();
+      priceCount = 0;
+      for (Map.Entry<Long, Long> e : prices.entrySet()) {
+        Long productId = e.getKey();
+        Collection<Long> productCollections = collections.get(productId);
+        addInternal(productId, e.getValue(), categories.get(productId),
+            productCollections != null ? productCollections : List.of(), false);
+      }
+      sortPrices();
+      runOptimize();
+      ready = true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void index(Long productId, Long price, Long categoryId, Collection<Long> collectionIds) {
+    lock.writeLock().lock();
+    try {
+      removeInternal(productId);
+      addInternal(productId, price, categoryId, collectionIds, true);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void remove(Long productId) {
+    lock.writeLock().lock();
+    try {
+      removeInternal(productId);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void removeCollection(Long collectionId) {
+    lock.writeLock().lock();
+    try {
+      RoaringBitmap members = byCollection.remove(collectionId);
+      if (members == null) return;
+      for (int id : members) {
+        Entry entry = entries.get(id);
+        long[] remaining = Arrays.stream(entry.collectionIds()).filter(c -> c != collectionId).toArray();
+        entries.put(id, new Entry(entry.price(), entry.categoryId(), remaining));
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public FacetResult filter(FacetFilter filter, Long afterId, int size) {
+    lock.readLock().lock();
+    try {
+      RoaringBitmap categoryMatch = categoryBitmap(filter.categoryIds());
+      RoaringBitmap collectionMatch = collectionBitmap(filter.collectionIds());
+      RoaringBitmap priceMatch = priceBitmap(filter.minPrice(), filter.maxPrice());
+
+      RoaringBitmap matches = and(all, categoryMatch, collectionMatch, priceMatch);
+
+      // 🔹 Facetas "disyuntivas": cada dimensión se cuenta con los filtros de las otras,
+      // para que el usuario vea cuántos productos tendría al cambiar esa opción
+      RoaringBitmap categoryBase = and(all, collectionMatch, priceMatch);
+      List<FacetCount> categoryCounts = counts(byCategory, categoryBase);
+
+      // 🔹 Las colecciones se combinan en AND: su conteo es sobre el resultado actual
+      List<FacetCount> collectionCounts = counts(byCollection, matches);
+
+      RoaringBitmap priceBase = and(all, categoryMatch, collectionMatch);
+      List<PriceBucketCount> priceCounts = new ArrayList<>(byPriceBucket.length);
+      for (int i = 0; i < byPriceBucket.length; i++) {
+        priceCounts.add(new PriceBucketCount(
+            i == 0 ? null : bucketBounds[i - 1],
+            i == bucketBounds.length ? null : bucketBounds[i],
+            RoaringBitmap.andCardinality(priceBase, byPriceBucket[i])
+        ));
+      }
+
+      // 🔹 Página: los ids del bitmap ya están ordenados; se salta directo al cursor
+      List<Long> page = new ArrayList<>(size);
+      PeekableIntIterator it = matches.getIntIterator();
+      if (afterId != null) it.advanceIfNeeded((int) Math.min(afterId + 1, Integer.MAX_VALUE));
+      while (it.hasNext() && page.size() < size) {
+        page.add((long) it.next());
+      }
+
+      return new FacetResult(matches.getLongCardinality(), page, it.hasNext(),
+          categoryCounts, collectionCounts, priceCounts);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  // ---------------------------------------------------------------------------
+
+  private RoaringBitmap categoryBitmap(Set<Long> categoryIds) {
+    if (categoryIds == null || categoryIds.isEmpty()) return null;
+    RoaringBitmap result = new RoaringBitmap();
+    for (Long categoryId : categoryIds) {
+      RoaringBitmap members = byCategory.get(categoryId);
+      if (members != null) result.or(members);
+    }
+    return result;
+  }
+
+  private RoaringBitmap collectionBitmap(Set<Long> collectionIds) {
+    if (collectionIds == null || collectionIds.isEmpty()) return null;
+    RoaringBitmap result = null;
+    for (Long collectionId : collectionIds) {
+      RoaringBitmap members = byCollection.get(collectionId);
+      if (members == null) return new RoaringBitmap();
+      result = result == null ? members.clone() : RoaringBitmap.and(result, members);
+    }
+    return result;
+  }
+
+  // 🔹 Búsqueda binaria de los extremos en los precios ordenados; los ids del tramo forman el bitmap
+  private RoaringBitmap priceBitmap(Long min, Long max) {
+    if (min == null && max == null) return null;
+    int from = min == null ? 0 : lowerBound(min, Integer.MIN_VALUE);
+    int to = max == null || max == Long.MAX_VALUE ? priceCount : lowerBound(max + 1, Integer.MIN_VALUE);
+    RoaringBitmap result = new RoaringBitmap();
+    if (from < to) {
+      int[] ids = Arrays.copyOfRange(idsByPrice, from, to);
+      Arrays.sort(ids);
+      result.addN(ids, 0, ids.length);
+    }
+    return result;
+  }
+
+  // 🔹 Primera posición con (precio, id) >= (price, id)
+  private int lowerBound(long price, int id) {
+    int low = 0;
+    int high = priceCount;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      long p = sortedPrices[mid];
+      if (p < price || (p == price && idsByPrice[mid] < id)) low = mid + 1;
+      else high = mid;
+    }
+    return low;
+  }
+
+  // 🔹 Altas y bajas desplazan el arreglo (memmove): O(n) por escritura, lecturas sin costo extra
+  private void insertPrice(long price, int id) {
+    if (priceCount == sortedPrices.length) {
+      sortedPrices = Arrays.copyOf(sortedPrices, priceCount * 2);
+      idsByPrice = Arrays.copyOf(idsByPrice, priceCount * 2);
+    }
+    int pos = lowerBound(price, id);
+    System.arraycopy(sortedPrices, pos, sortedPrices, pos + 1, priceCount - pos);
+    System.arraycopy(idsByPrice, pos, idsByPrice, pos + 1, priceCount - pos);
+    sortedPrices[pos] = price;
+    idsByPrice[pos] = id;
+    priceCount++;
+  }
+
+  private void removePrice(long price, int id) {
+    int pos = lowerBound(price, id);
+    if (pos == priceCount || sortedPrices[pos] != price || idsByPrice[pos] != id) return;
+    System.arraycopy(sortedPrices, pos + 1, sortedPrices, pos, priceCount - pos - 1);
+    System.arraycopy(idsByPrice, pos + 1, idsByPrice, pos, priceCount - pos - 1);
+    priceCount--;
+  }
+
+  // 🔹 Carga inicial: se agrega sin orden y se ordena una sola vez
+  private void appendPrice(long price, int id) {
+    if (priceCount == sortedPrices.length) {
+      sortedPrices = Arrays.copyOf(sortedPrices, priceCount * 2);
+      idsByPrice = Arrays.copyOf(idsByPrice, priceCount * 2);
+    }
+    sortedPrices[priceCount] = price;
+    idsByPrice[priceCount] = id;
+    priceCount++;
+  }
+
+  private void sortPrices() {
+    Integer[] order = new Integer[priceCount];
+    for (int i = 0; i < priceCount; i++) order[i] = i;
+    long[] prices = sortedPrices;
+    int[] ids = idsByPrice;
+    Arrays.sort(order, (a, b) -> {
+      int cmp = Long.compare(prices[a], prices[b]);
+      return cmp != 0 ? cmp : Integer.compare(ids[a], ids[b]);
+    });
+    long[] sortedP = new long[Math.max(16, priceCount)];
+    int[] sortedI = new int[Math.max(16, priceCount)];
+    for (int i = 0; i < priceCount; i++) {
+      sortedP[i] = prices[order[i]];
+      sortedI[i] = ids[order[i]];
+    }
+    sortedPrices = sortedP;
+    idsByPrice = sortedI;
+  }
+
+  private static RoaringBitmap and(RoaringBitmap base, RoaringBitmap... filters) {
+    RoaringBitmap result = base;
+    for (RoaringBitmap filter : filters) {
+      if (filter != null) result = RoaringBitmap.and(result, filter);
+    }
+    return result;
+  }
+
+  private static List<FacetCount> counts(Map<Long, RoaringBitmap> bitmaps, RoaringBitmap base) {
+    List<FacetCount> result = new ArrayList<>();
+    for (Map.Entry<Long, RoaringBitmap> e : bitmaps.entrySet()) {
+      long count = RoaringBitmap.andCardinality(base, e.getValue());
+      if (count > 0) result.add(new FacetCount(e.getKey(), count));
+    }
+    result.sort(Comparator.comparingLong(FacetCount::count).reversed().thenComparing(FacetCount::id));
+    return result;
+  }
+
+  private int bucketOf(long price) {
+    int pos = Arrays.binarySearch(bucketBounds, price);
+    // 🔹 Un precio igual al límite pertenece al tramo superior ([min, max))
+    return pos >= 0 ? pos + 1 : -pos - 1;
+  }
+
+  private void addInternal(Long productId, Long price, Long categoryId, Collection<Long> collectionIds, boolean sorted) {
+    if (productId == null || productId > Integer.MAX_VALUE) return;
+    int id = productId.intValue();
+    long safePrice = price == null ? 0 : price;
+    long[] collections = collectionIds.stream().filter(Objects::nonNull).mapToLong(Long::longValue).distinct().toArray();
+
+    entries.put(id, new Entry(safePrice, categoryId, collections));
+    all.add(id);
+    byPriceBucket[bucketOf(safePrice)].add(id);
+    if (sorted) insertPrice(safePrice, id);
+    else appendPrice(safePrice, id);
+    if (categoryId != null) byCategory.computeIfAbsent(categoryId, c -> new RoaringBitmap()).add(id);
+    for (long collectionId : collections) {
+      byCollection.computeIfAbsent(collectionId, c -> new RoaringBitmap()).add(id);
+    }
+  }
+
+  private void removeInternal(Long productId) {
+    if (productId == null || productId > Integer.MAX_VALUE) return;
+    int id = productId.intValue();
+    Entry entry = entries.remove(id);
+    if (entry == null) return;
+
+    all.remove(id);
+    byPriceBucket[bucketOf(entry.price())].remove(id);
+    removePrice(entry.price(), id);
+    if (entry.categoryId() != null) removeFrom(byCategory, entry.categoryId(), id);
+    for (long collectionId : entry.collectionIds()) {
+      removeFrom(byCollection, collectionId, id);
+    }
+  }
+
+  private static void removeFrom(Map<Long, RoaringBitmap> bitmaps, Long key, int id) {
+    RoaringBitmap members = bitmaps.get(key);
+    if (members == null) return;
+    members.remove(id);
+    if (members.isEmpty()) bitmaps.remove(key);
+  }
+
+  private void runOptimize() {
+    all.runOptimize();
+    byCategory.values().forEach(RoaringBitmap::runOptimize);
+    byCollection.values().forEach(RoaringBitmap::runOptimize);
+    for (RoaringBitmap bucket : byPriceBucket) bucket.runOptimize();
+  }
+}
@@ -0,0 +1,113 @@
+package com.springboot_sa_ha1.modules.products.facet;
+
+import com.springboot_sa_ha1.modules.catalog.IndexLoadBuffer;
+import com.springboot_sa_ha1.modules.catalog.StartupOrder;
+import com.springboot_sa_ha1.modules.collections.dto.CollectionResponse;
+import com.springboot_sa_ha1.modules.collections.event.CollectionDeletedEvent;
+import com.springboot_sa_ha1.modules.product_collections.dto.ProductCollectionResponse;
+import com.springboot_sa_ha1.modules.product_collections.repository.ProductCollectionRepository;
+import com.springboot_sa_ha1.modules.products.dto.ProductIndexView;
+import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import com.springboot_sa_ha1.modules.products.event.ProductDeletedEvent;
+import com.springboot_sa_ha1.modules.products.event.ProductSavedEvent;
+import com.springboot_sa_ha1.modules.products.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// 🔹 Mantiene el índice de facetas sincronizado con la base de datos
+@Component
+public class ProductFacetIndexer {
+
+  private static final Logger log = LoggerFactory.getLogger(ProductFacetIndexer.class);
+  private static final int LOAD_PAGE_SIZE = 5000;
+
+  private final ProductFacetIndex index;
+  private final ProductRepository productRepository;
+  private final ProductCollectionRepository productCollectionRepository;
+  private final TransactionTemplate readOnlyTx;
+  private final IndexLoadBuffer loading = new IndexLoadBuffer();
+
+  public ProductFacetIndexer(
+      ProductFacetIndex index,
+      ProductRepository productRepository,
+      ProductCollectionRepository productCollectionRepository,
+      PlatformTransactionManager transactionManager
+  ) {
+    this.index = index;
+    this.productRepository = productRepository;
+    this.productCollectionRepository = productCollectionRepository;
+    this.readOnlyTx = new TransactionTemplate(transactionManager);
+    this.readOnlyTx.setReadOnly(true);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Order(StartupOrder.INDEXES)
+  public void rebuild() {
+    long start = System.nanoTime();
+    loading.startLoading();
+    try {
+      Map<Long, Long> prices = new HashMap<>();
+      Map<Long, Long> categories = new HashMap<>();
+      Long lastId = 0L;
+      while (true) {
+        Long afterId = lastId;
+        List<ProductIndexView> page = readOnlyTx.execute(status ->
+            productRepository.findIndexViewsAfter(afterId, Limit.of(LOAD_PAGE_SIZE)));
+        if (page == null || page.isEmpty()) break;
+        for (ProductIndexView product : page) {
+          prices.put(product.id(), product.price());
+          categories.put(product.id(), product.categoryId());
+        }
+        lastId = page.get(page.size() - 1).id();
+      }
+
+      Map<Long, List<Long>> collections = new HashMap<>();
+      List<ProductCollectionResponse> links = readOnlyTx.execute(status -> productCollectionRepository.findAllLinks());
+      for (ProductCollectionResponse link : Objects.requireNonNull(links)) {
+        collections.computeIfAbsent(link.productId(), p -> new ArrayList<>()).add(link.collectionId());
+      }
+
+      // 🔹 Los guardados y bajas que llegaron durante la carga se reaplican sobre el índice nuevo
+      loading.finishLoading(() -> index.replaceAll(prices, categories, collections));
+      log.info("Índice de facetas construido: {} productos en {} ms",
+          prices.size(), (System.nanoTime() - start) / 1_000_000);
+    } catch (RuntimeException e) {
+      loading.finishLoading(() -> {});
+      log.warn("No se pudo construir el índice de facetas; /api/product/filter no estará disponible", e);
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onProductSaved(ProductSavedEvent event) {
+    ProductResponse product = event.product();
+    List<Long> collectionIds = product.collections() == null
+        ? List.of()
+        : product.collections().stream().map(CollectionResponse::id).toList();
+    Long categoryId = product.category() != null ? product.category().id() : null;
+    loading.apply(() -> index.index(product.id(), product.price(), categoryId, collectionIds));
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onProductDeleted(ProductDeletedEvent event) {
+    loading.apply(() -> index.remove(event.productId()));
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCollectionDeleted(CollectionDeletedEvent event) {
+    loading.apply(() -> index.removeCollection(event.collectionId()));
+  }
+}
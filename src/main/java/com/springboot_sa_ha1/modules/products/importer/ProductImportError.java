@@ -0,0 +1,4 @@
+package com.springboot_sa_ha1.modules.products.importer;
+
+// 🔹 line = número de línea del archivo (1 = primera línea, incluida la cabecera del CSV)
+public record ProductImportError(long line, String message) {}
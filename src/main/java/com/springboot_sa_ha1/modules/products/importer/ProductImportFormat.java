@@ -0,0 +1,25 @@
+package com.springboot_sa_ha1.modules.products.importer;
+
+import com.springboot_sa_ha1.exception.BadRequestException;
+import org.springframework.http.MediaType;
+
+public enum ProductImportFormat {
+  CSV,
+  NDJSON;
+
+  public static final String CSV_MEDIA_TYPE = "text/csv";
+  public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
+  public static ProductImportFormat from(String contentType) {
+    if (contentType != null) {
+      try {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        if (mediaType.isCompatibleWith(MediaType.parseMediaType(CSV_MEDIA_TYPE))) return CSV;
+        if (mediaType.isCompatibleWith(MediaType.parseMediaType(NDJSON_MEDIA_TYPE))) return NDJSON;
+      } catch (IllegalArgumentException ignored) {
+        // 🔹 Content-Type mal formado: mismo error que uno no soportado
+      }
+    }
+    throw new BadRequestException("Formato no soportado: use " + CSV_MEDIA_TYPE + " o " + NDJSON_MEDIA_TYPE);
+  }
+}
@@ -0,0 +1,12 @@
+package com.springboot_sa_ha1.modules.products.importer;
+
+import java.util.List;
+
+// 🔹 Avance después de cada lote: totales acumulados + errores de ese lote
+public record ProductImportProgress(
+    int batch,
+    long rows,
+    long imported,
+    long failed,
+    List<ProductImportError> errors
+) {}
@@ -0,0 +1,93 @@
+package com.springboot_sa_ha1.modules.products.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.springboot_sa_ha1.exception.BadRequestException;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Set;
+
+// 🔹 Lee el cuerpo de la importación línea por línea, sin cargarlo completo en memoria.
+// Cada línea se interpreta por separado: una línea mal formada se informa como error y se sigue
+// con la siguiente (por eso en CSV no se admiten saltos de línea dentro de un campo).
+final class ProductImportReader implements Closeable {
+
+  private static final Set<String> REQUIRED_COLUMNS = Set.of("name", "price", "category");
+  private static final Set<String> LIST_COLUMNS = Set.of("collections", "images");
+  private static final String LIST_SEPARATOR = "|";
+  private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+      .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+      .enable(CsvParser.Feature.TRIM_SPACES)
+      .build();
+
+  // 🔹 row o error (nunca ambos)
+  record Line(long number, ProductImportRow row, String error) {}
+
+  private final BufferedReader reader;
+  private ObjectReader rowReader;
+  private long lineNumber;
+
+  ProductImportReader(InputStream in, ProductImportFormat format, ObjectMapper objectMapper) {
+    this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    if (format == ProductImportFormat.NDJSON) {
+      this.rowReader = objectMapper.readerFor(ProductImportRow.class);
+    }
+  }
+
+  // 🔹 null = fin del archivo
+  Line next() throws IOException {
+    String text;
+    while ((text = reader.readLine()) != null) {
+      lineNumber++;
+      if (text.isBlank()) continue;
+      if (rowReader == null) {
+        rowReader = csvRowReader(text);
+        continue;
+      }
+      try {
+        return new Line(lineNumber, rowReader.readValue(text), null);
+      } catch (JsonProcessingException e) {
+        return new Line(lineNumber, null, "Fila mal formada: " + e.getOriginalMessage());
+      }
+    }
+    return null;
+  }
+
+  // 🔹 La cabecera define el orden de las columnas: name,price,stock,description,category,collections,images
+  private ObjectReader csvRowReader(String header) throws IOException {
+    // 🔹 Sin esquema, cada fila CSV se lee como un arreglo de textos
+    String[] columns = CSV_MAPPER.readerFor(String[].class).readValue(header);
+
+    CsvSchema.Builder schema = CsvSchema.builder().setArrayElementSeparator(LIST_SEPARATOR);
+    for (String column : columns) {
+      String name = column == null ? "" : column.trim().toLowerCase(Locale.ROOT);
+      if (LIST_COLUMNS.contains(name)) {
+        schema.addArrayColumn(name, LIST_SEPARATOR);
+      } else {
+        schema.addColumn(name);
+      }
+    }
+    CsvSchema built = schema.build();
+    for (String required : REQUIRED_COLUMNS) {
+      if (built.column(required) == null) {
+        throw new BadRequestException("Falta la columna '" + required + "' en la cabecera del CSV");
+      }
+    }
+    return CSV_MAPPER.readerFor(ProductImportRow.class).with(built);
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+}
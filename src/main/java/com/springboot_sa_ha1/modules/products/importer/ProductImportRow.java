@@ -0,0 +1,18 @@
+package com.springboot_sa_ha1.modules.products.importer;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+// 🔹 Una fila del archivo de importación. category y collections son slugs (o nombres, se normalizan);
+// en CSV las listas van separadas por "|": "navidad|novias"
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ProductImportRow(
+    String name,
+    Long price,
+    Long stock,
+    String description,
+    String category,
+    List<String> collections,
+    List<String> images
+) {}
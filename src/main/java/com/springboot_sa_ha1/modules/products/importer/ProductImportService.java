@@ -0,0 +1,297 @@
+package com.springboot_sa_ha1.modules.products.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot_sa_ha1.modules.catalog.RowVersion;
+import com.springboot_sa_ha1.modules.categories.dto.CategoryResponse;
+import com.springboot_sa_ha1.modules.categories.model.Category;
+import com.springboot_sa_ha1.modules.categories.repository.CategoryRepository;
+import com.springboot_sa_ha1.modules.collections.dto.CollectionResponse;
+import com.springboot_sa_ha1.modules.collections.model.Collection;
+import com.springboot_sa_ha1.modules.collections.repository.CollectionRepository;
+import com.springboot_sa_ha1.modules.product_collections.model.ProductCollection;
+import com.springboot_sa_ha1.modules.product_collections.model.ProductCollectionId;
+import com.springboot_sa_ha1.modules.productimages.model.ProductImage;
+import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import com.springboot_sa_ha1.modules.products.event.ProductSavedEvent;
+import com.springboot_sa_ha1.modules.products.model.Product;
+import com.springboot_sa_ha1.modules.slugs.SlugNormalizer;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// 🔹 Importación masiva de productos (CSV o NDJSON) por lotes:
+// - el cuerpo se lee en streaming, un lote a la vez
+// - categorías y colecciones se resuelven con una consulta por lote
+// - productos, imágenes y product_collection se insertan en lotes JDBC (ids de secuencia pooled)
+// - una fila inválida se informa y se salta; si un lote falla en la base se reintenta fila por fila
+@Service
+public class ProductImportService {
+
+  private static final Logger log = LoggerFactory.getLogger(ProductImportService.class);
+
+  private final EntityManager entityManager;
+  private final CategoryRepository categoryRepository;
+  private final CollectionRepository collectionRepository;
+  private final ObjectMapper objectMapper;
+  private final ApplicationEventPublisher events;
+  private final TransactionTemplate tx;
+  private final int batchSize;
+
+  private record PreparedRow(
+      long line, ProductImportRow row, CategoryResponse category, List<CollectionResponse> collections,
+      List<String> images
+  ) {}
+
+  private record BatchResult(long imported, List<ProductImportError> errors) {}
+
+  public ProductImportService(
+      EntityManager entityManager,
+      CategoryRepository categoryRepository,
+      CollectionRepository collectionRepository,
+      ObjectMapper objectMapper,
+      ApplicationEventPublisher events,
+      PlatformTransactionManager transactionManager,
+      @Value("${catalog.import.batch-size:500}") int batchSize
+  ) {
+    this.entityManager = entityManager;
+    this.categoryRepository = categoryRepository;
+    this.collectionRepository = collectionRepository;
+    this.objectMapper = objectMapper;
+    this.events = events;
+    this.tx = new TransactionTemplate(transactionManager);
+    this.batchSize = Math.max(batchSize, 1);
+  }
+
+  public ProductImportSummary importar(
+      InputStream in, ProductImportFormat format, Consumer<ProductImportProgress> onProgress
+  ) {
+    long start = System.nanoTime();
+    long rows = 0;
+    long imported = 0;
+    long failed = 0;
+    int batchNumber = 0;
+
+    try (ProductImportReader reader = new ProductImportReader(in, format, objectMapper)) {
+      List<ProductImportReader.Line> batch = new ArrayList<>(batchSize);
+      ProductImportReader.Line line;
+      do {
+        line = reader.next();
+        if (line != null) batch.add(line);
+        if (batch.size() == batchSize || (line == null && !batch.isEmpty())) {
+          BatchResult result = importBatch(batch);
+          rows += batch.size();
+          imported += result.imported();
+          failed += result.errors().size();
+          batchNumber++;
+          log.info("Importación de productos: lote {} ({} filas, {} importadas, {} con error)",
+              batchNumber, rows, imported, failed);
+          onProgress.accept(new ProductImportProgress(batchNumber, rows, imported, failed, result.errors()));
+          batch = new ArrayList<>(batchSize);
+        }
+      } while (line != null);
+    } catch (IOException e) {
+      throw new RuntimeException("Error al leer el archivo de importación", e);
+    }
+
+    return new ProductImportSummary(rows, imported, failed, (System.nanoTime() - start) / 1_000_000);
+  }
+
+  // ---------------------------------------------------------------------------
+
+  private BatchResult importBatch(List<ProductImportReader.Line> lines) {
+    List<ProductImportError> errors = new ArrayList<>();
+    List<ProductImportReader.Line> parsed = new ArrayList<>(lines.size());
+    for (ProductImportReader.Line line : lines) {
+      if (line.error() != null) {
+        errors.add(new ProductImportError(line.number(), line.error()));
+      } else {
+        parsed.add(line);
+      }
+    }
+
+    // 🔹 Una consulta para todas las categorías del lote y otra para todas las colecciones
+    Map<String, CategoryResponse> categories = resolve(
+        parsed.stream().map(l -> l.row().category()),
+        categoryRepository::findResponsesBySlugIn, CategoryResponse::slug);
+    Map<String, CollectionResponse> collections = resolve(
+        parsed.stream().flatMap(l -> listOf(l.row().collections()).stream()),
+        collectionRepository::findResponsesBySlugIn, CollectionResponse::slug);
+
+    List<PreparedRow> prepared = new ArrayList<>(parsed.size());
+    for (ProductImportReader.Line line : parsed) {
+      try {
+        prepared.add(prepare(line, categories, collections));
+      } catch (IllegalArgumentException e) {
+        errors.add(new ProductImportError(line.number(), e.getMessage()));
+      }
+    }
+    if (prepared.isEmpty()) return new BatchResult(0, errors);
+
+    try {
+      persist(prepared);
+      return new BatchResult(prepared.size(), errors);
+    } catch (RuntimeException batchFailure) {
+      // 🔹 El lote completo se revirtió: se reintenta fila por fila para aislar las que fallan
+      log.warn("Lote de importación revertido, reintentando fila por fila: {}",
+          NestedExceptionUtils.getMostSpecificCause(batchFailure).getMessage());
+      long imported = 0;
+      for (PreparedRow row : prepared) {
+        try {
+          persist(List.of(row));
+          imported++;
+        } catch (RuntimeException e) {
+          errors.add(new ProductImportError(row.line(), NestedExceptionUtils.getMostSpecificCause(e).getMessage()));
+        }
+      }
+      return new BatchResult(imported, errors);
+    }
+  }
+
+  private void persist(List<PreparedRow> rows) {
+    tx.executeWithoutResult(status -> {
+      List<ProductResponse> saved = new ArrayList<>(rows.size());
+      List<Product> entities = new ArrayList<>(rows.size());
+      for (PreparedRow prepared : rows) {
+        ProductImportRow row = prepared.row();
+        Product product = new Product();
+        product.setName(row.name().trim());
+        product.setPrice(row.price());
+        product.setStock(row.stock() != null ? row.stock() : 0L);
+        product.setDescription(row.description().trim());
+        product.setCategory(entityManager.getReference(Category.class, prepared.category().id()));
+
+        int pos = 0;
+        for (String url : prepared.images()) {
+          ProductImage image = new ProductImage();
+          image.setImageUrl(url);
+          image.setPosition(pos++);
+          image.setProduct(product);
+          product.getImages().add(image);
+        }
+
+        // 🔹 Con secuencia el id se asigna aquí, sin ejecutar el INSERT (queda para el lote JDBC)
+        entityManager.persist(product);
+
+        for (CollectionResponse collection : prepared.collections()) {
+          ProductCollection pc = new ProductCollection();
+          pc.setId(new ProductCollectionId(product.getId(), collection.id()));
+          pc.setProduct(product);
+          pc.setCollection(entityManager.getReference(Collection.class, collection.id()));
+          entityManager.persist(pc);
+        }
+
+        saved.add(new ProductResponse(
+            product.getId(),
+            product.getName(),
+            product.getPrice(),
+            product.getStock(),
+            product.getDescription(),
+            prepared.images(),
+            prepared.category(),
+            prepared.collections()
+        ));
+        entities.add(product);
+      }
+
+      entityManager.flush();
+      // 🔹 La versión escrita (updatedAt se asigna en el flush) se toma antes de soltar las entidades
+      List<ProductSavedEvent> savedEvents = new ArrayList<>(saved.size());
+      for (int i = 0; i < saved.size(); i++) {
+        Product product = entities.get(i);
+        savedEvents.add(new ProductSavedEvent(saved.get(i),
+            new RowVersion(product.getId(), product.getVersion(), product.getUpdatedAt())));
+      }
+      // 🔹 Las entidades del lote no se vuelven a usar: se sueltan para que la memoria no crezca con el archivo
+      entityManager.clear();
+
+      // 🔹 Índices y cachés se actualizan al confirmar el lote (listeners transaccionales)
+      savedEvents.forEach(events::publishEvent);
+    });
+  }
+
+  private static PreparedRow prepare(
+      ProductImportReader.Line line,
+      Map<String, CategoryResponse> categories,
+      Map<String, CollectionResponse> collections
+  ) {
+    ProductImportRow row = line.row();
+    if (row.name() == null || row.name().isBlank()) {
+      throw new IllegalArgumentException("name es obligatorio");
+    }
+    if (row.description() == null || row.description().isBlank()) {
+      throw new IllegalArgumentException("description es obligatoria");
+    }
+    if (row.price() == null || row.price() < 0) {
+      throw new IllegalArgumentException("price debe ser un número mayor o igual a 0");
+    }
+    if (row.stock() != null && row.stock() < 0) {
+      throw new IllegalArgumentException("stock no puede ser negativo");
+    }
+
+    CategoryResponse category = bySlug(categories, row.category());
+    if (category == null) {
+      throw new IllegalArgumentException("Categoría no encontrada: " + row.category());
+    }
+
+    // 🔹 Una colección repetida en la misma fila se ignora (la PK es producto + colección)
+    Map<Long, CollectionResponse> rowCollections = new LinkedHashMap<>();
+    for (String slug : listOf(row.collections())) {
+      CollectionResponse collection = bySlug(collections, slug);
+      if (collection == null) {
+        throw new IllegalArgumentException("Colección no encontrada: " + slug);
+      }
+      rowCollections.putIfAbsent(collection.id(), collection);
+    }
+
+    List<String> images = listOf(row.images()).stream().map(String::trim).toList();
+    return new PreparedRow(line.number(), row, category, List.copyOf(rowCollections.values()), images);
+  }
+
+  // 🔹 Se busca como en las lecturas (SlugNormalizer.lookupKeys) y cada fila queda indexada por su slug
+  // guardado y por su forma normalizada: las creadas con las reglas anteriores también se encuentran
+  private static <T> Map<String, T> resolve(
+      Stream<String> values, Function<List<String>, List<T>> finder, Function<T, String> slugOf
+  ) {
+    List<String> keys = SlugNormalizer.lookupKeys(values.filter(Objects::nonNull).collect(Collectors.toSet()));
+    if (keys.isEmpty()) return Map.of();
+    List<T> found = finder.apply(keys);
+    Map<String, T> bySlug = new HashMap<>();
+    for (T value : found) bySlug.put(slugOf.apply(value), value);
+    for (T value : found) bySlug.putIfAbsent(SlugNormalizer.normalize(slugOf.apply(value)), value);
+    return bySlug;
+  }
+
+  // 🔹 Primero el slug tal como llegó (coincide con el guardado), después su forma normalizada
+  private static <T> T bySlug(Map<String, T> values, String slug) {
+    if (slug == null) return null;
+    T exact = values.get(slug.trim());
+    return exact != null ? exact : values.get(SlugNormalizer.normalize(slug));
+  }
+
+  // 🔹 Celdas vacías de CSV llegan como null o ""
+  private static List<String> listOf(List<String> values) {
+    if (values == null) return List.of();
+    return values.stream()
+        .filter(value -> value != null && !value.isBlank())
+        .toList();
+  }
+}
@@ -0,0 +1,8 @@
+package com.springboot_sa_ha1.modules.products.importer;
+
+public record ProductImportSummary(
+    long rows,
+    long imported,
+    long failed,
+    long elapsedMs
+) {}
@@ -0,0 +1,25 @@
+package com.springboot_sa_ha1.modules.products.mapper;
+
+import com.springboot_sa_ha1.modules.categories.dto.CategoryResponse;
+import com.springboot_sa_ha1.modules.collections.dto.CollectionResponse;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+// 🔹 Una sola instancia de CategoryResponse / CollectionResponse por id dentro de una respuesta:
+// 500 productos de la misma categoría comparten un único record en vez de 500 copias iguales.
+// No es thread-safe; se crea por llamada y se descarta con ella.
+public final class DtoInterner {
+
+  private final Map<Long, CategoryResponse> categories = new HashMap<>();
+  private final Map<Long, CollectionResponse> collections = new HashMap<>();
+
+  public CategoryResponse category(Long id, Function<Long, CategoryResponse> factory) {
+    return categories.computeIfAbsent(id, factory);
+  }
+
+  public CollectionResponse collection(Long id, Function<Long, CollectionResponse> factory) {
+    return collections.computeIfAbsent(id, factory);
+  }
+}
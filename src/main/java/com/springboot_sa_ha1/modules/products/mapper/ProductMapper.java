@@ -1,10 +1,16 @@
 package com.springboot_sa_ha1.modules.products.mapper;
+import com.springboot_sa_ha1.modules.catalog.RowVersion;
+import com.springboot_sa_ha1.modules.categories.dto.CategoryResponse;
 import com.springboot_sa_ha1.modules.categories.mapper.CategoryMapper;
+import com.springboot_sa_ha1.modules.categories.model.Category;
 import com.springboot_sa_ha1.modules.collections.dto.CollectionResponse;
 import com.springboot_sa_ha1.modules.collections.mapper.CollectionMapper;
+import com.springboot_sa_ha1.modules.collections.model.Collection;
 import com.springboot_sa_ha1.modules.product_collections.model.ProductCollection;
 import com.springboot_sa_ha1.modules.productimages.model.ProductImage;
+import com.springboot_sa_ha1.modules.products.dto.ProductDetail;
 import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import com.springboot_sa_ha1.modules.products.dto.ProductVersionRow;
 import com.springboot_sa_ha1.modules.products.model.Product;
 import org.springframework.stereotype.Component;
 
@@ -22,26 +28,41 @@ public class ProductMapper {
   }
 
   public ProductResponse toResponse(Product product) {
-    // 🔹 Manejo seguro de imágenes, ordenadas por posición (nulls last)
-    List<String> images = product.getImages() != null
-        ? product.getImages().stream()
-        .filter(Objects::nonNull)
-        .sorted(Comparator.comparing(
-            ProductImage::getPosition,
-            Comparator.nullsLast(Integer::compareTo)
-        ))
-        .map(ProductImage::getImageUrl)
-        .toList()
-        : Collections.emptyList();
+    return toResponse(product, new DtoInterner());
+  }
+
+  // 🔹 Listas: categorías y colecciones compartidas entre todos los productos del resultado
+  public List<ProductResponse> toResponses(List<Product> products) {
+    DtoInterner interner = new DtoInterner();
+    List<ProductResponse> result = new ArrayList<>(products.size());
+    for (Product product : products) {
+      result.add(toResponse(product, interner));
+    }
+    return result;
+  }
+
+  public ProductResponse toResponse(Product product, DtoInterner interner) {
+    // 🔹 @OrderColumn ya entrega la lista en orden de posición; sólo se saltan los huecos (null)
+    List<String> images = new ArrayList<>(product.getImages() != null ? product.getImages().size() : 0);
+    if (product.getImages() != null) {
+      for (ProductImage image : product.getImages()) {
+        if (image != null) images.add(image.getImageUrl());
+      }
+    }
 
     // 🔹 Manejo seguro de colecciones
-    List<CollectionResponse> collections = product.getProductCollections() != null
-        ? product.getProductCollections().stream()
-        .map(ProductCollection::getCollection)
-        .filter(Objects::nonNull)
-        .map(collectionMapper::toResponse)
-        .toList()
-        : Collections.emptyList();
+    List<CollectionResponse> collections = new ArrayList<>(
+        product.getProductCollections() != null ? product.getProductCollections().size() : 0);
+    if (product.getProductCollections() != null) {
+      for (ProductCollection link : product.getProductCollections()) {
+        Collection collection = link.getCollection();
+        if (collection == null) continue;
+        collections.add(interner.collection(collection.getId(), id -> collectionMapper.toResponse(collection)));
+      }
+    }
+
+    Category category = product.getCategory();
+    CategoryResponse categoryResponse = interner.category(category.getId(), id -> categoryMapper.toResponse(category));
 
     return new ProductResponse(
         product.getId(),
@@ -49,10 +70,31 @@ public class ProductMapper {
         product.getPrice(),
         product.getStock(),
         product.getDescription(),
-        images,
-        categoryMapper.toResponse(product.getCategory()),
+        Collections.unmodifiableList(images),
+        categoryResponse,
+        Collections.unmodifiableList(collections)
+    );
+  }
+
+  // 🔹 Respuesta y versión desde la entidad; tras un flush, la versión es la que quedó en la base
+  public ProductDetail toDetail(Product product) {
+    return new ProductDetail(toResponse(product), toVersion(product));
+  }
+
+  public ProductVersionRow toVersion(Product product) {
+    Category category = product.getCategory();
+    List<RowVersion> collections = new ArrayList<>();
+    if (product.getProductCollections() != null) {
+      for (ProductCollection link : product.getProductCollections()) {
+        Collection collection = link.getCollection();
+        if (collection == null) continue;
+        collections.add(new RowVersion(collection.getId(), collection.getVersion(), collection.getUpdatedAt()));
+      }
+    }
+    return ProductVersionRow.of(
+        new RowVersion(product.getId(), product.getVersion(), product.getUpdatedAt()),
+        category != null ? new RowVersion(category.getId(), category.getVersion(), category.getUpdatedAt()) : null,
         collections
     );
   }
 }
-
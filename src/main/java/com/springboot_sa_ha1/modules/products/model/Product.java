@@ -10,19 +10,38 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 @Entity
-@Table(name = "productos")
+@Table(
+    name = "productos",
+    // 🔹 Índices compuestos para la paginación por keyset (clave de orden + id)
+    indexes = {
+        @Index(name = "idx_productos_price_id", columnList = "price, id"),
+        @Index(name = "idx_productos_name_id", columnList = "name, id"),
+        @Index(name = "idx_productos_category_id", columnList = "id_category, id"),
+        @Index(name = "idx_productos_category_price_id", columnList = "id_category, price, id"),
+        @Index(name = "idx_productos_category_name_id", columnList = "id_category, name, id")
+    }
+)
 @Getter
 @Setter
 public class Product {
+  public static final int ID_ALLOCATION_SIZE = 50;
+
+  // 🔹 Secuencia con optimizador pooled: se reservan 50 ids por consulta y los INSERT pueden
+  // ir en lotes JDBC (con IDENTITY Hibernate ejecuta cada INSERT por separado para conocer el id)
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "productos_seq")
+  @SequenceGenerator(name = "productos_seq", sequenceName = "productos_seq", allocationSize = Product.ID_ALLOCATION_SIZE)
   private Long id;
 
   @NotBlank
@@ -39,9 +58,20 @@ public class Product {
   @Column(nullable = false)
   private String description;
 
+  // 🔹 Bloqueo optimista: un UPDATE con versión vieja falla en vez de pisar otra edición.
+  // Con updatedAt alimenta el ETag / Last-Modified de GET /api/product/{id}
+  @Version
+  @ColumnDefault("0")
+  @Column(nullable = false)
+  private Long version;
+
+  @UpdateTimestamp
+  private Instant updatedAt;
+
   // 🔹 List en lugar de Set para mantener orden
   @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
   @OrderColumn(name = "position") // respeta el orden de la lista
+  @BatchSize(size = 128) // 🔹 cubre una página completa (máx. 100 + 1 de control) en una sola consulta
   private List<ProductImage> images = new ArrayList<>();
 
   @ManyToOne(optional = false)
@@ -50,6 +80,7 @@ public class Product {
 
   // 🔹 Quitar @Column, Set está bien aquí
   @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
+  @BatchSize(size = 128)
   private Set<ProductCollection> productCollections = new HashSet<>();
 
   @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
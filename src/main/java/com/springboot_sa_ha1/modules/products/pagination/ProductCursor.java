@@ -0,0 +1,41 @@
+package com.springboot_sa_ha1.modules.products.pagination;
+
+import com.springboot_sa_ha1.exception.BadRequestException;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// 🔹 Cursor opaco para paginación por keyset: orden + dirección + último id + último valor de la clave
+public record ProductCursor(
+    ProductSort sort,
+    Sort.Direction direction,
+    Long lastId,
+    String lastValue
+) {
+
+  public String encode() {
+    String raw = sort.name() + "|" + direction.name() + "|" + lastId + "|" + lastValue;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static ProductCursor decode(String cursor) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      // 🔹 El valor va al final y puede contener "|" (nombres), por eso el límite de 4
+      String[] parts = raw.split("\\|", 4);
+      if (parts.length != 4) throw new IllegalArgumentException(raw);
+      ProductSort sort = ProductSort.valueOf(parts[0]);
+      // 🔹 El valor se valida acá: la consulta y el read model lo convierten sin volver a chequear
+      if (sort == ProductSort.PRICE) Long.parseLong(parts[3]);
+      return new ProductCursor(
+          sort,
+          Sort.Direction.valueOf(parts[1]),
+          Long.parseLong(parts[2]),
+          parts[3]
+      );
+    } catch (IllegalArgumentException e) {
+      throw new BadRequestException("Cursor inválido");
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package com.springboot_sa_ha1.modules.products.pagination;
+
+import com.springboot_sa_ha1.exception.BadRequestException;
+import org.springframework.data.domain.Sort;
+
+// 🔹 Página de productos dentro de cada grupo (colección o categoría) de los listados "con productos":
+// limit = productos por grupo (0 = todos), afterId = último id ya entregado (orden por id ascendente)
+public record ProductGroupQuery(
+    int limit,
+    Long afterId
+) {
+
+  private static final ProductGroupQuery ALL = new ProductGroupQuery(0, 0L);
+
+  public static ProductGroupQuery all() {
+    return ALL;
+  }
+
+  // 🔹 Sin limit ni cursor se mantiene la respuesta completa de siempre
+  public static ProductGroupQuery of(Integer limit, String cursor) {
+    boolean hasCursor = cursor != null && !cursor.isBlank();
+    if (limit == null && !hasCursor) return ALL;
+
+    int size = limit == null
+        ? ProductPageQuery.DEFAULT_SIZE
+        : Math.min(Math.max(limit, 1), ProductPageQuery.MAX_SIZE);
+    if (!hasCursor) return new ProductGroupQuery(size, 0L);
+
+    ProductCursor decoded = ProductCursor.decode(cursor);
+    if (decoded.sort() != ProductSort.ID || !decoded.direction().isAscending()) {
+      throw new BadRequestException("Cursor inválido");
+    }
+    return new ProductGroupQuery(size, decoded.lastId());
+  }
+
+  public boolean isLimited() {
+    return limit > 0;
+  }
+
+  public static String nextCursor(Long lastId) {
+    return new ProductCursor(ProductSort.ID, Sort.Direction.ASC, lastId, String.valueOf(lastId)).encode();
+  }
+}
@@ -0,0 +1,40 @@
+package com.springboot_sa_ha1.modules.products.pagination;
+
+import com.springboot_sa_ha1.exception.BadRequestException;
+import org.springframework.data.domain.Sort;
+
+// 🔹 Parámetros ya validados de una página: tamaño acotado, orden y cursor (null = primera página)
+public record ProductPageQuery(
+    int size,
+    ProductSort sort,
+    Sort.Direction direction,
+    ProductCursor cursor
+) {
+
+  public static final int DEFAULT_SIZE = 24;
+  public static final int MAX_SIZE = 100;
+
+  public static ProductPageQuery of(String cursor, Integer size, String sort, String direction) {
+    int pageSize = size == null ? DEFAULT_SIZE : Math.min(Math.max(size, 1), MAX_SIZE);
+
+    if (cursor != null && !cursor.isBlank()) {
+      // 🔹 El cursor ya trae orden y dirección; así una página siguiente no puede cambiarlos
+      ProductCursor decoded = ProductCursor.decode(cursor);
+      return new ProductPageQuery(pageSize, decoded.sort(), decoded.direction(), decoded);
+    }
+
+    Sort.Direction dir;
+    try {
+      dir = direction == null || direction.isBlank()
+          ? Sort.Direction.ASC
+          : Sort.Direction.fromString(direction.trim());
+    } catch (IllegalArgumentException e) {
+      throw new BadRequestException("Dirección inválida: " + direction + " (use asc o desc)");
+    }
+    return new ProductPageQuery(pageSize, ProductSort.from(sort), dir, null);
+  }
+
+  public Sort toSort() {
+    return Sort.by(direction, sort.property()).and(Sort.by(direction, "id"));
+  }
+}
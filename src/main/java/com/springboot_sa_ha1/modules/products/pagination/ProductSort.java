@@ -0,0 +1,39 @@
+package com.springboot_sa_ha1.modules.products.pagination;
+
+import com.springboot_sa_ha1.exception.BadRequestException;
+import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+
+// 🔹 Campos por los que se puede ordenar el listado paginado (siempre con id como desempate)
+public enum ProductSort {
+  ID("id"),
+  PRICE("price"),
+  NAME("name");
+
+  private final String property;
+
+  ProductSort(String property) {
+    this.property = property;
+  }
+
+  public String property() {
+    return property;
+  }
+
+  // 🔹 Valor de la clave de orden del último producto de la página (va dentro del cursor)
+  public String valueOf(ProductResponse product) {
+    return switch (this) {
+      case ID -> String.valueOf(product.id());
+      case PRICE -> String.valueOf(product.price());
+      case NAME -> product.name();
+    };
+  }
+
+  public static ProductSort from(String value) {
+    if (value == null || value.isBlank()) return ID;
+    try {
+      return ProductSort.valueOf(value.trim().toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new BadRequestException("Orden inválido: " + value + " (use id, price o name)");
+    }
+  }
+}
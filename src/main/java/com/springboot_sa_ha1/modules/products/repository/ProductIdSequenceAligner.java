@@ -0,0 +1,46 @@
+package com.springboot_sa_ha1.modules.products.repository;
+
+import com.springboot_sa_ha1.modules.products.model.Product;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// 🔹 Los productos antes usaban IDENTITY: en una base existente "productos_seq" (creada por ddl-auto)
+// parte en 1 y chocaría con los ids ya usados. Antes de atender peticiones se adelanta la secuencia
+// por encima del máximo id actual (sólo PostgreSQL; en H2 la base de pruebas siempre parte vacía).
+@Component
+public class ProductIdSequenceAligner implements SmartInitializingSingleton {
+
+  private static final Logger log = LoggerFactory.getLogger(ProductIdSequenceAligner.class);
+
+  private final JdbcTemplate jdbcTemplate;
+
+  // 🔹 EntityManagerFactory sólo para garantizar que ddl-auto ya creó la secuencia
+  public ProductIdSequenceAligner(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    try {
+      String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+          connection.getMetaData().getDatabaseProductName());
+      if (!"PostgreSQL".equalsIgnoreCase(database)) return;
+
+      Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM productos", Long.class);
+      Long lastValue = jdbcTemplate.queryForObject("SELECT last_value FROM productos_seq", Long.class);
+      if (maxId == null || lastValue == null || lastValue >= maxId) return;
+
+      // 🔹 pooled: el valor de la secuencia es el tope del bloque → el próximo bloque empieza en maxId + 1
+      jdbcTemplate.queryForObject("SELECT setval('productos_seq', ?, false)", Long.class,
+          maxId + Product.ID_ALLOCATION_SIZE);
+      log.info("Secuencia productos_seq adelantada: próximo id {}", maxId + 1);
+    } catch (RuntimeException e) {
+      log.warn("No se pudo alinear productos_seq con los ids existentes", e);
+    }
+  }
+}
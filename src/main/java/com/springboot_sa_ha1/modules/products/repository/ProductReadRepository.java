@@ -0,0 +1,231 @@
+package com.springboot_sa_ha1.modules.products.repository;
+
+import com.springboot_sa_ha1.modules.catalog.RowVersion;
+import com.springboot_sa_ha1.modules.categories.dto.CategoryResponse;
+import com.springboot_sa_ha1.modules.categories.model.Category;
+import com.springboot_sa_ha1.modules.collections.dto.CollectionResponse;
+import com.springboot_sa_ha1.modules.collections.model.Collection;
+import com.springboot_sa_ha1.modules.product_collections.model.ProductCollection;
+import com.springboot_sa_ha1.modules.productimages.model.ProductImage;
+import com.springboot_sa_ha1.modules.products.dto.ProductCollectionRow;
+import com.springboot_sa_ha1.modules.products.dto.ProductDetail;
+import com.springboot_sa_ha1.modules.products.dto.ProductImageRow;
+import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import com.springboot_sa_ha1.modules.products.dto.ProductRow;
+import com.springboot_sa_ha1.modules.products.dto.ProductVersionRow;
+import com.springboot_sa_ha1.modules.products.mapper.DtoInterner;
+import com.springboot_sa_ha1.modules.products.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// 🔹 Lecturas de productos para las respuestas de solo lectura: las consultas proyectan
+// directo a filas/records (sin entidades administradas, snapshots de dirty-checking ni proxies).
+// Siempre 3 consultas, una por nivel: productos + categoría, imágenes, colecciones.
+@Repository
+@Transactional(readOnly = true)
+public class ProductReadRepository {
+
+  // 🔹 Tope de parámetros por IN (...) para no armar sentencias gigantes
+  private static final int IN_BATCH_SIZE = 500;
+
+  private final EntityManager entityManager;
+
+  // 🔹 Cómo se eligen los productos en las consultas de imágenes y colecciones
+  @FunctionalInterface
+  private interface ProductIdFilter {
+    Predicate toPredicate(CriteriaQuery<?> query, CriteriaBuilder cb, Expression<Long> productId);
+  }
+
+  public ProductReadRepository(EntityManager entityManager) {
+    this.entityManager = entityManager;
+  }
+
+  // 🔹 Mismos filtros (Specification) y orden que el listado por entidades; limit <= 0 = sin límite
+  public List<ProductResponse> findAll(Specification<Product> spec, Sort sort, int limit) {
+    return products(findAllDetails(spec, sort, limit));
+  }
+
+  // 🔹 Respeta el orden de los ids recibidos (ranking de búsqueda, filtro por facetas)
+  public List<ProductResponse> findAllById(List<Long> ids) {
+    return products(findDetailsById(ids));
+  }
+
+  // 🔹 Igual que findAll, con la versión (ETag) de cada producto armada desde las mismas filas
+  public List<ProductDetail> findAllDetails(Specification<Product> spec, Sort sort, int limit) {
+    List<ProductRow> rows = findRows(spec, sort, limit);
+    // 🔹 Sin límite (todos los productos de un filtro, p. ej. una colección completa) las asociaciones
+    // se filtran con la misma condición como subconsulta: una consulta por nivel, sin listas IN enormes
+    DtoInterner interner = new DtoInterner();
+    return limit > 0 ? assemble(rows, byIds(rows), interner) : assemble(rows, matching(spec), interner);
+  }
+
+  public List<ProductDetail> findDetailsById(List<Long> ids) {
+    if (ids.isEmpty()) return List.of();
+
+    Map<Long, ProductDetail> byId = new HashMap<>();
+    // 🔹 Compartido entre lotes: una categoría repetida en varios lotes sigue siendo una sola instancia
+    DtoInterner interner = new DtoInterner();
+    for (int from = 0; from < ids.size(); from += IN_BATCH_SIZE) {
+      List<Long> batch = ids.subList(from, Math.min(from + IN_BATCH_SIZE, ids.size()));
+      List<ProductRow> rows = findRows(ProductSpecifications.idIn(batch), Sort.unsorted(), 0);
+      for (ProductDetail detail : assemble(rows, byIds(rows), interner)) {
+        byId.put(detail.product().id(), detail);
+      }
+    }
+    return ids.stream()
+        .map(byId::get)
+        .filter(Objects::nonNull)
+        .toList();
+  }
+
+  // ---------------------------------------------------------------------------
+
+  private List<ProductRow> findRows(Specification<Product> spec, Sort sort, int limit) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<ProductRow> query = cb.createQuery(ProductRow.class);
+    Root<Product> root = query.from(Product.class);
+    Join<Product, Category> category = root.join("category");
+    query.select(cb.construct(ProductRow.class,
+        root.get("id"),
+        root.get("name"),
+        root.get("price"),
+        root.get("stock"),
+        root.get("description"),
+        root.get("version"),
+        root.get("updatedAt"),
+        category.get("id"),
+        category.get("name"),
+        category.get("description"),
+        category.get("slug"),
+        category.get("image"),
+        category.get("version"),
+        category.get("updatedAt")
+    ));
+
+    Predicate predicate = spec.toPredicate(root, query, cb);
+    if (predicate != null) {
+      query.where(predicate);
+    }
+    query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+    TypedQuery<ProductRow> typed = entityManager.createQuery(query);
+    if (limit > 0) {
+      typed.setMaxResults(limit);
+    }
+    return typed.getResultList();
+  }
+
+  private static ProductIdFilter byIds(List<ProductRow> rows) {
+    List<Long> ids = rows.stream().map(ProductRow::id).toList();
+    return (query, cb, productId) -> productId.in(ids);
+  }
+
+  private static ProductIdFilter matching(Specification<Product> spec) {
+    return (query, cb, productId) -> {
+      Subquery<Long> products = query.subquery(Long.class);
+      Root<Product> product = products.from(Product.class);
+      products.select(product.get("id"));
+      Predicate predicate = spec.toPredicate(product, query, cb);
+      if (predicate != null) {
+        products.where(predicate);
+      }
+      return productId.in(products);
+    };
+  }
+
+  private static List<ProductResponse> products(List<ProductDetail> details) {
+    return details.stream().map(ProductDetail::product).toList();
+  }
+
+  private List<ProductDetail> assemble(List<ProductRow> rows, ProductIdFilter filter, DtoInterner interner) {
+    if (rows.isEmpty()) return List.of();
+
+    Map<Long, List<String>> images = new HashMap<>();
+    for (ProductImageRow row : findImages(filter)) {
+      if (row.imageUrl() == null) continue;
+      images.computeIfAbsent(row.productId(), id -> new ArrayList<>(4)).add(row.imageUrl());
+    }
+
+    // 🔹 Una sola instancia por categoría/colección dentro de la respuesta
+    Map<Long, List<CollectionResponse>> collections = new HashMap<>();
+    Map<Long, List<RowVersion>> collectionVersions = new HashMap<>();
+    for (ProductCollectionRow row : findCollections(filter)) {
+      CollectionResponse collection = interner.collection(row.collectionId(),
+          id -> new CollectionResponse(id, row.name(), row.description(), row.slug(), row.image()));
+      collections.computeIfAbsent(row.productId(), id -> new ArrayList<>(2)).add(collection);
+      collectionVersions.computeIfAbsent(row.productId(), id -> new ArrayList<>(2))
+          .add(new RowVersion(row.collectionId(), row.version(), row.updatedAt()));
+    }
+
+    List<ProductDetail> result = new ArrayList<>(rows.size());
+    for (ProductRow row : rows) {
+      CategoryResponse category = interner.category(row.categoryId(), id -> new CategoryResponse(
+          id, row.categoryName(), row.categoryDescription(), row.categorySlug(), row.categoryImage()));
+      ProductResponse product = new ProductResponse(
+          row.id(),
+          row.name(),
+          row.price(),
+          row.stock(),
+          row.description(),
+          List.copyOf(images.getOrDefault(row.id(), List.of())),
+          category,
+          List.copyOf(collections.getOrDefault(row.id(), List.of()))
+      );
+      ProductVersionRow version = ProductVersionRow.of(
+          new RowVersion(row.id(), row.version(), row.updatedAt()),
+          new RowVersion(row.categoryId(), row.categoryVersion(), row.categoryUpdatedAt()),
+          collectionVersions.getOrDefault(row.id(), List.of()));
+      result.add(new ProductDetail(product, version));
+    }
+    return result;
+  }
+
+  private List<ProductImageRow> findImages(ProductIdFilter filter) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<ProductImageRow> query = cb.createQuery(ProductImageRow.class);
+    Root<ProductImage> image = query.from(ProductImage.class);
+    Expression<Long> productId = image.get("product").get("id");
+    query.select(cb.construct(ProductImageRow.class, productId, image.get("imageUrl")))
+        .where(filter.toPredicate(query, cb, productId))
+        .orderBy(cb.asc(productId), cb.asc(image.get("position")));
+    return entityManager.createQuery(query).getResultList();
+  }
+
+  private List<ProductCollectionRow> findCollections(ProductIdFilter filter) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<ProductCollectionRow> query = cb.createQuery(ProductCollectionRow.class);
+    Root<ProductCollection> link = query.from(ProductCollection.class);
+    Join<ProductCollection, Collection> collection = link.join("collection");
+    Expression<Long> productId = link.get("id").get("productId");
+    query.select(cb.construct(ProductCollectionRow.class,
+            productId,
+            collection.get("id"),
+            collection.get("name"),
+            collection.get("description"),
+            collection.get("slug"),
+            collection.get("image"),
+            collection.get("version"),
+            collection.get("updatedAt")))
+        .where(filter.toPredicate(query, cb, productId))
+        .orderBy(cb.asc(productId), cb.asc(collection.get("id")));
+    return entityManager.createQuery(query).getResultList();
+  }
+}
@@ -1,13 +1,19 @@
 package com.springboot_sa_ha1.modules.products.repository;
 
+import com.springboot_sa_ha1.modules.products.dto.ProductIndexView;
 import com.springboot_sa_ha1.modules.products.model.Product;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
   @Query("""
        SELECT DISTINCT p FROM Product p
        LEFT JOIN p.category c
@@ -20,16 +26,41 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
        """)
   List<Product> searchByTerm(@Param("term") String term);
 
-  // 🔹 Productos por categoría (slug)
-  List<Product> findByCategorySlug(String slug);
+  @Query("""
+       SELECT new com.springboot_sa_ha1.modules.products.dto.ProductIndexView(p.id, p.name, p.price, p.category.id)
+       FROM Product p
+       WHERE p.id > :afterId
+       ORDER BY p.id
+       """)
+  List<ProductIndexView> findIndexViewsAfter(@Param("afterId") Long afterId, Limit limit);
 
-  // 🔹 Productos por colección (slug)
+  // 🔹 Primeros N ids (por id) de cada categoría, recortados en la base con ROW_NUMBER()
   @Query("""
-    SELECT DISTINCT p
-    FROM Product p
-    JOIN p.productCollections pc
-    JOIN pc.collection c
-    WHERE c.slug = :slug
-  """)
-  List<Product> findByCollectionSlug(@Param("slug") String slug);
+       SELECT t.id
+       FROM (
+         SELECT p.id AS id,
+                ROW_NUMBER() OVER (PARTITION BY p.category.id ORDER BY p.id) AS rn
+         FROM Product p
+         WHERE p.category.id IN :categoryIds
+           AND p.id > :afterId
+       ) t
+       WHERE t.rn <= :perCategory
+       ORDER BY t.id
+       """)
+  List<Long> findFirstIdsPerCategory(
+      @Param("categoryIds") List<Long> categoryIds,
+      @Param("afterId") Long afterId,
+      @Param("perCategory") int perCategory
+  );
+
+  // 🔹 Cambios que no pasan por la entidad (altas/bajas en product_collection) igual invalidan su ETag
+  @Transactional
+  @Modifying
+  @Query("UPDATE VERSIONED Product p SET p.updatedAt = :now WHERE p.id = :id")
+  int touch(@Param("id") Long id, @Param("now") Instant now);
+
+  @Transactional
+  @Modifying
+  @Query("UPDATE VERSIONED Product p SET p.updatedAt = :now WHERE p.id IN :ids")
+  int touchAll(@Param("ids") List<Long> ids, @Param("now") Instant now);
 }
@@ -0,0 +1,90 @@
+package com.springboot_sa_ha1.modules.products.repository;
+
+import com.springboot_sa_ha1.modules.categories.model.CategoryClosure;
+import com.springboot_sa_ha1.modules.product_collections.model.ProductCollection;
+import com.springboot_sa_ha1.modules.products.model.Product;
+import com.springboot_sa_ha1.modules.products.pagination.ProductCursor;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+
+// 🔹 Filtros reutilizables para el listado paginado de productos
+public final class ProductSpecifications {
+
+  private ProductSpecifications() {}
+
+  public static Specification<Product> all() {
+    return (root, query, cb) -> cb.conjunction();
+  }
+
+  public static Specification<Product> inCategory(Long categoryId) {
+    return (root, query, cb) -> cb.equal(root.get("category").get("id"), categoryId);
+  }
+
+  public static Specification<Product> inCategories(Collection<Long> categoryIds) {
+    return (root, query, cb) -> root.get("category").get("id").in(categoryIds);
+  }
+
+  // 🔹 Categoría con todas sus descendientes: los ids salen de la tabla de clausura como subconsulta,
+  // así que sigue siendo una sola consulta (sobre idx_productos_category_*) sin importar la profundidad
+  public static Specification<Product> inCategorySubtree(Long categoryId) {
+    return (root, query, cb) -> {
+      Subquery<Long> subtree = query.subquery(Long.class);
+      Root<CategoryClosure> closure = subtree.from(CategoryClosure.class);
+      subtree.select(closure.get("id").get("descendantId"))
+          .where(cb.equal(closure.get("id").get("ancestorId"), categoryId));
+      return root.get("category").get("id").in(subtree);
+    };
+  }
+
+  // 🔹 Un producto aparece una sola vez por colección (PK product_id + collection_id): no hace falta DISTINCT
+  public static Specification<Product> inCollection(Long collectionId) {
+    return (root, query, cb) ->
+        cb.equal(root.join("productCollections").get("id").get("collectionId"), collectionId);
+  }
+
+  // 🔹 Varias colecciones: subconsulta sobre los enlaces para que un producto en dos de ellas salga una vez
+  public static Specification<Product> inCollections(Collection<Long> collectionIds) {
+    return (root, query, cb) -> {
+      Subquery<Long> linked = query.subquery(Long.class);
+      Root<ProductCollection> pc = linked.from(ProductCollection.class);
+      linked.select(pc.get("id").get("productId"))
+          .where(pc.get("id").get("collectionId").in(collectionIds));
+      return root.get("id").in(linked);
+    };
+  }
+
+  public static Specification<Product> idIn(Collection<Long> ids) {
+    return (root, query, cb) -> root.get("id").in(ids);
+  }
+
+  public static Specification<Product> idAfter(Long lastId) {
+    return (root, query, cb) -> cb.greaterThan(root.get("id"), lastId);
+  }
+
+  // 🔹 Keyset: (clave, id) estrictamente después del último elemento de la página anterior
+  public static Specification<Product> after(ProductCursor cursor) {
+    return (root, query, cb) -> {
+      boolean asc = cursor.direction().isAscending();
+      Expression<Long> id = root.get("id");
+      return switch (cursor.sort()) {
+        case ID -> asc ? cb.greaterThan(id, cursor.lastId()) : cb.lessThan(id, cursor.lastId());
+        case PRICE -> keyset(cb, root.get("price"), Long.valueOf(cursor.lastValue()), id, cursor.lastId(), asc);
+        case NAME -> keyset(cb, root.get("name"), cursor.lastValue(), id, cursor.lastId(), asc);
+      };
+    };
+  }
+
+  private static <Y extends Comparable<? super Y>> Predicate keyset(
+      CriteriaBuilder cb, Expression<Y> key, Y lastValue, Expression<Long> id, Long lastId, boolean asc
+  ) {
+    Predicate beyondKey = asc ? cb.greaterThan(key, lastValue) : cb.lessThan(key, lastValue);
+    Predicate beyondId = asc ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId);
+    return cb.or(beyondKey, cb.and(cb.equal(key, lastValue), beyondId));
+  }
+}
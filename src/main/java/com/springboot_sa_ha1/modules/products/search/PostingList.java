@@ -0,0 +1,61 @@
+package com.springboot_sa_ha1.modules.products.search;
+
+import java.util.Arrays;
+
+// 🔹 Lista de apariciones de un término: ids ordenados + frecuencia ponderada + largo del documento,
+// en arreglos primitivos para no tener un objeto por aparición
+final class PostingList {
+
+  private long[] ids = new long[4];
+  private float[] weights = new float[4];
+  private float[] lengths = new float[4];
+  private int size;
+
+  int size() {
+    return size;
+  }
+
+  long id(int i) {
+    return ids[i];
+  }
+
+  float weight(int i) {
+    return weights[i];
+  }
+
+  float length(int i) {
+    return lengths[i];
+  }
+
+  void put(long id, float weight, float length) {
+    int pos = Arrays.binarySearch(ids, 0, size, id);
+    if (pos >= 0) {
+      weights[pos] = weight;
+      lengths[pos] = length;
+      return;
+    }
+    int insertAt = -pos - 1;
+    if (size == ids.length) {
+      ids = Arrays.copyOf(ids, size * 2);
+      weights = Arrays.copyOf(weights, size * 2);
+      lengths = Arrays.copyOf(lengths, size * 2);
+    }
+    // 🔹 Lo normal es agregar al final (ids crecientes), así que casi nunca se mueve nada
+    System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+    System.arraycopy(weights, insertAt, weights, insertAt + 1, size - insertAt);
+    System.arraycopy(lengths, insertAt, lengths, insertAt + 1, size - insertAt);
+    ids[insertAt] = id;
+    weights[insertAt] = weight;
+    lengths[insertAt] = length;
+    size++;
+  }
+
+  void remove(long id) {
+    int pos = Arrays.binarySearch(ids, 0, size, id);
+    if (pos < 0) return;
+    System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+    System.arraycopy(weights, pos + 1, weights, pos, size - pos - 1);
+    System.arraycopy(lengths, pos + 1, lengths, pos, size - pos - 1);
+    size--;
+  }
+}
@@ -0,0 +1,275 @@
+package com.springboot_sa_ha1.modules.products.search;
+
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// 🔹 Índice invertido en memoria con ranking BM25 (ponderado por campo)
+// término → lista de (producto, frecuencia ponderada)
+@Component
+public class ProductSearchIndex {
+
+  // 🔹 Pesos por campo: el nombre pesa más que la descripción
+  private static final float NAME_WEIGHT = 3.0f;
+  private static final float CATEGORY_WEIGHT = 1.5f;
+  private static final float COLLECTION_WEIGHT = 1.5f;
+  private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+  // 🔹 Parámetros estándar de BM25
+  private static final double K1 = 1.2;
+  private static final double B = 0.75;
+
+  // 🔹 Un término escrito a medias ("anil") se expande a los términos que empiezan así
+  private static final double PREFIX_BOOST = 0.7;
+  private static final int MAX_PREFIX_EXPANSION = 64;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+  private final Map<Long, IndexedDocument> documents = new HashMap<>();
+  private final Map<Long, Set<Long>> productsByCategory = new HashMap<>();
+  private final Map<Long, Set<Long>> productsByCollection = new HashMap<>();
+  private double totalLength;
+  private volatile boolean ready;
+
+  private record IndexedDocument(SearchDocument source, String[] terms, float length) {}
+
+  private record ScoredId(Long id, double score) {}
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return documents.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  // 🔹 Reemplaza todo el contenido (carga inicial)
+  public void replaceAll(Collection<SearchDocument> docs) {
+    lock.writeLock().lock();
+    try {
+      postings.clear();
+      documents.clear();
+      productsByCategory.clear();
+      productsByCollection.clear();
+      totalLength = 0;
+      for (SearchDocument doc : docs) {
+        add(doc);
+      }
+      ready = true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void index(SearchDocument doc) {
+    lock.writeLock().lock();
+    try {
+      removeInternal(doc.id());
+      add(doc);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void remove(Long productId) {
+    lock.writeLock().lock();
+    try {
+      removeInternal(productId);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  // 🔹 Reindexa los productos de una categoría renombrada
+  public void renameCategory(Long categoryId, String newName) {
+    lock.writeLock().lock();
+    try {
+      for (Long productId : List.copyOf(productsByCategory.getOrDefault(categoryId, Set.of()))) {
+        SearchDocument doc = documents.get(productId).source();
+        if (Objects.equals(doc.categoryName(), newName)) continue;
+        removeInternal(productId);
+        add(doc.withCategoryName(newName));
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  // 🔹 Reindexa los productos de una colección renombrada (newName null = colección eliminada)
+  public void renameCollection(Long collectionId, String newName) {
+    lock.writeLock().lock();
+    try {
+      for (Long productId : List.copyOf(productsByCollection.getOrDefault(collectionId, Set.of()))) {
+        SearchDocument doc = documents.get(productId).source();
+        if (newName != null && Objects.equals(doc.collections().get(collectionId), newName)) continue;
+        removeInternal(productId);
+        add(doc.withCollection(collectionId, newName));
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void removeCollection(Long collectionId) {
+    renameCollection(collectionId, null);
+  }
+
+  public SearchHits search(String query, int limit, int offset) {
+    List<String> tokens = SearchText.tokenize(query).stream().distinct().toList();
+    if (tokens.isEmpty() || limit <= 0) return SearchHits.empty();
+
+    lock.readLock().lock();
+    try {
+      if (documents.isEmpty()) return SearchHits.empty();
+      double avgLength = totalLength / documents.size();
+
+      // 🔹 Todos los tokens deben coincidir (AND); el puntaje es la suma BM25 de cada uno.
+      // Se empieza por el token más raro para que los siguientes sólo puntúen candidatos.
+      List<String> ordered = new ArrayList<>(tokens);
+      ordered.sort(Comparator.comparingLong(this::estimatedMatches));
+
+      Map<Long, Double> scores = null;
+      for (String token : ordered) {
+        scores = scoreToken(token, avgLength, scores);
+        if (scores.isEmpty()) return SearchHits.empty();
+      }
+
+      return topK(scores, limit, Math.max(offset, 0));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  // ---------------------------------------------------------------------------
+
+  // candidates null = primer token; si no, sólo se conservan (y suman) los que ya coincidían
+  private Map<Long, Double> scoreToken(String token, double avgLength, Map<Long, Double> candidates) {
+    Map<Long, Double> result = new HashMap<>();
+    int expanded = 0;
+    for (Map.Entry<String, PostingList> entry : postings.tailMap(token, true).entrySet()) {
+      String term = entry.getKey();
+      if (!term.startsWith(token) || expanded++ >= MAX_PREFIX_EXPANSION) break;
+
+      PostingList docs = entry.getValue();
+      double idf = Math.log(1 + (documents.size() - docs.size() + 0.5) / (docs.size() + 0.5));
+      double boost = term.length() == token.length() ? 1.0 : PREFIX_BOOST;
+
+      for (int i = 0; i < docs.size(); i++) {
+        Long productId = docs.id(i);
+        if (candidates != null && !candidates.containsKey(productId)) continue;
+        double tf = docs.weight(i);
+        double score = boost * idf * (tf * (K1 + 1)) / (tf + K1 * (1 - B + B * docs.length(i) / avgLength));
+        // 🔹 "anillo" y "anillos" en el mismo producto no se suman dos veces
+        result.merge(productId, score, Math::max);
+      }
+    }
+    if (candidates != null) {
+      result.replaceAll((productId, score) -> score + candidates.get(productId));
+    }
+    return result;
+  }
+
+  // 🔹 Cantidad aproximada de productos que coinciden con el token (sin contar expansiones repetidas)
+  private long estimatedMatches(String token) {
+    long total = 0;
+    int expanded = 0;
+    for (Map.Entry<String, PostingList> entry : postings.tailMap(token, true).entrySet()) {
+      if (!entry.getKey().startsWith(token) || expanded++ >= MAX_PREFIX_EXPANSION) break;
+      total += entry.getValue().size();
+    }
+    return total;
+  }
+
+  private SearchHits topK(Map<Long, Double> scores, int limit, int offset) {
+    int k = offset + limit;
+    Comparator<ScoredId> byRank = Comparator.comparingDouble(ScoredId::score).reversed()
+        .thenComparing(ScoredId::id);
+
+    // 🔹 Montículo acotado: sólo guardamos los k mejores en vez de ordenar todo
+    PriorityQueue<ScoredId> heap = new PriorityQueue<>(Math.min(k, scores.size()) + 1, byRank.reversed());
+    for (Map.Entry<Long, Double> e : scores.entrySet()) {
+      heap.offer(new ScoredId(e.getKey(), e.getValue()));
+      if (heap.size() > k) heap.poll();
+    }
+
+    List<ScoredId> best = new ArrayList<>(heap);
+    best.sort(byRank);
+    List<Long> page = best.stream()
+        .skip(offset)
+        .map(ScoredId::id)
+        .toList();
+    return new SearchHits(scores.size(), page);
+  }
+
+  private void add(SearchDocument doc) {
+    Map<String, Float> terms = new HashMap<>();
+    float length = 0;
+    length += addField(terms, doc.name(), NAME_WEIGHT);
+    length += addField(terms, doc.description(), DESCRIPTION_WEIGHT);
+    length += addField(terms, doc.categoryName(), CATEGORY_WEIGHT);
+    for (String collectionName : doc.collections().values()) {
+      length += addField(terms, collectionName, COLLECTION_WEIGHT);
+    }
+
+    String[] termKeys = new String[terms.size()];
+    int i = 0;
+    for (Map.Entry<String, Float> e : terms.entrySet()) {
+      PostingList docs = postings.computeIfAbsent(e.getKey(), t -> new PostingList());
+      docs.put(doc.id(), e.getValue(), length);
+      // 🔹 Reutilizamos la instancia de la clave del TreeMap para no duplicar el String por producto
+      termKeys[i++] = postings.ceilingKey(e.getKey());
+    }
+    documents.put(doc.id(), new IndexedDocument(doc, termKeys, length));
+    totalLength += length;
+
+    if (doc.categoryId() != null) {
+      productsByCategory.computeIfAbsent(doc.categoryId(), c -> new HashSet<>()).add(doc.id());
+    }
+    for (Long collectionId : doc.collections().keySet()) {
+      productsByCollection.computeIfAbsent(collectionId, c -> new HashSet<>()).add(doc.id());
+    }
+  }
+
+  private static float addField(Map<String, Float> terms, String text, float weight) {
+    List<String> tokens = SearchText.tokenize(text);
+    for (String token : tokens) {
+      terms.merge(token, weight, Float::sum);
+    }
+    return tokens.size() * weight;
+  }
+
+  private void removeInternal(Long productId) {
+    IndexedDocument existing = documents.remove(productId);
+    if (existing == null) return;
+
+    for (String term : existing.terms()) {
+      PostingList docs = postings.get(term);
+      if (docs == null) continue;
+      docs.remove(productId);
+      if (docs.size() == 0) postings.remove(term);
+    }
+    totalLength -= existing.length();
+
+    SearchDocument source = existing.source();
+    if (source.categoryId() != null) {
+      removeFrom(productsByCategory, source.categoryId(), productId);
+    }
+    for (Long collectionId : source.collections().keySet()) {
+      removeFrom(productsByCollection, collectionId, productId);
+    }
+  }
+
+  private static void removeFrom(Map<Long, Set<Long>> map, Long key, Long productId) {
+    Set<Long> ids = map.get(key);
+    if (ids == null) return;
+    ids.remove(productId);
+    if (ids.isEmpty()) map.remove(key);
+  }
+}
@@ -0,0 +1,105 @@
+package com.springboot_sa_ha1.modules.products.search;
+
+import com.springboot_sa_ha1.modules.catalog.IndexLoadBuffer;
+import com.springboot_sa_ha1.modules.catalog.StartupOrder;
+import com.springboot_sa_ha1.modules.categories.event.CategorySavedEvent;
+import com.springboot_sa_ha1.modules.collections.event.CollectionDeletedEvent;
+import com.springboot_sa_ha1.modules.collections.event.CollectionSavedEvent;
+import com.springboot_sa_ha1.modules.products.event.ProductDeletedEvent;
+import com.springboot_sa_ha1.modules.products.event.ProductSavedEvent;
+import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import com.springboot_sa_ha1.modules.products.repository.ProductReadRepository;
+import com.springboot_sa_ha1.modules.products.repository.ProductSpecifications;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 🔹 Mantiene el índice de búsqueda sincronizado con la base de datos
+@Component
+public class ProductSearchIndexer {
+
+  private static final Logger log = LoggerFactory.getLogger(ProductSearchIndexer.class);
+  private static final int LOAD_PAGE_SIZE = 500;
+
+  private final ProductSearchIndex index;
+  private final ProductReadRepository productReadRepository;
+  private final TransactionTemplate readOnlyTx;
+  private final IndexLoadBuffer loading = new IndexLoadBuffer();
+
+  public ProductSearchIndexer(
+      ProductSearchIndex index,
+      ProductReadRepository productReadRepository,
+      PlatformTransactionManager transactionManager
+  ) {
+    this.index = index;
+    this.productReadRepository = productReadRepository;
+    this.readOnlyTx = new TransactionTemplate(transactionManager);
+    this.readOnlyTx.setReadOnly(true);
+  }
+
+  // 🔹 Carga inicial: se recorre el catálogo por páginas para no tener todo en memoria a la vez
+  @EventListener(ApplicationReadyEvent.class)
+  @Order(StartupOrder.INDEXES)
+  public void rebuild() {
+    long start = System.nanoTime();
+    loading.startLoading();
+    try {
+      List<SearchDocument> docs = new ArrayList<>();
+      Long lastId = null;
+      while (true) {
+        // 🔹 Tramos por keyset (id > último) leídos como proyección, sin entidades
+        Long afterId = lastId;
+        List<ProductResponse> products = readOnlyTx.execute(status -> productReadRepository.findAll(
+            afterId == null ? ProductSpecifications.all() : ProductSpecifications.idAfter(afterId),
+            Sort.by("id"), LOAD_PAGE_SIZE));
+        if (products == null || products.isEmpty()) break;
+        products.forEach(p -> docs.add(SearchDocument.from(p)));
+        if (products.size() < LOAD_PAGE_SIZE) break;
+        lastId = products.get(products.size() - 1).id();
+      }
+      // 🔹 Los guardados y bajas que llegaron durante la carga se reaplican sobre el índice nuevo
+      loading.finishLoading(() -> index.replaceAll(docs));
+      log.info("Índice de búsqueda construido: {} productos en {} ms",
+          docs.size(), (System.nanoTime() - start) / 1_000_000);
+    } catch (RuntimeException e) {
+      loading.finishLoading(() -> {});
+      // 🔹 Sin índice la búsqueda sigue funcionando con la consulta JPQL
+      log.warn("No se pudo construir el índice de búsqueda; se usará la consulta en base de datos", e);
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onProductSaved(ProductSavedEvent event) {
+    loading.apply(() -> index.index(SearchDocument.from(event.product())));
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onProductDeleted(ProductDeletedEvent event) {
+    loading.apply(() -> index.remove(event.productId()));
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCategorySaved(CategorySavedEvent event) {
+    loading.apply(() -> index.renameCategory(event.category().id(), event.category().name()));
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCollectionSaved(CollectionSavedEvent event) {
+    loading.apply(() -> index.renameCollection(event.collection().id(), event.collection().name()));
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCollectionDeleted(CollectionDeletedEvent event) {
+    loading.apply(() -> index.removeCollection(event.collectionId()));
+  }
+}
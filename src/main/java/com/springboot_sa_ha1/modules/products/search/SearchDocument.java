@@ -0,0 +1,49 @@
+package com.springboot_sa_ha1.modules.products.search;
+
+import com.springboot_sa_ha1.modules.collections.dto.CollectionResponse;
+import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// 🔹 Campos de un producto que participan en la búsqueda
+public record SearchDocument(
+    Long id,
+    String name,
+    String description,
+    Long categoryId,
+    String categoryName,
+    Map<Long, String> collections // id de colección → nombre
+) {
+
+  public static SearchDocument from(ProductResponse product) {
+    Map<Long, String> collections = new LinkedHashMap<>();
+    if (product.collections() != null) {
+      for (CollectionResponse col : product.collections()) {
+        if (col != null && col.id() != null) collections.put(col.id(), col.name());
+      }
+    }
+    return new SearchDocument(
+        product.id(),
+        product.name(),
+        product.description(),
+        product.category() != null ? product.category().id() : null,
+        product.category() != null ? product.category().name() : null,
+        collections
+    );
+  }
+
+  public SearchDocument withCategoryName(String newName) {
+    return new SearchDocument(id, name, description, categoryId, newName, collections);
+  }
+
+  public SearchDocument withCollection(Long collectionId, String newName) {
+    Map<Long, String> updated = new LinkedHashMap<>(collections);
+    if (newName == null) {
+      updated.remove(collectionId);
+    } else {
+      updated.put(collectionId, newName);
+    }
+    return new SearchDocument(id, name, description, categoryId, categoryName, updated);
+  }
+}
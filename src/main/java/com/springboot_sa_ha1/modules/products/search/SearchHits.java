@@ -0,0 +1,13 @@
+package com.springboot_sa_ha1.modules.products.search;
+
+import java.util.List;
+
+// 🔹 Resultado de una búsqueda: total de coincidencias y los ids de la página pedida, ya ordenados por relevancia
+public record SearchHits(
+    long total,
+    List<Long> productIds
+) {
+  public static SearchHits empty() {
+    return new SearchHits(0, List.of());
+  }
+}
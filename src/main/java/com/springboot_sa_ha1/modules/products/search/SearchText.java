@@ -0,0 +1,41 @@
+package com.springboot_sa_ha1.modules.products.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+
+// 🔹 Normalización de texto para búsqueda: minúsculas, sin tildes y separado en tokens
+public final class SearchText {
+
+  private SearchText() {}
+
+  // "Anillo de Oro Rosé" → "anillo de oro rose"
+  public static String fold(String text) {
+    if (text == null || text.isEmpty()) return "";
+    String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+    StringBuilder sb = new StringBuilder(decomposed.length());
+    for (int i = 0; i < decomposed.length(); i++) {
+      char c = decomposed.charAt(i);
+      if (Character.getType(c) == Character.NON_SPACING_MARK) continue;
+      sb.append(Character.toLowerCase(c));
+    }
+    return sb.toString();
+  }
+
+  // "Anillo-Oro, 18k" → ["anillo", "oro", "18k"]
+  public static List<String> tokenize(String text) {
+    List<String> tokens = new ArrayList<>();
+    String folded = fold(text);
+    int start = -1;
+    for (int i = 0; i <= folded.length(); i++) {
+      boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+      if (wordChar && start < 0) {
+        start = i;
+      } else if (!wordChar && start >= 0) {
+        tokens.add(folded.substring(start, i));
+        start = -1;
+      }
+    }
+    return tokens;
+  }
+}
@@ -1,17 +1,35 @@
 package com.springboot_sa_ha1.modules.products.service;
 
+import com.springboot_sa_ha1.modules.products.cache.ProductCacheStatsResponse;
+import com.springboot_sa_ha1.modules.products.dto.ProductDetail;
+import com.springboot_sa_ha1.modules.products.dto.ProductFilterResponse;
+import com.springboot_sa_ha1.modules.products.dto.ProductPageResponse;
 import com.springboot_sa_ha1.modules.products.dto.ProductRequest;
 import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import com.springboot_sa_ha1.modules.products.pagination.ProductPageQuery;
+import com.springboot_sa_ha1.modules.products.suggest.SuggestionResponse;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
 public interface ProductService {
-    List<ProductResponse> searchByTerm(String term);
-    List<ProductResponse> listarPorCategoriaSlug(String slug);
-    List<ProductResponse> listarPorColeccionSlug(String slug);
-    List<ProductResponse> listarTodos();
+    List<ProductResponse> searchByTerm(String term, int limit, int offset);
+    List<SuggestionResponse> sugerir(String prefix, int limit);
+    ProductPageResponse listarPorCategoriaSlug(String slug, ProductPageQuery query, boolean includeDescendants);
+    ProductPageResponse listarPorColeccionSlug(String slug, ProductPageQuery query);
+    ProductPageResponse listarTodos(ProductPageQuery query);
+    ProductFilterResponse filtrar(
+        List<String> categorySlugs, List<String> collectionSlugs, Long minPrice, Long maxPrice, ProductPageQuery query);
+    StreamingResponseBody exportarTodos();
+    StreamingResponseBody exportarPorCategoriaSlug(String slug);
+    StreamingResponseBody exportarPorColeccionSlug(String slug);
     ProductResponse obtenerPorId(Long id);
+    List<ProductResponse> obtenerPorIds(List<Long> ids);
+    ProductDetail obtenerDetalle(Long id);
+    ProductCacheStatsResponse estadisticasCache();
     ProductResponse guardar(ProductRequest request);
-    ProductResponse actualizar(Long id, ProductRequest request);
+    ProductDetail actualizar(Long id, ProductRequest request, String ifMatch);
+    ProductDetail actualizarParcial(Long id, ProductRequest request, String ifMatch);
     void eliminar(Long id);
 }
\ No newline at end of file
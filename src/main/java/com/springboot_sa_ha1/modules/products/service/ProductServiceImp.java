@@ -1,112 +1,358 @@
 package com.springboot_sa_ha1.modules.products.service;
 
 import com.springboot_sa_ha1.exception.BadRequestException;
+import com.springboot_sa_ha1.exception.PreconditionFailedException;
+import com.springboot_sa_ha1.exception.ServiceUnavailableException;
+import com.springboot_sa_ha1.modules.catalog.RowVersion;
+import com.springboot_sa_ha1.modules.catalog.readmodel.CatalogReadModel;
 import com.springboot_sa_ha1.modules.categories.model.Category;
+import com.springboot_sa_ha1.modules.categories.repository.CategoryClosureRepository;
 import com.springboot_sa_ha1.modules.categories.repository.CategoryRepository;
 import com.springboot_sa_ha1.modules.collections.dto.CollectionResponse;
+import com.springboot_sa_ha1.modules.collections.event.CollectionSavedEvent;
+import com.springboot_sa_ha1.modules.collections.mapper.CollectionMapper;
 import com.springboot_sa_ha1.modules.collections.model.Collection;
 import com.springboot_sa_ha1.modules.collections.repository.CollectionRepository;
 import com.springboot_sa_ha1.modules.product_collections.model.ProductCollection;
 import com.springboot_sa_ha1.modules.product_collections.model.ProductCollectionId;
 import com.springboot_sa_ha1.modules.product_collections.repository.ProductCollectionRepository;
 import com.springboot_sa_ha1.modules.productimages.model.ProductImage;
+import com.springboot_sa_ha1.modules.products.cache.ProductCacheStatsResponse;
+import com.springboot_sa_ha1.modules.products.cache.ProductResponseCache;
+import com.springboot_sa_ha1.modules.products.dto.ProductDetail;
+import com.springboot_sa_ha1.modules.products.dto.ProductFilterResponse;
+import com.springboot_sa_ha1.modules.products.dto.ProductPageResponse;
 import com.springboot_sa_ha1.modules.products.dto.ProductRequest;
 import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import com.springboot_sa_ha1.modules.products.event.ProductDeletedEvent;
+import com.springboot_sa_ha1.modules.products.event.ProductSavedEvent;
+import com.springboot_sa_ha1.modules.products.facet.FacetFilter;
+import com.springboot_sa_ha1.modules.products.facet.FacetResult;
+import com.springboot_sa_ha1.modules.products.facet.ProductFacetIndex;
 import com.springboot_sa_ha1.modules.products.mapper.ProductMapper;
 import com.springboot_sa_ha1.modules.products.model.Product;
+import com.springboot_sa_ha1.modules.products.pagination.ProductCursor;
+import com.springboot_sa_ha1.modules.products.pagination.ProductPageQuery;
+import com.springboot_sa_ha1.modules.products.pagination.ProductSort;
+import com.springboot_sa_ha1.modules.products.repository.ProductReadRepository;
 import com.springboot_sa_ha1.modules.products.repository.ProductRepository;
+import com.springboot_sa_ha1.modules.products.repository.ProductSpecifications;
+import com.springboot_sa_ha1.modules.products.search.ProductSearchIndex;
+import com.springboot_sa_ha1.modules.products.search.SearchHits;
+import com.springboot_sa_ha1.modules.products.stream.ProductJsonStreamer;
+import com.springboot_sa_ha1.modules.products.suggest.SuggestionIndex;
+import com.springboot_sa_ha1.modules.products.suggest.SuggestionResponse;
+import com.springboot_sa_ha1.modules.slugs.SlugNormalizer;
+import com.springboot_sa_ha1.modules.slugs.SlugRegistry;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @Service
 public class ProductServiceImp implements ProductService {
 
+  private static final int MAX_SEARCH_LIMIT = 100;
+  private static final int MAX_SUGGEST_LIMIT = 20;
+
   private final ProductRepository productRepository;
+  private final ProductReadRepository productReadRepository;
   private final CategoryRepository categoryRepository;
+  private final CategoryClosureRepository closureRepository;
   private final CollectionRepository collectionRepository;
   private final ProductCollectionRepository productCollectionRepository;
   private final ProductMapper mapper;
+  private final CollectionMapper collectionMapper;
+  private final ProductSearchIndex searchIndex;
+  private final ProductResponseCache productCache;
+  private final SlugRegistry slugRegistry;
+  private final ProductJsonStreamer productStreamer;
+  private final SuggestionIndex suggestionIndex;
+  private final ProductFacetIndex facetIndex;
+  private final CatalogReadModel readModel;
+  private final ApplicationEventPublisher events;
 
   public ProductServiceImp(
       ProductRepository productRepository,
+      ProductReadRepository productReadRepository,
       CategoryRepository categoryRepository,
+      CategoryClosureRepository closureRepository,
       CollectionRepository collectionRepository,
       ProductCollectionRepository productCollectionRepository,
-      ProductMapper mapper
+      ProductMapper mapper,
+      CollectionMapper collectionMapper,
+      ProductSearchIndex searchIndex,
+      ProductResponseCache productCache,
+      SlugRegistry slugRegistry,
+      ProductJsonStreamer productStreamer,
+      SuggestionIndex suggestionIndex,
+      ProductFacetIndex facetIndex,
+      CatalogReadModel readModel,
+      ApplicationEventPublisher events
   ) {
     this.productRepository = productRepository;
+    this.productReadRepository = productReadRepository;
     this.categoryRepository = categoryRepository;
+    this.closureRepository = closureRepository;
     this.collectionRepository = collectionRepository;
     this.productCollectionRepository = productCollectionRepository;
     this.mapper = mapper;
+    this.collectionMapper = collectionMapper;
+    this.searchIndex = searchIndex;
+    this.productCache = productCache;
+    this.slugRegistry = slugRegistry;
+    this.productStreamer = productStreamer;
+    this.suggestionIndex = suggestionIndex;
+    this.facetIndex = facetIndex;
+    this.readModel = readModel;
+    this.events = events;
   }
 
   @Override
-  public List<ProductResponse> searchByTerm(String term) {
-    return productRepository.searchByTerm(term).stream()
-        .map(mapper::toResponse)
-        .collect(Collectors.toList());
+  public List<ProductResponse> searchByTerm(String term, int limit, int offset) {
+    if (term == null || term.isBlank()) {
+      return List.of();
+    }
+    int safeLimit = Math.min(Math.max(limit, 1), MAX_SEARCH_LIMIT);
+    int safeOffset = Math.max(offset, 0);
+
+    // 🔹 Mientras el índice se construye usamos la consulta JPQL
+    if (!searchIndex.isReady()) {
+      return mapper.toResponses(productRepository.searchByTerm(term).stream()
+          .skip(safeOffset)
+          .limit(safeLimit)
+          .toList());
+    }
+
+    SearchHits hits = searchIndex.search(term, safeLimit, safeOffset);
+    if (hits.productIds().isEmpty()) {
+      return List.of();
+    }
+
+    // 🔹 Se devuelve en el orden del ranking
+    return porIds(hits.productIds());
   }
 
+  // 🔹 Autocompletado: sólo memoria; mientras el índice se construye no se sugiere nada
+  // (se llama en cada tecla, no debe caer a la base de datos)
   @Override
-  public List<ProductResponse> listarPorCategoriaSlug(String slug) {
+  public List<SuggestionResponse> sugerir(String prefix, int limit) {
+    if (prefix == null || prefix.isBlank() || !suggestionIndex.isReady()) {
+      return List.of();
+    }
+    return suggestionIndex.suggest(prefix, Math.min(Math.max(limit, 1), MAX_SUGGEST_LIMIT));
+  }
 
+  @Override
+  public ProductPageResponse listarPorCategoriaSlug(String slug, ProductPageQuery query, boolean includeDescendants) {
     if (slug == null || slug.isBlank()) {
       throw new BadRequestException("Slug inválido");
     }
 
-    String normalizedSlug = slug
-        .trim()
-        .toLowerCase()
-        .replaceAll("[\\s-]+", "_")   // espacios o guiones → _
-        .replaceAll("_+", "_")        // colapsa múltiples _
-        .replaceAll("^_|_$", "");     // quita _ al inicio y fin
+    // 🔹 El slug se resuelve en memoria y se filtra por la FK (id_category), sin JOIN por slug
+    return slugRegistry.categoryId(slug)
+        .map(categoryId -> includeDescendants
+            ? listarSubarbol(categoryId, query)
+            : listarPagina(categoryId, null, query))
+        .orElseGet(ProductPageResponse::empty);
+  }
 
-    return productRepository.findByCategorySlug(normalizedSlug)
-        .stream()
-        .map(mapper::toResponse)
-        .toList();
+  // 🔹 Productos de todo el subárbol. En memoria se unen los bitmaps de las categorías del subárbol
+  // (sus ids salen de la tabla de clausura); en la base la clausura va como subconsulta del mismo SELECT
+  private ProductPageResponse listarSubarbol(Long categoryId, ProductPageQuery query) {
+    List<ProductResponse> products = readModel.current()
+        .map(snapshot -> snapshot.page(closureRepository.findDescendantIds(categoryId), null, query, query.size() + 1))
+        .orElseGet(() -> leerPagina(ProductSpecifications.inCategorySubtree(categoryId), query));
+    return paginar(products, query);
   }
 
+  @Override
+  public ProductPageResponse listarPorColeccionSlug(String slug, ProductPageQuery query) {
+    if (slug == null || slug.isBlank()) {
+      throw new BadRequestException("Slug inválido");
+    }
 
+    return slugRegistry.collectionId(slug)
+        .map(collectionId -> listarPagina(null, collectionId, query))
+        .orElseGet(ProductPageResponse::empty);
+  }
+
+  @Override
+  public ProductPageResponse listarTodos(ProductPageQuery query) {
+    return listarPagina(null, null, query);
+  }
+
+  // 🔹 Filtro combinado (categorías + colecciones + precio) con conteos por faceta,
+  // resuelto sobre el índice de bitmaps; sólo la página final se lee de la base
   @Override
-  public List<ProductResponse> listarPorColeccionSlug(String slug) {
+  public ProductFilterResponse filtrar(
+      List<String> categorySlugs, List<String> collectionSlugs, Long minPrice, Long maxPrice, ProductPageQuery query
+  ) {
+    if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+      throw new BadRequestException("minPrice no puede ser mayor que maxPrice");
+    }
+    if (query.sort() != ProductSort.ID || query.direction() != Sort.Direction.ASC) {
+      throw new BadRequestException("El filtro sólo admite orden por id ascendente");
+    }
+    // 🔹 Los conteos por faceta sólo salen del índice: mientras se construye respondemos 503
+    if (!facetIndex.isReady()) {
+      throw new ServiceUnavailableException("Índice de facetas no disponible");
+    }
+
+    FacetFilter filter = new FacetFilter(
+        resolveSlugs(categorySlugs, slugRegistry::categoryId),
+        resolveSlugs(collectionSlugs, slugRegistry::collectionId),
+        minPrice,
+        maxPrice
+    );
+    Long afterId = query.cursor() != null ? query.cursor().lastId() : null;
+    FacetResult result = facetIndex.filter(filter, afterId, query.size());
+
+    List<ProductResponse> items = porIds(result.productIds());
+
+    String nextCursor = result.hasNext() && !result.productIds().isEmpty()
+        ? new ProductCursor(ProductSort.ID, Sort.Direction.ASC,
+            result.productIds().get(result.productIds().size() - 1), "").encode()
+        : null;
 
+    return new ProductFilterResponse(items, nextCursor, result.total(),
+        result.categories(), result.collections(), result.priceBuckets());
+  }
+
+  // 🔹 Varios productos juntos (p. ej. las líneas de un carrito); los que no existen se omiten
+  @Override
+  public List<ProductResponse> obtenerPorIds(List<Long> ids) {
+    if (ids.isEmpty()) return List.of();
+    return porIds(ids);
+  }
+
+  // 🔹 Con el modelo de lectura activo, los ids resueltos en memoria no vuelven a la base
+  private List<ProductResponse> porIds(List<Long> ids) {
+    return readModel.current()
+        .map(snapshot -> snapshot.products(ids))
+        .orElseGet(() -> productReadRepository.findAllById(ids));
+  }
+
+  // 🔹 Un slug inexistente se traduce a un id imposible (-1): así el filtro no devuelve nada
+  // en vez de ignorarse
+  private static Set<Long> resolveSlugs(List<String> slugs, Function<String, Optional<Long>> resolver) {
+    if (slugs == null || slugs.isEmpty()) return Set.of();
+    Set<Long> ids = new HashSet<>();
+    for (String slug : slugs) {
+      if (slug == null || slug.isBlank()) continue;
+      ids.add(resolver.apply(slug).orElse(-1L));
+    }
+    return ids;
+  }
+
+  // 🔹 Modo streaming: todo el resultado, escrito por tramos sin armar la lista completa.
+  // El slug se resuelve antes de empezar a escribir para poder responder 400 si no es válido.
+  @Override
+  public StreamingResponseBody exportarTodos() {
+    return out -> productStreamer.writeArray(out, ProductSpecifications.all());
+  }
+
+  @Override
+  public StreamingResponseBody exportarPorCategoriaSlug(String slug) {
+    if (slug == null || slug.isBlank()) {
+      throw new BadRequestException("Slug inválido");
+    }
+    return slugRegistry.categoryId(slug)
+        .<StreamingResponseBody>map(categoryId ->
+            out -> productStreamer.writeArray(out, ProductSpecifications.inCategory(categoryId)))
+        .orElse(ProductServiceImp::writeEmptyArray);
+  }
+
+  @Override
+  public StreamingResponseBody exportarPorColeccionSlug(String slug) {
     if (slug == null || slug.isBlank()) {
       throw new BadRequestException("Slug inválido");
     }
+    return slugRegistry.collectionId(slug)
+        .<StreamingResponseBody>map(collectionId ->
+            out -> productStreamer.writeArray(out, ProductSpecifications.inCollection(collectionId)))
+        .orElse(ProductServiceImp::writeEmptyArray);
+  }
 
-    String normalizedSlug = slug
-        .trim()
-        .toLowerCase()
-        .replaceAll("[\\s-]+", "_")   // espacios o guiones → _
-        .replaceAll("_+", "_")        // colapsa múltiples _
-        .replaceAll("^_|_$", "");     // quita _ al inicio y fin
+  private static void writeEmptyArray(OutputStream out) throws IOException {
+    out.write(new byte[] {'[', ']'});
+  }
 
-    return productRepository.findByCollectionSlug(normalizedSlug)
-        .stream()
-        .map(mapper::toResponse)
-        .toList();
+  // 🔹 Paginación por keyset: WHERE (clave, id) > (último) ORDER BY clave, id LIMIT size + 1.
+  // No usa OFFSET, así que una página profunda cuesta lo mismo que la primera.
+  // Se pide un elemento extra sólo para saber si hay página siguiente (sin COUNT).
+  private ProductPageResponse listarPagina(Long categoryId, Long collectionId, ProductPageQuery query) {
+    Specification<Product> spec = categoryId != null ? ProductSpecifications.inCategory(categoryId)
+        : collectionId != null ? ProductSpecifications.inCollection(collectionId)
+        : ProductSpecifications.all();
+    List<ProductResponse> products = readModel.current()
+        .map(snapshot -> snapshot.page(categoryId, collectionId, query, query.size() + 1))
+        .orElseGet(() -> leerPagina(spec, query));
+    return paginar(products, query);
   }
 
-  @Override
-  public List<ProductResponse> listarTodos() {
-    return productRepository.findAll().stream()
-        .map(mapper::toResponse)
-        .collect(Collectors.toList());
+  private static ProductPageResponse paginar(List<ProductResponse> products, ProductPageQuery query) {
+    boolean hasNext = products.size() > query.size();
+    List<ProductResponse> page = hasNext ? products.subList(0, query.size()) : products;
+
+    String nextCursor = null;
+    if (hasNext) {
+      ProductResponse last = page.get(page.size() - 1);
+      nextCursor = new ProductCursor(query.sort(), query.direction(), last.id(), query.sort().valueOf(last))
+          .encode();
+    }
+
+    return new ProductPageResponse(List.copyOf(page), nextCursor);
+  }
+
+  // 🔹 Lectura por proyección: los DTO se arman desde filas, sin hidratar entidades
+  private List<ProductResponse> leerPagina(Specification<Product> spec, ProductPageQuery query) {
+    if (query.cursor() != null) {
+      spec = spec.and(ProductSpecifications.after(query.cursor()));
+    }
+    return productReadRepository.findAll(spec, query.toSort(), query.size() + 1);
   }
 
   @Override
   public ProductResponse obtenerPorId(Long id) {
-    return productRepository.findById(id)
-        .map(mapper::toResponse)
-        .orElseThrow(() -> new RuntimeException("Producto no encontrado"));
+    return obtenerDetalle(id).product();
+  }
+
+  // 🔹 Cuerpo y versión salen juntos de la foto o de la caché (que las escrituras invalidan vía eventos):
+  // el ETag nunca se adelanta al cuerpo y un GET en caché no consulta la base
+  @Override
+  public ProductDetail obtenerDetalle(Long id) {
+    Optional<ProductDetail> fromSnapshot = readModel.current().flatMap(snapshot -> snapshot.detail(id));
+    if (fromSnapshot.isPresent()) return fromSnapshot.get();
+
+    ProductDetail detail = productCache.get(id, productId ->
+        productReadRepository.findDetailsById(List.of(productId)).stream().findFirst().orElse(null));
+    if (detail == null) {
+      throw new RuntimeException("Producto no encontrado");
+    }
+    return detail;
+  }
+
+  @Override
+  public ProductCacheStatsResponse estadisticasCache() {
+    return productCache.stats();
   }
 
   @Override
@@ -125,105 +371,201 @@ public class ProductServiceImp implements ProductService {
     product.setCategory(category);
 
     // 🔹 Imágenes
-    if (request.images() != null && !request.images().isEmpty()) {
-      int pos = 0;
-      for (String url : request.images()) {
-        ProductImage image = new ProductImage();
-        image.setImageUrl(url);
-        image.setPosition(pos++);
-        image.setProduct(product); // 🔹 importante
-        product.getImages().add(image); // 🔹 agregar directamente a la lista
-      }
-    }
+    sincronizarImagenes(product, request.images());
 
     // 🔹 Guardar producto primero para tener ID
     Product savedProduct = productRepository.save(product);
 
     // 🔹 Colecciones
     if (request.collections() != null && !request.collections().isEmpty()) {
-      Set<ProductCollection> pcs = new HashSet<>();
-      for (CollectionResponse colResp : request.collections()) {
-        Collection collection = collectionRepository.findById(colResp.id())
-            .orElseThrow(() -> new RuntimeException("Colección no encontrada: " + colResp.id()));
-
-        ProductCollection pc = new ProductCollection();
-        ProductCollectionId pcId = new ProductCollectionId(savedProduct.getId(), collection.getId());
-        pc.setId(pcId);
-        pc.setProduct(savedProduct);
-        pc.setCollection(collection);
-        pcs.add(pc);
-      }
-      savedProduct.getProductCollections().addAll(pcs);
-      savedProduct = productRepository.save(savedProduct);
+      sincronizarColecciones(savedProduct, request.collections());
     }
+    // 🔹 Con flush la versión del evento es la que quedó escrita
+    savedProduct = productRepository.saveAndFlush(savedProduct);
 
-    return mapper.toResponse(savedProduct);
+    ProductResponse response = mapper.toResponse(savedProduct);
+    events.publishEvent(new ProductSavedEvent(response, rowVersion(savedProduct)));
+    return response;
   }
 
+  // 🔹 PUT: reemplaza el producto completo (imágenes y colecciones ausentes quedan vacías)
+  @Override
+  @Transactional
+  public ProductDetail actualizar(Long id, ProductRequest request, String ifMatch) {
+    return modificar(id, request, ifMatch, false);
+  }
 
+  // 🔹 PATCH: sólo cambia lo que viene en el cuerpo; un campo null (o una lista null) queda como está
   @Override
   @Transactional
-  public ProductResponse actualizar(Long id, ProductRequest request) {
+  public ProductDetail actualizarParcial(Long id, ProductRequest request, String ifMatch) {
+    return modificar(id, request, ifMatch, true);
+  }
+
+  // 🔹 Devuelve el producto con la versión que quedó escrita: el ETag de la respuesta sale de la entidad
+  private ProductDetail modificar(Long id, ProductRequest request, String ifMatch, boolean parcial) {
     Product product = productRepository.findById(id)
         .orElseThrow(() -> new RuntimeException("Producto no encontrado"));
 
-    // 🔹 Actualizar campos básicos
-    Category category = categoryRepository.findById(request.categoryId())
-        .orElseThrow(() -> new RuntimeException("Categoría no encontrada"));
+    // 🔹 If-Match se compara con el ETag de GET /{id} (producto + categoría + colecciones), calculado sobre
+    // la entidad leída antes de tocar nada; una edición concurrente posterior la detiene @Version al hacer flush
+    if (ifMatch != null && !mapper.toVersion(product).toResourceVersion().matches(ifMatch)) {
+      throw new PreconditionFailedException("El producto cambió desde la última lectura");
+    }
 
-    product.setName(request.name());
-    product.setPrice(request.price());
-    product.setStock(request.stock());
-    product.setDescription(request.description());
-    product.setCategory(category);
+    // 🔹 Campos básicos (Hibernate sólo escribe las columnas si el valor cambió)
+    if (!parcial || request.name() != null) product.setName(request.name());
+    if (!parcial || request.price() != null) product.setPrice(request.price());
+    if (!parcial || request.stock() != null) product.setStock(request.stock());
+    if (!parcial || request.description() != null) product.setDescription(request.description());
+    if (!parcial || request.categoryId() != null) asignarCategoria(product, request.categoryId());
+
+    // 🔹 Asociaciones por diferencia: sólo se insertan, actualizan o borran las filas que cambian
+    if (!parcial || request.images() != null) sincronizarImagenes(product, request.images());
+    if (!parcial || request.collections() != null) sincronizarColecciones(product, request.collections());
+
+    Product savedProduct = productRepository.saveAndFlush(product);
+    ProductDetail detail = mapper.toDetail(savedProduct);
+    events.publishEvent(new ProductSavedEvent(detail.product(), rowVersion(savedProduct)));
+    return detail;
+  }
 
-    // 🔹 Imágenes
-    // 🔹 Limpiar lista existente
-    product.getImages().clear();
-    if (request.images() != null && !request.images().isEmpty()) {
-      int pos = 0;
-      for (String url : request.images()) {
-        ProductImage image = new ProductImage();
-        image.setImageUrl(url);
-        image.setPosition(pos++);
+  private static RowVersion rowVersion(Product product) {
+    return new RowVersion(product.getId(), product.getVersion(), product.getUpdatedAt());
+  }
+
+  // 🔹 La categoría sólo se busca si cambió
+  private void asignarCategoria(Product product, Long categoryId) {
+    if (product.getCategory() != null && Objects.equals(product.getCategory().getId(), categoryId)) {
+      return;
+    }
+    product.setCategory(categoryRepository.findById(categoryId)
+        .orElseThrow(() -> new RuntimeException("Categoría no encontrada")));
+  }
+
+  // 🔹 Las filas cuya URL sigue en la lista se conservan (un cambio de orden sólo toca position);
+  // las que sobran se reutilizan para URLs nuevas y recién ahí se insertan o borran filas
+  private static void sincronizarImagenes(Product product, List<String> urls) {
+    List<String> wanted = urls != null ? urls : List.of();
+    List<ProductImage> current = product.getImages();
+    current.removeIf(Objects::isNull);
+
+    Map<String, Deque<ProductImage>> byUrl = new HashMap<>();
+    for (ProductImage image : current) {
+      byUrl.computeIfAbsent(image.getImageUrl(), url -> new ArrayDeque<>()).add(image);
+    }
+    ProductImage[] target = new ProductImage[wanted.size()];
+    Set<ProductImage> kept = new HashSet<>();
+    for (int i = 0; i < target.length; i++) {
+      Deque<ProductImage> same = byUrl.get(wanted.get(i));
+      if (same != null && !same.isEmpty()) {
+        target[i] = same.poll();
+        kept.add(target[i]);
+      }
+    }
+    Deque<ProductImage> spare = new ArrayDeque<>();
+    for (ProductImage image : current) {
+      if (!kept.contains(image)) spare.add(image);
+    }
+    for (int i = 0; i < target.length; i++) {
+      if (target[i] == null) {
+        ProductImage image = spare.isEmpty() ? new ProductImage() : spare.poll();
+        image.setImageUrl(wanted.get(i));
         image.setProduct(product); // 🔹 referencia bidireccional
-        product.getImages().add(image); // 🔹 agregar a la lista existente
+        target[i] = image;
       }
+      target[i].setPosition(i);
     }
 
-    // 🔹 Colecciones
-    product.getProductCollections().clear();
-    if (request.collections() != null && !request.collections().isEmpty()) {
-      Set<ProductCollection> pcs = new HashSet<>();
-      for (CollectionResponse colInput : request.collections()) {
-        Collection collection;
+    // 🔹 Se modifica la lista administrada en su lugar (sin clear()) para que Hibernate no la recree
+    for (int i = 0; i < target.length; i++) {
+      if (i >= current.size()) {
+        current.add(target[i]);
+      } else if (current.get(i) != target[i]) {
+        current.set(i, target[i]);
+      }
+    }
+    while (current.size() > target.length) {
+      current.remove(current.size() - 1);
+    }
+  }
 
+  // 🔹 Sólo se borran las membresías que ya no están y se insertan las nuevas. Las colecciones
+  // se resuelven con una consulta IN por ids y otra por nombres (las que no existen se crean)
+  private void sincronizarColecciones(Product product, List<CollectionResponse> requested) {
+    Set<Long> ids = new LinkedHashSet<>();
+    Set<String> names = new LinkedHashSet<>();
+    if (requested != null) {
+      for (CollectionResponse colInput : requested) {
+        if (colInput == null) continue;
         if (colInput.id() != null) {
-          collection = collectionRepository.findById(colInput.id())
-              .orElseThrow(() -> new RuntimeException("Colección no encontrada: " + colInput.id()));
+          ids.add(colInput.id());
         } else if (colInput.name() != null && !colInput.name().isBlank()) {
-          collection = collectionRepository.findByName(colInput.name())
-              .orElseGet(() -> {
-                Collection c = new Collection();
-                c.setName(colInput.name());
-                return collectionRepository.save(c);
-              });
-        } else {
-          continue;
+          names.add(colInput.name());
+        }
+      }
+    }
+
+    Set<Long> present = new HashSet<>();
+    for (ProductCollection pc : product.getProductCollections()) {
+      present.add(pc.getId().getCollectionId());
+    }
+
+    // 🔹 Las que ya son miembro no se vuelven a leer
+    List<Collection> toAdd = new ArrayList<>();
+    List<Long> missing = ids.stream().filter(id -> !present.contains(id)).toList();
+    if (!missing.isEmpty()) {
+      Map<Long, Collection> found = new HashMap<>();
+      for (Collection collection : collectionRepository.findAllById(missing)) {
+        found.put(collection.getId(), collection);
+      }
+      for (Long collectionId : missing) {
+        Collection collection = found.get(collectionId);
+        if (collection == null) {
+          throw new RuntimeException("Colección no encontrada: " + collectionId);
         }
+        toAdd.add(collection);
+      }
+    }
 
-        ProductCollection pc = new ProductCollection();
-        ProductCollectionId pcId = new ProductCollectionId(product.getId(), collection.getId());
-        pc.setId(pcId);
-        pc.setProduct(product);
-        pc.setCollection(collection);
-        pcs.add(pc);
+    Set<Long> wanted = new HashSet<>(ids);
+    if (!names.isEmpty()) {
+      Map<String, Collection> byName = new HashMap<>();
+      for (Collection collection : collectionRepository.findByNameIn(List.copyOf(names))) {
+        byName.putIfAbsent(collection.getName(), collection);
+      }
+      List<Collection> created = new ArrayList<>();
+      for (String name : names) {
+        if (!byName.containsKey(name)) {
+          Collection c = new Collection();
+          c.setName(name);
+          c.setSlug(SlugNormalizer.normalize(name));
+          created.add(c);
+        }
+      }
+      List<Collection> resolved = new ArrayList<>(byName.values());
+      // 🔹 Las colecciones nuevas se anuncian igual que en CollectionServiceImp.guardar
+      // (índices de slugs, sugerencias, read model)
+      for (Collection collection : collectionRepository.saveAllAndFlush(created)) {
+        events.publishEvent(new CollectionSavedEvent(collectionMapper.toResponse(collection),
+            new RowVersion(collection.getId(), collection.getVersion(), collection.getUpdatedAt())));
+        resolved.add(collection);
+      }
+      for (Collection collection : resolved) {
+        if (wanted.add(collection.getId()) && !present.contains(collection.getId())) {
+          toAdd.add(collection);
+        }
       }
-      product.getProductCollections().addAll(pcs);
     }
 
-    Product savedProduct = productRepository.save(product);
-    return mapper.toResponse(savedProduct);
+    product.getProductCollections().removeIf(pc -> !wanted.contains(pc.getId().getCollectionId()));
+    for (Collection collection : toAdd) {
+      ProductCollection pc = new ProductCollection();
+      pc.setId(new ProductCollectionId(product.getId(), collection.getId()));
+      pc.setProduct(product);
+      pc.setCollection(collection);
+      product.getProductCollections().add(pc);
+    }
   }
 
   @Override
@@ -231,5 +573,6 @@ public class ProductServiceImp implements ProductService {
     Product product = productRepository.findById(id)
         .orElseThrow(() -> new RuntimeException("Producto no encontrado"));
     productRepository.delete(product);
+    events.publishEvent(new ProductDeletedEvent(id));
   }
 }
\ No newline at end of file
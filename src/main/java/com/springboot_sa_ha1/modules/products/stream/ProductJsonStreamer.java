@@ -0,0 +1,95 @@
+package com.springboot_sa_ha1.modules.products.stream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import com.springboot_sa_ha1.modules.products.model.Product;
+import com.springboot_sa_ha1.modules.products.repository.ProductReadRepository;
+import com.springboot_sa_ha1.modules.products.repository.ProductSpecifications;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+// 🔹 Escribe productos como JSON directamente en la respuesta, por tramos.
+// Cada tramo se lee por keyset (id > último), se serializa y se descarta antes del siguiente:
+// la memoria depende del tamaño del tramo, no del total de productos.
+@Component
+public class ProductJsonStreamer {
+
+  // 🔹 Un tramo = 3 consultas de proyección (productos, imágenes, colecciones)
+  private static final int CHUNK_SIZE = 128;
+
+  private final ProductReadRepository productReadRepository;
+  private final ObjectMapper objectMapper;
+  private final TransactionTemplate readOnlyTx;
+
+  public ProductJsonStreamer(
+      ProductReadRepository productReadRepository,
+      ObjectMapper objectMapper,
+      PlatformTransactionManager transactionManager
+  ) {
+    this.productReadRepository = productReadRepository;
+    this.objectMapper = objectMapper;
+    this.readOnlyTx = new TransactionTemplate(transactionManager);
+    this.readOnlyTx.setReadOnly(true);
+  }
+
+  public JsonGenerator createGenerator(OutputStream out) throws IOException {
+    return objectMapper.createGenerator(out);
+  }
+
+  // 🔹 Arreglo JSON completo: [ {...}, {...} ]
+  public void writeArray(OutputStream out, Specification<Product> filter) throws IOException {
+    try (JsonGenerator gen = createGenerator(out)) {
+      gen.writeStartArray();
+      writeElements(gen, filter);
+      gen.writeEndArray();
+    }
+  }
+
+  // 🔹 Un grupo (categoría o colección) con sus productos, con la misma forma que
+  // CategoryWithProductsResponse / CollectionWithProductsResponse. El grupo sale completo,
+  // así que nextCursor siempre es null (igual que sin ?limit en el endpoint no streaming)
+  public void writeGroup(
+      JsonGenerator gen, Long id, String name, String description, String slug, String image,
+      Specification<Product> products
+  ) throws IOException {
+    gen.writeStartObject();
+    gen.writeObjectField("id", id);
+    gen.writeStringField("name", name);
+    gen.writeStringField("description", description);
+    gen.writeStringField("slug", slug);
+    gen.writeStringField("image", image);
+    gen.writeArrayFieldStart("products");
+    writeElements(gen, products);
+    gen.writeEndArray();
+    gen.writeNullField("nextCursor");
+    gen.writeEndObject();
+  }
+
+  // 🔹 Sólo los elementos, para anidarlos dentro de otro objeto ("products": [ ... ])
+  public void writeElements(JsonGenerator gen, Specification<Product> filter) throws IOException {
+    Long lastId = null;
+    while (true) {
+      Specification<Product> spec = lastId == null ? filter : filter.and(ProductSpecifications.idAfter(lastId));
+      // 🔹 Proyección directa a DTO: no quedan entidades acumulándose en el contexto de persistencia
+      List<ProductResponse> chunk = readOnlyTx.execute(status ->
+          productReadRepository.findAll(spec, Sort.by("id"), CHUNK_SIZE));
+      if (chunk == null || chunk.isEmpty()) return;
+
+      for (ProductResponse product : chunk) {
+        gen.writeObject(product);
+      }
+      gen.flush();
+
+      if (chunk.size() < CHUNK_SIZE) return;
+      lastId = chunk.get(chunk.size() - 1).id();
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package com.springboot_sa_ha1.modules.products.suggest;
+
+import java.util.Arrays;
+
+// 🔹 Lista de ordinales de entradas, ordenada por ranking (más popular primero).
+// Arreglo primitivo: sin objetos por elemento.
+final class RankedPostings {
+
+  interface Ranking {
+    int compare(int a, int b);
+  }
+
+  private int[] ordinals = new int[4];
+  private int size;
+
+  int size() {
+    return size;
+  }
+
+  int get(int i) {
+    return ordinals[i];
+  }
+
+  // 🔹 Carga inicial: los ordinales ya llegan en orden de ranking
+  void append(int ordinal) {
+    grow();
+    ordinals[size++] = ordinal;
+  }
+
+  void insert(int ordinal, Ranking ranking) {
+    int pos = search(ordinal, ranking);
+    if (pos >= 0) return;
+    pos = -pos - 1;
+    grow();
+    System.arraycopy(ordinals, pos, ordinals, pos + 1, size - pos);
+    ordinals[pos] = ordinal;
+    size++;
+  }
+
+  void remove(int ordinal, Ranking ranking) {
+    int pos = search(ordinal, ranking);
+    if (pos < 0) return;
+    System.arraycopy(ordinals, pos + 1, ordinals, pos, size - pos - 1);
+    size--;
+  }
+
+  private int search(int ordinal, Ranking ranking) {
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int cmp = ranking.compare(ordinals[mid], ordinal);
+      if (cmp < 0) low = mid + 1;
+      else if (cmp > 0) high = mid - 1;
+      else return mid;
+    }
+    return -(low + 1);
+  }
+
+  private void grow() {
+    if (size == ordinals.length) {
+      ordinals = Arrays.copyOf(ordinals, ordinals.length * 2);
+    }
+  }
+}
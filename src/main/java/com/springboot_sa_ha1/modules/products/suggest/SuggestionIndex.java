@@ -0,0 +1,278 @@
+package com.springboot_sa_ha1.modules.products.suggest;
+
+import com.springboot_sa_ha1.modules.products.search.SearchText;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+// 🔹 Índice de autocompletado: nombres de productos, categorías y colecciones.
+// token (sin tildes, minúsculas) → entradas ordenadas por popularidad.
+// Un prefijo abarca un rango contiguo de tokens en el TreeMap; se mezclan sus listas
+// (ya ordenadas) y se corta al llegar al límite, sin ordenar ni recorrer todo.
+@Component
+public class SuggestionIndex {
+
+  private record Entry(SuggestionType type, Long id, String text, String[] tokens, long popularity) {}
+
+  private record Cursor(RankedPostings postings, int position) {}
+
+  // 🔹 Prefijos de 1-2 letras abarcan miles de tokens: su top se guarda ya calculado
+  private static final int SHORT_PREFIX = 2;
+  private static final int CACHED_TOP = 20;
+  private static final Predicate<String[]> ANY = tokens -> true;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final NavigableMap<String, RankedPostings> postings = new TreeMap<>();
+  private final Map<SuggestionType, Map<Long, Integer>> ordinalsByType = new EnumMap<>(SuggestionType.class);
+  private final ArrayDeque<Integer> freeOrdinals = new ArrayDeque<>();
+  private final Map<String, List<Integer>> shortPrefixTop = new ConcurrentHashMap<>();
+  private Entry[] entries = new Entry[16];
+  private int nextOrdinal;
+  private volatile boolean ready;
+
+  // 🔹 Más popular primero; a igual popularidad, el texto más corto; luego el ordinal (orden total)
+  private final RankedPostings.Ranking ranking = (a, b) -> {
+    Entry ea = entries[a];
+    Entry eb = entries[b];
+    int cmp = Long.compare(eb.popularity(), ea.popularity());
+    if (cmp != 0) return cmp;
+    cmp = Integer.compare(ea.text().length(), eb.text().length());
+    return cmp != 0 ? cmp : Integer.compare(a, b);
+  };
+
+  public SuggestionIndex() {
+    for (SuggestionType type : SuggestionType.values()) {
+      ordinalsByType.put(type, new HashMap<>());
+    }
+  }
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return ordinalsByType.values().stream().mapToInt(Map::size).sum();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  // 🔹 Carga inicial: los ordinales se asignan en orden de ranking, así cada lista
+  // se arma agregando al final, sin ordenar
+  public void replaceAll(Collection<SuggestionSource> sources) {
+    List<SuggestionSource> sorted = new ArrayList<>(sources);
+    sorted.sort(Comparator.comparingLong(SuggestionSource::popularity).reversed()
+        .thenComparingInt(s -> s.text() == null ? 0 : s.text().length()));
+
+    lock.writeLock().lock();
+    try {
+      postings.clear();
+      shortPrefixTop.clear();
+      ordinalsByType.values().forEach(Map::clear);
+      freeOrdinals.clear();
+      entries = new Entry[Math.max(16, sorted.size())];
+      nextOrdinal = 0;
+
+      for (SuggestionSource source : sorted) {
+        Entry entry = toEntry(source);
+        if (entry == null || ordinalsByType.get(entry.type()).containsKey(entry.id())) continue;
+        int ordinal = nextOrdinal++;
+        entries[ordinal] = entry;
+        ordinalsByType.get(entry.type()).put(entry.id(), ordinal);
+        for (String token : entry.tokens()) {
+          postings.computeIfAbsent(token, t -> new RankedPostings()).append(ordinal);
+        }
+      }
+      ready = true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  // 🔹 Alta o cambio de nombre; conserva la popularidad que tuviera la entrada
+  public void upsert(SuggestionType type, Long id, String text) {
+    lock.writeLock().lock();
+    try {
+      Integer existing = ordinalsByType.get(type).get(id);
+      long popularity = existing != null ? entries[existing].popularity() : 0;
+      removeInternal(type, id);
+      Entry entry = toEntry(new SuggestionSource(type, id, text, popularity));
+      if (entry != null) addInternal(entry);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void remove(SuggestionType type, Long id) {
+    lock.writeLock().lock();
+    try {
+      removeInternal(type, id);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public List<SuggestionResponse> suggest(String prefix, int limit) {
+    List<String> tokens = SearchText.tokenize(prefix);
+    if (tokens.isEmpty() || limit <= 0) return List.of();
+
+    // 🔹 Las palabras anteriores deben estar completas; sólo la última es un prefijo
+    String partial = tokens.get(tokens.size() - 1);
+    List<String> complete = tokens.subList(0, tokens.size() - 1).stream().distinct().toList();
+
+    lock.readLock().lock();
+    try {
+      List<Integer> ordinals;
+      if (!complete.isEmpty()) {
+        ordinals = withCompleteWords(complete, partial, limit);
+      } else if (partial.length() <= SHORT_PREFIX && limit <= CACHED_TOP) {
+        // 🔹 Se calcula bajo el lock de lectura: ninguna escritura puede intercalarse
+        List<Integer> top = shortPrefixTop.computeIfAbsent(partial,
+            p -> List.copyOf(mergePrefix(p, CACHED_TOP, ANY)));
+        ordinals = top.subList(0, Math.min(limit, top.size()));
+      } else {
+        ordinals = mergePrefix(partial, limit, ANY);
+      }
+
+      List<SuggestionResponse> result = new ArrayList<>(ordinals.size());
+      for (int ordinal : ordinals) {
+        Entry entry = entries[ordinal];
+        result.add(new SuggestionResponse(entry.type(), entry.id(), entry.text()));
+      }
+      return result;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  // ---------------------------------------------------------------------------
+
+  // 🔹 Mezcla k-way de las listas de todos los tokens que empiezan con el prefijo
+  private List<Integer> mergePrefix(String partial, int limit, Predicate<String[]> accept) {
+    SortedMap<String, RankedPostings> range = prefixRange(partial);
+    if (range.isEmpty()) return List.of();
+
+    PriorityQueue<Cursor> heads = new PriorityQueue<>(range.size(),
+        (a, b) -> ranking.compare(a.postings().get(a.position()), b.postings().get(b.position())));
+    for (RankedPostings list : range.values()) {
+      heads.add(new Cursor(list, 0));
+    }
+
+    List<Integer> result = new ArrayList<>(limit);
+    Set<Integer> seen = new HashSet<>();
+    while (!heads.isEmpty() && result.size() < limit) {
+      Cursor head = heads.poll();
+      int ordinal = head.postings().get(head.position());
+      // 🔹 "anillo antiguo" aparece en las listas de "anillo" y "antiguo": se devuelve una vez
+      if (seen.add(ordinal) && accept.test(entries[ordinal].tokens())) result.add(ordinal);
+      if (head.position() + 1 < head.postings().size()) {
+        heads.add(new Cursor(head.postings(), head.position() + 1));
+      }
+    }
+    return result;
+  }
+
+  // 🔹 Varias palabras: se recorre en orden de ranking el lado más corto (la palabra completa
+  // más rara o el rango del prefijo) y se verifica el resto contra los tokens de cada entrada
+  private List<Integer> withCompleteWords(List<String> complete, String partial, int limit) {
+    RankedPostings rarest = null;
+    for (String token : complete) {
+      RankedPostings list = postings.get(token);
+      if (list == null) return List.of();
+      if (rarest == null || list.size() < rarest.size()) rarest = list;
+    }
+
+    long prefixMatches = 0;
+    for (RankedPostings list : prefixRange(partial).values()) {
+      prefixMatches += list.size();
+      if (prefixMatches > rarest.size()) break;
+    }
+    if (prefixMatches <= rarest.size()) {
+      return mergePrefix(partial, limit, tokens -> containsAll(tokens, complete));
+    }
+
+    List<Integer> result = new ArrayList<>(limit);
+    for (int i = 0; i < rarest.size() && result.size() < limit; i++) {
+      int ordinal = rarest.get(i);
+      String[] entryTokens = entries[ordinal].tokens();
+      if (containsAll(entryTokens, complete) && hasPrefix(entryTokens, partial)) {
+        result.add(ordinal);
+      }
+    }
+    return result;
+  }
+
+  private SortedMap<String, RankedPostings> prefixRange(String prefix) {
+    return postings.subMap(prefix, prefix + Character.MAX_VALUE);
+  }
+
+  private static boolean containsAll(String[] sortedTokens, List<String> required) {
+    for (String token : required) {
+      if (Arrays.binarySearch(sortedTokens, token) < 0) return false;
+    }
+    return true;
+  }
+
+  // 🔹 Los tokens están ordenados: el primero >= prefijo es el único candidato
+  private static boolean hasPrefix(String[] sortedTokens, String prefix) {
+    int pos = Arrays.binarySearch(sortedTokens, prefix);
+    if (pos >= 0) return true;
+    pos = -pos - 1;
+    return pos < sortedTokens.length && sortedTokens[pos].startsWith(prefix);
+  }
+
+  private static Entry toEntry(SuggestionSource source) {
+    if (source.id() == null || source.text() == null) return null;
+    String[] tokens = SearchText.tokenize(source.text()).stream()
+        .distinct()
+        .sorted()
+        .toArray(String[]::new);
+    if (tokens.length == 0) return null;
+    return new Entry(source.type(), source.id(), source.text(), tokens, source.popularity());
+  }
+
+  private void addInternal(Entry entry) {
+    int ordinal;
+    if (!freeOrdinals.isEmpty()) {
+      ordinal = freeOrdinals.poll();
+    } else {
+      ordinal = nextOrdinal++;
+      if (ordinal == entries.length) entries = Arrays.copyOf(entries, entries.length * 2);
+    }
+    entries[ordinal] = entry;
+    ordinalsByType.get(entry.type()).put(entry.id(), ordinal);
+    for (String token : entry.tokens()) {
+      postings.computeIfAbsent(token, t -> new RankedPostings()).insert(ordinal, ranking);
+    }
+    invalidateShortPrefixes(entry.tokens());
+  }
+
+  private void invalidateShortPrefixes(String[] tokens) {
+    for (String token : tokens) {
+      for (int len = 1; len <= Math.min(SHORT_PREFIX, token.length()); len++) {
+        shortPrefixTop.remove(token.substring(0, len));
+      }
+    }
+  }
+
+  private void removeInternal(SuggestionType type, Long id) {
+    Integer ordinal = ordinalsByType.get(type).remove(id);
+    if (ordinal == null) return;
+    // 🔹 Se quita de las listas antes de liberar la entrada: el ranking la necesita para ubicarla
+    for (String token : entries[ordinal].tokens()) {
+      RankedPostings list = postings.get(token);
+      if (list == null) continue;
+      list.remove(ordinal, ranking);
+      if (list.size() == 0) postings.remove(token);
+    }
+    invalidateShortPrefixes(entries[ordinal].tokens());
+    entries[ordinal] = null;
+    freeOrdinals.push(ordinal);
+  }
+}
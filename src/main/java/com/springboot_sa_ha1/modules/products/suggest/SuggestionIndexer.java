@@ -0,0 +1,150 @@
+package com.springboot_sa_ha1.modules.products.suggest;
+
+import com.springboot_sa_ha1.modules.catalog.IndexLoadBuffer;
+import com.springboot_sa_ha1.modules.catalog.StartupOrder;
+import com.springboot_sa_ha1.modules.categories.event.CategoryDeletedEvent;
+import com.springboot_sa_ha1.modules.categories.event.CategorySavedEvent;
+import com.springboot_sa_ha1.modules.categories.model.Category;
+import com.springboot_sa_ha1.modules.categories.repository.CategoryRepository;
+import com.springboot_sa_ha1.modules.collections.event.CollectionDeletedEvent;
+import com.springboot_sa_ha1.modules.collections.event.CollectionSavedEvent;
+import com.springboot_sa_ha1.modules.collections.model.Collection;
+import com.springboot_sa_ha1.modules.collections.repository.CollectionRepository;
+import com.springboot_sa_ha1.modules.order_products.dto.UnitsSoldResponse;
+import com.springboot_sa_ha1.modules.order_products.repository.OrderProductRepository;
+import com.springboot_sa_ha1.modules.products.dto.ProductIndexView;
+import com.springboot_sa_ha1.modules.products.event.ProductDeletedEvent;
+import com.springboot_sa_ha1.modules.products.event.ProductSavedEvent;
+import com.springboot_sa_ha1.modules.products.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 🔹 Mantiene el índice de autocompletado sincronizado con la base de datos
+@Component
+public class SuggestionIndexer {
+
+  private static final Logger log = LoggerFactory.getLogger(SuggestionIndexer.class);
+  private static final int LOAD_PAGE_SIZE = 5000;
+
+  private final SuggestionIndex index;
+  private final ProductRepository productRepository;
+  private final CategoryRepository categoryRepository;
+  private final CollectionRepository collectionRepository;
+  private final OrderProductRepository orderProductRepository;
+  private final TransactionTemplate readOnlyTx;
+  private final IndexLoadBuffer loading = new IndexLoadBuffer();
+
+  public SuggestionIndexer(
+      SuggestionIndex index,
+      ProductRepository productRepository,
+      CategoryRepository categoryRepository,
+      CollectionRepository collectionRepository,
+      OrderProductRepository orderProductRepository,
+      PlatformTransactionManager transactionManager
+  ) {
+    this.index = index;
+    this.productRepository = productRepository;
+    this.categoryRepository = categoryRepository;
+    this.collectionRepository = collectionRepository;
+    this.orderProductRepository = orderProductRepository;
+    this.readOnlyTx = new TransactionTemplate(transactionManager);
+    this.readOnlyTx.setReadOnly(true);
+  }
+
+  // 🔹 Popularidad = unidades vendidas; la de una categoría o colección es la suma de sus productos
+  @EventListener(ApplicationReadyEvent.class)
+  @Order(StartupOrder.INDEXES)
+  public void rebuild() {
+    long start = System.nanoTime();
+    loading.startLoading();
+    try {
+      Map<Long, Long> productUnits = toMap(readOnlyTx.execute(status -> orderProductRepository.sumUnitsByProduct()));
+      Map<Long, Long> collectionUnits = toMap(readOnlyTx.execute(status -> orderProductRepository.sumUnitsByCollection()));
+      Map<Long, Long> categoryUnits = new HashMap<>();
+      List<SuggestionSource> sources = new ArrayList<>();
+
+      // 🔹 Sólo id, nombre y categoría, por keyset: no se hidratan entidades
+      Long lastId = 0L;
+      while (true) {
+        Long afterId = lastId;
+        List<ProductIndexView> page = readOnlyTx.execute(status ->
+            productRepository.findIndexViewsAfter(afterId, Limit.of(LOAD_PAGE_SIZE)));
+        if (page == null || page.isEmpty()) break;
+        for (ProductIndexView product : page) {
+          long units = productUnits.getOrDefault(product.id(), 0L);
+          sources.add(new SuggestionSource(SuggestionType.PRODUCT, product.id(), product.name(), units));
+          if (product.categoryId() != null) categoryUnits.merge(product.categoryId(), units, Long::sum);
+        }
+        lastId = page.get(page.size() - 1).id();
+      }
+
+      for (Category category : readOnlyTx.execute(status -> categoryRepository.findAll())) {
+        sources.add(new SuggestionSource(SuggestionType.CATEGORY, category.getId(), category.getName(),
+            categoryUnits.getOrDefault(category.getId(), 0L)));
+      }
+      for (Collection collection : readOnlyTx.execute(status -> collectionRepository.findAll())) {
+        sources.add(new SuggestionSource(SuggestionType.COLLECTION, collection.getId(), collection.getName(),
+            collectionUnits.getOrDefault(collection.getId(), 0L)));
+      }
+
+      // 🔹 Altas, renombres y bajas que llegaron durante la carga se reaplican sobre el índice nuevo
+      loading.finishLoading(() -> index.replaceAll(sources));
+      log.info("Índice de sugerencias construido: {} entradas en {} ms",
+          sources.size(), (System.nanoTime() - start) / 1_000_000);
+    } catch (RuntimeException e) {
+      loading.finishLoading(() -> {});
+      log.warn("No se pudo construir el índice de sugerencias", e);
+    }
+  }
+
+  private static Map<Long, Long> toMap(List<UnitsSoldResponse> rows) {
+    Map<Long, Long> map = new HashMap<>();
+    if (rows != null) {
+      for (UnitsSoldResponse row : rows) map.put(row.id(), row.units());
+    }
+    return map;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onProductSaved(ProductSavedEvent event) {
+    loading.apply(() -> index.upsert(SuggestionType.PRODUCT, event.product().id(), event.product().name()));
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onProductDeleted(ProductDeletedEvent event) {
+    loading.apply(() -> index.remove(SuggestionType.PRODUCT, event.productId()));
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCategorySaved(CategorySavedEvent event) {
+    loading.apply(() -> index.upsert(SuggestionType.CATEGORY, event.category().id(), event.category().name()));
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCategoryDeleted(CategoryDeletedEvent event) {
+    loading.apply(() -> index.remove(SuggestionType.CATEGORY, event.categoryId()));
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCollectionSaved(CollectionSavedEvent event) {
+    loading.apply(() -> index.upsert(SuggestionType.COLLECTION, event.collection().id(), event.collection().name()));
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCollectionDeleted(CollectionDeletedEvent event) {
+    loading.apply(() -> index.remove(SuggestionType.COLLECTION, event.collectionId()));
+  }
+}
@@ -0,0 +1,7 @@
+package com.springboot_sa_ha1.modules.products.suggest;
+
+public record SuggestionResponse(
+    SuggestionType type,
+    Long id,
+    String text
+) {}
@@ -0,0 +1,9 @@
+package com.springboot_sa_ha1.modules.products.suggest;
+
+// 🔹 Entrada a indexar: nombre visible y popularidad (unidades vendidas)
+public record SuggestionSource(
+    SuggestionType type,
+    Long id,
+    String text,
+    long popularity
+) {}
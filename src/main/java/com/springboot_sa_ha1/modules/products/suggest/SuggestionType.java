@@ -0,0 +1,7 @@
+package com.springboot_sa_ha1.modules.products.suggest;
+
+public enum SuggestionType {
+  PRODUCT,
+  CATEGORY,
+  COLLECTION
+}
@@ -0,0 +1,70 @@
+package com.springboot_sa_ha1.modules.slugs;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// 🔹 Regla única de slugs para categorías, colecciones y productos:
+// minúsculas, espacios/guiones → "_", sin "_" repetidos ni al inicio o al final.
+// "  Anillos - de Oro " → "anillos_de_oro"
+public final class SlugNormalizer {
+
+  private SlugNormalizer() {}
+
+  // 🔹 Claves para buscar slugs en la base: la forma normalizada y, si difiere, el slug tal como
+  // llegó. Las filas creadas con las reglas anteriores (p. ej. "anillos_-_oro") guardan el slug
+  // sin normalizar y sus URLs viejas sólo coinciden por igualdad exacta.
+  public static List<String> lookupKeys(Collection<String> slugs) {
+    Set<String> keys = new LinkedHashSet<>();
+    for (String slug : slugs) {
+      if (slug == null) continue;
+      String normalized = normalize(slug);
+      if (!normalized.isEmpty()) keys.add(normalized);
+      String exact = slug.trim();
+      if (!exact.isEmpty()) keys.add(exact);
+    }
+    return List.copyOf(keys);
+  }
+
+  public static String normalize(String raw) {
+    if (raw == null) return "";
+    // 🔹 Caso habitual: el slug ya viene normalizado y se devuelve la misma instancia
+    if (isNormalized(raw)) return raw;
+
+    // 🔹 Una sola pasada, sin expresiones regulares
+    char[] out = new char[raw.length()];
+    int len = 0;
+    boolean pendingSeparator = false;
+    for (int i = 0; i < raw.length(); i++) {
+      char c = raw.charAt(i);
+      if (isSeparator(c)) {
+        pendingSeparator = len > 0;
+        continue;
+      }
+      if (pendingSeparator) {
+        out[len++] = '_';
+        pendingSeparator = false;
+      }
+      out[len++] = Character.toLowerCase(c);
+    }
+    return new String(out, 0, len);
+  }
+
+  static boolean isNormalized(String s) {
+    int last = s.length() - 1;
+    for (int i = 0; i <= last; i++) {
+      char c = s.charAt(i);
+      if (c == '_') {
+        if (i == 0 || i == last || s.charAt(i - 1) == '_') return false;
+      } else if (isSeparator(c) || Character.toLowerCase(c) != c) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isSeparator(char c) {
+    return c == '_' || c == '-' || Character.isWhitespace(c);
+  }
+}
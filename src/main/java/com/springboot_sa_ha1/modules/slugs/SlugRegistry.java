@@ -0,0 +1,112 @@
+package com.springboot_sa_ha1.modules.slugs;
+
+import com.springboot_sa_ha1.modules.catalog.StartupOrder;
+import com.springboot_sa_ha1.modules.categories.event.CategoryDeletedEvent;
+import com.springboot_sa_ha1.modules.categories.event.CategorySavedEvent;
+import com.springboot_sa_ha1.modules.categories.model.Category;
+import com.springboot_sa_ha1.modules.categories.repository.CategoryRepository;
+import com.springboot_sa_ha1.modules.collections.event.CollectionDeletedEvent;
+import com.springboot_sa_ha1.modules.collections.event.CollectionSavedEvent;
+import com.springboot_sa_ha1.modules.collections.model.Collection;
+import com.springboot_sa_ha1.modules.collections.repository.CollectionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+
+// 🔹 Resolución slug → id en memoria para categorías y colecciones.
+// Se carga al arrancar y se mantiene con los eventos de guardar/actualizar/eliminar.
+@Component
+public class SlugRegistry {
+
+  private static final Logger log = LoggerFactory.getLogger(SlugRegistry.class);
+
+  private final CategoryRepository categoryRepository;
+  private final CollectionRepository collectionRepository;
+  private final SlugTable categories = new SlugTable();
+  private final SlugTable collections = new SlugTable();
+
+  public SlugRegistry(CategoryRepository categoryRepository, CollectionRepository collectionRepository) {
+    this.categoryRepository = categoryRepository;
+    this.collectionRepository = collectionRepository;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Order(StartupOrder.INDEXES)
+  public void reload() {
+    try {
+      categories.clear();
+      for (Category category : categoryRepository.findAll()) {
+        categories.put(category.getId(), category.getSlug());
+      }
+      collections.clear();
+      for (Collection collection : collectionRepository.findAll()) {
+        collections.put(collection.getId(), collection.getSlug());
+      }
+      log.info("Registro de slugs cargado: {} categorías, {} colecciones", categories.size(), collections.size());
+    } catch (RuntimeException e) {
+      // 🔹 Sin registro cada resolución cae a la base de datos
+      log.warn("No se pudo cargar el registro de slugs", e);
+    }
+  }
+
+  public Optional<Long> categoryId(String slug) {
+    String normalized = SlugNormalizer.normalize(slug);
+    if (normalized.isEmpty()) return Optional.empty();
+    Long id = categories.get(normalized);
+    if (id != null) return Optional.of(id);
+
+    // 🔹 Fallo de registro (p. ej. escrito por otra instancia): se consulta y se recuerda.
+    // Si la forma normalizada no está, se prueba el slug exacto (filas con la regla anterior)
+    return categoryRepository.findBySlug(normalized)
+        .or(() -> exact(slug, normalized).flatMap(categoryRepository::findBySlug))
+        .map(category -> {
+          categories.put(category.getId(), category.getSlug());
+          return category.getId();
+        });
+  }
+
+  public Optional<Long> collectionId(String slug) {
+    String normalized = SlugNormalizer.normalize(slug);
+    if (normalized.isEmpty()) return Optional.empty();
+    Long id = collections.get(normalized);
+    if (id != null) return Optional.of(id);
+
+    return collectionRepository.findBySlug(normalized)
+        .or(() -> exact(slug, normalized).flatMap(collectionRepository::findBySlug))
+        .map(collection -> {
+          collections.put(collection.getId(), collection.getSlug());
+          return collection.getId();
+        });
+  }
+
+  private static Optional<String> exact(String slug, String normalized) {
+    String trimmed = slug.trim();
+    return trimmed.equals(normalized) ? Optional.empty() : Optional.of(trimmed);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCategorySaved(CategorySavedEvent event) {
+    categories.put(event.category().id(), event.category().slug());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCategoryDeleted(CategoryDeletedEvent event) {
+    categories.remove(event.categoryId());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCollectionSaved(CollectionSavedEvent event) {
+    collections.put(event.collection().id(), event.collection().slug());
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCollectionDeleted(CollectionDeletedEvent event) {
+    collections.remove(event.collectionId());
+  }
+}
@@ -0,0 +1,42 @@
+package com.springboot_sa_ha1.modules.slugs;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 🔹 slug → id con su inverso (id → slug) para poder borrar el slug anterior al renombrar
+class SlugTable {
+
+  private final Map<String, Long> idsBySlug = new ConcurrentHashMap<>();
+  private final Map<Long, String> slugsById = new ConcurrentHashMap<>();
+
+  Long get(String slug) {
+    return idsBySlug.get(slug);
+  }
+
+  synchronized void put(Long id, String slug) {
+    String normalized = SlugNormalizer.normalize(slug);
+    String previous = slugsById.put(id, normalized);
+    if (previous != null && !previous.equals(normalized)) {
+      idsBySlug.remove(previous, id);
+    }
+    if (!normalized.isEmpty()) {
+      idsBySlug.put(normalized, id);
+    }
+  }
+
+  synchronized void remove(Long id) {
+    String previous = slugsById.remove(id);
+    if (previous != null) {
+      idsBySlug.remove(previous, id);
+    }
+  }
+
+  synchronized void clear() {
+    idsBySlug.clear();
+    slugsById.clear();
+  }
+
+  int size() {
+    return idsBySlug.size();
+  }
+}
@@ -21,14 +21,19 @@ public class CorsConfig {
     ));
 
     config.setAllowedMethods(List.of(
-        "GET", "POST", "PUT", "DELETE", "OPTIONS"
+        "GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"
     ));
 
     config.setAllowedHeaders(List.of(
         "Authorization",
-        "Content-Type"
+        "Content-Type",
+        "If-Match",
+        "If-None-Match"
     ));
 
+    // el navegador sólo deja leer estas cabeceras si se exponen explícitamente
+    config.setExposedHeaders(List.of("ETag", "Last-Modified"));
+
     config.setAllowCredentials(true); // si usas cookies o Authorization
 
     UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
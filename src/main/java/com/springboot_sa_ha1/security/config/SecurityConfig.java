@@ -37,7 +37,7 @@ public class SecurityConfig {
                                 "/swagger-ui/**", "/openapi.yaml").permitAll()
 
                         // Health check
-                        .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/health/**").permitAll()
 
                         // CARRITO - requiere autenticación
                         .requestMatchers("/api/cart/**").authenticated()
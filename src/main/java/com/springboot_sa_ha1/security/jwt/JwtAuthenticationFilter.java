@@ -1,6 +1,7 @@
 package com.springboot_sa_ha1.security.jwt;
 
 import com.springboot_sa_ha1.security.service.CustomersDetailsService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -39,10 +40,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         final String token = authHeader.substring(7);
-        final String username = jwtService.extractUsername(token);
+        final Claims claims = jwtService.extractClaims(token);
+        final String username = claims.getSubject();
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            var userDetails = userDetailsService.loadUserByUsername(username);
+            // Con el id en el token se busca por clave primaria; los tokens emitidos antes sólo traen el email.
+            // El rol y el estado se leen siempre de la base para que un cambio aplique sin esperar al vencimiento
+            Long customerId = claims.get(JwtService.CLAIM_CUSTOMER_ID, Long.class);
+            var userDetails = customerId != null
+                    ? userDetailsService.loadUserById(customerId)
+                    : userDetailsService.loadUserByUsername(username);
             if (jwtService.isTokenValid(token, userDetails.getUsername())) {
                 var authToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
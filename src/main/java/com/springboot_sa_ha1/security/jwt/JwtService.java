@@ -1,5 +1,6 @@
 package com.springboot_sa_ha1.security.jwt;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -16,6 +17,10 @@ import java.util.Map;
 @Service
 public class JwtService {
 
+    // Claim propio: id del cliente (además del email en "sub"). El rol no va en el token:
+    // el filtro lo lee de la base en cada petición
+    public static final String CLAIM_CUSTOMER_ID = "cid";
+
     private final Key signingKey;
     private final long expirationMs;
 
@@ -72,8 +77,12 @@ public class JwtService {
     }
 
     public String extractUsername(String token) {
+        return extractClaims(token).getSubject();
+    }
+
+    public Claims extractClaims(String token) {
         return Jwts.parserBuilder().setSigningKey(signingKey).build()
-                .parseClaimsJws(token).getBody().getSubject();
+                .parseClaimsJws(token).getBody();
     }
 
     public boolean isTokenValid(String token, String username) {
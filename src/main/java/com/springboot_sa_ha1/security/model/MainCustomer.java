@@ -12,6 +12,8 @@ import java.util.List;
 
 public record MainCustomer(Customer customer) implements UserDetails {
 
+    public Long getId() { return customer.getId(); }
+
     @Override
     @NonNull
     public Collection<? extends GrantedAuthority> getAuthorities() {
@@ -15,6 +15,8 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+
 @Service
 @RequiredArgsConstructor
 public class AuthService {
@@ -32,7 +34,7 @@ public class AuthService {
         Customer u = customersRepository.findByEmailIgnoreCase(req.email())
                 .orElseThrow(() -> new UsernameNotFoundException("Customer no encontrado"));
 
-        String jwt = jwtService.generateToken(u.getEmail());
+        String jwt = generateToken(u);
         return new AuthResponse(u.getId(), u.getName(), u.getEmail(), u.getRol(), jwt);
     }
 
@@ -52,7 +54,7 @@ public class AuthService {
 
         customersRepository.save(nuevo);
 
-        String jwt = jwtService.generateToken(nuevo.getEmail());
+        String jwt = generateToken(nuevo);
         return new AuthResponse(nuevo.getId(), nuevo.getName(), nuevo.getEmail(), nuevo.getRol(), jwt);
     }
 
@@ -88,4 +90,10 @@ public class AuthService {
         user.setActive(false);
         customersRepository.save(user);
     }
+
+    // El token lleva el id para que el filtro busque al cliente por clave primaria y no por email
+    private String generateToken(Customer customer) {
+        return jwtService.generateToken(customer.getEmail(), Map.of(
+                JwtService.CLAIM_CUSTOMER_ID, customer.getId()));
+    }
 }
@@ -21,4 +21,11 @@ public class CustomersDetailsService implements UserDetailsService {
                 .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado"));
         return new MainCustomer(u);
     }
+
+    // Para tokens con el id del cliente (claim "cid")
+    public UserDetails loadUserById(Long id) throws UsernameNotFoundException {
+        Customer u = repository.findById(id)
+                .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado"));
+        return new MainCustomer(u);
+    }
 }
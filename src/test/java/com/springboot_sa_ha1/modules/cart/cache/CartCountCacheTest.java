@@ -0,0 +1,64 @@
+package com.springboot_sa_ha1.modules.cart.cache;
+
+import com.springboot_sa_ha1.modules.customers.event.CustomerDeletedEvent;
+import com.springboot_sa_ha1.modules.products.event.ProductDeletedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Sin transacción activa los cambios se aplican de inmediato, así que se puede contar cuántas veces
+// se va a la base
+class CartCountCacheTest {
+
+    private CartCountCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new CartCountCache(1_000, Duration.ZERO);
+    }
+
+    @Test
+    void testLasMutacionesMantienenElContador() {
+        assertEquals(3L, cache.get(1L, () -> load(3)));
+        cache.changed(1L, 1);
+        cache.changed(1L, -2);
+
+        assertEquals(2L, cache.get(1L, () -> load(99)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testBorrarUnProductoOlvidaTodosLosContadores() {
+        cache.get(1L, () -> load(3));
+        cache.get(2L, () -> load(5));
+
+        // ON DELETE CASCADE quitó líneas de carritos que la caché no conoce
+        cache.onProductDeleted(new ProductDeletedEvent(10L));
+
+        assertEquals(2L, cache.get(1L, () -> load(2)));
+        assertEquals(4L, cache.get(2L, () -> load(4)));
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void testBorrarUnClienteOlvidaSoloSuContador() {
+        cache.get(1L, () -> load(3));
+        cache.get(2L, () -> load(5));
+
+        cache.onCustomerDeleted(new CustomerDeletedEvent(1L));
+
+        assertEquals(0L, cache.get(1L, () -> load(0)));
+        assertEquals(5L, cache.get(2L, () -> load(99)));
+        assertEquals(3, loads.get());
+    }
+
+    private long load(long count) {
+        loads.incrementAndGet();
+        return count;
+    }
+}
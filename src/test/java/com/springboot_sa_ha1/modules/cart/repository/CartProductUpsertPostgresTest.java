@@ -0,0 +1,145 @@
+package com.springboot_sa_ha1.modules.cart.repository;
+
+import com.springboot_sa_ha1.modules.cart.dto.CartProductRow;
+import com.springboot_sa_ha1.modules.cart.store.CartLine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Camino INSERT ... ON CONFLICT de PostgreSQL (H2 usa el UPDATE + INSERT de respaldo).
+// Necesita una base real: CART_PG_URL=jdbc:postgresql://localhost:5432/test CART_PG_USER=... CART_PG_PASSWORD=... mvn test
+// Las tablas son temporales (pg_temp), así que no toca el esquema de la base usada.
+@EnabledIfEnvironmentVariable(named = "CART_PG_URL", matches = ".+")
+class CartProductUpsertPostgresTest {
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private CartProductUpsertRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        // Una sola conexión: las tablas temporales viven mientras viva ella
+        dataSource = new SingleConnectionDataSource(
+                System.getenv("CART_PG_URL"),
+                System.getenv("CART_PG_USER"),
+                System.getenv("CART_PG_PASSWORD"),
+                true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TEMP TABLE clientes (id_customer BIGINT PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TEMP TABLE productos (id BIGINT PRIMARY KEY)");
+        // Mismas restricciones que schema.sql
+        jdbcTemplate.execute("""
+                CREATE TEMP TABLE cart_products (
+                id BIGSERIAL PRIMARY KEY,
+                customer_id BIGINT NOT NULL,
+                product_id BIGINT NOT NULL,
+                quantity INTEGER NOT NULL DEFAULT 1,
+                added_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+                updated_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+                CONSTRAINT fk_cart_products_customer
+                   FOREIGN KEY (customer_id) REFERENCES clientes(id_customer) ON DELETE CASCADE,
+                CONSTRAINT fk_cart_products_product
+                   FOREIGN KEY (product_id) REFERENCES productos(id) ON DELETE CASCADE,
+                CONSTRAINT unique_customer_product UNIQUE (customer_id, product_id),
+                CONSTRAINT check_quantity_positive CHECK (quantity > 0)
+                )
+                """);
+        jdbcTemplate.update("INSERT INTO clientes (id_customer) VALUES (1)");
+        jdbcTemplate.update("INSERT INTO productos (id) VALUES (10), (11), (12)");
+        repository = new CartProductUpsertRepository(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Test
+    void testAltaYSumaConUnaSentencia() {
+        CartProductRow first = repository.add(1L, 10L, 2);
+        CartProductRow second = repository.add(1L, 10L, 3);
+
+        // xmax = 0 sólo en la fila insertada por la sentencia
+        assertTrue(first.created());
+        assertFalse(second.created());
+        assertEquals(first.id(), second.id());
+        assertEquals(5, second.quantity());
+    }
+
+    @Test
+    void testLotesDeSumasYCantidadesAbsolutas() {
+        repository.add(1L, 10L, 1);
+        repository.addAll(1L, Map.of(10L, 2, 11L, 4));
+        LocalDateTime now = LocalDateTime.now();
+        repository.saveAll(List.of(
+                new CartLine(null, 1L, 11L, 1, now, now, 0L),
+                new CartLine(null, 1L, 12L, 6, now, now, 0L),
+                new CartLine(null, 1L, 10L, 0, now, now, 0L)));
+
+        Map<Long, Integer> quantities = new HashMap<>();
+        jdbcTemplate.query("SELECT product_id, quantity FROM cart_products WHERE customer_id = 1",
+                rs -> { quantities.put(rs.getLong(1), rs.getInt(2)); });
+        assertEquals(Map.of(11L, 1, 12L, 6), quantities);
+    }
+
+    @Test
+    void testInsertarSiNoExisteDevuelveLaFilaExistente() {
+        CartProductRow created = repository.insertIfAbsent(1L, 10L, 2);
+        CartProductRow existing = repository.insertIfAbsent(1L, 10L, 7);
+
+        assertTrue(created.created());
+        assertFalse(existing.created());
+        assertEquals(created.id(), existing.id());
+        assertEquals(2, existing.quantity());
+    }
+
+    @Test
+    void testSoloLaFkDelClienteEsClienteInexistente() {
+        DataIntegrityViolationException missingCustomer =
+                assertThrows(DataIntegrityViolationException.class, () -> repository.add(99L, 10L, 1));
+        assertTrue(CartProductUpsertRepository.isMissingCustomer(missingCustomer));
+
+        DataIntegrityViolationException missingProduct =
+                assertThrows(DataIntegrityViolationException.class, () -> repository.add(1L, 99L, 1));
+        assertFalse(CartProductUpsertRepository.isMissingCustomer(missingProduct));
+    }
+
+    @Test
+    void testFkDelClienteSinNombreFijo() {
+        // Tabla creada por Hibernate antes de nombrar la FK: PostgreSQL le pone un nombre propio
+        jdbcTemplate.execute("DROP TABLE cart_products");
+        jdbcTemplate.execute("""
+                CREATE TEMP TABLE cart_products (
+                id BIGSERIAL PRIMARY KEY,
+                customer_id BIGINT NOT NULL REFERENCES clientes(id_customer),
+                product_id BIGINT NOT NULL REFERENCES productos(id),
+                quantity INTEGER NOT NULL DEFAULT 1,
+                added_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+                updated_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+                UNIQUE (customer_id, product_id)
+                )
+                """);
+
+        DataIntegrityViolationException missingCustomer =
+                assertThrows(DataIntegrityViolationException.class, () -> repository.add(99L, 10L, 1));
+        assertTrue(CartProductUpsertRepository.isMissingCustomer(missingCustomer));
+
+        DataIntegrityViolationException missingProduct =
+                assertThrows(DataIntegrityViolationException.class, () -> repository.add(1L, 99L, 1));
+        assertFalse(CartProductUpsertRepository.isMissingCustomer(missingProduct));
+    }
+}
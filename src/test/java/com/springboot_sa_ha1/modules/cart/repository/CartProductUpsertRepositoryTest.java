@@ -0,0 +1,39 @@
+package com.springboot_sa_ha1.modules.cart.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Reconocimiento de la FK del cliente con los mensajes que da PostgreSQL cuando la tabla la creó
+// Hibernate (ddl-auto: update) y la restricción no tiene el nombre de schema.sql
+class CartProductUpsertRepositoryTest {
+
+    @Test
+    void testFkDelClienteConNombreGeneradoPorHibernate() {
+        assertTrue(CartProductUpsertRepository.isMissingCustomer(violation("23503", """
+                ERROR: insert or update on table "cart_products" violates foreign key constraint "fkq2x9m1kb0kfl4u3wdu2vmqa8l"
+                  Detail: Key (customer_id)=(99) is not present in table "clientes".""")));
+        assertFalse(CartProductUpsertRepository.isMissingCustomer(violation("23503", """
+                ERROR: insert or update on table "cart_products" violates foreign key constraint "fk7pvmld1n3ddsw2bq6il2gq4ul"
+                  Detail: Key (product_id)=(99) is not present in table "productos".""")));
+    }
+
+    @Test
+    void testOtrasViolacionesNoSonClienteInexistente() {
+        // Mismo texto de columna pero no es una FK (p. ej. la restricción única)
+        assertFalse(CartProductUpsertRepository.isMissingCustomer(violation("23505", """
+                ERROR: duplicate key value violates unique constraint "ukcart"
+                  Detail: Key (customer_id)=(1) already exists.""")));
+        assertFalse(CartProductUpsertRepository.isMissingCustomer(
+                new DuplicateKeyException("fk_cart_products_customer", new SQLException("x", "23503"))));
+    }
+
+    private static DataIntegrityViolationException violation(String sqlState, String message) {
+        return new DataIntegrityViolationException("could not execute statement", new SQLException(message, sqlState));
+    }
+}
@@ -0,0 +1,151 @@
+package com.springboot_sa_ha1.modules.cart.service;
+
+import com.springboot_sa_ha1.exception.NotFoundException;
+import com.springboot_sa_ha1.modules.cart.cache.CartCountCache;
+import com.springboot_sa_ha1.modules.cart.dto.CartOperation;
+import com.springboot_sa_ha1.modules.cart.dto.CartOperationType;
+import com.springboot_sa_ha1.modules.cart.dto.CartProductRequest;
+import com.springboot_sa_ha1.modules.cart.dto.CartProductResponse;
+import com.springboot_sa_ha1.modules.cart.mapper.CartProductMapper;
+import com.springboot_sa_ha1.modules.cart.repository.CartProductUpsertRepository;
+import com.springboot_sa_ha1.modules.categories.model.Category;
+import com.springboot_sa_ha1.modules.customers.model.Customer;
+import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import com.springboot_sa_ha1.modules.products.model.Product;
+import com.springboot_sa_ha1.modules.products.service.ProductService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// POST /api/cart/batch: las operaciones se aplican en orden y el carrito resultante es el mismo
+// que con una llamada por operación
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import({CartProductServiceImp.class, CartProductUpsertRepository.class, CartProductMapper.class, CartCountCache.class})
+class CartProductBatchTest {
+
+    @MockBean
+    private ProductService productService;
+
+    @Autowired
+    private CartProductService cartService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<Long> productIds = new ArrayList<>();
+    private Long customerId;
+
+    @BeforeEach
+    void setUp() {
+        Category category = new Category();
+        category.setName("Anillos");
+        entityManager.persist(category);
+        for (int i = 0; i < 4; i++) {
+            Product product = new Product();
+            product.setName("Producto " + i);
+            product.setPrice(1000L + i);
+            product.setStock(100L);
+            product.setDescription("Descripción " + i);
+            product.setCategory(category);
+            entityManager.persist(product);
+            productIds.add(product.getId());
+        }
+        Customer customer = new Customer();
+        customer.setName("Cliente");
+        customer.setEmail("cliente@example.com");
+        customer.setPasswordHash("hash");
+        entityManager.persist(customer);
+        customerId = customer.getId();
+
+        when(productService.obtenerPorId(anyLong())).thenAnswer(invocation -> product(invocation.getArgument(0)));
+        // Sólo existen los productos creados arriba
+        when(productService.obtenerPorIds(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream().filter(productIds::contains).map(CartProductBatchTest::product).toList();
+        });
+
+        // Carrito previo: producto 0 x1, producto 1 x5, producto 2 x2
+        cartService.addToCart(customerId, new CartProductRequest(productIds.get(0), 1));
+        cartService.addToCart(customerId, new CartProductRequest(productIds.get(1), 5));
+        cartService.addToCart(customerId, new CartProductRequest(productIds.get(2), 2));
+    }
+
+    @Test
+    void testOperacionesEnOrden() {
+        List<CartProductResponse> cart = cartService.applyBatch(customerId, List.of(
+                op(CartOperationType.ADD, 0, 2),
+                op(CartOperationType.SET, 1, 3),
+                op(CartOperationType.ADD, 1, 1),
+                op(CartOperationType.REMOVE, 2, null),
+                op(CartOperationType.ADD, 2, 4),
+                op(CartOperationType.ADD, 3, 1),
+                op(CartOperationType.REMOVE, 3, null)));
+
+        Map<Long, Integer> quantities = new HashMap<>();
+        cart.forEach(item -> quantities.put(item.productId(), item.quantity()));
+        assertEquals(Map.of(productIds.get(0), 3, productIds.get(1), 4, productIds.get(2), 4), quantities);
+    }
+
+    @Test
+    void testProductosValidadosEnUnaLectura() {
+        clearInvocations(productService);
+
+        cartService.applyBatch(customerId, List.of(
+                op(CartOperationType.ADD, 0, 1),
+                op(CartOperationType.SET, 1, 2),
+                op(CartOperationType.ADD, 3, 1),
+                op(CartOperationType.REMOVE, 2, null)));
+
+        // Los quitados no se validan; el resto, todos juntos
+        verify(productService).obtenerPorIds(List.of(productIds.get(0), productIds.get(1), productIds.get(3)));
+        verify(productService, never()).obtenerPorId(anyLong());
+    }
+
+    @Test
+    void testProductoInexistenteNoAplicaNada() {
+        NotFoundException missing = assertThrows(NotFoundException.class, () -> cartService.applyBatch(customerId, List.of(
+                op(CartOperationType.REMOVE, 0, null),
+                new CartOperation(CartOperationType.ADD, -1L, 1),
+                new CartOperation(CartOperationType.SET, -2L, 3))));
+        assertEquals("Productos no encontrados: [-1, -2]", missing.getMessage());
+        assertEquals(3L, cartService.getCartCount(customerId));
+    }
+
+    @Test
+    void testSoloLaFkDelClienteSeTraduce() {
+        RuntimeException missingCustomer = assertThrows(RuntimeException.class,
+                () -> cartService.addToCart(-1L, new CartProductRequest(productIds.get(0), 1)));
+        assertEquals("Cliente no encontrado", missingCustomer.getMessage());
+
+        // Producto borrado entre la validación y la escritura: la violación sigue su curso
+        assertThrows(DataIntegrityViolationException.class,
+                () -> cartService.addToCart(customerId, new CartProductRequest(-1L, 1)));
+    }
+
+    private static ProductResponse product(Long id) {
+        return new ProductResponse(id, "Producto", 1000L, 100L, "Descripción", List.of(), null, List.of());
+    }
+
+    private CartOperation op(CartOperationType type, int product, Integer quantity) {
+        return new CartOperation(type, productIds.get(product), quantity);
+    }
+}
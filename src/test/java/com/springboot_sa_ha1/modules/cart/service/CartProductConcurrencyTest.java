@@ -0,0 +1,210 @@
+package com.springboot_sa_ha1.modules.cart.service;
+
+import com.springboot_sa_ha1.modules.cart.cache.CartCountCache;
+import com.springboot_sa_ha1.modules.cart.dto.CartProductRequest;
+import com.springboot_sa_ha1.modules.cart.mapper.CartProductMapper;
+import com.springboot_sa_ha1.modules.cart.model.CartProduct;
+import com.springboot_sa_ha1.modules.cart.repository.CartProductRepository;
+import com.springboot_sa_ha1.modules.cart.repository.CartProductUpsertRepository;
+import com.springboot_sa_ha1.modules.categories.model.Category;
+import com.springboot_sa_ha1.modules.categories.repository.CategoryRepository;
+import com.springboot_sa_ha1.modules.customers.model.Customer;
+import com.springboot_sa_ha1.modules.customers.repository.CustomerRepository;
+import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import com.springboot_sa_ha1.modules.products.model.Product;
+import com.springboot_sa_ha1.modules.products.repository.ProductRepository;
+import com.springboot_sa_ha1.modules.products.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+// Muchos "agregar" en paralelo sobre los mismos (cliente, producto): ninguno debe fallar
+// y las cantidades finales deben ser la suma exacta. Cada llamada confirma su propia transacción.
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import({CartProductServiceImp.class, CartProductUpsertRepository.class, CartProductMapper.class, CartCountCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CartProductConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ADDS = 4_000;
+    private static final int CUSTOMERS = 4;
+    private static final int PRODUCTS = 5;
+
+    @MockBean
+    private ProductService productService;
+
+    @Autowired
+    private CartProductService cartService;
+
+    @Autowired
+    private CartProductRepository cartProductRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Long> customerIds = new ArrayList<>();
+    private final List<Long> productIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Category category = new Category();
+        category.setName("Anillos");
+        categoryRepository.save(category);
+
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName("Producto " + i);
+            product.setPrice(1000L + i);
+            product.setStock(100L);
+            product.setDescription("Descripción " + i);
+            product.setCategory(category);
+            productIds.add(productRepository.save(product).getId());
+        }
+        for (int i = 0; i < CUSTOMERS; i++) {
+            Customer customer = new Customer();
+            customer.setName("Cliente " + i);
+            customer.setEmail("cliente" + i + "@example.com");
+            customer.setPasswordHash("hash");
+            customerIds.add(customerRepository.save(customer).getId());
+        }
+
+        when(productService.obtenerPorId(anyLong())).thenAnswer(invocation -> {
+            Long id = invocation.getArgument(0);
+            return new ProductResponse(id, "Producto", 1000L, 100L, "Descripción",
+                    List.of("https://img/" + id + ".jpg"), null, List.of());
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        cartProductRepository.deleteAllInBatch();
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void testAgregadosConcurrentesSumanExacto() throws Exception {
+        Map<String, Integer> expected = new HashMap<>();
+        List<Callable<Void>> adds = new ArrayList<>();
+        for (int i = 0; i < ADDS; i++) {
+            Long customerId = customerIds.get(i % CUSTOMERS);
+            Long productId = productIds.get((i / CUSTOMERS) % PRODUCTS);
+            int quantity = 1 + i % 3;
+            expected.merge(customerId + ":" + productId, quantity, Integer::sum);
+            adds.add(() -> {
+                cartService.addToCart(customerId, new CartProductRequest(productId, quantity));
+                return null;
+            });
+        }
+
+        AtomicInteger failures = new AtomicInteger();
+        long elapsed = run(adds, failures);
+        assertEquals(0, failures.get());
+
+        Map<String, Integer> actual = new HashMap<>();
+        for (CartProduct item : cartProductRepository.findAll()) {
+            actual.put(item.getCustomer().getId() + ":" + item.getProduct().getId(), item.getQuantity());
+        }
+        assertEquals(expected, actual);
+        System.out.printf("[cart-upsert] %d agregados en %d ms (%.0f ops/s)%n",
+                ADDS, elapsed, ADDS * 1000.0 / Math.max(elapsed, 1));
+    }
+
+    // Ejecutar con: mvn test -Pbenchmark -Dtest=CartProductConcurrencyTest
+    @Test
+    @Tag("benchmark")
+    void compararConLecturaPreviaYSave() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        AtomicInteger legacyFailures = new AtomicInteger();
+        List<Callable<Void>> legacy = new ArrayList<>();
+        List<Callable<Void>> upsert = new ArrayList<>();
+        for (int i = 0; i < ADDS; i++) {
+            Long customerId = customerIds.get(i % CUSTOMERS);
+            Long productId = productIds.get((i / CUSTOMERS) % PRODUCTS);
+            legacy.add(() -> {
+                tx.executeWithoutResult(status -> legacyAdd(customerId, productId, 1));
+                return null;
+            });
+            upsert.add(() -> {
+                cartService.addToCart(customerId, new CartProductRequest(productId, 1));
+                return null;
+            });
+        }
+
+        long legacyMillis = run(legacy, legacyFailures);
+        // Además de los fallos, la lectura previa pierde sumas (dos hilos leen la misma cantidad)
+        long legacyUnits = cartProductRepository.findAll().stream().mapToLong(CartProduct::getQuantity).sum();
+        cartProductRepository.deleteAllInBatch();
+        long upsertMillis = run(upsert, new AtomicInteger());
+
+        System.out.printf(
+                "[cart-upsert] %d agregados, %d hilos | anterior %.0f ops/s (%d fallidos, %d unidades) "
+                        + "| upsert %.0f ops/s (%d unidades)%n",
+                ADDS, THREADS, ADDS * 1000.0 / Math.max(legacyMillis, 1), legacyFailures.get(), legacyUnits,
+                ADDS * 1000.0 / Math.max(upsertMillis, 1),
+                cartProductRepository.findAll().stream().mapToLong(CartProduct::getQuantity).sum());
+    }
+
+    // Copia del addToCart anterior (4 idas a la base), como referencia
+    private void legacyAdd(Long customerId, Long productId, int quantity) {
+        Customer customer = customerRepository.findById(customerId).orElseThrow();
+        Product product = productRepository.findById(productId).orElseThrow();
+        CartProduct item = cartProductRepository.findByCustomerIdAndProductId(customerId, productId)
+                .orElseGet(() -> new CartProduct(customer, product, 0));
+        item.setQuantity(item.getQuantity() + quantity);
+        cartProductRepository.save(item);
+    }
+
+    // Devuelve los ms transcurridos; las tareas que fallan se cuentan en failures
+    private long run(List<Callable<Void>> tasks, AtomicInteger failures) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<Void>> futures = pool.invokeAll(tasks);
+            long elapsed = (System.nanoTime() - start) / 1_000_000;
+            for (Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                }
+            }
+            return elapsed;
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.springboot_sa_ha1.modules.cart.service;
+
+import com.springboot_sa_ha1.modules.cart.cache.CartCountCache;
+import com.springboot_sa_ha1.modules.cart.dto.CartOperation;
+import com.springboot_sa_ha1.modules.cart.dto.CartOperationType;
+import com.springboot_sa_ha1.modules.cart.dto.CartProductRequest;
+import com.springboot_sa_ha1.modules.cart.dto.CartSummaryResponse;
+import com.springboot_sa_ha1.modules.cart.mapper.CartProductMapper;
+import com.springboot_sa_ha1.modules.cart.repository.CartProductRepository;
+import com.springboot_sa_ha1.modules.cart.repository.CartProductUpsertRepository;
+import com.springboot_sa_ha1.modules.categories.model.Category;
+import com.springboot_sa_ha1.modules.categories.repository.CategoryRepository;
+import com.springboot_sa_ha1.modules.customers.model.Customer;
+import com.springboot_sa_ha1.modules.customers.repository.CustomerRepository;
+import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import com.springboot_sa_ha1.modules.products.model.Product;
+import com.springboot_sa_ha1.modules.products.repository.ProductRepository;
+import com.springboot_sa_ha1.modules.products.service.ProductService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+// Resumen del carrito en una consulta y conteo del badge sin ir a la base después de la primera lectura.
+// Cada llamada confirma su propia transacción: el contador se actualiza al confirmarse la mutación
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.sql.init.mode=never"
+})
+@Import({CartProductServiceImp.class, CartProductUpsertRepository.class, CartProductMapper.class, CartCountCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CartSummaryTest {
+
+    @MockBean
+    private ProductService productService;
+
+    @Autowired
+    private CartProductService cartService;
+
+    @Autowired
+    private CartProductRepository cartProductRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> productIds = new ArrayList<>();
+    private Long customerId;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Category category = new Category();
+        category.setName("Anillos");
+        categoryRepository.save(category);
+        for (long price : new long[]{1000L, 2500L}) {
+            Product product = new Product();
+            product.setName("Producto " + price);
+            product.setPrice(price);
+            product.setStock(100L);
+            product.setDescription("Descripción");
+            product.setCategory(category);
+            productIds.add(productRepository.save(product).getId());
+        }
+        Customer customer = new Customer();
+        customer.setName("Cliente");
+        customer.setEmail("cliente@example.com");
+        customer.setPasswordHash("hash");
+        customerId = customerRepository.save(customer).getId();
+
+        when(productService.obtenerPorId(anyLong())).thenAnswer(invocation -> product(invocation.getArgument(0)));
+        when(productService.obtenerPorIds(anyList())).thenAnswer(invocation ->
+                invocation.<List<Long>>getArgument(0).stream().map(CartSummaryTest::product).toList());
+    }
+
+    private static ProductResponse product(Long id) {
+        return new ProductResponse(id, "Producto", 1000L, 100L, "Descripción", List.of(), null, List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        cartProductRepository.deleteAllInBatch();
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void testResumenEnUnaConsulta() {
+        assertEquals(new CartSummaryResponse(0L, 0L, 0L), cartService.getCartSummary(customerId));
+
+        add(0, 2);
+        add(1, 3);
+        statistics.clear();
+        CartSummaryResponse summary = cartService.getCartSummary(customerId);
+
+        assertEquals(new CartSummaryResponse(2L, 5L, 2 * 1000L + 3 * 2500L), summary);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testConteoSinIrALaBase() {
+        // La primera lectura carga el conteo
+        assertEquals(0L, cartService.getCartCount(customerId));
+
+        Long itemId = add(0, 1);
+        assertEquals(1L, badge());
+        add(0, 1);
+        assertEquals(1L, badge());
+        add(1, 4);
+        assertEquals(2L, badge());
+        cartService.removeFromCart(itemId);
+        assertEquals(1L, badge());
+        cartService.clearCart(customerId);
+        assertEquals(0L, badge());
+
+        // Después de un lote se vuelve a leer una vez
+        cartService.applyBatch(customerId, List.of(
+                new CartOperation(CartOperationType.ADD, productIds.get(0), 1),
+                new CartOperation(CartOperationType.SET, productIds.get(1), 2)));
+        assertEquals(2L, cartService.getCartCount(customerId));
+        assertEquals(2L, badge());
+    }
+
+    private Long add(int product, int quantity) {
+        return cartService.addToCart(customerId, new CartProductRequest(productIds.get(product), quantity)).id();
+    }
+
+    private long badge() {
+        statistics.clear();
+        long count = cartService.getCartCount(customerId);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        return count;
+    }
+}
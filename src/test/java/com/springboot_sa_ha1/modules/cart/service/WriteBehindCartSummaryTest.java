@@ -0,0 +1,49 @@
+package com.springboot_sa_ha1.modules.cart.service;
+
+import com.springboot_sa_ha1.modules.cart.dto.CartSummaryResponse;
+import com.springboot_sa_ha1.modules.cart.mapper.CartProductMapper;
+import com.springboot_sa_ha1.modules.cart.repository.CartProductRepository;
+import com.springboot_sa_ha1.modules.cart.repository.CartProductUpsertRepository;
+import com.springboot_sa_ha1.modules.cart.store.CartLine;
+import com.springboot_sa_ha1.modules.cart.store.InMemoryCartStore;
+import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import com.springboot_sa_ha1.modules.products.service.ProductService;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Resumen con el carrito en memoria: los precios se piden todos juntos y las líneas de productos
+// borrados (ya quitadas en cascada en la base) no cuentan
+class WriteBehindCartSummaryTest {
+
+    @Test
+    void testProductoBorradoNoRompeElResumen() {
+        LocalDateTime now = LocalDateTime.now();
+        CartProductRepository repository = mock(CartProductRepository.class);
+        when(repository.findLinesByCustomerId(1L)).thenReturn(List.of(
+                new CartLine(100L, 1L, 10L, 2, now, now, 0L),
+                new CartLine(101L, 1L, 11L, 3, now, now, 0L)));
+        ProductService productService = mock(ProductService.class);
+        // El producto 11 ya no existe
+        when(productService.obtenerPorIds(anyList())).thenReturn(List.of(
+                new ProductResponse(10L, "Anillo", 1500L, 5L, null, List.of(), null, List.of())));
+
+        WriteBehindCartProductServiceImp service = new WriteBehindCartProductServiceImp(
+                new InMemoryCartStore(Duration.ofMinutes(10)), repository, mock(CartProductUpsertRepository.class),
+                productService, new CartProductMapper());
+
+        assertEquals(new CartSummaryResponse(1L, 2L, 3000L), service.getCartSummary(1L));
+        verify(productService).obtenerPorIds(List.of(10L, 11L));
+        verify(productService, never()).obtenerPorId(anyLong());
+    }
+}
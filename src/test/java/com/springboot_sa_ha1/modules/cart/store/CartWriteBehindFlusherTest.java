@@ -0,0 +1,195 @@
+package com.springboot_sa_ha1.modules.cart.store;
+
+import com.springboot_sa_ha1.modules.cart.dto.CartProductRow;
+import com.springboot_sa_ha1.modules.cart.repository.CartProductRepository;
+import com.springboot_sa_ha1.modules.cart.repository.CartProductUpsertRepository;
+import com.springboot_sa_ha1.modules.categories.model.Category;
+import com.springboot_sa_ha1.modules.categories.repository.CategoryRepository;
+import com.springboot_sa_ha1.modules.customers.model.Customer;
+import com.springboot_sa_ha1.modules.customers.repository.CustomerRepository;
+import com.springboot_sa_ha1.modules.products.model.Product;
+import com.springboot_sa_ha1.modules.products.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Durabilidad del carrito con escritura diferida: si el volcado muere a mitad de un lote
+// (parte ya confirmada en la base, nada confirmado en memoria) el siguiente volcado deja
+// la base igual que la memoria, sin sumar dos veces lo que ya se había escrito
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import(CartProductUpsertRepository.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CartWriteBehindFlusherTest {
+
+    @Autowired
+    private CartProductUpsertRepository upsertRepository;
+
+    @Autowired
+    private CartProductRepository cartProductRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Long> productIds = new ArrayList<>();
+    private Long customerId;
+    private InMemoryCartStore store;
+
+    @BeforeEach
+    void setUp() {
+        Category category = new Category();
+        category.setName("Anillos");
+        categoryRepository.save(category);
+        for (int i = 0; i < 4; i++) {
+            Product product = new Product();
+            product.setName("Producto " + i);
+            product.setPrice(1000L + i);
+            product.setStock(100L);
+            product.setDescription("Descripción " + i);
+            product.setCategory(category);
+            productIds.add(productRepository.save(product).getId());
+        }
+        Customer customer = new Customer();
+        customer.setName("Cliente");
+        customer.setEmail("cliente@example.com");
+        customer.setPasswordHash("hash");
+        customerId = customerRepository.save(customer).getId();
+
+        // Carrito previo en la base: producto 0 x1, producto 1 x5, producto 2 x2
+        upsertRepository.add(customerId, productIds.get(0), 1);
+        upsertRepository.add(customerId, productIds.get(1), 5);
+        upsertRepository.add(customerId, productIds.get(2), 2);
+        store = new InMemoryCartStore(Duration.ofMinutes(10));
+        store.load(customerId, cartProductRepository.findLinesByCustomerId(customerId));
+    }
+
+    @AfterEach
+    void tearDown() {
+        cartProductRepository.deleteAllInBatch();
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void testVolcadoInterrumpidoSeReintentaSinDuplicar() {
+        store.add(customerId, productIds.get(0), 2);
+        store.add(customerId, productIds.get(0), 1);
+        Long removedRow = store.lines(customerId).get(1).rowId();
+        store.set(removedRow, 0);
+        store.set(store.lines(customerId).get(1).rowId(), 7);
+        CartProductRow inserted = upsertRepository.insertIfAbsent(customerId, productIds.get(3), 4);
+        store.merge(new CartLine(inserted.id(), customerId, productIds.get(3), 4,
+                inserted.addedAt(), inserted.updatedAt(), 0L));
+        // Los dos agregados del producto 0 quedan en una sola escritura
+        assertEquals(4, store.pendingCount());
+
+        // Escribe y confirma la primera mitad del lote en su propia transacción y muere antes de terminar
+        TransactionTemplate separate = new TransactionTemplate(transactionManager);
+        separate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        CartProductUpsertRepository dying = new CartProductUpsertRepository(jdbcTemplate) {
+            @Override
+            public void saveAll(List<CartLine> lines) {
+                separate.executeWithoutResult(status -> upsertRepository.saveAll(lines.subList(0, lines.size() / 2)));
+                throw new IllegalStateException("volcado interrumpido");
+            }
+        };
+        assertThrows(IllegalStateException.class, () -> flusher(dying).flush());
+        assertEquals(4, store.pendingCount());
+
+        // Otro volcado sobre el mismo store (el proceso reiniciado contra un store compartido)
+        assertEquals(4, flusher(upsertRepository).flush());
+        assertEquals(0, store.pendingCount());
+        Map<Long, Integer> expected = Map.of(productIds.get(0), 4, productIds.get(2), 7, productIds.get(3), 4);
+        assertEquals(expected, database());
+        assertEquals(expected, memory());
+
+        // Repetir un lote ya escrito no cambia nada
+        List<CartLine> lines = store.lines(customerId);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> upsertRepository.saveAll(lines));
+        assertEquals(expected, database());
+    }
+
+    @Test
+    void testCambioDuranteElVolcadoSiguePendiente() {
+        store.add(customerId, productIds.get(0), 1);
+        List<CartLine> batch = store.pending(10);
+
+        // Llega otro clic entre la lectura del lote y la confirmación
+        store.add(customerId, productIds.get(0), 1);
+        store.acknowledge(batch);
+
+        assertEquals(List.of(3), store.pending(10).stream().map(CartLine::quantity).toList());
+        flusher(upsertRepository).flush();
+        assertEquals(3, database().get(productIds.get(0)));
+        assertEquals(0, store.pendingCount());
+    }
+
+    @Test
+    void testCarritoInactivoSeSueltaSoloDespuesDeVolcarse() {
+        // Sin tiempo de gracia: todo carrito sin pendientes se suelta en el próximo barrido
+        store = new InMemoryCartStore(Duration.ZERO);
+        store.load(customerId, cartProductRepository.findLinesByCustomerId(customerId));
+        store.add(customerId, productIds.get(1), 1);
+
+        assertEquals(0, store.evictIdle());
+        assertTrue(store.isLoaded(customerId));
+
+        flusher(upsertRepository).flush();
+        assertEquals(1, store.evictIdle());
+        assertFalse(store.isLoaded(customerId));
+        assertTrue(store.lineByRowId(cartProductRepository.findLinesByCustomerId(customerId).get(0).rowId()).isEmpty());
+
+        // Se vuelve a leer de la base con lo volcado
+        store.load(customerId, cartProductRepository.findLinesByCustomerId(customerId));
+        assertEquals(Map.of(productIds.get(0), 1, productIds.get(1), 6, productIds.get(2), 2), memory());
+    }
+
+    private CartWriteBehindFlusher flusher(CartProductUpsertRepository repository) {
+        return new CartWriteBehindFlusher(store, repository, transactionManager, Duration.ofSeconds(1), 500);
+    }
+
+    private Map<Long, Integer> database() {
+        Map<Long, Integer> quantities = new HashMap<>();
+        jdbcTemplate.query("SELECT product_id, quantity FROM cart_products WHERE customer_id = ?",
+                rs -> { quantities.put(rs.getLong("product_id"), rs.getInt("quantity")); }, customerId);
+        return quantities;
+    }
+
+    private Map<Long, Integer> memory() {
+        Map<Long, Integer> quantities = new HashMap<>();
+        store.lines(customerId).forEach(line -> quantities.put(line.productId(), line.quantity()));
+        return quantities;
+    }
+}
@@ -0,0 +1,101 @@
+package com.springboot_sa_ha1.modules.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot_sa_ha1.modules.products.pagination.ProductGroupQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CatalogPageCacheTest {
+
+    private CatalogVersion version;
+    private CatalogPageCache cache;
+    private AtomicInteger loads;
+    private String name;
+
+    @BeforeEach
+    void setUp() {
+        version = new CatalogVersion();
+        cache = new CatalogPageCache(100, version, new ObjectMapper());
+        loads = new AtomicInteger();
+        name = "Navidad";
+    }
+
+    private Object load() {
+        loads.incrementAndGet();
+        return List.of(Map.of("slug", "navidad", "name", name));
+    }
+
+    @Test
+    void testMismaClaveSinImportarOrdenNiRepetidos() {
+        CatalogPage first = cache.get("collections", List.of("navidad", "verano"), ProductGroupQuery.all(), this::load);
+        CatalogPage second = cache.get("collections", List.of("verano", "navidad", " navidad "), ProductGroupQuery.all(), this::load);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals("[{\"slug\":\"navidad\",\"name\":\"Navidad\"}]".length(), first.body().length);
+
+        // 🔹 Otra página por grupo u otro tipo es otra entrada
+        cache.get("collections", List.of("navidad", "verano"), ProductGroupQuery.of(8, null), this::load);
+        cache.get("categories", List.of("navidad", "verano"), ProductGroupQuery.all(), this::load);
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void testSlugConReglasAnterioresEsOtraEntrada() {
+        // 🔹 El loader también busca el slug tal como llegó: pueden resolver a filas distintas
+        cache.get("categories", List.of("anillos_oro"), ProductGroupQuery.all(), this::load);
+        cache.get("categories", List.of("anillos_-_oro"), ProductGroupQuery.all(), this::load);
+        cache.get("categories", List.of("Anillos_Oro"), ProductGroupQuery.all(), this::load);
+        assertEquals(3, loads.get());
+
+        cache.get("categories", List.of("anillos_-_oro "), ProductGroupQuery.all(), this::load);
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void testUnaEscrituraEnElCatalogoInvalida() {
+        CatalogPage before = cache.get("collections", List.of("navidad"), ProductGroupQuery.all(), this::load);
+
+        // 🔹 Nueva versión con el mismo contenido: se vuelve a armar, pero el ETag (sobre los bytes) no cambia
+        version.bump();
+        CatalogPage same = cache.get("collections", List.of("navidad"), ProductGroupQuery.all(), this::load);
+        assertEquals(2, loads.get());
+        assertEquals(before.etag(), same.etag());
+
+        name = "Navidad 2026";
+        version.bump();
+        CatalogPage after = cache.get("collections", List.of("navidad"), ProductGroupQuery.all(), this::load);
+        assertEquals(3, loads.get());
+        assertNotEquals(before.etag(), after.etag());
+    }
+
+    @Test
+    void testIfNoneMatchResponde304() {
+        CatalogPage page = CatalogPage.of(1, "[]".getBytes(StandardCharsets.UTF_8));
+
+        ResponseEntity<byte[]> ok = page.toResponse(null);
+        assertEquals(HttpStatus.OK, ok.getStatusCode());
+        assertEquals(page.etag(), ok.getHeaders().getETag());
+        assertArrayEquals(page.body(), ok.getBody());
+
+        ResponseEntity<byte[]> notModified = page.toResponse("\"otro\", W/" + page.etag());
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertNull(notModified.getBody());
+
+        assertEquals(HttpStatus.NOT_MODIFIED, page.toResponse("*").getStatusCode());
+        assertEquals(HttpStatus.OK, page.toResponse("\"otro\"").getStatusCode());
+    }
+}
@@ -0,0 +1,166 @@
+package com.springboot_sa_ha1.modules.catalog.readmodel;
+
+import com.springboot_sa_ha1.modules.catalog.RowVersion;
+import com.springboot_sa_ha1.modules.categories.dto.CategoryDetail;
+import com.springboot_sa_ha1.modules.categories.dto.CategoryResponse;
+import com.springboot_sa_ha1.modules.categories.event.CategorySavedEvent;
+import com.springboot_sa_ha1.modules.collections.dto.CollectionResponse;
+import com.springboot_sa_ha1.modules.collections.event.CollectionDeletedEvent;
+import com.springboot_sa_ha1.modules.products.dto.ProductDetail;
+import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import com.springboot_sa_ha1.modules.products.dto.ProductVersionRow;
+import com.springboot_sa_ha1.modules.products.event.ProductDeletedEvent;
+import com.springboot_sa_ha1.modules.products.event.ProductSavedEvent;
+import com.springboot_sa_ha1.modules.products.pagination.ProductCursor;
+import com.springboot_sa_ha1.modules.products.pagination.ProductPageQuery;
+import com.springboot_sa_ha1.modules.products.pagination.ProductSort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogSnapshotTest {
+
+    private static final CategoryResponse ANILLOS = new CategoryResponse(1L, "Anillos", null, "anillos", null);
+    private static final CategoryResponse AROS = new CategoryResponse(2L, "Aros", null, "aros", null);
+    private static final CollectionResponse NAVIDAD = new CollectionResponse(10L, "Navidad", null, "navidad", null);
+
+    private CatalogSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        List<ProductDetail> products = new ArrayList<>();
+        // 🔹 Precios repetidos para que el desempate por id importe
+        for (long id = 1; id <= 20; id++) {
+            ProductResponse product = product(id, "Producto " + (char) ('a' + (20 - id)), 1000 * (id % 5),
+                id % 2 == 0 ? ANILLOS : AROS, id % 3 == 0 ? List.of(NAVIDAD) : List.of());
+            products.add(new ProductDetail(product,
+                ProductVersionRow.of(version(id, 0), null, List.of())));
+        }
+        snapshot = CatalogSnapshot.of(products, List.of(AROS, ANILLOS), List.of(NAVIDAD),
+            List.of(version(ANILLOS.id(), 0), version(AROS.id(), 0)), List.of(version(NAVIDAD.id(), 0)));
+    }
+
+    @Test
+    void testPaginasPorPrecioRecorrenTodoSinRepetir() {
+        for (var direction : Sort.Direction.values()) {
+            List<Long> seen = new ArrayList<>();
+            ProductCursor cursor = null;
+            do {
+                ProductPageQuery query = new ProductPageQuery(3, ProductSort.PRICE, direction, cursor);
+                List<ProductResponse> page = snapshot.page(ANILLOS.id(), null, query, query.size() + 1);
+                boolean hasNext = page.size() > query.size();
+                if (hasNext) page = page.subList(0, query.size());
+                page.forEach(p -> seen.add(p.id()));
+                ProductResponse last = page.get(page.size() - 1);
+                cursor = hasNext
+                    ? new ProductCursor(ProductSort.PRICE, direction, last.id(), ProductSort.PRICE.valueOf(last))
+                    : null;
+            } while (cursor != null);
+
+            List<Long> expected = snapshot.page(ANILLOS.id(), null,
+                new ProductPageQuery(100, ProductSort.PRICE, direction, null), 100).stream()
+                .map(ProductResponse::id)
+                .toList();
+            assertEquals(10, expected.size());
+            assertEquals(expected, seen);
+        }
+    }
+
+    @Test
+    void testProductosPorColeccionConCursor() {
+        assertEquals(List.of(3L, 6L, 9L, 12L, 15L, 18L),
+            snapshot.inCollection(NAVIDAD.id(), 0, 0).stream().map(ProductResponse::id).toList());
+        assertEquals(List.of(9L, 12L),
+            snapshot.inCollection(NAVIDAD.id(), 6, 2).stream().map(ProductResponse::id).toList());
+        assertEquals(List.of(6L, 12L, 18L),
+            snapshot.page(ANILLOS.id(), NAVIDAD.id(),
+                new ProductPageQuery(10, ProductSort.ID, Sort.Direction.ASC, null), 10)
+                .stream().map(ProductResponse::id).toList());
+    }
+
+    @Test
+    void testApplyDevuelveFotoNuevaSinTocarLaAnterior() {
+        CategoryResponse renamed = new CategoryResponse(1L, "Anillos de plata", null, "anillos", null);
+        CatalogSnapshot next = snapshot.apply(List.of(
+            new CategorySavedEvent(renamed, version(renamed.id(), 1)),
+            new CollectionDeletedEvent(NAVIDAD.id()),
+            new ProductDeletedEvent(2L),
+            new ProductSavedEvent(product(21L, "Nuevo", 500, ANILLOS, List.of()), version(21L, 0))
+        ));
+
+        // 🔹 La foto anterior sigue igual para quien la esté leyendo
+        assertEquals(20, snapshot.stats().products());
+        assertEquals("Anillos", snapshot.product(4L).orElseThrow().category().name());
+        assertEquals(1, snapshot.collections().size());
+
+        assertEquals(20, next.stats().products());
+        assertTrue(next.product(2L).isEmpty());
+        assertTrue(next.collections().isEmpty());
+        assertTrue(next.product(3L).orElseThrow().collections().isEmpty());
+        // 🔹 El renombre llega a todos los productos, compartiendo la misma instancia
+        assertSame(renamed, next.product(4L).orElseThrow().category());
+        assertSame(renamed, next.product(21L).orElseThrow().category());
+        assertEquals(List.of(renamed), next.categoriesBySlug(List.of("anillos", "zapatos")));
+        assertTrue(next.stats().estimatedBytes() > 0);
+    }
+
+    @Test
+    void testEtagSaleDeLaMismaFotoQueElCuerpo() {
+        ProductDetail before = snapshot.detail(6L).orElseThrow();
+        assertEquals("\"0-0-0-1\"", before.version().toResourceVersion().etag());
+
+        // 🔹 El producto, su categoría y su colección cambian; el cuerpo y el ETag llegan juntos
+        ProductResponse edited = product(6L, "Editado", 700, ANILLOS, List.of(NAVIDAD));
+        CatalogSnapshot next = snapshot.apply(List.of(
+            new ProductSavedEvent(edited, version(6L, 3)),
+            new CategorySavedEvent(ANILLOS, version(ANILLOS.id(), 2))
+        ));
+        ProductDetail after = next.detail(6L).orElseThrow();
+        assertEquals("Editado", after.product().name());
+        assertEquals("\"3-2-0-1\"", after.version().toResourceVersion().etag());
+        assertEquals(Instant.parse("2026-01-01T00:00:03Z"), after.version().toResourceVersion().lastModified());
+
+        // 🔹 Sin la colección cambia la cuenta aunque la fila del producto no se haya tocado
+        ProductDetail withoutCollection = next.apply(List.of(new CollectionDeletedEvent(NAVIDAD.id())))
+            .detail(6L).orElseThrow();
+        assertNotEquals(after.version().toResourceVersion().etag(),
+            withoutCollection.version().toResourceVersion().etag());
+    }
+
+    @Test
+    void testCategoriaYColeccionConSuVersionEnLaMismaFoto() {
+        CategoryResponse renamed = new CategoryResponse(1L, "Anillos de plata", null, "anillos", null);
+        CatalogSnapshot next = snapshot.apply(List.of(new CategorySavedEvent(renamed, version(renamed.id(), 4))));
+
+        // 🔹 La foto anterior entrega el cuerpo viejo con el ETag viejo; la nueva, ambos nuevos
+        CategoryDetail before = snapshot.categoryDetail(ANILLOS.id()).orElseThrow();
+        assertSame(ANILLOS, before.category());
+        assertEquals("\"0\"", before.version().toResourceVersion().etag());
+        CategoryDetail after = next.categoryDetail(ANILLOS.id()).orElseThrow();
+        assertSame(renamed, after.category());
+        assertEquals("\"4\"", after.version().toResourceVersion().etag());
+
+        assertEquals("\"0\"", next.collectionDetail(NAVIDAD.id()).orElseThrow().version().toResourceVersion().etag());
+        assertTrue(next.apply(List.of(new CollectionDeletedEvent(NAVIDAD.id()))).collectionDetail(NAVIDAD.id()).isEmpty());
+    }
+
+    private static RowVersion version(long id, long version) {
+        return new RowVersion(id, version, Instant.parse("2026-01-01T00:00:00Z").plusSeconds(version));
+    }
+
+    private static ProductResponse product(
+        long id, String name, long price, CategoryResponse category, List<CollectionResponse> collections
+    ) {
+        return new ProductResponse(id, name, price, 1L, null, List.of("https://img/" + id + ".jpg"),
+            category, collections);
+    }
+}
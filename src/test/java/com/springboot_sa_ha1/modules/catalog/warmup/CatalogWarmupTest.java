@@ -0,0 +1,118 @@
+package com.springboot_sa_ha1.modules.catalog.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot_sa_ha1.modules.cart.store.CartWriteBehindFlusher;
+import com.springboot_sa_ha1.modules.catalog.CatalogPageCache;
+import com.springboot_sa_ha1.modules.catalog.readmodel.CatalogReadModel;
+import com.springboot_sa_ha1.modules.categories.dto.CategoryResponse;
+import com.springboot_sa_ha1.modules.categories.service.CategoryService;
+import com.springboot_sa_ha1.modules.collections.service.CollectionService;
+import com.springboot_sa_ha1.modules.order_products.dto.UnitsSoldResponse;
+import com.springboot_sa_ha1.modules.order_products.repository.OrderProductRepository;
+import com.springboot_sa_ha1.modules.products.dto.ProductPageResponse;
+import com.springboot_sa_ha1.modules.products.facet.ProductFacetIndexer;
+import com.springboot_sa_ha1.modules.products.pagination.ProductGroupQuery;
+import com.springboot_sa_ha1.modules.products.search.ProductSearchIndexer;
+import com.springboot_sa_ha1.modules.products.service.ProductService;
+import com.springboot_sa_ha1.modules.products.suggest.SuggestionIndexer;
+import com.springboot_sa_ha1.modules.slugs.SlugRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CatalogWarmupTest {
+
+    private CategoryService categoryService;
+    private CollectionService collectionService;
+    private ProductService productService;
+    private OrderProductRepository orderProductRepository;
+    private CatalogPageCache pageCache;
+
+    @BeforeEach
+    void setUp() {
+        categoryService = mock(CategoryService.class);
+        collectionService = mock(CollectionService.class);
+        productService = mock(ProductService.class);
+        orderProductRepository = mock(OrderProductRepository.class);
+        pageCache = mock(CatalogPageCache.class);
+
+        when(categoryService.listarTodos()).thenReturn(List.of(
+            new CategoryResponse(1L, "Anillos", null, "anillos", null),
+            new CategoryResponse(2L, "Aros", null, "aros", null),
+            new CategoryResponse(3L, "Sin slug", null, null, null)));
+        when(orderProductRepository.sumUnitsByCategory()).thenReturn(List.of(new UnitsSoldResponse(2L, 40L)));
+        when(orderProductRepository.sumUnitsByProduct()).thenReturn(List.of(
+            new UnitsSoldResponse(7L, 3L), new UnitsSoldResponse(8L, 9L)));
+        when(productService.listarTodos(any())).thenReturn(new ProductPageResponse(List.of(), null));
+    }
+
+    @Test
+    void testCalientaLoMasVendidoYQuedaListo() {
+        CatalogWarmup warmup = warmup(Duration.ofSeconds(30), 1);
+        assertEquals(Status.OUT_OF_SERVICE, warmup.health().getStatus());
+
+        warmup.onApplicationReady();
+
+        CatalogWarmupReport report = warmup.run();
+        assertEquals(1, report.rounds());
+        assertEquals(2, report.categoryPages());
+        assertEquals(2, report.products());
+        assertFalse(report.budgetExhausted());
+        assertEquals(Status.UP, warmup.health().getStatus());
+
+        // 🔹 La categoría más vendida va primero y la que no tiene slug se descarta
+        var order = inOrder(pageCache);
+        order.verify(pageCache).get(eq("categories"), eq(List.of("aros")), eq(ProductGroupQuery.of(24, null)), any());
+        order.verify(pageCache).get(eq("categories"), eq(List.of("anillos")), eq(ProductGroupQuery.of(24, null)), any());
+        verify(productService, atLeastOnce()).obtenerPorId(8L);
+    }
+
+    @Test
+    void testPresupuestoAgotadoNoBloqueaLaInstancia() {
+        CatalogWarmup warmup = warmup(Duration.ZERO, 3);
+        warmup.onApplicationReady();
+
+        CatalogWarmupReport report = warmup.run();
+        assertEquals(0, report.rounds());
+        assertTrue(report.budgetExhausted());
+        verify(pageCache, never()).get(any(), any(), any(), any());
+        assertEquals(Status.UP, warmup.health().getStatus());
+    }
+
+    @Test
+    void testCorreDespuesDeIndicesYModeloDeLectura() throws Exception {
+        int warmup = order(CatalogWarmup.class, "onApplicationReady");
+        for (Class<?> type : List.of(CatalogReadModel.class, SlugRegistry.class, ProductSearchIndexer.class,
+                ProductFacetIndexer.class, SuggestionIndexer.class, CartWriteBehindFlusher.class)) {
+            Method listener = Arrays.stream(type.getMethods())
+                .filter(m -> m.isAnnotationPresent(EventListener.class)
+                    && Arrays.asList(m.getAnnotation(EventListener.class).value()).contains(ApplicationReadyEvent.class))
+                .findFirst().orElseThrow();
+            Order order = listener.getAnnotation(Order.class);
+            assertNotNull(order, type.getSimpleName());
+            assertTrue(order.value() < warmup, type.getSimpleName());
+        }
+        assertTrue(order(CatalogReadModel.class, "rebuild") > order(ProductSearchIndexer.class, "rebuild"));
+    }
+
+    private static int order(Class<?> type, String method) throws NoSuchMethodException {
+        return type.getMethod(method).getAnnotation(Order.class).value();
+    }
+
+    private CatalogWarmup warmup(Duration budget, int rounds) {
+        return new CatalogWarmup(true, budget, 10, 10, 10, rounds, List.of(24), categoryService, collectionService,
+            productService, orderProductRepository, pageCache, new ObjectMapper());
+    }
+}
@@ -0,0 +1,173 @@
+package com.springboot_sa_ha1.modules.categories.service;
+
+import com.springboot_sa_ha1.exception.BadRequestException;
+import com.springboot_sa_ha1.modules.catalog.CatalogVersion;
+import com.springboot_sa_ha1.modules.catalog.readmodel.CatalogReadModel;
+import com.springboot_sa_ha1.modules.categories.dto.CategoryDetail;
+import com.springboot_sa_ha1.modules.categories.dto.CategoryRequest;
+import com.springboot_sa_ha1.modules.categories.mapper.CategoryMapper;
+import com.springboot_sa_ha1.modules.categories.model.Category;
+import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import com.springboot_sa_ha1.modules.products.model.Product;
+import com.springboot_sa_ha1.modules.products.repository.ProductReadRepository;
+import com.springboot_sa_ha1.modules.products.repository.ProductSpecifications;
+import com.springboot_sa_ha1.modules.products.stream.ProductJsonStreamer;
+import com.springboot_sa_ha1.modules.slugs.SlugRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({
+    CategoryServiceImp.class,
+    CategoryClosureBackfill.class,
+    CategoryMapper.class,
+    ProductReadRepository.class,
+    SlugRegistry.class,
+    ProductJsonStreamer.class,
+    CatalogReadModel.class,
+    CatalogVersion.class
+})
+class CategoryHierarchyTest {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CategoryClosureBackfill backfill;
+
+    @Autowired
+    private ProductReadRepository productReadRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void testSubarbolEnUnaConsulta() {
+        Long joyeria = crear("Joyería", null);
+        Long anillos = crear("Anillos", joyeria);
+        Long oro = crear("Oro", anillos);
+        Long aros = crear("Aros", joyeria);
+        Long relojes = crear("Relojes", null);
+        product("Anillo de oro", oro);
+        product("Anillo", anillos);
+        product("Aro", aros);
+        product("Reloj", relojes);
+
+        assertEquals(List.of("Joyería:0", "Anillos:1", "Aros:1", "Oro:2"), nodos(joyeria));
+        assertEquals(List.of("Anillo de oro", "Anillo", "Aro"), productos(joyeria));
+        assertEquals(List.of("Anillo de oro", "Anillo"), productos(anillos));
+        assertEquals(List.of("Anillo de oro"), productos(oro));
+    }
+
+    @Test
+    void testMoverSubarbol() {
+        Long joyeria = crear("Joyería", null);
+        Long anillos = crear("Anillos", joyeria);
+        Long oro = crear("Oro", anillos);
+        Long ofertas = crear("Ofertas", null);
+
+        // 🔹 Anillos se lleva a Oro con ella
+        categoryService.actualizar(anillos, new CategoryRequest("Anillos", null, null, ofertas), null);
+        assertEquals(List.of("Joyería:0"), nodos(joyeria));
+        assertEquals(List.of("Ofertas:0", "Anillos:1", "Oro:2"), nodos(ofertas));
+
+        // 🔹 Un ciclo se rechaza antes de tocar la tabla
+        assertThrows(BadRequestException.class, () ->
+            categoryService.actualizar(ofertas, new CategoryRequest("Ofertas", null, null, oro), null));
+
+        categoryService.actualizar(anillos, new CategoryRequest("Anillos", null, null, null), null);
+        assertEquals(List.of("Anillos:0", "Oro:1"), nodos(anillos));
+        assertEquals(List.of("Ofertas:0"), nodos(ofertas));
+    }
+
+    @Test
+    void testEtagDeLaEdicionEsElDeLaLecturaSiguiente() {
+        Long anillos = crear("Anillos", null);
+        entityManager.flush();
+        entityManager.clear();
+        String before = categoryService.obtenerDetalle(anillos).version().toResourceVersion().etag();
+
+        CategoryDetail edited = categoryService.actualizar(anillos,
+            new CategoryRequest("Anillos de plata", null, null, null), before);
+        entityManager.clear();
+
+        // 🔹 La respuesta del PUT trae el ETag de lo que guardó; la lectura siguiente (una sola proyección) coincide
+        CategoryDetail read = categoryService.obtenerDetalle(anillos);
+        assertEquals("Anillos de plata", read.category().name());
+        assertEquals(edited.version().toResourceVersion().etag(), read.version().toResourceVersion().etag());
+        assertNotEquals(before, read.version().toResourceVersion().etag());
+    }
+
+    @Test
+    void testEliminarSoloHojas() {
+        Long joyeria = crear("Joyería", null);
+        Long anillos = crear("Anillos", joyeria);
+
+        assertThrows(BadRequestException.class, () -> categoryService.eliminar(joyeria));
+        categoryService.eliminar(anillos);
+        assertEquals(List.of("Joyería:0"), nodos(joyeria));
+    }
+
+    @Test
+    void testReconstruccionDesdeParentId() {
+        // 🔹 Categorías cargadas sin pasar por el servicio: la clausura está vacía
+        Category joyeria = category("Joyería", null);
+        Category anillos = category("Anillos", joyeria);
+        category("Oro", anillos);
+        entityManager.flush();
+
+        backfill.onApplicationReady();
+
+        assertEquals(List.of("Joyería:0", "Anillos:1", "Oro:2"), nodos(joyeria.getId()));
+    }
+
+    private List<String> nodos(Long id) {
+        entityManager.flush();
+        entityManager.clear();
+        return categoryService.listarSubarbol(id).stream()
+            .map(node -> node.name() + ":" + node.depth())
+            .toList();
+    }
+
+    private List<String> productos(Long categoryId) {
+        return productReadRepository.findAll(ProductSpecifications.inCategorySubtree(categoryId), Sort.by("id"), 0)
+            .stream()
+            .map(ProductResponse::name)
+            .toList();
+    }
+
+    private Long crear(String name, Long parentId) {
+        return categoryService.guardar(new CategoryRequest(name, null, null, parentId)).id();
+    }
+
+    private Category category(String name, Category parent) {
+        Category category = new Category();
+        category.setName(name);
+        category.setParent(parent);
+        entityManager.persist(category);
+        return category;
+    }
+
+    private void product(String name, Long categoryId) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(1000L);
+        product.setStock(1L);
+        product.setDescription("Descripción");
+        product.setCategory(entityManager.find(Category.class, categoryId));
+        entityManager.persist(product);
+    }
+}
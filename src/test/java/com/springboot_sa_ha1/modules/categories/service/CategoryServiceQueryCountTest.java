@@ -0,0 +1,89 @@
+package com.springboot_sa_ha1.modules.categories.service;
+
+import com.springboot_sa_ha1.modules.categories.dto.CategoryWithProductsResponse;
+import com.springboot_sa_ha1.modules.categories.mapper.CategoryMapper;
+import com.springboot_sa_ha1.modules.categories.model.Category;
+import com.springboot_sa_ha1.modules.products.pagination.ProductGroupQuery;
+import com.springboot_sa_ha1.support.CatalogFixtures;
+import com.springboot_sa_ha1.support.CatalogJpaTest;
+import com.springboot_sa_ha1.support.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// 🔹 Con limit, cada categoría se recorta en la base: sólo se leen los productos que se devuelven
+@CatalogJpaTest
+@Import({CategoryServiceImp.class, CategoryMapper.class})
+class CategoryServiceQueryCountTest {
+
+    // categorías + ids recortados con ROW_NUMBER() + productos + imágenes + colecciones
+    private static final long LIMITED_STATEMENTS = 5;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private SqlStatementCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        counter = new SqlStatementCounter(entityManager);
+        CatalogFixtures fixtures = new CatalogFixtures(entityManager);
+
+        Category anillos = fixtures.category("Anillos");
+        Category aros = fixtures.category("Aros");
+        for (int i = 0; i < 40; i++) {
+            fixtures.product("Anillo " + i, 1000L, anillos, List.of());
+        }
+        for (int i = 0; i < 3; i++) {
+            fixtures.product("Aro " + i, 1000L, aros, List.of());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testLimitPorCategoria() {
+        var result = counter.count(() ->
+            categoryService.listarCategoriasConProductosPorSlug(List.of("anillos", "aros"), ProductGroupQuery.of(8, null)));
+
+        assertEquals(LIMITED_STATEMENTS, result.statements());
+        CategoryWithProductsResponse anillos = result.value().get(0);
+        CategoryWithProductsResponse aros = result.value().get(1);
+        assertEquals("anillos", anillos.slug());
+        assertEquals(8, anillos.products().size());
+        assertNotNull(anillos.nextCursor());
+        assertEquals(3, aros.products().size());
+        assertNull(aros.nextCursor());
+
+        // 🔹 Recorriendo el cursor se obtienen los 40 anillos, sin repetir
+        int total = anillos.products().size();
+        String cursor = anillos.nextCursor();
+        while (cursor != null) {
+            CategoryWithProductsResponse page = categoryService
+                .listarCategoriasConProductosPorSlug(List.of("anillos"), ProductGroupQuery.of(8, cursor)).get(0);
+            total += page.products().size();
+            cursor = page.nextCursor();
+        }
+        assertEquals(40, total);
+    }
+
+    @Test
+    void testSinLimitDevuelveTodo() {
+        List<CategoryWithProductsResponse> result =
+            categoryService.listarCategoriasConProductosPorSlug(List.of("anillos"), ProductGroupQuery.all());
+
+        assertEquals(40, result.get(0).products().size());
+        assertNull(result.get(0).nextCursor());
+    }
+}
@@ -0,0 +1,112 @@
+package com.springboot_sa_ha1.modules.collections.service;
+
+import com.springboot_sa_ha1.modules.categories.model.Category;
+import com.springboot_sa_ha1.modules.collections.dto.CollectionResponse;
+import com.springboot_sa_ha1.modules.collections.dto.CollectionWithProductsResponse;
+import com.springboot_sa_ha1.modules.collections.mapper.CollectionMapper;
+import com.springboot_sa_ha1.modules.collections.model.Collection;
+import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import com.springboot_sa_ha1.modules.products.model.Product;
+import com.springboot_sa_ha1.modules.products.pagination.ProductGroupQuery;
+import com.springboot_sa_ha1.support.CatalogFixtures;
+import com.springboot_sa_ha1.support.CatalogJpaTest;
+import com.springboot_sa_ha1.support.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 🔹 El listado de colecciones con productos se carga por etapas: el número de consultas
+// no depende de cuántos productos o imágenes tenga cada colección.
+@CatalogJpaTest
+@Import({CollectionServiceImp.class, CollectionMapper.class})
+class CollectionServiceQueryCountTest {
+
+    // colecciones + productos (con categoría) + imágenes + colecciones de cada producto
+    private static final long STAGE_STATEMENTS = 4;
+    // colecciones + enlaces recortados con ROW_NUMBER() + productos + imágenes + colecciones de cada producto
+    private static final long LIMITED_STATEMENTS = 5;
+
+    @Autowired
+    private CollectionService collectionService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private SqlStatementCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        counter = new SqlStatementCounter(entityManager);
+        CatalogFixtures fixtures = new CatalogFixtures(entityManager);
+
+        Category category = fixtures.category("Anillos");
+        Collection navidad = fixtures.collection("Navidad");
+        Collection verano = fixtures.collection("Verano");
+        fixtures.collection("Novias");
+
+        // 🔹 navidad: 60 productos, verano: 6 (también en navidad), novias: vacía
+        for (int i = 0; i < 60; i++) {
+            Product product = fixtures.product("Producto " + i, 1000L + i, category,
+                CatalogFixtures.images("https://img/" + i, 6));
+            fixtures.link(product, navidad);
+            if (i % 10 == 0) fixtures.link(product, verano);
+        }
+    }
+
+    @Test
+    void testConsultasFijasPorEtapa() {
+        var result = counter.count(() ->
+            collectionService.listarColeccionesConProductosPorSlug(List.of("Navidad", "verano", "novias"), ProductGroupQuery.all()));
+
+        assertEquals(STAGE_STATEMENTS, result.statements());
+
+        List<CollectionWithProductsResponse> collections = result.value();
+        assertEquals(3, collections.size());
+        CollectionWithProductsResponse navidad = bySlug(collections, "navidad");
+        CollectionWithProductsResponse verano = bySlug(collections, "verano");
+        assertEquals(60, navidad.products().size());
+        assertEquals(6, verano.products().size());
+        assertEquals(0, bySlug(collections, "novias").products().size());
+
+        ProductResponse first = navidad.products().get(0);
+        assertEquals(6, first.imageUrls().size());
+        assertEquals("https://img/0/0.jpg", first.imageUrls().get(0));
+        assertEquals("anillos", first.category().slug());
+        assertEquals(List.of("navidad", "verano"), first.collections().stream().map(CollectionResponse::slug).toList());
+    }
+
+    @Test
+    void testLimitPorColeccionConCursor() {
+        var result = counter.count(() ->
+            collectionService.listarColeccionesConProductosPorSlug(
+                List.of("navidad", "verano"), ProductGroupQuery.of(8, null)));
+
+        assertEquals(LIMITED_STATEMENTS, result.statements());
+        CollectionWithProductsResponse navidad = bySlug(result.value(), "navidad");
+        CollectionWithProductsResponse verano = bySlug(result.value(), "verano");
+        assertEquals(8, navidad.products().size());
+        assertNotNull(navidad.nextCursor());
+        assertEquals(6, verano.products().size());
+        assertNull(verano.nextCursor());
+
+        // 🔹 Página siguiente de navidad: continúa después del último id entregado
+        Long lastId = navidad.products().get(7).id();
+        CollectionWithProductsResponse next = collectionService.listarColeccionesConProductosPorSlug(
+            List.of("navidad"), ProductGroupQuery.of(8, navidad.nextCursor())).get(0);
+        assertEquals(8, next.products().size());
+        assertTrue(next.products().stream().allMatch(p -> p.id() > lastId));
+    }
+
+    private static CollectionWithProductsResponse bySlug(List<CollectionWithProductsResponse> collections, String slug) {
+        return collections.stream().filter(c -> c.slug().equals(slug)).findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,147 @@
+package com.springboot_sa_ha1.modules.collections.service;
+
+import com.springboot_sa_ha1.modules.categories.model.Category;
+import com.springboot_sa_ha1.modules.collections.mapper.CollectionMapper;
+import com.springboot_sa_ha1.modules.collections.model.Collection;
+import com.springboot_sa_ha1.modules.product_collections.model.ProductCollection;
+import com.springboot_sa_ha1.modules.productimages.model.ProductImage;
+import com.springboot_sa_ha1.modules.products.model.Product;
+import com.springboot_sa_ha1.modules.products.pagination.ProductGroupQuery;
+import com.springboot_sa_ha1.support.CatalogFixtures;
+import com.springboot_sa_ha1.support.CatalogJpaTest;
+import com.springboot_sa_ha1.support.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Compara el JOIN FETCH cartesiano anterior (colección → enlaces → producto → imágenes → categoría,
+// más la carga perezosa de las colecciones de cada producto) contra la carga por etapas,
+// para colecciones de distinto tamaño. Se ejecuta sólo con: mvn test -Pbenchmark
+@Tag("benchmark")
+@CatalogJpaTest
+@Import({CollectionServiceImp.class, CollectionMapper.class})
+class CollectionWithProductsBenchmarkTest {
+
+    private static final int IMAGES_PER_PRODUCT = 6;
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 30;
+
+    // 🔹 La consulta reemplazada, tal como estaba en CollectionRepository
+    private static final String FETCH_JOIN_QUERY = """
+        SELECT DISTINCT c
+        FROM Collection c
+        LEFT JOIN FETCH c.productCollections pc
+        LEFT JOIN FETCH pc.product p
+        LEFT JOIN FETCH p.images
+        LEFT JOIN FETCH p.category
+        WHERE c.slug IN :slugs
+        """;
+
+    private static final String FETCH_JOIN_ROWS = """
+        SELECT COUNT(*)
+        FROM colecciones c
+        LEFT JOIN product_collection pc ON pc.collection_id = c.id
+        LEFT JOIN productos p ON p.id = pc.product_id
+        LEFT JOIN product_image i ON i.id_product = p.id
+        LEFT JOIN categorias cat ON cat.id = p.id_category
+        WHERE c.slug = 'navidad'
+        """;
+
+    @Autowired
+    private CollectionService collectionService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @ParameterizedTest
+    @ValueSource(ints = {100, 500, 2_000})
+    void compararJoinFetchContraEtapas(int size) {
+        seed(size);
+        SqlStatementCounter counter = new SqlStatementCounter(entityManager);
+
+        IntSupplier fetchJoin = () -> {
+            List<Collection> collections = entityManager.createQuery(FETCH_JOIN_QUERY, Collection.class)
+                .setParameter("slugs", List.of("navidad"))
+                .getResultList();
+            // 🔹 Mismo recorrido que el mapeo anterior: las colecciones de cada producto eran perezosas
+            int products = 0;
+            for (Collection c : collections) {
+                for (ProductCollection pc : c.getProductCollections()) {
+                    Product p = pc.getProduct();
+                    p.getImages().forEach(ProductImage::getImageUrl);
+                    p.getProductCollections().forEach(inner -> inner.getCollection().getName());
+                    products++;
+                }
+            }
+            return products;
+        };
+        IntSupplier staged = () -> collectionService
+            .listarColeccionesConProductosPorSlug(List.of("navidad"), ProductGroupQuery.all())
+            .get(0).products().size();
+
+        var fetchJoinRun = counter.count(fetchJoin::getAsInt);
+        var stagedRun = counter.count(staged::getAsInt);
+        assertEquals(size, fetchJoinRun.value());
+        assertEquals(size, stagedRun.value());
+
+        long fetchJoinRows = ((Number) entityManager.createNativeQuery(FETCH_JOIN_ROWS).getSingleResult()).longValue()
+            + 2L * size;                                    // + carga perezosa de product_collection
+        long stagedRows = 1                                 // colección
+            + size + (long) size * IMAGES_PER_PRODUCT       // productos + imágenes
+            + 2L * size;                                    // colecciones de cada producto
+
+        double[] fetchJoinMs = measure(counter, fetchJoin);
+        double[] stagedMs = measure(counter, staged);
+        System.out.printf(
+            "[collection-bench] productos=%d | join fetch: filas=%d sentencias=%d p50=%.2fms p99=%.2fms"
+                + " | etapas: filas=%d sentencias=%d p50=%.2fms p99=%.2fms%n",
+            size,
+            fetchJoinRows, fetchJoinRun.statements(), fetchJoinMs[0], fetchJoinMs[1],
+            stagedRows, stagedRun.statements(), stagedMs[0], stagedMs[1]
+        );
+    }
+
+    private double[] measure(SqlStatementCounter counter, IntSupplier read) {
+        for (int i = 0; i < WARMUP; i++) {
+            counter.count(read::getAsInt);
+        }
+        long[] nanos = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            entityManager.clear();
+            long start = System.nanoTime();
+            read.getAsInt();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return new double[] {
+            nanos[ITERATIONS / 2] / 1_000_000.0,
+            nanos[(int) Math.ceil(0.99 * ITERATIONS) - 1] / 1_000_000.0
+        };
+    }
+
+    private void seed(int size) {
+        CatalogFixtures fixtures = new CatalogFixtures(entityManager);
+        Category category = fixtures.category("Anillos");
+        Collection navidad = fixtures.collection("Navidad");
+        Collection novias = fixtures.collection("Novias");
+
+        for (int i = 0; i < size; i++) {
+            Product product = fixtures.product("Producto " + i,
+                "Descripción larga del producto " + i + " con algo de texto de relleno", 1000L + i, category,
+                CatalogFixtures.images("https://cdn.example.com/productos/" + i, IMAGES_PER_PRODUCT));
+            fixtures.link(product, navidad);
+            fixtures.link(product, novias);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
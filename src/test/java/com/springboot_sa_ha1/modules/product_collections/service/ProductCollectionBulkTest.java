@@ -0,0 +1,129 @@
+package com.springboot_sa_ha1.modules.product_collections.service;
+
+import com.springboot_sa_ha1.exception.BadRequestException;
+import com.springboot_sa_ha1.modules.categories.mapper.CategoryMapper;
+import com.springboot_sa_ha1.modules.categories.model.Category;
+import com.springboot_sa_ha1.modules.collections.mapper.CollectionMapper;
+import com.springboot_sa_ha1.modules.collections.model.Collection;
+import com.springboot_sa_ha1.modules.product_collections.dto.ProductCollectionBulkResponse;
+import com.springboot_sa_ha1.modules.product_collections.dto.ProductCollectionRequest;
+import com.springboot_sa_ha1.modules.product_collections.mapper.ProductCollectionMapper;
+import com.springboot_sa_ha1.modules.product_collections.repository.ProductCollectionBulkRepository;
+import com.springboot_sa_ha1.modules.products.mapper.ProductMapper;
+import com.springboot_sa_ha1.modules.products.model.Product;
+import com.springboot_sa_ha1.support.CatalogFixtures;
+import com.springboot_sa_ha1.support.CatalogJpaTest;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@CatalogJpaTest
+@Import({
+    ProductCollectionServiceImp.class,
+    ProductCollectionBulkRepository.class,
+    ProductCollectionMapper.class,
+    ProductMapper.class,
+    CategoryMapper.class,
+    CollectionMapper.class
+})
+class ProductCollectionBulkTest {
+
+    @Autowired
+    private ProductCollectionService service;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Collection navidad;
+    private Collection verano;
+    private List<Long> productIds;
+
+    @BeforeEach
+    void setUp() {
+        CatalogFixtures fixtures = new CatalogFixtures(entityManager);
+        Category category = fixtures.category("Anillos");
+        navidad = fixtures.collection("Navidad");
+        verano = fixtures.collection("Verano");
+
+        productIds = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            productIds.add(fixtures.product("Producto " + i, 1000L + i, category, List.of()).getId());
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void testAgregarYQuitarProductosDeUnaColeccion() {
+        List<Long> first = productIds.subList(0, 30);
+        // 🔹 Repetidos e inexistentes no cuentan
+        List<Long> request = new ArrayList<>(first);
+        request.add(first.get(0));
+        request.add(-1L);
+        assertEquals(new ProductCollectionBulkResponse(31, 30), service.agregarProductosAColeccion(navidad.getId(), request));
+
+        // 🔹 Solapado con lo anterior: sólo se insertan los 20 nuevos, sin error por los existentes
+        assertEquals(new ProductCollectionBulkResponse(50, 20),
+            service.agregarProductosAColeccion(navidad.getId(), productIds));
+        assertEquals(50, links(navidad));
+
+        assertEquals(new ProductCollectionBulkResponse(10, 10),
+            service.quitarProductosDeColeccion(navidad.getId(), productIds.subList(0, 10)));
+        assertEquals(new ProductCollectionBulkResponse(10, 0),
+            service.quitarProductosDeColeccion(navidad.getId(), productIds.subList(0, 10)));
+        assertEquals(40, links(navidad));
+    }
+
+    @Test
+    void testAgregarYQuitarColeccionesDeUnProducto() {
+        Long productId = productIds.get(0);
+        assertEquals(new ProductCollectionBulkResponse(2, 2),
+            service.agregarColeccionesAProducto(productId, List.of(navidad.getId(), verano.getId())));
+        assertEquals(new ProductCollectionBulkResponse(2, 0),
+            service.agregarColeccionesAProducto(productId, List.of(navidad.getId(), verano.getId())));
+
+        assertEquals(new ProductCollectionBulkResponse(1, 1),
+            service.quitarColeccionesDeProducto(productId, List.of(verano.getId())));
+        assertEquals(1, links(navidad));
+        assertEquals(0, links(verano));
+
+        // 🔹 Tocar el producto sube su versión (ETag) aunque su fila no haya cambiado
+        entityManager.clear();
+        assertEquals(2L, entityManager.find(Product.class, productId).getVersion());
+    }
+
+    @Test
+    void testAgregarYQuitarUnaRelacion() {
+        Long productId = productIds.get(0);
+        entityManager.clear();
+        service.guardar(new ProductCollectionRequest(productId, navidad.getId()));
+        service.eliminar(productId, navidad.getId());
+
+        // 🔹 Alta, baja y sus touch en la misma transacción: el flush no choca con la versión que dejó el UPDATE
+        entityManager.flush();
+        entityManager.clear();
+        assertEquals(0, links(navidad));
+        assertEquals(2L, entityManager.find(Product.class, productId).getVersion());
+    }
+
+    @Test
+    void testValidaciones() {
+        assertThrows(BadRequestException.class, () -> service.agregarProductosAColeccion(navidad.getId(), List.of()));
+        assertThrows(RuntimeException.class, () -> service.agregarProductosAColeccion(-1L, productIds));
+        assertThrows(RuntimeException.class, () -> service.agregarColeccionesAProducto(-1L, List.of(navidad.getId())));
+    }
+
+    private long links(Collection collection) {
+        return entityManager.createQuery(
+                "SELECT COUNT(pc) FROM ProductCollection pc WHERE pc.id.collectionId = :id", Long.class)
+            .setParameter("id", collection.getId())
+            .getSingleResult();
+    }
+}
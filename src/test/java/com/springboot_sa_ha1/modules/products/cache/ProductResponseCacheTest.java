@@ -0,0 +1,82 @@
+package com.springboot_sa_ha1.modules.products.cache;
+
+import com.springboot_sa_ha1.modules.catalog.RowVersion;
+import com.springboot_sa_ha1.modules.categories.dto.CategoryResponse;
+import com.springboot_sa_ha1.modules.collections.dto.CollectionResponse;
+import com.springboot_sa_ha1.modules.products.dto.ProductDetail;
+import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import com.springboot_sa_ha1.modules.products.dto.ProductVersionRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ProductResponseCacheTest {
+
+    private ProductResponseCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ProductResponseCache(100);
+        loads = new AtomicInteger();
+    }
+
+    private ProductDetail load(Long id) {
+        loads.incrementAndGet();
+        if (id > 100) return null;
+        CategoryResponse category = new CategoryResponse(id % 2, "Cat " + id % 2, null, "cat", null);
+        List<CollectionResponse> collections = id == 1L
+            ? List.of(new CollectionResponse(10L, "Navidad", null, "navidad", null))
+            : List.of();
+        ProductResponse product = new ProductResponse(id, "Producto " + id, 100L, 1L, "desc", List.of(), category, collections);
+        return new ProductDetail(product, ProductVersionRow.of(new RowVersion(id, 0L, null), null, List.of()));
+    }
+
+    @Test
+    void testLecturaConCargaYContadores() {
+        cache.get(1L, this::load);
+        cache.get(1L, this::load);
+        cache.get(1L, this::load);
+
+        ProductCacheStatsResponse stats = cache.stats();
+        assertEquals(1, loads.get());
+        assertEquals(2, stats.hitCount());
+        assertEquals(1, stats.missCount());
+        assertEquals(1, stats.size());
+    }
+
+    @Test
+    void testProductoInexistenteNoSeGuarda() {
+        assertNull(cache.get(500L, this::load));
+        assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    void testInvalidacionPorProductoCategoriaYColeccion() {
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+        cache.get(3L, this::load);
+
+        cache.evict(2L);
+        cache.get(2L, this::load);
+        assertEquals(4, loads.get());
+
+        // 🔹 Categoría 1 = productos impares (1 y 3); el 2 no se toca
+        cache.evictByCategory(1L);
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+        cache.get(3L, this::load);
+        assertEquals(6, loads.get());
+
+        cache.evictByCollection(10L);
+        cache.get(1L, this::load);
+        cache.get(3L, this::load);
+        assertEquals(7, loads.get());
+        assertEquals(4, cache.stats().invalidationCount());
+    }
+}
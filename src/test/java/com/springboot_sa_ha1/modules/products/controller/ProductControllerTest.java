@@ -2,13 +2,24 @@ package com.springboot_sa_ha1.modules.products.controller;
 
 import com.springboot_sa_ha1.modules.categories.dto.CategoryResponse;
 import com.springboot_sa_ha1.modules.collections.dto.CollectionResponse;
+import com.springboot_sa_ha1.modules.products.dto.ProductDetail;
+import com.springboot_sa_ha1.modules.products.dto.ProductPageResponse;
 import com.springboot_sa_ha1.modules.products.dto.ProductRequest;
 import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import com.springboot_sa_ha1.modules.products.dto.ProductVersionRow;
+import com.springboot_sa_ha1.modules.products.pagination.ProductPageQuery;
+import com.springboot_sa_ha1.modules.products.pagination.ProductSort;
 import com.springboot_sa_ha1.modules.products.service.ProductService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.time.Instant;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -16,6 +27,10 @@ import static org.mockito.Mockito.*;
 
 class ProductControllerTest {
 
+    private static final ProductVersionRow VERSION =
+        new ProductVersionRow(3L, Instant.parse("2026-01-01T00:00:00Z"), 1L, null, 2L, 1L, null);
+    private static final String ETAG = "\"3-1-2-1\"";
+
     private ProductService productService;
     private ProductController productController;
 
@@ -83,13 +98,16 @@ class ProductControllerTest {
             List.of(new CollectionResponse(2L, "Invierno", "Col invierno", "invierno-slug", "imagen2.jpg"))
         );
 
-        when(productService.listarTodos()).thenReturn(List.of(prod1, prod2));
+        when(productService.listarTodos(any(ProductPageQuery.class)))
+            .thenReturn(new ProductPageResponse(List.of(prod1, prod2), "siguiente"));
 
-        ResponseEntity<List<ProductResponse>> result = productController.listar();
+        ResponseEntity<ProductPageResponse> result = productController.listar(null, 2, "price", "desc");
 
         assertEquals(200, result.getStatusCodeValue());
-        assertEquals(2, result.getBody().size());
-        verify(productService, times(1)).listarTodos();
+        assertEquals(2, result.getBody().items().size());
+        assertEquals("siguiente", result.getBody().nextCursor());
+        verify(productService, times(1)).listarTodos(
+            new ProductPageQuery(2, ProductSort.PRICE, Sort.Direction.DESC, null));
     }
 
     @Test
@@ -102,13 +120,32 @@ class ProductControllerTest {
             List.of(new CollectionResponse(1L, "Verano", "Col verano", "verano-slug", "imagen1.jpg"))
         );
 
-        when(productService.obtenerPorId(id)).thenReturn(response);
+        when(productService.obtenerDetalle(id)).thenReturn(new ProductDetail(response, VERSION));
 
-        ResponseEntity<ProductResponse> result = productController.obtenerPorId(id);
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        ResponseEntity<ProductResponse> result = productController.obtenerPorId(
+            id, new ServletWebRequest(new MockHttpServletRequest("GET", "/api/product/1"), servletResponse));
 
         assertEquals(200, result.getStatusCodeValue());
         assertEquals("Collar", result.getBody().name());
-        verify(productService, times(1)).obtenerPorId(id);
+        assertEquals(ETAG, servletResponse.getHeader(HttpHeaders.ETAG));
+        verify(productService, times(1)).obtenerDetalle(id);
+    }
+
+    @Test
+    void testObtenerPorIdNoModificado() {
+        ProductResponse product = new ProductResponse(1L, "Collar", 150L, 10L, null, List.of(), null, List.of());
+        when(productService.obtenerDetalle(1L)).thenReturn(new ProductDetail(product, VERSION));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/product/1");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, ETAG);
+
+        ResponseEntity<ProductResponse> result = productController.obtenerPorId(
+            1L, new ServletWebRequest(request, new MockHttpServletResponse()));
+
+        // 🔹 304 con la versión de la misma lectura, sin otra consulta
+        assertEquals(304, result.getStatusCodeValue());
+        verify(productService, times(1)).obtenerDetalle(1L);
+        verifyNoMoreInteractions(productService);
     }
 
     @Test
@@ -136,14 +173,18 @@ class ProductControllerTest {
             request.collections()
         );
 
-        when(productService.actualizar(anyLong(), any(ProductRequest.class))).thenReturn(response);
+        when(productService.actualizar(anyLong(), any(ProductRequest.class), isNull()))
+            .thenReturn(new ProductDetail(response, VERSION));
 
-        ResponseEntity<ProductResponse> result = productController.actualizar(id, request);
+        ResponseEntity<ProductResponse> result = productController.actualizar(id, null, request);
 
         assertEquals(200, result.getStatusCodeValue());
         assertEquals("Collar Actualizado", result.getBody().name());
         assertEquals(2, result.getBody().imageUrls().size());
-        verify(productService, times(1)).actualizar(anyLong(), any(ProductRequest.class));
+        // 🔹 El ETag sale de la entidad guardada, sin releer la versión
+        assertEquals(ETAG, result.getHeaders().getETag());
+        verify(productService, times(1)).actualizar(anyLong(), any(ProductRequest.class), isNull());
+        verifyNoMoreInteractions(productService);
     }
 
     @Test
@@ -0,0 +1,86 @@
+package com.springboot_sa_ha1.modules.products.facet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductFacetIndexTest {
+
+    private static final Long ANILLOS = 10L;
+    private static final Long COLLARES = 20L;
+    private static final Long NAVIDAD = 100L;
+    private static final Long NOVIAS = 200L;
+
+    private ProductFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductFacetIndex(new long[] {10_000, 50_000});
+        index.replaceAll(
+            Map.of(1L, 5_000L, 2L, 12_000L, 3L, 60_000L, 4L, 10_000L, 5L, 30_000L),
+            Map.of(1L, ANILLOS, 2L, ANILLOS, 3L, ANILLOS, 4L, COLLARES, 5L, COLLARES),
+            Map.of(
+                1L, List.of(NAVIDAD),
+                2L, List.of(NAVIDAD, NOVIAS),
+                3L, List.of(NOVIAS),
+                5L, List.of(NAVIDAD)
+            )
+        );
+    }
+
+    @Test
+    void testFiltroCombinadoYConteos() {
+        FacetResult result = index.filter(new FacetFilter(Set.of(ANILLOS), Set.of(NAVIDAD), null, null), null, 10);
+
+        assertEquals(2, result.total());
+        assertEquals(List.of(1L, 2L), result.productIds());
+
+        // 🔹 Categorías contadas sin su propio filtro: Navidad tiene 2 anillos y 1 collar
+        assertEquals(List.of(new FacetCount(ANILLOS, 2), new FacetCount(COLLARES, 1)), result.categories());
+        assertEquals(List.of(new FacetCount(NAVIDAD, 2), new FacetCount(NOVIAS, 1)), result.collections());
+        assertEquals(List.of(
+            new PriceBucketCount(null, 10_000L, 1),
+            new PriceBucketCount(10_000L, 50_000L, 1),
+            new PriceBucketCount(50_000L, null, 0)
+        ), result.priceBuckets());
+    }
+
+    @Test
+    void testRangoDePrecioInclusivoYPaginacion() {
+        FacetFilter filter = new FacetFilter(Set.of(), Set.of(), 10_000L, 30_000L);
+
+        FacetResult first = index.filter(filter, null, 2);
+        assertEquals(3, first.total());
+        assertEquals(List.of(2L, 4L), first.productIds());
+        assertTrue(first.hasNext());
+
+        FacetResult second = index.filter(filter, 4L, 2);
+        assertEquals(List.of(5L), second.productIds());
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    void testActualizacionIncremental() {
+        index.index(4L, 70_000L, COLLARES, List.of(NOVIAS));
+        index.remove(2L);
+
+        FacetResult result = index.filter(new FacetFilter(Set.of(), Set.of(NOVIAS), 50_000L, null), null, 10);
+        assertEquals(List.of(3L, 4L), result.productIds());
+
+        index.removeCollection(NOVIAS);
+        assertEquals(0, index.filter(new FacetFilter(Set.of(), Set.of(NOVIAS), null, null), null, 10).total());
+    }
+
+    @Test
+    void testIdInexistenteNoDevuelveNada() {
+        assertEquals(0, index.filter(new FacetFilter(Set.of(-1L), Set.of(), null, null), null, 10).total());
+        assertEquals(0, index.filter(new FacetFilter(Set.of(), Set.of(NAVIDAD, -1L), null, null), null, 10).total());
+    }
+}
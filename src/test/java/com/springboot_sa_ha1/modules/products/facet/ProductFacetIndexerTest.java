@@ -0,0 +1,59 @@
+package com.springboot_sa_ha1.modules.products.facet;
+
+import com.springboot_sa_ha1.modules.catalog.RowVersion;
+import com.springboot_sa_ha1.modules.categories.dto.CategoryResponse;
+import com.springboot_sa_ha1.modules.collections.event.CollectionDeletedEvent;
+import com.springboot_sa_ha1.modules.product_collections.dto.ProductCollectionResponse;
+import com.springboot_sa_ha1.modules.product_collections.repository.ProductCollectionRepository;
+import com.springboot_sa_ha1.modules.products.dto.ProductIndexView;
+import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import com.springboot_sa_ha1.modules.products.event.ProductDeletedEvent;
+import com.springboot_sa_ha1.modules.products.event.ProductSavedEvent;
+import com.springboot_sa_ha1.modules.products.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProductFacetIndexerTest {
+
+    private static final Long ANILLOS = 10L;
+    private static final Long COLLARES = 20L;
+    private static final Long NAVIDAD = 100L;
+
+    @Test
+    void testCambiosDuranteLaCargaNoSePierden() {
+        ProductFacetIndex index = new ProductFacetIndex(new long[] {10_000});
+        ProductRepository productRepository = mock(ProductRepository.class);
+        ProductCollectionRepository productCollectionRepository = mock(ProductCollectionRepository.class);
+        ProductFacetIndexer indexer = new ProductFacetIndexer(index, productRepository, productCollectionRepository,
+            mock(PlatformTransactionManager.class));
+
+        // 🔹 Mientras la carga lee: el producto 1 pasa a Collares, se borra el 2 y la colección Navidad
+        when(productRepository.findIndexViewsAfter(eq(0L), any())).thenAnswer(invocation -> {
+            indexer.onProductSaved(new ProductSavedEvent(
+                new ProductResponse(1L, "Collar", 5_000L, 1L, null, List.of(),
+                    new CategoryResponse(COLLARES, "Collares", null, "collares", null), List.of()),
+                new RowVersion(1L, 1L, null)));
+            indexer.onProductDeleted(new ProductDeletedEvent(2L));
+            indexer.onCollectionDeleted(new CollectionDeletedEvent(NAVIDAD));
+            return List.of(new ProductIndexView(1L, "Anillo", 5_000L, ANILLOS),
+                new ProductIndexView(2L, "Anillo", 20_000L, ANILLOS));
+        });
+        when(productRepository.findIndexViewsAfter(eq(2L), any())).thenReturn(List.of());
+        when(productCollectionRepository.findAllLinks()).thenReturn(List.of(
+            new ProductCollectionResponse(1L, NAVIDAD), new ProductCollectionResponse(2L, NAVIDAD)));
+
+        indexer.rebuild();
+
+        FacetResult all = index.filter(new FacetFilter(Set.of(), Set.of(), null, null), null, 10);
+        assertEquals(List.of(1L), all.productIds());
+        assertEquals(List.of(new FacetCount(COLLARES, 1)), all.categories());
+        assertEquals(List.of(), all.collections());
+    }
+}
@@ -0,0 +1,163 @@
+package com.springboot_sa_ha1.modules.products.importer;
+
+import com.springboot_sa_ha1.modules.categories.model.Category;
+import com.springboot_sa_ha1.modules.categories.repository.CategoryRepository;
+import com.springboot_sa_ha1.modules.collections.model.Collection;
+import com.springboot_sa_ha1.modules.collections.repository.CollectionRepository;
+import com.springboot_sa_ha1.modules.product_collections.repository.ProductCollectionRepository;
+import com.springboot_sa_ha1.modules.products.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 🔹 Sin transacción de prueba: cada lote de la importación confirma la suya
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.sql.init.mode=never"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(ProductImportService.class)
+class ProductImportServiceTest {
+
+    @Autowired
+    private ProductImportService importService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductCollectionRepository productCollectionRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CollectionRepository collectionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        Category category = new Category();
+        category.setName("Anillos");
+        category.setSlug("anillos");
+        categoryRepository.save(category);
+
+        for (String name : List.of("Navidad", "Novias")) {
+            Collection collection = new Collection();
+            collection.setName(name);
+            collection.setSlug(name.toLowerCase());
+            collectionRepository.save(collection);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        productCollectionRepository.deleteAllInBatch();
+        productRepository.deleteAll();
+        collectionRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testCsvPorLotesConErroresPorFila() {
+        StringBuilder csv = new StringBuilder("name,price,stock,description,category,collections,images\n");
+        for (int i = 0; i < 1200; i++) {
+            csv.append("Anillo ").append(i).append(',').append(1000 + i).append(",5,\"Plata, talla ").append(i)
+                .append("\",Anillos,navidad|novias,https://img/").append(i).append("/0.jpg|https://img/").append(i)
+                .append("/1.jpg\n");
+        }
+        csv.append("Sin categoría,1000,1,Desc,inexistente,,\n");   // línea 1202
+        csv.append("Sin precio,,1,Desc,anillos,,\n");               // línea 1203
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<ProductImportProgress> progress = new ArrayList<>();
+        ProductImportSummary summary = importService.importar(
+            new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)),
+            ProductImportFormat.CSV,
+            progress::add
+        );
+
+        assertEquals(1202, summary.rows());
+        assertEquals(1200, summary.imported());
+        assertEquals(2, summary.failed());
+        assertEquals(3, progress.size());
+        List<ProductImportError> errors = progress.get(2).errors();
+        assertEquals(List.of(1202L, 1203L), errors.stream().map(ProductImportError::line).toList());
+        assertTrue(errors.get(0).message().contains("inexistente"));
+
+        assertEquals(1200, productRepository.count());
+        assertEquals(2400, productCollectionRepository.count());
+
+        // 🔹 1200 productos + 2400 imágenes + 2400 enlaces en lotes JDBC: muy lejos de una sentencia por fila
+        assertTrue(statistics.getPrepareStatementCount() < 150,
+            "Sentencias preparadas: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testNdjsonSigueDespuesDeUnaLineaMalFormada() {
+        String ndjson = """
+            {"name":"Collar","price":2000,"description":"Collar largo","category":"anillos","collections":["Navidad"]}
+            {"name":"Roto",
+            {"name":"Aros","price":1500,"stock":3,"description":"Aros de plata","category":"Anillos"}
+            """;
+
+        ProductImportSummary summary = importService.importar(
+            new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)),
+            ProductImportFormat.NDJSON,
+            p -> assertEquals(List.of(2L), p.errors().stream().map(ProductImportError::line).toList())
+        );
+
+        assertEquals(3, summary.rows());
+        assertEquals(2, summary.imported());
+        assertEquals(2, productRepository.count());
+    }
+
+    @Test
+    void testSlugsGuardadosConReglasAnteriores() {
+        Category category = new Category();
+        category.setName("Anillos de oro");
+        category.setSlug("anillos_-_oro");
+        categoryRepository.save(category);
+        Collection collection = new Collection();
+        collection.setName("Fiestas patrias");
+        collection.setSlug("fiestas-patrias");
+        collectionRepository.save(collection);
+
+        // 🔹 Por el slug guardado o por su forma normalizada
+        String ndjson = """
+            {"name":"Anillo","price":2000,"description":"Oro","category":"anillos_-_oro","collections":["fiestas-patrias"]}
+            {"name":"Sortija","price":2500,"description":"Oro","category":"Anillos - Oro","collections":["fiestas_patrias"]}
+            """;
+
+        ProductImportSummary summary = importService.importar(
+            new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)),
+            ProductImportFormat.NDJSON,
+            p -> assertEquals(List.of(), p.errors())
+        );
+
+        assertEquals(2, summary.imported());
+        assertEquals(2, productCollectionRepository.count());
+    }
+}
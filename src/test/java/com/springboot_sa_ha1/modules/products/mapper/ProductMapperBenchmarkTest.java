@@ -0,0 +1,165 @@
+package com.springboot_sa_ha1.modules.products.mapper;
+
+import com.springboot_sa_ha1.modules.categories.dto.CategoryResponse;
+import com.springboot_sa_ha1.modules.categories.mapper.CategoryMapper;
+import com.springboot_sa_ha1.modules.categories.model.Category;
+import com.springboot_sa_ha1.modules.collections.dto.CollectionResponse;
+import com.springboot_sa_ha1.modules.collections.mapper.CollectionMapper;
+import com.springboot_sa_ha1.modules.collections.model.Collection;
+import com.springboot_sa_ha1.modules.product_collections.model.ProductCollection;
+import com.springboot_sa_ha1.modules.product_collections.model.ProductCollectionId;
+import com.springboot_sa_ha1.modules.productimages.model.ProductImage;
+import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import com.springboot_sa_ha1.modules.products.model.Product;
+import com.springboot_sa_ha1.modules.products.repository.ProductRepository;
+import com.springboot_sa_ha1.modules.products.repository.ProductSpecifications;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+// Bytes asignados al mapear una página grande de categoría (entidades ya cargadas):
+// mapeo anterior (DTO nuevos por producto + reordenar imágenes) contra toResponses con DtoInterner.
+// Se ejecuta sólo con: mvn test -Pbenchmark
+@Tag("benchmark")
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import({ProductMapper.class, CategoryMapper.class, CollectionMapper.class})
+class ProductMapperBenchmarkTest {
+
+    private static final int PRODUCTS = 2_000;
+    private static final int IMAGES_PER_PRODUCT = 4;
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 1_000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductMapper mapper;
+
+    @Autowired
+    private CategoryMapper categoryMapper;
+
+    @Autowired
+    private CollectionMapper collectionMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private List<Product> page;
+
+    @BeforeEach
+    void setUp() {
+        Category category = new Category();
+        category.setName("Anillos");
+        category.setSlug("anillos");
+        category.setDescription("Anillos de plata y oro con piedras naturales");
+        entityManager.persist(category);
+
+        List<Collection> collections = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Collection collection = new Collection();
+            collection.setName("Colección " + i);
+            collection.setSlug("coleccion-" + i);
+            collection.setDescription("Descripción de la colección " + i);
+            entityManager.persist(collection);
+            collections.add(collection);
+        }
+
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName("Producto " + i);
+            product.setPrice(1000L + i);
+            product.setStock(10L);
+            product.setDescription("Descripción del producto " + i);
+            product.setCategory(category);
+            for (int pos = 0; pos < IMAGES_PER_PRODUCT; pos++) {
+                ProductImage image = new ProductImage();
+                image.setImageUrl("https://cdn.example.com/productos/" + i + "/" + pos + ".jpg");
+                image.setPosition(pos);
+                image.setProduct(product);
+                product.getImages().add(image);
+            }
+            entityManager.persist(product);
+            for (Collection collection : collections) {
+                ProductCollection pc = new ProductCollection();
+                pc.setId(new ProductCollectionId(product.getId(), collection.getId()));
+                pc.setProduct(product);
+                pc.setCollection(collection);
+                entityManager.persist(pc);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // 🔹 Sólo se mide el mapeo: asociaciones inicializadas antes de medir
+        page = productRepository.findAll(ProductSpecifications.all(), Sort.by("id"));
+        page.forEach(p -> {
+            p.getImages().size();
+            p.getProductCollections().forEach(pc -> pc.getCollection().getName());
+        });
+    }
+
+    @Test
+    void compararAsignacionesPorPagina() {
+        List<ProductResponse> legacy = legacy(page);
+        List<ProductResponse> interned = mapper.toResponses(page);
+        assertEquals(legacy, interned);
+        assertSame(interned.get(0).category(), interned.get(PRODUCTS - 1).category());
+
+        double legacyKb = kbPerOp(() -> legacy(page));
+        double internedKb = kbPerOp(() -> mapper.toResponses(page));
+        System.out.printf(
+            "[mapper-bench] productos=%d | anterior %.1fKB/op | interner %.1fKB/op (%.0f%% menos)%n",
+            PRODUCTS, legacyKb, internedKb, 100 * (1 - internedKb / legacyKb));
+    }
+
+    // 🔹 Copia del mapeo anterior, como referencia
+    private List<ProductResponse> legacy(List<Product> products) {
+        return products.stream().map(product -> {
+            List<String> images = product.getImages().stream()
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(ProductImage::getPosition, Comparator.nullsLast(Integer::compareTo)))
+                .map(ProductImage::getImageUrl)
+                .toList();
+            List<CollectionResponse> collections = product.getProductCollections().stream()
+                .map(ProductCollection::getCollection)
+                .filter(Objects::nonNull)
+                .map(collectionMapper::toResponse)
+                .toList();
+            CategoryResponse category = categoryMapper.toResponse(product.getCategory());
+            return new ProductResponse(product.getId(), product.getName(), product.getPrice(), product.getStock(),
+                product.getDescription(), images, category, collections);
+        }).toList();
+    }
+
+    private double kbPerOp(Supplier<List<ProductResponse>> mapping) {
+        for (int i = 0; i < WARMUP; i++) mapping.get();
+        long[] bytes = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            mapping.get();
+            bytes[i] = threads.getCurrentThreadAllocatedBytes() - before;
+        }
+        Arrays.sort(bytes);
+        return bytes[ITERATIONS / 2] / 1024.0;
+    }
+}
@@ -0,0 +1,44 @@
+package com.springboot_sa_ha1.modules.products.pagination;
+
+import com.springboot_sa_ha1.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProductCursorTest {
+
+    @Test
+    void testCursorIdaYVuelta() {
+        ProductCursor cursor = new ProductCursor(ProductSort.NAME, Sort.Direction.DESC, 42L, "Anillo | Oro");
+
+        ProductCursor decoded = ProductCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    void testElCursorDefineOrdenYDireccion() {
+        String cursor = new ProductCursor(ProductSort.PRICE, Sort.Direction.DESC, 7L, "15990").encode();
+
+        ProductPageQuery query = ProductPageQuery.of(cursor, 500, "name", "asc");
+
+        assertEquals(ProductSort.PRICE, query.sort());
+        assertEquals(Sort.Direction.DESC, query.direction());
+        assertEquals(ProductPageQuery.MAX_SIZE, query.size());
+    }
+
+    @Test
+    void testCursorInvalido() {
+        assertThrows(BadRequestException.class, () -> ProductCursor.decode("no-es-un-cursor"));
+        assertThrows(BadRequestException.class, () -> ProductPageQuery.of(null, 10, "stock", null));
+    }
+
+    @Test
+    void testCursorDePrecioConValorNoNumerico() {
+        String adulterado = new ProductCursor(ProductSort.PRICE, Sort.Direction.ASC, 7L, "abc").encode();
+
+        assertThrows(BadRequestException.class, () -> ProductPageQuery.of(adulterado, 10, null, null));
+    }
+}
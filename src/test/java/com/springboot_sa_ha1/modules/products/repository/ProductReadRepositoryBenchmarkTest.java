@@ -0,0 +1,182 @@
+package com.springboot_sa_ha1.modules.products.repository;
+
+import com.springboot_sa_ha1.modules.categories.mapper.CategoryMapper;
+import com.springboot_sa_ha1.modules.categories.model.Category;
+import com.springboot_sa_ha1.modules.collections.mapper.CollectionMapper;
+import com.springboot_sa_ha1.modules.collections.model.Collection;
+import com.springboot_sa_ha1.modules.product_collections.model.ProductCollection;
+import com.springboot_sa_ha1.modules.product_collections.model.ProductCollectionId;
+import com.springboot_sa_ha1.modules.productimages.model.ProductImage;
+import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import com.springboot_sa_ha1.modules.products.mapper.ProductMapper;
+import com.springboot_sa_ha1.modules.products.model.Product;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Compara entidades + ProductMapper contra la proyección directa a DTO en las páginas
+// de categoría y de colección (latencia y bytes asignados por llamada).
+// Se ejecuta sólo con: mvn test -Pbenchmark
+@Tag("benchmark")
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import({ProductReadRepository.class, ProductMapper.class, CategoryMapper.class, CollectionMapper.class})
+class ProductReadRepositoryBenchmarkTest {
+
+    private static final int PRODUCTS = 4_000;
+    private static final int IMAGES_PER_PRODUCT = 4;
+    private static final int WARMUP = 30;
+    private static final int ITERATIONS = 200;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductReadRepository productReadRepository;
+
+    @Autowired
+    private ProductMapper mapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private Long categoryId;
+    private Long collectionId;
+
+    @BeforeEach
+    void setUp() {
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Category category = new Category();
+            category.setName("Categoría " + i);
+            category.setSlug("categoria-" + i);
+            category.setDescription("Descripción de la categoría " + i);
+            entityManager.persist(category);
+            categories.add(category);
+        }
+        List<Collection> collections = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Collection collection = new Collection();
+            collection.setName("Colección " + i);
+            collection.setSlug("coleccion-" + i);
+            collection.setDescription("Descripción de la colección " + i);
+            entityManager.persist(collection);
+            collections.add(collection);
+        }
+
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName("Producto " + i);
+            product.setPrice(1000L + i);
+            product.setStock(10L);
+            product.setDescription("Descripción larga del producto " + i + " con algo de texto de relleno");
+            product.setCategory(categories.get(i % categories.size()));
+            for (int pos = 0; pos < IMAGES_PER_PRODUCT; pos++) {
+                ProductImage image = new ProductImage();
+                image.setImageUrl("https://cdn.example.com/productos/" + i + "/" + pos + ".jpg");
+                image.setPosition(pos);
+                image.setProduct(product);
+                product.getImages().add(image);
+            }
+            entityManager.persist(product);
+
+            for (int c = 0; c < 2; c++) {
+                Collection collection = collections.get((i + c) % collections.size());
+                ProductCollection pc = new ProductCollection();
+                pc.setId(new ProductCollectionId(product.getId(), collection.getId()));
+                pc.setProduct(product);
+                pc.setCollection(collection);
+                entityManager.persist(pc);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        categoryId = categories.get(0).getId();
+        collectionId = collections.get(0).getId();
+    }
+
+    @Test
+    void compararEntidadesContraProyeccion() {
+        Sort sort = Sort.by("id");
+        run("categoria pagina=24", ProductSpecifications.inCategory(categoryId), sort, 25);
+        run("categoria pagina=100", ProductSpecifications.inCategory(categoryId), sort, 101);
+        run("categoria completa", ProductSpecifications.inCategory(categoryId), sort, 0);
+        run("coleccion pagina=24", ProductSpecifications.inCollection(collectionId), sort, 25);
+        run("coleccion pagina=100", ProductSpecifications.inCollection(collectionId), sort, 101);
+        run("coleccion completa", ProductSpecifications.inCollection(collectionId), sort, 0);
+    }
+
+    private void run(String label, Specification<Product> spec, Sort sort, int limit) {
+        Supplier<List<ProductResponse>> entities = () -> productRepository.findBy(spec, q -> {
+                var sorted = q.sortBy(sort);
+                return limit > 0 ? sorted.limit(limit).all() : sorted.all();
+            })
+            .stream()
+            .map(mapper::toResponse)
+            .toList();
+        Supplier<List<ProductResponse>> projection = () -> productReadRepository.findAll(spec, sort, limit);
+
+        assertEquals(ids(entities.get()), ids(projection.get()));
+        entityManager.clear();
+
+        Measurement entity = measure(entities);
+        Measurement projected = measure(projection);
+        System.out.printf(
+            "[read-bench] %-22s filas=%d | entidades p50=%.3fms p99=%.3fms %.1fKB/op | proyeccion p50=%.3fms p99=%.3fms %.1fKB/op%n",
+            label, entity.rows(),
+            entity.p50(), entity.p99(), entity.kbPerOp(),
+            projected.p50(), projected.p99(), projected.kbPerOp()
+        );
+    }
+
+    private Measurement measure(Supplier<List<ProductResponse>> read) {
+        for (int i = 0; i < WARMUP; i++) {
+            read.get();
+            entityManager.clear();
+        }
+
+        long[] nanos = new long[ITERATIONS];
+        long allocated = 0;
+        int rows = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            rows = read.get().size();
+            nanos[i] = System.nanoTime() - start;
+            allocated += threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+            // 🔹 Cada petición real empieza con un contexto de persistencia vacío
+            entityManager.clear();
+        }
+        return new Measurement(rows, percentile(nanos, 50), percentile(nanos, 99), allocated / 1024.0 / ITERATIONS);
+    }
+
+    private static List<Long> ids(List<ProductResponse> products) {
+        return products.stream().map(ProductResponse::id).toList();
+    }
+
+    private record Measurement(int rows, double p50, double p99, double kbPerOp) {}
+
+    private static double percentile(long[] nanos, int p) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        int idx = Math.min(sorted.length - 1, (int) Math.ceil(p / 100.0 * sorted.length) - 1);
+        return sorted[Math.max(idx, 0)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,120 @@
+package com.springboot_sa_ha1.modules.products.repository;
+
+import com.springboot_sa_ha1.modules.catalog.ResourceVersion;
+import com.springboot_sa_ha1.modules.categories.mapper.CategoryMapper;
+import com.springboot_sa_ha1.modules.categories.model.Category;
+import com.springboot_sa_ha1.modules.collections.mapper.CollectionMapper;
+import com.springboot_sa_ha1.modules.collections.model.Collection;
+import com.springboot_sa_ha1.modules.product_collections.model.ProductCollection;
+import com.springboot_sa_ha1.modules.product_collections.model.ProductCollectionId;
+import com.springboot_sa_ha1.modules.products.mapper.ProductMapper;
+import com.springboot_sa_ha1.modules.products.model.Product;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 🔹 El ETag de un producto cambia con cualquier cosa que se vea en su ProductResponse,
+// y es el mismo leído de la base (caché) que calculado sobre la entidad (respuesta de PUT/PATCH)
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import({ProductReadRepository.class, ProductMapper.class, CategoryMapper.class, CollectionMapper.class})
+class ProductVersionTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductReadRepository productReadRepository;
+
+    @Autowired
+    private ProductMapper productMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Product product;
+    private Category category;
+    private Collection collection;
+
+    @BeforeEach
+    void setUp() {
+        category = new Category();
+        category.setName("Anillos");
+        category.setSlug("anillos");
+        entityManager.persist(category);
+
+        collection = new Collection();
+        collection.setName("Navidad");
+        collection.setSlug("navidad");
+        entityManager.persist(collection);
+
+        product = new Product();
+        product.setName("Anillo");
+        product.setPrice(1000L);
+        product.setStock(1L);
+        product.setDescription("Plata");
+        product.setCategory(category);
+        entityManager.persist(product);
+
+        ProductCollection pc = new ProductCollection();
+        pc.setId(new ProductCollectionId(product.getId(), collection.getId()));
+        pc.setProduct(product);
+        pc.setCollection(collection);
+        entityManager.persist(pc);
+        flush();
+    }
+
+    @Test
+    void testEtagCambiaConProductoCategoriaYColecciones() {
+        ResourceVersion initial = version();
+        assertNotNull(initial.lastModified());
+        assertTrue(initial.matches(initial.etag()));
+        assertFalse(initial.matches("W/" + initial.etag()));
+
+        rename(Category.class, category.getId(), "Anillos de plata");
+        ResourceVersion afterCategory = version();
+        assertNotEquals(initial.etag(), afterCategory.etag());
+
+        rename(Collection.class, collection.getId(), "Navidad 2026");
+        ResourceVersion afterCollection = version();
+        assertNotEquals(afterCategory.etag(), afterCollection.etag());
+
+        // 🔹 Alta/baja en product_collection no toca la fila del producto: touch() sube su versión
+        assertEquals(1, productRepository.touch(product.getId(), Instant.now()));
+        flush();
+        assertNotEquals(afterCollection.etag(), version().etag());
+    }
+
+    private ResourceVersion version() {
+        ResourceVersion read = productReadRepository.findDetailsById(List.of(product.getId())).get(0)
+            .version().toResourceVersion();
+        ResourceVersion fromEntity = productMapper.toVersion(entityManager.find(Product.class, product.getId()))
+            .toResourceVersion();
+        assertEquals(read.etag(), fromEntity.etag());
+        entityManager.clear();
+        return read;
+    }
+
+    private void rename(Class<?> type, Long id, String name) {
+        Object entity = entityManager.find(type, id);
+        if (entity instanceof Category c) c.setName(name);
+        if (entity instanceof Collection c) c.setName(name);
+        flush();
+    }
+
+    private void flush() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,154 @@
+package com.springboot_sa_ha1.modules.products.search;
+
+import com.springboot_sa_ha1.modules.categories.model.Category;
+import com.springboot_sa_ha1.modules.collections.model.Collection;
+import com.springboot_sa_ha1.modules.product_collections.model.ProductCollection;
+import com.springboot_sa_ha1.modules.product_collections.model.ProductCollectionId;
+import com.springboot_sa_ha1.modules.products.model.Product;
+import com.springboot_sa_ha1.modules.products.repository.ProductReadRepository;
+import com.springboot_sa_ha1.modules.products.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Compara el índice invertido contra la consulta que reemplaza en la búsqueda:
+// ProductRepository.searchByTerm (LOWER(x) LIKE '%term%' sobre productos, categorías y colecciones),
+// ejecutada en H2 con los mismos datos. Se ejecuta sólo con: mvn test -Pbenchmark
+@Tag("benchmark")
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import({ProductSearchIndex.class, ProductSearchIndexer.class, ProductReadRepository.class})
+class ProductSearchIndexBenchmarkTest {
+
+    private static final String[] WORDS = {
+        "anillo", "collar", "pulsera", "aros", "oro", "plata", "rose", "cuarzo", "perla", "dije",
+        "cadena", "fino", "clasico", "moderno", "minimalista", "grabado", "corazon", "estrella",
+        "luna", "sol", "infinito", "trenzado", "brillante", "mate", "esmeralda", "rubi", "zafiro",
+        "cristal", "acero", "bano", "largo", "corto", "doble", "triple", "ajustable", "delicado"
+    };
+    private static final String[] CATEGORIES = {"Anillos", "Collares", "Pulseras", "Aros", "Tobilleras"};
+    private static final String[] COLLECTIONS = {"Navidad", "Verano", "Invierno", "Novias", "Hombre", "Basicos"};
+    private static final int QUERIES = 500;
+    private static final int LIKE_QUERIES = 20;
+    private static final int BATCH = 1_000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSearchIndex index;
+
+    @Autowired
+    private ProductSearchIndexer indexer;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1_000, 10_000, 50_000})
+    void compararIndiceContraConsultaLike(int size) {
+        Random random = new Random(42);
+        seed(size, random);
+
+        long buildStart = System.nanoTime();
+        indexer.rebuild();
+        long buildMs = (System.nanoTime() - buildStart) / 1_000_000;
+        assertTrue(index.isReady());
+
+        String[] queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            queries[i] = i % 3 == 0
+                ? word.substring(0, Math.max(3, word.length() - 2))               // escribiendo
+                : word + " " + WORDS[random.nextInt(WORDS.length)];                // dos palabras
+        }
+
+        long[] indexNanos = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            long start = System.nanoTime();
+            index.search(queries[i], 20, 0);
+            indexNanos[i] = System.nanoTime() - start;
+        }
+
+        // 🔹 La consulta JPQL sólo admite un término: se usa la primera palabra de cada búsqueda
+        long[] likeNanos = new long[LIKE_QUERIES];
+        for (int i = 0; i < LIKE_QUERIES; i++) {
+            String term = queries[i].split(" ")[0];
+            entityManager.clear();
+            long start = System.nanoTime();
+            int matches = productRepository.searchByTerm(term).size();
+            likeNanos[i] = System.nanoTime() - start;
+            assertTrue(matches > 0);
+        }
+
+        System.out.printf(
+            "[search-bench] productos=%d construccion=%dms indice p50=%.3fms p99=%.3fms | like p50=%.3fms p99=%.3fms%n",
+            size, buildMs,
+            percentile(indexNanos, 50), percentile(indexNanos, 99),
+            percentile(likeNanos, 50), percentile(likeNanos, 99)
+        );
+    }
+
+    private void seed(int size, Random random) {
+        Category[] categories = new Category[CATEGORIES.length];
+        for (int i = 0; i < categories.length; i++) {
+            categories[i] = new Category();
+            categories[i].setName(CATEGORIES[i]);
+            categories[i].setSlug(CATEGORIES[i].toLowerCase());
+            entityManager.persist(categories[i]);
+        }
+        Collection[] collections = new Collection[COLLECTIONS.length];
+        for (int i = 0; i < collections.length; i++) {
+            collections[i] = new Collection();
+            collections[i].setName(COLLECTIONS[i]);
+            collections[i].setSlug(COLLECTIONS[i].toLowerCase());
+            entityManager.persist(collections[i]);
+        }
+
+        for (int i = 0; i < size; i++) {
+            Product product = new Product();
+            product.setName(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]);
+            StringBuilder description = new StringBuilder();
+            for (int w = 0; w < 6; w++) {
+                description.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            product.setDescription(description.toString());
+            product.setPrice(1000L + i);
+            product.setStock(1L);
+            product.setCategory(entityManager.getReference(Category.class,
+                categories[random.nextInt(categories.length)].getId()));
+            entityManager.persist(product);
+
+            Collection collection = entityManager.getReference(Collection.class,
+                collections[random.nextInt(collections.length)].getId());
+            ProductCollection pc = new ProductCollection();
+            pc.setId(new ProductCollectionId(product.getId(), collection.getId()));
+            pc.setProduct(product);
+            pc.setCollection(collection);
+            entityManager.persist(pc);
+
+            // 🔹 Por tramos, para que el contexto de persistencia no crezca con el total
+            if ((i + 1) % BATCH == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static double percentile(long[] nanos, int p) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        int idx = Math.min(sorted.length - 1, (int) Math.ceil(p / 100.0 * sorted.length) - 1);
+        return sorted[Math.max(idx, 0)] / 1_000_000.0;
+    }
+}
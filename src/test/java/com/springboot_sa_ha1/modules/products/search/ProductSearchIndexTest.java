@@ -0,0 +1,65 @@
+package com.springboot_sa_ha1.modules.products.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.replaceAll(List.of(
+            new SearchDocument(1L, "Anillo de Oro", "Anillo clásico de oro 18k", 10L, "Anillos", Map.of(100L, "Navidad")),
+            new SearchDocument(2L, "Collar de Plata", "Collar largo con dije de oro", 20L, "Collares", Map.of()),
+            new SearchDocument(3L, "Pulsera Rosé", "Pulsera delicada", 30L, "Pulseras", Map.of(100L, "Navidad"))
+        ));
+    }
+
+    @Test
+    void testRankingPriorizaNombre() {
+        SearchHits hits = index.search("oro", 10, 0);
+
+        assertEquals(2, hits.total());
+        assertEquals(List.of(1L, 2L), hits.productIds());
+    }
+
+    @Test
+    void testBusquedaSinTildesYPorPrefijo() {
+        assertEquals(List.of(3L), index.search("rose", 10, 0).productIds());
+        assertEquals(List.of(1L), index.search("anil", 10, 0).productIds());
+    }
+
+    @Test
+    void testTodosLosTerminosDebenCoincidir() {
+        assertEquals(List.of(1L), index.search("oro navidad", 10, 0).productIds());
+    }
+
+    @Test
+    void testLimitYOffset() {
+        SearchHits hits = index.search("navidad", 1, 1);
+
+        assertEquals(2, hits.total());
+        assertEquals(1, hits.productIds().size());
+    }
+
+    @Test
+    void testEliminarYRenombrar() {
+        index.remove(2L);
+        assertEquals(List.of(1L), index.search("oro", 10, 0).productIds());
+
+        index.renameCollection(100L, "Verano");
+        assertTrue(index.search("navidad", 10, 0).productIds().isEmpty());
+        assertEquals(2, index.search("verano", 10, 0).total());
+
+        index.renameCategory(30L, "Brazaletes");
+        assertEquals(List.of(3L), index.search("brazaletes", 10, 0).productIds());
+    }
+}
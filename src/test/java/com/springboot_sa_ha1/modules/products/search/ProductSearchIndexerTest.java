@@ -0,0 +1,44 @@
+package com.springboot_sa_ha1.modules.products.search;
+
+import com.springboot_sa_ha1.modules.catalog.RowVersion;
+import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import com.springboot_sa_ha1.modules.products.event.ProductDeletedEvent;
+import com.springboot_sa_ha1.modules.products.event.ProductSavedEvent;
+import com.springboot_sa_ha1.modules.products.repository.ProductReadRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProductSearchIndexerTest {
+
+    @Test
+    void testCambiosDuranteLaCargaNoSePierden() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        ProductReadRepository repository = mock(ProductReadRepository.class);
+        ProductSearchIndexer indexer =
+            new ProductSearchIndexer(index, repository, mock(PlatformTransactionManager.class));
+
+        // 🔹 Mientras la carga lee, se edita el producto 1 y se borra el 2: la carga los lee con el estado anterior
+        when(repository.findAll(any(), any(), anyInt())).thenAnswer(invocation -> {
+            indexer.onProductSaved(new ProductSavedEvent(product(1L, "Anillo de plata"), new RowVersion(1L, 1L, null)));
+            indexer.onProductDeleted(new ProductDeletedEvent(2L));
+            return List.of(product(1L, "Anillo de oro"), product(2L, "Collar de oro"));
+        });
+
+        indexer.rebuild();
+
+        assertTrue(index.isReady());
+        assertEquals(List.of(1L), index.search("plata", 10, 0).productIds());
+        assertTrue(index.search("oro", 10, 0).productIds().isEmpty());
+    }
+
+    private static ProductResponse product(Long id, String name) {
+        return new ProductResponse(id, name, 1000L, 1L, null, List.of(), null, List.of());
+    }
+}
@@ -0,0 +1,126 @@
+package com.springboot_sa_ha1.modules.products.service;
+
+import com.springboot_sa_ha1.modules.categories.mapper.CategoryMapper;
+import com.springboot_sa_ha1.modules.categories.model.Category;
+import com.springboot_sa_ha1.modules.collections.mapper.CollectionMapper;
+import com.springboot_sa_ha1.modules.collections.model.Collection;
+import com.springboot_sa_ha1.modules.products.cache.ProductResponseCache;
+import com.springboot_sa_ha1.modules.products.dto.ProductPageResponse;
+import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import com.springboot_sa_ha1.modules.products.facet.ProductFacetIndex;
+import com.springboot_sa_ha1.modules.products.mapper.ProductMapper;
+import com.springboot_sa_ha1.modules.products.model.Product;
+import com.springboot_sa_ha1.modules.products.pagination.ProductPageQuery;
+import com.springboot_sa_ha1.modules.products.search.ProductSearchIndex;
+import com.springboot_sa_ha1.modules.products.suggest.SuggestionIndex;
+import com.springboot_sa_ha1.support.CatalogFixtures;
+import com.springboot_sa_ha1.support.CatalogJpaTest;
+import com.springboot_sa_ha1.support.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 🔹 Los listados deben resolver sus asociaciones en un número fijo de consultas,
+// sin importar cuántos productos traiga la página (sin N+1).
+@CatalogJpaTest
+@Import({
+    ProductServiceImp.class,
+    ProductMapper.class,
+    CategoryMapper.class,
+    CollectionMapper.class,
+    ProductSearchIndex.class,
+    ProductResponseCache.class,
+    SuggestionIndex.class,
+    ProductFacetIndex.class
+})
+class ProductServiceQueryCountTest {
+
+    // productos (con su categoría) + imágenes + colecciones, todo proyectado
+    private static final long LIST_STATEMENTS = 3;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private SqlStatementCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        counter = new SqlStatementCounter(entityManager);
+        CatalogFixtures fixtures = new CatalogFixtures(entityManager);
+
+        List<Category> categories =
+            List.of(fixtures.category("Anillos"), fixtures.category("Collares"), fixtures.category("Aros"));
+        List<Collection> collections =
+            List.of(fixtures.collection("Navidad"), fixtures.collection("Verano"), fixtures.collection("Novias"));
+
+        for (int i = 0; i < 120; i++) {
+            Product product = fixtures.product("Producto " + i, 1000L + i, categories.get(i % categories.size()),
+                CatalogFixtures.images("https://img/" + i, 2));
+            for (int c = 0; c < 2; c++) {
+                fixtures.link(product, collections.get((i + c) % collections.size()));
+            }
+        }
+    }
+
+    @Test
+    void testListarTodosConsultasFijas() {
+        var small = counter.count(() -> productService.listarTodos(page(5)));
+        var full = counter.count(() -> productService.listarTodos(page(100)));
+
+        assertEquals(5, small.value().items().size());
+        assertEquals(100, full.value().items().size());
+        assertEquals(LIST_STATEMENTS, small.statements());
+        assertEquals(LIST_STATEMENTS, full.statements());
+        assertMapeoCompleto(full.value());
+    }
+
+    @Test
+    void testListarPorCategoriaConsultasFijas() {
+        // 🔹 + 1 para resolver el slug
+        var result = counter.count(() -> productService.listarPorCategoriaSlug("anillos", page(100), false));
+
+        assertEquals(40, result.value().items().size());
+        assertEquals(LIST_STATEMENTS + 1, result.statements());
+        assertMapeoCompleto(result.value());
+    }
+
+    @Test
+    void testListarPorColeccionConsultasFijas() {
+        var result = counter.count(() -> productService.listarPorColeccionSlug("navidad", page(100)));
+
+        assertEquals(80, result.value().items().size());
+        assertEquals(LIST_STATEMENTS + 1, result.statements());
+        assertMapeoCompleto(result.value());
+    }
+
+    @Test
+    void testBusquedaSinIndiceConsultasFijas() {
+        var result = counter.count(() -> productService.searchByTerm("producto", 100, 0));
+
+        // 🔹 La consulta JPQL de respaldo sigue cargando entidades (con @BatchSize)
+        assertEquals(100, result.value().size());
+        assertTrue(result.statements() <= 5,
+            "La búsqueda ejecutó " + result.statements() + " sentencias");
+    }
+
+    private void assertMapeoCompleto(ProductPageResponse page) {
+        for (ProductResponse product : page.items()) {
+            assertEquals(2, product.imageUrls().size());
+            assertEquals(2, product.collections().size());
+        }
+    }
+
+    private static ProductPageQuery page(int size) {
+        return ProductPageQuery.of(null, size, "id", "asc");
+    }
+}
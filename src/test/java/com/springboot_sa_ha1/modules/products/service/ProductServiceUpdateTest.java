@@ -0,0 +1,161 @@
+package com.springboot_sa_ha1.modules.products.service;
+
+import com.springboot_sa_ha1.exception.PreconditionFailedException;
+import com.springboot_sa_ha1.modules.categories.mapper.CategoryMapper;
+import com.springboot_sa_ha1.modules.categories.model.Category;
+import com.springboot_sa_ha1.modules.collections.dto.CollectionResponse;
+import com.springboot_sa_ha1.modules.collections.mapper.CollectionMapper;
+import com.springboot_sa_ha1.modules.collections.model.Collection;
+import com.springboot_sa_ha1.modules.products.cache.ProductResponseCache;
+import com.springboot_sa_ha1.modules.products.dto.ProductDetail;
+import com.springboot_sa_ha1.modules.products.dto.ProductRequest;
+import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import com.springboot_sa_ha1.modules.products.facet.ProductFacetIndex;
+import com.springboot_sa_ha1.modules.products.mapper.ProductMapper;
+import com.springboot_sa_ha1.modules.products.repository.ProductReadRepository;
+import com.springboot_sa_ha1.modules.products.search.ProductSearchIndex;
+import com.springboot_sa_ha1.modules.products.suggest.SuggestionIndex;
+import com.springboot_sa_ha1.support.CatalogFixtures;
+import com.springboot_sa_ha1.support.CatalogJpaTest;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// 🔹 Las ediciones escriben sólo las filas de imágenes y colecciones que cambian
+@CatalogJpaTest
+@Import({
+    ProductServiceImp.class,
+    ProductMapper.class,
+    CategoryMapper.class,
+    CollectionMapper.class,
+    ProductSearchIndex.class,
+    ProductResponseCache.class,
+    SuggestionIndex.class,
+    ProductFacetIndex.class
+})
+class ProductServiceUpdateTest {
+
+    private static final List<String> IMAGES = List.of("https://img/a.jpg", "https://img/b.jpg", "https://img/c.jpg");
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductReadRepository productReadRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private Category category;
+    private Collection navidad;
+    private Collection verano;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        CatalogFixtures fixtures = new CatalogFixtures(entityManager);
+        category = fixtures.category("Anillos");
+        navidad = fixtures.collection("Navidad");
+        verano = fixtures.collection("Verano");
+
+        productId = productService.guardar(request(1000L, IMAGES, List.of(ref(navidad), ref(verano)))).id();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testCambioDePrecioNoTocaAsociaciones() {
+        ProductResponse response = update(() ->
+            productService.actualizar(productId, request(2000L, IMAGES, List.of(ref(navidad), ref(verano))), null))
+            .product();
+
+        assertEquals(2000L, response.price());
+        assertEquals(IMAGES, response.imageUrls());
+        assertEquals(0, statistics.getEntityInsertCount());
+        assertEquals(0, statistics.getEntityDeleteCount());
+    }
+
+    @Test
+    void testDiffDeImagenesYColecciones() {
+        // 🔹 b se conserva, a se recicla para d, c sobra; verano sale y "Novias" se crea por nombre
+        List<String> images = List.of("https://img/b.jpg", "https://img/d.jpg");
+        ProductResponse response = update(() -> productService.actualizar(productId,
+            request(1000L, images, List.of(ref(navidad), new CollectionResponse(null, "Novias", null, null, null))),
+            null)).product();
+
+        assertEquals(images, response.imageUrls());
+        assertEquals(List.of("Navidad", "Novias"),
+            response.collections().stream().map(CollectionResponse::name).sorted().toList());
+        // 🔹 Inserciones: la colección nueva y su membresía. Borrados: la imagen c y la membresía de verano
+        assertEquals(2, statistics.getEntityInsertCount());
+        assertEquals(2, statistics.getEntityDeleteCount());
+    }
+
+    @Test
+    void testPatchSoloCambiaLoQueViene() {
+        ProductResponse response = update(() -> productService.actualizarParcial(productId,
+            new ProductRequest(null, null, 7L, null, null, null, null), null)).product();
+
+        assertEquals(7L, response.stock());
+        assertEquals("Producto", response.name());
+        assertEquals(IMAGES, response.imageUrls());
+        assertEquals(2, response.collections().size());
+        assertEquals(0, statistics.getEntityInsertCount());
+        assertEquals(0, statistics.getEntityDeleteCount());
+
+        // 🔹 Una lista vacía sí se aplica
+        ProductResponse sinColecciones = update(() -> productService.actualizarParcial(productId,
+            new ProductRequest(null, null, null, null, null, null, List.of()), null)).product();
+        assertEquals(0, sinColecciones.collections().size());
+        assertEquals(IMAGES, sinColecciones.imageUrls());
+    }
+
+    @Test
+    void testEtagDeLaEdicionEsElDeLaLecturaSiguiente() {
+        String before = productService.obtenerDetalle(productId).version().toResourceVersion().etag();
+        entityManager.clear();
+
+        // 🔹 Cambian el producto y su pertenencia: el ETag devuelto sale de la entidad guardada
+        String edited = update(() -> productService.actualizar(productId,
+            request(2000L, IMAGES, List.of(ref(navidad))), before)).version().toResourceVersion().etag();
+        assertNotEquals(before, edited);
+
+        // 🔹 Lo que carga la caché desde la base después de la edición da el mismo ETag
+        String read = productReadRepository.findDetailsById(List.of(productId)).get(0)
+            .version().toResourceVersion().etag();
+        assertEquals(edited, read);
+
+        assertThrows(PreconditionFailedException.class, () -> productService.actualizarParcial(productId,
+            new ProductRequest(null, null, 3L, null, null, null, null), before));
+    }
+
+    private ProductDetail update(Supplier<ProductDetail> operation) {
+        statistics.clear();
+        ProductDetail detail = operation.get();
+        entityManager.flush();
+        entityManager.clear();
+        return detail;
+    }
+
+    private ProductRequest request(Long price, List<String> images, List<CollectionResponse> collections) {
+        return new ProductRequest("Producto", price, 1L, "Descripción", images, category.getId(), collections);
+    }
+
+    private static CollectionResponse ref(Collection collection) {
+        return new CollectionResponse(collection.getId(), collection.getName(), null, collection.getSlug(), null);
+    }
+}
@@ -0,0 +1,93 @@
+package com.springboot_sa_ha1.modules.products.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot_sa_ha1.modules.categories.model.Category;
+import com.springboot_sa_ha1.modules.products.repository.ProductSpecifications;
+import com.springboot_sa_ha1.support.CatalogFixtures;
+import com.springboot_sa_ha1.support.CatalogJpaTest;
+import com.springboot_sa_ha1.support.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@CatalogJpaTest
+class ProductJsonStreamerTest {
+
+    private static final int PRODUCTS = 300;
+
+    @Autowired
+    private ProductJsonStreamer streamer;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        CatalogFixtures fixtures = new CatalogFixtures(entityManager);
+        category = fixtures.category("Anillos");
+        for (int i = 0; i < PRODUCTS; i++) {
+            fixtures.product("Producto " + i, 1000L + i, category, List.of("https://img/" + i + ".jpg"));
+        }
+    }
+
+    @Test
+    void testEscribeTodosLosProductosPorTramos() throws IOException {
+        SqlStatementCounter counter = new SqlStatementCounter(entityManager);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        var result = counter.count(() -> {
+            try {
+                streamer.writeArray(out, ProductSpecifications.all());
+                return out.toByteArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        JsonNode array = objectMapper.readTree(result.value());
+        assertEquals(PRODUCTS, array.size());
+        long previousId = 0;
+        for (JsonNode product : array) {
+            assertTrue(product.get("id").asLong() > previousId);
+            previousId = product.get("id").asLong();
+            assertEquals(1, product.get("imageUrls").size());
+            assertEquals("anillos", product.get("category").get("slug").asText());
+        }
+
+        // 🔹 3 tramos (128 + 128 + 44), cada uno con 3 proyecciones; nada queda en el contexto
+        assertTrue(result.statements() <= 3 * 3, "Sentencias: " + result.statements());
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void testGrupoConProductosAnidados() throws IOException {
+        entityManager.flush();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (var gen = streamer.createGenerator(out)) {
+            streamer.writeGroup(gen, category.getId(), "Anillos", null, "anillos", null,
+                ProductSpecifications.inCategory(category.getId()));
+        }
+
+        JsonNode group = objectMapper.readTree(out.toByteArray());
+        assertEquals("anillos", group.get("slug").asText());
+        assertEquals(PRODUCTS, group.get("products").size());
+        assertTrue(group.has("nextCursor"));
+        assertTrue(group.get("nextCursor").isNull());
+    }
+}
@@ -0,0 +1,84 @@
+package com.springboot_sa_ha1.modules.products.suggest;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Latencia del autocompletado simulando tecleo (1, 2, 3... letras y dos palabras).
+// Se ejecuta sólo con: mvn test -Pbenchmark
+@Tag("benchmark")
+class SuggestionIndexBenchmarkTest {
+
+    private static final String[] WORDS = {
+        "anillo", "collar", "pulsera", "aros", "oro", "plata", "rosé", "cuarzo", "perla", "dije",
+        "cadena", "fino", "clásico", "moderno", "minimalista", "grabado", "corazón", "estrella",
+        "luna", "sol", "infinito", "trenzado", "brillante", "mate", "esmeralda", "rubí", "zafiro"
+    };
+    private static final String SYLLABLES = "bacadefagalamanapasatavaxazo";
+    private static final int QUERIES = 2_000;
+
+    @ParameterizedTest
+    @ValueSource(ints = {10_000, 100_000, 1_000_000})
+    void medirLatencia(int size) {
+        Random random = new Random(42);
+        List<SuggestionSource> sources = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + randomWord(random) + " "
+                + WORDS[random.nextInt(WORDS.length)];
+            sources.add(new SuggestionSource(SuggestionType.PRODUCT, id, name, random.nextInt(1_000)));
+        }
+
+        SuggestionIndex index = new SuggestionIndex();
+        long buildStart = System.nanoTime();
+        index.replaceAll(sources);
+        long buildMs = (System.nanoTime() - buildStart) / 1_000_000;
+
+        String[] queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String word = i % 2 == 0 ? WORDS[random.nextInt(WORDS.length)] : randomWord(random);
+            String typed = word.substring(0, 1 + random.nextInt(word.length()));
+            queries[i] = i % 5 == 0 ? WORDS[random.nextInt(WORDS.length)] + " " + typed : typed;
+        }
+
+        // 🔹 Calentamiento del JIT antes de medir
+        for (int round = 0; round < 3; round++) {
+            for (String query : queries) index.suggest(query, 10);
+        }
+
+        long[] nanos = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            long start = System.nanoTime();
+            index.suggest(queries[i], 10);
+            nanos[i] = System.nanoTime() - start;
+        }
+
+        double p99 = percentile(nanos, 99);
+        System.out.printf("[suggest-bench] productos=%d construccion=%dms p50=%.3fms p99=%.3fms%n",
+            size, buildMs, percentile(nanos, 50), p99);
+        assertTrue(p99 >= 0);
+    }
+
+    private static String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        int syllables = 2 + random.nextInt(3);
+        for (int i = 0; i < syllables; i++) {
+            int pos = random.nextInt(SYLLABLES.length() / 2) * 2;
+            word.append(SYLLABLES, pos, pos + 2);
+        }
+        return word.toString();
+    }
+
+    private static double percentile(long[] nanos, int p) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        int idx = Math.min(sorted.length - 1, (int) Math.ceil(p / 100.0 * sorted.length) - 1);
+        return sorted[Math.max(idx, 0)] / 1_000_000.0;
+    }
+}
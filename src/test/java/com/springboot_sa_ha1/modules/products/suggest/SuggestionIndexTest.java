@@ -0,0 +1,64 @@
+package com.springboot_sa_ha1.modules.products.suggest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SuggestionIndexTest {
+
+    private SuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SuggestionIndex();
+        index.replaceAll(List.of(
+            new SuggestionSource(SuggestionType.PRODUCT, 1L, "Anillo de Oro", 50),
+            new SuggestionSource(SuggestionType.PRODUCT, 2L, "Anillo Antiguo", 80),
+            new SuggestionSource(SuggestionType.PRODUCT, 3L, "Collar Ámbar", 10),
+            new SuggestionSource(SuggestionType.CATEGORY, 10L, "Anillos", 130),
+            new SuggestionSource(SuggestionType.COLLECTION, 20L, "Navidad", 5)
+        ));
+    }
+
+    @Test
+    void testOrdenPorPopularidadSinRepetidos() {
+        List<SuggestionResponse> result = index.suggest("an", 10);
+
+        // 🔹 "Anillo Antiguo" coincide por dos palabras pero aparece una sola vez
+        assertEquals(List.of(10L, 2L, 1L), result.stream().map(SuggestionResponse::id).toList());
+        assertEquals(SuggestionType.CATEGORY, result.get(0).type());
+        assertEquals(2, index.suggest("an", 2).size());
+    }
+
+    @Test
+    void testSinTildesNiMayusculasYVariasPalabras() {
+        assertEquals(List.of(3L), ids(index.suggest("AMB", 10)));
+        assertEquals(List.of(1L), ids(index.suggest("anillo de o", 10)));
+        assertTrue(index.suggest("anillo x", 10).isEmpty());
+        assertTrue(index.suggest("  ", 10).isEmpty());
+    }
+
+    @Test
+    void testActualizacionIncremental() {
+        index.upsert(SuggestionType.PRODUCT, 4L, "Anillo Navideño");
+        assertEquals(List.of(10L, 2L, 1L, 4L), ids(index.suggest("anil", 10)));
+
+        // 🔹 Renombrar conserva la popularidad y saca el nombre anterior
+        index.upsert(SuggestionType.PRODUCT, 2L, "Pulsera Antigua");
+        assertEquals(List.of(10L, 1L, 4L), ids(index.suggest("anil", 10)));
+        assertEquals(List.of(2L), ids(index.suggest("pul", 10)));
+
+        index.remove(SuggestionType.CATEGORY, 10L);
+        index.remove(SuggestionType.PRODUCT, 1L);
+        assertEquals(List.of(4L), ids(index.suggest("anil", 10)));
+        assertEquals(4, index.size());
+    }
+
+    private static List<Long> ids(List<SuggestionResponse> suggestions) {
+        return suggestions.stream().map(SuggestionResponse::id).toList();
+    }
+}
@@ -0,0 +1,55 @@
+package com.springboot_sa_ha1.modules.products.suggest;
+
+import com.springboot_sa_ha1.modules.catalog.RowVersion;
+import com.springboot_sa_ha1.modules.categories.event.CategoryDeletedEvent;
+import com.springboot_sa_ha1.modules.categories.model.Category;
+import com.springboot_sa_ha1.modules.categories.repository.CategoryRepository;
+import com.springboot_sa_ha1.modules.collections.repository.CollectionRepository;
+import com.springboot_sa_ha1.modules.order_products.repository.OrderProductRepository;
+import com.springboot_sa_ha1.modules.products.dto.ProductIndexView;
+import com.springboot_sa_ha1.modules.products.dto.ProductResponse;
+import com.springboot_sa_ha1.modules.products.event.ProductSavedEvent;
+import com.springboot_sa_ha1.modules.products.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SuggestionIndexerTest {
+
+    @Test
+    void testCambiosDuranteLaCargaNoSePierden() {
+        SuggestionIndex index = new SuggestionIndex();
+        ProductRepository productRepository = mock(ProductRepository.class);
+        CategoryRepository categoryRepository = mock(CategoryRepository.class);
+        CollectionRepository collectionRepository = mock(CollectionRepository.class);
+        SuggestionIndexer indexer = new SuggestionIndexer(index, productRepository, categoryRepository,
+            collectionRepository, mock(OrderProductRepository.class), mock(PlatformTransactionManager.class));
+
+        Category anillos = new Category();
+        anillos.setId(10L);
+        anillos.setName("Anillos");
+        // 🔹 Mientras la carga lee: se renombra el producto 1 y se borra la categoría Anillos
+        when(productRepository.findIndexViewsAfter(eq(0L), any())).thenAnswer(invocation -> {
+            indexer.onProductSaved(new ProductSavedEvent(
+                new ProductResponse(1L, "Collar de perlas", 1000L, 1L, null, List.of(), null, List.of()),
+                new RowVersion(1L, 1L, null)));
+            indexer.onCategoryDeleted(new CategoryDeletedEvent(10L));
+            return List.of(new ProductIndexView(1L, "Anillo de oro", 1000L, 10L));
+        });
+        when(productRepository.findIndexViewsAfter(eq(1L), any())).thenReturn(List.of());
+        when(categoryRepository.findAll()).thenReturn(List.of(anillos));
+        when(collectionRepository.findAll()).thenReturn(List.of());
+
+        indexer.rebuild();
+
+        assertTrue(index.isReady());
+        assertTrue(index.suggest("anillo", 10).isEmpty());
+        assertEquals(List.of(1L), index.suggest("collar", 10).stream().map(SuggestionResponse::id).toList());
+    }
+}
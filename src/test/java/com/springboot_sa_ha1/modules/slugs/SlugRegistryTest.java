@@ -0,0 +1,97 @@
+package com.springboot_sa_ha1.modules.slugs;
+
+import com.springboot_sa_ha1.modules.categories.dto.CategoryResponse;
+import com.springboot_sa_ha1.modules.categories.event.CategoryDeletedEvent;
+import com.springboot_sa_ha1.modules.categories.event.CategorySavedEvent;
+import com.springboot_sa_ha1.modules.categories.model.Category;
+import com.springboot_sa_ha1.modules.categories.repository.CategoryRepository;
+import com.springboot_sa_ha1.modules.collections.repository.CollectionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SlugRegistryTest {
+
+    private CategoryRepository categoryRepository;
+    private CollectionRepository collectionRepository;
+    private SlugRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        categoryRepository = mock(CategoryRepository.class);
+        collectionRepository = mock(CollectionRepository.class);
+        registry = new SlugRegistry(categoryRepository, collectionRepository);
+    }
+
+    @Test
+    void testNormalizacion() {
+        assertEquals("anillos_de_oro", SlugNormalizer.normalize("  Anillos - de   Oro "));
+        assertEquals("aros_plata", SlugNormalizer.normalize("__aros--plata__"));
+        assertEquals("", SlugNormalizer.normalize(" - "));
+        assertEquals("", SlugNormalizer.normalize(null));
+
+        // 🔹 Un slug ya normalizado se devuelve sin copiarlo
+        String slug = "collares_largos";
+        assertSame(slug, SlugNormalizer.normalize(slug));
+    }
+
+    @Test
+    void testResuelveDesdeMemoria() {
+        when(categoryRepository.findAll()).thenReturn(List.of(category(1L, "anillos_de_oro")));
+        registry.reload();
+
+        assertEquals(Optional.of(1L), registry.categoryId("Anillos-de-Oro"));
+        verify(categoryRepository, never()).findBySlug(any());
+    }
+
+    @Test
+    void testSeActualizaConEventos() {
+        registry.reload();
+        registry.onCategorySaved(new CategorySavedEvent(new CategoryResponse(2L, "Aros", null, "aros", null), null));
+        assertEquals(Optional.of(2L), registry.categoryId("aros"));
+
+        // 🔹 Al renombrar, el slug anterior deja de resolver
+        registry.onCategorySaved(new CategorySavedEvent(new CategoryResponse(2L, "Aros", null, "aros_plata", null), null));
+        when(categoryRepository.findBySlug("aros")).thenReturn(Optional.empty());
+        assertEquals(Optional.empty(), registry.categoryId("aros"));
+        assertEquals(Optional.of(2L), registry.categoryId("aros_plata"));
+
+        registry.onCategoryDeleted(new CategoryDeletedEvent(2L));
+        when(categoryRepository.findBySlug("aros_plata")).thenReturn(Optional.empty());
+        assertEquals(Optional.empty(), registry.categoryId("aros_plata"));
+    }
+
+    @Test
+    void testFalloDeRegistroConsultaLaBase() {
+        registry.reload();
+        when(categoryRepository.findBySlug("collares")).thenReturn(Optional.of(category(3L, "collares")));
+
+        assertEquals(Optional.of(3L), registry.categoryId("collares"));
+        assertEquals(Optional.of(3L), registry.categoryId("collares"));
+        verify(categoryRepository, times(1)).findBySlug("collares");
+    }
+
+    @Test
+    void testSlugConReglaAnteriorSeBuscaExacto() {
+        registry.reload();
+        // 🔹 Fila creada antes de la regla compartida: el slug guardado no está normalizado
+        when(categoryRepository.findBySlug("anillos_oro")).thenReturn(Optional.empty());
+        when(categoryRepository.findBySlug("anillos_-_oro")).thenReturn(Optional.of(category(4L, "anillos_-_oro")));
+
+        assertEquals(Optional.of(4L), registry.categoryId("anillos_-_oro"));
+        assertEquals(List.of("anillos_oro", "anillos_-_oro", "aros"),
+            SlugNormalizer.lookupKeys(List.of("anillos_-_oro", "aros")));
+    }
+
+    private static Category category(Long id, String slug) {
+        Category category = new Category();
+        category.setId(id);
+        category.setSlug(slug);
+        return category;
+    }
+}
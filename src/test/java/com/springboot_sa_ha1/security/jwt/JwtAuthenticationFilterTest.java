@@ -0,0 +1,92 @@
+package com.springboot_sa_ha1.security.jwt;
+
+import com.springboot_sa_ha1.modules.customers.model.Customer;
+import com.springboot_sa_ha1.modules.customers.model.RolCustomer;
+import com.springboot_sa_ha1.modules.customers.repository.CustomerRepository;
+import com.springboot_sa_ha1.security.model.MainCustomer;
+import com.springboot_sa_ha1.security.service.CustomersDetailsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+    private JwtService jwtService;
+    private CustomerRepository repository;
+    private JwtAuthenticationFilter filter;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(new MockEnvironment()
+                .withProperty("JWT_SECRET", "una-clave-de-pruebas-de-al-menos-32-bytes")
+                .withProperty("JWT_EXPIRATION_MS", "60000"));
+        repository = mock(CustomerRepository.class);
+        filter = new JwtAuthenticationFilter(jwtService, new CustomersDetailsService(repository));
+
+        customer = new Customer();
+        customer.setId(42L);
+        customer.setName("Cliente");
+        customer.setEmail("cliente@example.com");
+        customer.setPasswordHash("hash");
+        customer.setRol(RolCustomer.USUARIO);
+        when(repository.findById(42L)).thenReturn(Optional.of(customer));
+        when(repository.findByEmailIgnoreCase("cliente@example.com")).thenReturn(Optional.of(customer));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testTokenConIdBuscaPorClavePrimaria() throws Exception {
+        String token = jwtService.generateToken(customer.getEmail(), Map.of(JwtService.CLAIM_CUSTOMER_ID, 42L));
+
+        Authentication authentication = authenticate(token);
+
+        assertEquals(42L, ((MainCustomer) authentication.getPrincipal()).getId());
+        assertEquals("ROLE_USUARIO", authentication.getAuthorities().iterator().next().getAuthority());
+        verify(repository).findById(42L);
+        verify(repository, never()).findByEmailIgnoreCase(any());
+    }
+
+    @Test
+    void testTokenAnteriorSinIdSigueValiendo() throws Exception {
+        Authentication authentication = authenticate(jwtService.generateToken(customer.getEmail()));
+
+        assertEquals(42L, ((MainCustomer) authentication.getPrincipal()).getId());
+        verify(repository).findByEmailIgnoreCase("cliente@example.com");
+    }
+
+    @Test
+    void testIdDeOtroClienteNoAutentica() throws Exception {
+        Customer other = new Customer();
+        other.setId(7L);
+        other.setEmail("otro@example.com");
+        when(repository.findById(7L)).thenReturn(Optional.of(other));
+        String token = jwtService.generateToken(customer.getEmail(), Map.of(JwtService.CLAIM_CUSTOMER_ID, 7L));
+
+        assertNull(authenticate(token));
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,80 @@
+package com.springboot_sa_ha1.support;
+
+import com.springboot_sa_ha1.modules.categories.model.Category;
+import com.springboot_sa_ha1.modules.collections.model.Collection;
+import com.springboot_sa_ha1.modules.product_collections.model.ProductCollection;
+import com.springboot_sa_ha1.modules.product_collections.model.ProductCollectionId;
+import com.springboot_sa_ha1.modules.productimages.model.ProductImage;
+import com.springboot_sa_ha1.modules.products.model.Product;
+import jakarta.persistence.EntityManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 🔹 Datos de prueba del catálogo persistidos directamente, sin pasar por los servicios.
+// El slug es el nombre en minúsculas.
+public class CatalogFixtures {
+
+    private final EntityManager entityManager;
+
+    public CatalogFixtures(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public Category category(String name) {
+        Category category = new Category();
+        category.setName(name);
+        category.setSlug(name.toLowerCase());
+        entityManager.persist(category);
+        return category;
+    }
+
+    public Collection collection(String name) {
+        Collection collection = new Collection();
+        collection.setName(name);
+        collection.setSlug(name.toLowerCase());
+        entityManager.persist(collection);
+        return collection;
+    }
+
+    public Product product(String name, long price, Category category, List<String> imageUrls) {
+        return product(name, "Descripción de " + name, price, category, imageUrls);
+    }
+
+    public Product product(String name, String description, long price, Category category, List<String> imageUrls) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(price);
+        product.setStock(1L);
+        product.setDescription(description);
+        product.setCategory(category);
+        for (int pos = 0; pos < imageUrls.size(); pos++) {
+            ProductImage image = new ProductImage();
+            image.setImageUrl(imageUrls.get(pos));
+            image.setPosition(pos);
+            image.setProduct(product);
+            product.getImages().add(image);
+        }
+        entityManager.persist(product);
+        return product;
+    }
+
+    public ProductCollection link(Product product, Collection collection) {
+        ProductCollection pc = new ProductCollection();
+        pc.setId(new ProductCollectionId(product.getId(), collection.getId()));
+        pc.setProduct(product);
+        pc.setCollection(collection);
+        product.getProductCollections().add(pc);
+        entityManager.persist(pc);
+        return pc;
+    }
+
+    // 🔹 prefix/0.jpg, prefix/1.jpg, ...
+    public static List<String> images(String prefix, int count) {
+        List<String> urls = new ArrayList<>(count);
+        for (int pos = 0; pos < count; pos++) {
+            urls.add(prefix + "/" + pos + ".jpg");
+        }
+        return urls;
+    }
+}
@@ -0,0 +1,35 @@
+package com.springboot_sa_ha1.support;
+
+import com.springboot_sa_ha1.modules.catalog.CatalogVersion;
+import com.springboot_sa_ha1.modules.catalog.readmodel.CatalogReadModel;
+import com.springboot_sa_ha1.modules.products.repository.ProductReadRepository;
+import com.springboot_sa_ha1.modules.products.stream.ProductJsonStreamer;
+import com.springboot_sa_ha1.modules.slugs.SlugRegistry;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// 🔹 Contexto JPA de las pruebas del catálogo: H2 sin data.sql, estadísticas de Hibernate para
+// SqlStatementCounter y las lecturas compartidas por los servicios. Cada prueba importa su servicio.
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.sql.init.mode=never"
+})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({
+    ProductReadRepository.class,
+    SlugRegistry.class,
+    ProductJsonStreamer.class,
+    CatalogReadModel.class,
+    CatalogVersion.class
+})
+public @interface CatalogJpaTest {
+}
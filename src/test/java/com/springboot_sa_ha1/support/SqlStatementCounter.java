@@ -0,0 +1,33 @@
+package com.springboot_sa_ha1.support;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.util.function.Supplier;
+
+// 🔹 Cuenta las sentencias SQL que Hibernate prepara durante una operación.
+// Requiere hibernate.generate_statistics=true en el contexto de prueba.
+public class SqlStatementCounter {
+
+    private final EntityManager entityManager;
+    private final Statistics statistics;
+
+    public SqlStatementCounter(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.statistics = entityManager.getEntityManagerFactory()
+            .unwrap(SessionFactory.class)
+            .getStatistics();
+    }
+
+    public record Result<T>(T value, long statements) {}
+
+    // 🔹 Vacía el contexto de persistencia antes de medir para que nada venga ya cargado
+    public <T> Result<T> count(Supplier<T> operation) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        T value = operation.get();
+        return new Result<>(value, statistics.getPrepareStatementCount());
+    }
+}